@@ -0,0 +1,38 @@
+package com.palmergames.bukkit.towny.benchmarks;
+
+import com.palmergames.bukkit.towny.utils.CombatUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * The relation checks made whenever one player or mob damages another.
+ */
+public class CombatUtilBenchmark {
+
+	@Benchmark
+	public boolean isAllyByName(UniverseState state) {
+
+		int i = state.next();
+		return CombatUtil.isAlly(state.attackers[i].getName(), state.defenders[i].getName());
+	}
+
+	@Benchmark
+	public boolean isEnemyByName(UniverseState state) {
+
+		int i = state.next();
+		return CombatUtil.isEnemy(state.attackers[i].getName(), state.defenders[i].getName());
+	}
+
+	@Benchmark
+	public boolean isAllyTowns(UniverseState state) {
+
+		int i = state.next();
+		return CombatUtil.isAlly(state.townsA[i], state.townsB[i]);
+	}
+
+	@Benchmark
+	public boolean isEnemyTowns(UniverseState state) {
+
+		int i = state.next();
+		return CombatUtil.isEnemy(state.townsA[i], state.townsB[i]);
+	}
+}
@@ -0,0 +1,63 @@
+package com.palmergames.bukkit.towny.benchmarks;
+
+import com.palmergames.bukkit.towny.db.TownyDataSource;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Writing and reading town and resident files.
+ * <p>
+ * Saves are queued by the flatfile source and written by its repeating
+ * task, which is run straight away so the write is part of the save.
+ */
+@State(Scope.Thread)
+public class FlatFileBenchmark {
+
+	private TownyDataSource source;
+	private Town town;
+	private Resident resident;
+
+	@Setup(Level.Trial)
+	public void setUp(UniverseState state) {
+
+		source = state.universe.getDataSource();
+		town = state.universe.getTowns().get(0);
+		resident = town.getMayor();
+		source.saveTown(town);
+		source.saveResident(resident);
+		Stubs.runTasks();
+	}
+
+	@Benchmark
+	public boolean saveTown() {
+
+		boolean saved = source.saveTown(town);
+		Stubs.runTasks();
+		return saved;
+	}
+
+	@Benchmark
+	public boolean loadTown() {
+
+		return source.loadTown(town);
+	}
+
+	@Benchmark
+	public boolean saveResident() {
+
+		boolean saved = source.saveResident(resident);
+		Stubs.runTasks();
+		return saved;
+	}
+
+	@Benchmark
+	public boolean loadResident() {
+
+		return source.loadResident(resident);
+	}
+}
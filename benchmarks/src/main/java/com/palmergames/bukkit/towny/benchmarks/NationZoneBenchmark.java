@@ -0,0 +1,18 @@
+package com.palmergames.bukkit.towny.benchmarks;
+
+import com.palmergames.bukkit.towny.TownyAPI;
+import com.palmergames.bukkit.towny.object.PlayerCache.TownBlockStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Deciding whether a wilderness plot is in a nation zone, which looks at
+ * every town in the world.
+ */
+public class NationZoneBenchmark {
+
+	@Benchmark
+	public TownBlockStatus hasNationZone(UniverseState state) {
+
+		return TownyAPI.getInstance().hasNationZone(state.coords[state.next()]);
+	}
+}
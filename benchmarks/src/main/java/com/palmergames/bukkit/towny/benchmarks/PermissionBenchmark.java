@@ -0,0 +1,68 @@
+package com.palmergames.bukkit.towny.benchmarks;
+
+import com.palmergames.bukkit.towny.object.PlayerCache.TownBlockStatus;
+import com.palmergames.bukkit.towny.object.TownyPermission.ActionType;
+import com.palmergames.bukkit.towny.object.WorldCoord;
+import com.palmergames.bukkit.towny.utils.PlayerCacheUtil;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Working out what a player may do where they stand, with and without the
+ * player's permission cache.
+ */
+@State(Scope.Thread)
+public class PermissionBenchmark {
+
+	private Player player;
+	private Location location;
+	private Location[] locations;
+
+	@Setup(Level.Trial)
+	public void setUp(UniverseState state) {
+
+		World world = Stubs.getWorld(SyntheticUniverse.WORLD);
+		location = new Location(world, 0, 64, 0);
+		player = Stubs.player(state.universe.getResidents().get(0).getName(), location);
+
+		locations = new Location[UniverseState.PROBES];
+		for (int i = 0; i < locations.length; i++) {
+			WorldCoord coord = state.coords[i];
+			locations[i] = new Location(world, coord.getX() * 16 + 8, 64, coord.getZ() * 16 + 8);
+		}
+	}
+
+	@Benchmark
+	public TownBlockStatus getTownBlockStatus(UniverseState state) {
+
+		return PlayerCacheUtil.getTownBlockStatus(player, state.coords[state.next()]);
+	}
+
+	/**
+	 * The player stands still, so the cached answer is used.
+	 */
+	@Benchmark
+	public boolean getCachePermissionStill() {
+
+		return PlayerCacheUtil.getCachePermission(player, location, Material.STONE, ActionType.BUILD);
+	}
+
+	/**
+	 * The player is somewhere else each time, so the cache is filled again.
+	 */
+	@Benchmark
+	public boolean getCachePermissionMoving(UniverseState state) {
+
+		Location to = locations[state.next()];
+		location.setX(to.getX());
+		location.setZ(to.getZ());
+		return PlayerCacheUtil.getCachePermission(player, to, Material.STONE, ActionType.BUILD);
+	}
+}
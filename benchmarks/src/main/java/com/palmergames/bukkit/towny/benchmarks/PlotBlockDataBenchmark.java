@@ -0,0 +1,65 @@
+package com.palmergames.bukkit.towny.benchmarks;
+
+import com.palmergames.bukkit.towny.db.TownyFlatFileSource;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.regen.PlotBlockData;
+import com.palmergames.util.FileMgmt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writing and reading the snapshot of a plot kept for reverting it on unclaim.
+ */
+@State(Scope.Thread)
+public class PlotBlockDataBenchmark {
+
+	// A plain landscape: bedrock, stone, dirt, grass and then air.
+	private static final String[] LAYERS = {"minecraft:bedrock", "minecraft:stone", "minecraft:dirt", "minecraft:grass_block", "minecraft:air"};
+
+	private TownyFlatFileSource source;
+	private TownBlock townBlock;
+	private PlotBlockData data;
+	private File folder;
+	private String path;
+
+	@Setup(Level.Trial)
+	public void setUp(UniverseState state) {
+
+		source = (TownyFlatFileSource) state.universe.getDataSource();
+		townBlock = state.universe.getTownBlocks().get(0);
+		data = new PlotBlockData(townBlock);
+
+		List<String> blocks = new ArrayList<>();
+		int size = data.getSize();
+		for (int y = 0; y <= data.getHeight(); y++) {
+			String layer = LAYERS[y == 0 ? 0 : y < 56 ? 1 : y < 63 ? 2 : y == 63 ? 3 : 4];
+			for (int i = 0; i < size * size; i++)
+				blocks.add(layer);
+		}
+		data.setBlockList(blocks);
+
+		path = source.getPlotFilename(data);
+		folder = new File(path).getParentFile();
+		FileMgmt.savePlotData(data, folder, path);
+	}
+
+	@Benchmark
+	public PlotBlockData encode() {
+
+		FileMgmt.savePlotData(data, folder, path);
+		return data;
+	}
+
+	@Benchmark
+	public PlotBlockData decode() {
+
+		return source.loadPlotData(townBlock);
+	}
+}
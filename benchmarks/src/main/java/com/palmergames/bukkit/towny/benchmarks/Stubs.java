@@ -0,0 +1,409 @@
+package com.palmergames.bukkit.towny.benchmarks;
+
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Stands in for the parts of a Bukkit server Towny touches, so it can be
+ * loaded without one.
+ * <p>
+ * Every stub answers any method it has not been told about with nothing:
+ * zero, false, an empty string or collection, or another stub for
+ * interfaces. Tasks handed to the scheduler are kept and only run by
+ * {@link #tick()} or {@link #runTasks()}, so the caller decides when a
+ * tick happens. Events are dropped unless something is listening through
+ * {@link #setEventListener(Consumer)}.
+ */
+public class Stubs {
+
+	/**
+	 * A task handed to the stub scheduler.
+	 */
+	private static class ScheduledTask {
+		private final int id;
+		private final Runnable runnable;
+		private final long period; // 0 for tasks which run once.
+		private long nextTick;
+		private boolean cancelled = false;
+
+		ScheduledTask(int id, Runnable runnable, long nextTick, long period) {
+			this.id = id;
+			this.runnable = runnable;
+			this.nextTick = nextTick;
+			this.period = period;
+		}
+	}
+
+	private static final Map<String, World> worlds = new HashMap<>();
+	private static final Map<String, Player> players = new LinkedHashMap<>();
+	private static final Map<Integer, ScheduledTask> tasks = new LinkedHashMap<>();
+	private static int nextTaskId = 1;
+	private static long currentTick = 0;
+	private static volatile Consumer<Event> eventListener = null;
+	private static Server server;
+	private static BukkitScheduler scheduler;
+
+	/**
+	 * Hands a stub server to Bukkit, once.
+	 *
+	 * @return the server.
+	 */
+	public static synchronized Server installServer() {
+
+		if (server != null)
+			return server;
+
+		Map<String, Function<Object[], Object>> pluginManager = new HashMap<>();
+		pluginManager.put("callEvent", args -> {
+			Consumer<Event> listener = eventListener;
+			if (listener != null)
+				listener.accept((Event) args[0]);
+			return null;
+		});
+		PluginManager manager = stub(PluginManager.class, pluginManager);
+
+		Map<String, Function<Object[], Object>> answers = new HashMap<>();
+		answers.put("getLogger", args -> Logger.getLogger("Towny"));
+		answers.put("getName", args -> "Stub");
+		answers.put("getVersion", args -> "stub (MC: 1.16.1)");
+		answers.put("getBukkitVersion", args -> "1.16.1-R0.1-SNAPSHOT");
+		answers.put("getWorld", args -> args[0] instanceof String ? getWorld((String) args[0]) : null);
+		answers.put("getWorlds", args -> new ArrayList<>(worlds.values()));
+		answers.put("getPlayer", args -> args[0] instanceof String ? getPlayer((String) args[0]) : getPlayer((UUID) args[0]));
+		answers.put("getPlayerExact", args -> getPlayer((String) args[0]));
+		answers.put("getOnlinePlayers", args -> getPlayers());
+		answers.put("getScheduler", args -> scheduler());
+		answers.put("getPluginManager", args -> manager);
+		answers.put("isPrimaryThread", args -> true);
+		server = stub(Server.class, answers);
+		Bukkit.setServer(server);
+		return server;
+	}
+
+	/**
+	 * @param listener - Given every event Towny calls, or null to drop them.
+	 */
+	public static void setEventListener(Consumer<Event> listener) {
+
+		eventListener = listener;
+	}
+
+	private static synchronized BukkitScheduler scheduler() {
+
+		if (scheduler != null)
+			return scheduler;
+
+		scheduler = (BukkitScheduler) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[] {BukkitScheduler.class}, (proxy, method, args) -> {
+			Object[] arguments = args == null ? new Object[0] : args;
+			String name = method.getName();
+			if (name.equals("cancelTask")) {
+				cancel((Integer) arguments[0]);
+				return null;
+			}
+			if (name.equals("isCurrentlyRunning") || name.equals("isQueued"))
+				return isScheduled((Integer) arguments[0]);
+
+			Runnable runnable = null;
+			List<Long> times = new ArrayList<>();
+			for (Object argument : arguments) {
+				if (argument instanceof Runnable)
+					runnable = (Runnable) argument;
+				else if (argument instanceof Long)
+					times.add((Long) argument);
+			}
+			if (runnable == null || !(name.startsWith("schedule") || name.startsWith("run")))
+				return getDefault(method);
+
+			boolean repeating = name.contains("Repeating") || name.contains("Timer");
+			long delay = times.isEmpty() ? 0 : Math.max(0, times.get(0));
+			long period = repeating && times.size() > 1 ? Math.max(1, times.get(1)) : 0;
+			int id = schedule(runnable, delay, period);
+			if (method.getReturnType() == int.class)
+				return id;
+			if (method.getReturnType() == BukkitTask.class)
+				return task(id);
+			return getDefault(method);
+		});
+		return scheduler;
+	}
+
+	private static synchronized int schedule(Runnable runnable, long delay, long period) {
+
+		int id = nextTaskId++;
+		tasks.put(id, new ScheduledTask(id, runnable, currentTick + delay, period));
+		return id;
+	}
+
+	private static synchronized void cancel(int id) {
+
+		ScheduledTask task = tasks.remove(id);
+		if (task != null)
+			task.cancelled = true;
+	}
+
+	private static synchronized boolean isScheduled(int id) {
+
+		return tasks.containsKey(id);
+	}
+
+	private static BukkitTask task(int id) {
+
+		Map<String, Function<Object[], Object>> answers = new HashMap<>();
+		answers.put("getTaskId", args -> id);
+		answers.put("cancel", args -> {
+			cancel(id);
+			return null;
+		});
+		answers.put("isCancelled", args -> !isScheduled(id));
+		answers.put("isSync", args -> true);
+		return stub(BukkitTask.class, answers);
+	}
+
+	/**
+	 * Runs every task, repeating or not, once, whether it is due or not.
+	 * One-off tasks are then forgotten.
+	 */
+	public static void runTasks() {
+
+		run(false);
+	}
+
+	/**
+	 * Moves on a tick, running the tasks which are due.
+	 */
+	public static void tick() {
+
+		run(true);
+	}
+
+	private static void run(boolean onlyDue) {
+
+		List<ScheduledTask> due = new ArrayList<>();
+		synchronized (Stubs.class) {
+			if (onlyDue)
+				currentTick++;
+			for (Iterator<ScheduledTask> it = tasks.values().iterator(); it.hasNext();) {
+				ScheduledTask task = it.next();
+				if (onlyDue && task.nextTick > currentTick)
+					continue;
+				due.add(task);
+				if (task.period == 0)
+					it.remove();
+				else
+					task.nextTick = currentTick + task.period;
+			}
+		}
+		for (ScheduledTask task : due)
+			if (!task.cancelled)
+				task.runnable.run();
+	}
+
+	/**
+	 * @return the number of ticks {@link #tick()} has moved on.
+	 */
+	public static synchronized long getCurrentTick() {
+
+		return currentTick;
+	}
+
+	/**
+	 * @param name - Name of the world.
+	 * @return a stub world by that name, made the first time it is asked for.
+	 */
+	public static synchronized World getWorld(String name) {
+
+		return worlds.computeIfAbsent(name, k -> {
+			World[] world = new World[1];
+			Map<String, Function<Object[], Object>> answers = new HashMap<>();
+			answers.put("getName", args -> name);
+			answers.put("getUID", args -> UUID.nameUUIDFromBytes(name.getBytes()));
+			answers.put("getMaxHeight", args -> 256);
+			answers.put("getPlayers", args -> new ArrayList<>(getPlayers()));
+			answers.put("getBlockAt", args -> {
+				if (args[0] instanceof Location) {
+					Location location = (Location) args[0];
+					return block(world[0], location.getBlockX(), location.getBlockY(), location.getBlockZ(), Material.AIR);
+				}
+				return block(world[0], (Integer) args[0], (Integer) args[1], (Integer) args[2], Material.AIR);
+			});
+			answers.put("getHighestBlockYAt", args -> 63);
+			world[0] = stub(World.class, answers);
+			return world[0];
+		});
+	}
+
+	/**
+	 * @param world - World the block is in.
+	 * @param x - Block x.
+	 * @param y - Block y.
+	 * @param z - Block z.
+	 * @param type - What the block is made of.
+	 * @return a stub block.
+	 */
+	public static Block block(World world, int x, int y, int z, Material type) {
+
+		Map<String, Function<Object[], Object>> answers = new HashMap<>();
+		answers.put("getWorld", args -> world);
+		answers.put("getX", args -> x);
+		answers.put("getY", args -> y);
+		answers.put("getZ", args -> z);
+		answers.put("getLocation", args -> new Location(world, x, y, z));
+		answers.put("getType", args -> type);
+		return stub(Block.class, answers);
+	}
+
+	/**
+	 * Makes a stub player. The server only lists them as online once {@link #addPlayer(Player)} is called.
+	 *
+	 * @param name - Name of the player.
+	 * @param location - Where they stand, which may be changed afterwards.
+	 * @return a stub player, without any permissions.
+	 */
+	public static Player player(String name, Location location) {
+
+		UUID uuid = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes());
+		Map<String, Function<Object[], Object>> answers = new HashMap<>();
+		answers.put("getName", args -> name);
+		answers.put("getDisplayName", args -> name);
+		answers.put("getPlayerListName", args -> name);
+		answers.put("getUniqueId", args -> uuid);
+		answers.put("getType", args -> EntityType.PLAYER);
+		answers.put("getGameMode", args -> GameMode.SURVIVAL);
+		answers.put("getWorld", args -> location.getWorld());
+		answers.put("getLocation", args -> {
+			if (args.length == 0)
+				return location.clone();
+			Location copy = (Location) args[0];
+			copy.setWorld(location.getWorld());
+			copy.setX(location.getX());
+			copy.setY(location.getY());
+			copy.setZ(location.getZ());
+			copy.setYaw(location.getYaw());
+			copy.setPitch(location.getPitch());
+			return copy;
+		});
+		answers.put("getEyeLocation", args -> location.clone().add(0, 1.62, 0));
+		answers.put("getHealth", args -> 20.0);
+		answers.put("isOnline", args -> true);
+		return stub(Player.class, answers);
+	}
+
+	/**
+	 * @param player - Player to have the server list as online.
+	 */
+	public static synchronized void addPlayer(Player player) {
+
+		players.put(player.getName().toLowerCase(), player);
+	}
+
+	/**
+	 * @param player - Player to have the server list as offline.
+	 */
+	public static synchronized void removePlayer(Player player) {
+
+		players.remove(player.getName().toLowerCase());
+	}
+
+	private static synchronized Player getPlayer(String name) {
+
+		return players.get(name.toLowerCase());
+	}
+
+	private static synchronized Player getPlayer(UUID uuid) {
+
+		for (Player player : players.values())
+			if (player.getUniqueId().equals(uuid))
+				return player;
+		return null;
+	}
+
+	private static synchronized Collection<Player> getPlayers() {
+
+		return Collections.unmodifiableList(new ArrayList<>(players.values()));
+	}
+
+	/**
+	 * @param type - Interface to stub.
+	 * @param answers - Answers by method name, given the arguments.
+	 * @param <T> - The interface.
+	 * @return the stub.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+
+		return (T) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+			Object[] arguments = args == null ? new Object[0] : args;
+			switch (method.getName()) {
+				case "equals":
+					return arguments.length == 1 && proxy == arguments[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return type.getSimpleName() + "Stub";
+			}
+
+			Function<Object[], Object> answer = answers.get(method.getName());
+			Object value = answer == null ? null : answer.apply(arguments);
+			return value != null ? value : getDefault(method);
+		});
+	}
+
+	private static Object getDefault(Method method) {
+
+		Class<?> type = method.getReturnType();
+		if (type == boolean.class)
+			return false;
+		if (type == int.class)
+			return 0;
+		if (type == long.class)
+			return 0L;
+		if (type == double.class)
+			return 0.0;
+		if (type == float.class)
+			return 0.0f;
+		if (type == short.class)
+			return (short) 0;
+		if (type == byte.class)
+			return (byte) 0;
+		if (type == char.class)
+			return (char) 0;
+		if (type == String.class)
+			return "";
+		if (List.class.isAssignableFrom(type) || type == Collection.class)
+			return new ArrayList<>();
+		if (Set.class.isAssignableFrom(type))
+			return Collections.emptySet();
+		if (Map.class.isAssignableFrom(type))
+			return Collections.emptyMap();
+		if (type.isInterface())
+			return stub(type, Collections.emptyMap());
+		return null;
+	}
+}
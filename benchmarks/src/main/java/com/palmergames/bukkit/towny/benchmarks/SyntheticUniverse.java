@@ -0,0 +1,243 @@
+package com.palmergames.bukkit.towny.benchmarks;
+
+import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyTimerHandler;
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.db.TownyDataSource;
+import com.palmergames.bukkit.towny.db.TownyFlatFileSource;
+import com.palmergames.bukkit.towny.object.Nation;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.TownyWorld;
+import com.palmergames.bukkit.towny.object.Translation;
+import com.palmergames.bukkit.towny.object.WorldCoord;
+import com.palmergames.bukkit.towny.permissions.NullPermSource;
+import com.palmergames.bukkit.towny.permissions.TownyPerms;
+import com.palmergames.bukkit.towny.utils.PlayerCacheUtil;
+import com.palmergames.bukkit.util.BukkitTools;
+import org.bukkit.Server;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Loads Towny against {@link Stubs} and fills it with made up towns,
+ * residents, nations and townblocks, the way a server's data would look
+ * once loaded.
+ * <p>
+ * Towns are laid out on a grid, each claiming a square of townblocks with
+ * a strip of wilderness between them. Every few towns share a nation, and
+ * each nation is allied to the next and at war with the one after that.
+ * Data is kept in a temporary folder, deleted when the JVM exits.
+ */
+public class SyntheticUniverse {
+
+	public static final String WORLD = "world";
+
+	private static SyntheticUniverse instance;
+
+	private final String parameters;
+	private final Towny towny;
+	private final File folder;
+	private final TownyWorld world;
+	private final List<Town> towns = new ArrayList<>();
+	private final List<Resident> residents = new ArrayList<>();
+	private final List<Nation> nations = new ArrayList<>();
+	private final List<TownBlock> townBlocks = new ArrayList<>();
+	private final int side;
+	private final int spacing;
+	private final int columns;
+
+	/**
+	 * Towny only loads once in a JVM, so only one universe can be made, and
+	 * asking for the same one again returns it. JMH forks a JVM for each set
+	 * of parameters, so this is no limit there.
+	 *
+	 * @param townCount - Number of towns.
+	 * @param residentsPerTown - Residents in each town.
+	 * @param townBlocksPerTown - Townblocks claimed by each town, rounded down to a square.
+	 * @param townsPerNation - Towns in each nation.
+	 * @return the universe.
+	 * @throws Exception if Towny could not be loaded.
+	 */
+	public static synchronized SyntheticUniverse create(int townCount, int residentsPerTown, int townBlocksPerTown, int townsPerNation) throws Exception {
+
+		String parameters = townCount + "/" + residentsPerTown + "/" + townBlocksPerTown + "/" + townsPerNation;
+		if (instance != null) {
+			if (instance.parameters.equals(parameters))
+				return instance;
+			throw new IllegalStateException("Towny has already been loaded in this JVM with " + instance.parameters + ".");
+		}
+		instance = new SyntheticUniverse(townCount, residentsPerTown, townBlocksPerTown, townsPerNation);
+		return instance;
+	}
+
+	private SyntheticUniverse(int townCount, int residentsPerTown, int townBlocksPerTown, int townsPerNation) throws Exception {
+
+		parameters = townCount + "/" + residentsPerTown + "/" + townBlocksPerTown + "/" + townsPerNation;
+		Server server = Stubs.installServer();
+		folder = Files.createTempDirectory("towny-benchmark").toFile();
+		deleteOnExit(folder);
+
+		PluginDescriptionFile description = new PluginDescriptionFile("Towny", "0.96.2.17", Towny.class.getName());
+		towny = new Towny(new JavaPluginLoader(server), description, folder, new File(folder, "Towny.jar")) {};
+
+		// The same as TownyUniverse.loadSettings, without loading a database.
+		String settings = folder.getPath() + File.separator + "settings";
+		TownySettings.loadConfig(settings + File.separator + "config.yml", towny.getVersion());
+		Translation.loadLanguage(settings, "english.yml");
+		TownyPerms.loadPerms(settings, "townyperms.yml");
+
+		BukkitTools.initialize(towny);
+		TownyTimerHandler.initialize(towny);
+		PlayerCacheUtil.initialize(towny);
+		TownyPerms.initialize(towny);
+
+		TownyUniverse universe = TownyUniverse.getInstance();
+		Field dataSource = TownyUniverse.class.getDeclaredField("dataSource");
+		dataSource.setAccessible(true);
+		dataSource.set(universe, new TownyFlatFileSource(towny, universe));
+		universe.setPermissionSource(new NullPermSource(towny));
+
+		TownyDataSource source = getDataSource();
+		source.newWorld(WORLD);
+		world = source.getWorld(WORLD);
+
+		side = Math.max(1, (int) Math.sqrt(townBlocksPerTown));
+		spacing = side + 4;
+		columns = Math.max(1, (int) Math.ceil(Math.sqrt(townCount)));
+
+		for (int t = 0; t < townCount; t++) {
+			String townName = "Town" + t;
+			source.newTown(townName);
+			Town town = source.getTown(townName);
+			town.setWorld(world);
+			world.addTown(town);
+			towns.add(town);
+
+			for (int r = 0; r < residentsPerTown; r++) {
+				String residentName = "Resident" + t + "_" + r;
+				source.newResident(residentName);
+				Resident resident = source.getResident(residentName);
+				resident.setTown(town);
+				residents.add(resident);
+				if (r == 0)
+					town.setMayor(resident);
+			}
+
+			int originX = (t % columns) * spacing;
+			int originZ = (t / columns) * spacing;
+			for (int x = 0; x < side; x++) {
+				for (int z = 0; z < side; z++) {
+					TownBlock townBlock = new TownBlock(originX + x, originZ + z, world);
+					townBlock.setTown(town);
+					townBlocks.add(townBlock);
+					if (x == 0 && z == 0)
+						town.setHomeBlock(townBlock);
+				}
+			}
+
+			if (townsPerNation > 0) {
+				int n = t / townsPerNation;
+				if (n == nations.size()) {
+					String nationName = "Nation" + n;
+					source.newNation(nationName);
+					nations.add(source.getNation(nationName));
+				}
+				Nation nation = nations.get(n);
+				town.setNation(nation);
+				if (!nation.hasCapital())
+					nation.setCapital(town);
+			}
+		}
+
+		for (int n = 0; n + 1 < nations.size(); n++) {
+			nations.get(n).addAlly(nations.get(n + 1));
+			nations.get(n + 1).addAlly(nations.get(n));
+			if (n + 2 < nations.size()) {
+				nations.get(n).addEnemy(nations.get(n + 2));
+				nations.get(n + 2).addEnemy(nations.get(n));
+			}
+		}
+	}
+
+	private static void deleteOnExit(File folder) {
+
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> delete(folder)));
+	}
+
+	private static void delete(File file) {
+
+		File[] children = file.listFiles();
+		if (children != null)
+			for (File child : children)
+				delete(child);
+		file.delete();
+	}
+
+	public Towny getTowny() {
+
+		return towny;
+	}
+
+	public File getFolder() {
+
+		return folder;
+	}
+
+	public TownyDataSource getDataSource() {
+
+		return TownyUniverse.getInstance().getDataSource();
+	}
+
+	public TownyWorld getWorld() {
+
+		return world;
+	}
+
+	public List<Town> getTowns() {
+
+		return Collections.unmodifiableList(towns);
+	}
+
+	public List<Resident> getResidents() {
+
+		return Collections.unmodifiableList(residents);
+	}
+
+	public List<Nation> getNations() {
+
+		return Collections.unmodifiableList(nations);
+	}
+
+	public List<TownBlock> getTownBlocks() {
+
+		return Collections.unmodifiableList(townBlocks);
+	}
+
+	/**
+	 * @return the size of the square of the world the towns are laid out in, in townblocks.
+	 */
+	public int getExtent() {
+
+		return columns * spacing;
+	}
+
+	/**
+	 * @param x - Townblock x.
+	 * @param z - Townblock z.
+	 * @return the WorldCoord, which may or may not be claimed.
+	 */
+	public WorldCoord getWorldCoord(int x, int z) {
+
+		return new WorldCoord(WORLD, x, z);
+	}
+}
@@ -0,0 +1,28 @@
+package com.palmergames.bukkit.towny.benchmarks;
+
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Looking up the townblock at a WorldCoord, which nearly every listener does.
+ */
+public class TownBlockLookupBenchmark {
+
+	@Benchmark
+	public TownBlock getTownBlock(UniverseState state) {
+
+		try {
+			return TownyUniverse.getInstance().getTownBlock(state.coords[state.next()]);
+		} catch (NotRegisteredException e) {
+			return null;
+		}
+	}
+
+	@Benchmark
+	public boolean hasTownBlock(UniverseState state) {
+
+		return TownyUniverse.getInstance().hasTownBlock(state.coords[state.next()]);
+	}
+}
@@ -0,0 +1,99 @@
+package com.palmergames.bukkit.towny.benchmarks;
+
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.util.Trie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tab completing resident and town names, and building the tree of them,
+ * with the radix tree Towny uses and with the {@link LegacyTrie} it replaced.
+ */
+@State(Scope.Thread)
+public class TrieBenchmark {
+
+	// From matching everyone to matching a handful. Towns are completed with "Resident" swapped for "Town".
+	@Param({"R", "Resident1", "Resident12"})
+	public String prefix;
+
+	private final List<String> residentNames = new ArrayList<>();
+	private final List<String> townNames = new ArrayList<>();
+	private Trie residents, towns;
+	private LegacyTrie legacyResidents, legacyTowns;
+	private String townPrefix;
+
+	@Setup(Level.Trial)
+	public void setUp(UniverseState state) {
+
+		for (Resident resident : state.universe.getResidents())
+			residentNames.add(resident.getName());
+		for (Town town : state.universe.getTowns())
+			townNames.add(town.getName());
+
+		residents = buildTrie(residentNames);
+		towns = buildTrie(townNames);
+		legacyResidents = buildLegacyTrie(residentNames);
+		legacyTowns = buildLegacyTrie(townNames);
+		townPrefix = prefix.replace("Resident", "Town");
+	}
+
+	private static Trie buildTrie(List<String> names) {
+
+		Trie trie = new Trie();
+		for (String name : names)
+			trie.addKey(name);
+		return trie;
+	}
+
+	private static LegacyTrie buildLegacyTrie(List<String> names) {
+
+		LegacyTrie trie = new LegacyTrie();
+		for (String name : names)
+			trie.addKey(name);
+		return trie;
+	}
+
+	@Benchmark
+	public List<String> completeResidents() {
+
+		return residents.getStringsFromKey(prefix);
+	}
+
+	@Benchmark
+	public List<String> completeResidentsLegacy() {
+
+		return legacyResidents.getStringsFromKey(prefix);
+	}
+
+	@Benchmark
+	public List<String> completeTowns() {
+
+		return towns.getStringsFromKey(townPrefix);
+	}
+
+	@Benchmark
+	public List<String> completeTownsLegacy() {
+
+		return legacyTowns.getStringsFromKey(townPrefix);
+	}
+
+	@Benchmark
+	public Trie buildResidents() {
+
+		return buildTrie(residentNames);
+	}
+
+	@Benchmark
+	public LegacyTrie buildResidentsLegacy() {
+
+		return buildLegacyTrie(residentNames);
+	}
+}
@@ -0,0 +1,76 @@
+package com.palmergames.bukkit.towny.benchmarks;
+
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.WorldCoord;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The {@link SyntheticUniverse} shared by every benchmark, with lookups
+ * picked ahead of time so choosing them is not part of what is measured.
+ * <p>
+ * The size of the universe is set with JMH's -p option, for example
+ * {@code -p towns=1000 -p residentsPerTown=20}.
+ */
+@State(Scope.Benchmark)
+public class UniverseState {
+
+	// Lookups are taken from these in turn, a power of two so the index can be masked.
+	static final int PROBES = 1024;
+
+	@Param("200")
+	public int towns;
+
+	@Param("10")
+	public int residentsPerTown;
+
+	@Param("64")
+	public int townBlocksPerTown;
+
+	@Param("4")
+	public int townsPerNation;
+
+	public SyntheticUniverse universe;
+
+	// Anywhere in the area the towns are laid out in, claimed or not.
+	public WorldCoord[] coords = new WorldCoord[PROBES];
+	public Resident[] attackers = new Resident[PROBES];
+	public Resident[] defenders = new Resident[PROBES];
+	public Town[] townsA = new Town[PROBES];
+	public Town[] townsB = new Town[PROBES];
+
+	private int next = 0;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+
+		universe = SyntheticUniverse.create(towns, residentsPerTown, townBlocksPerTown, townsPerNation);
+
+		Random random = new Random(42);
+		int extent = universe.getExtent();
+		List<Resident> residents = universe.getResidents();
+		List<Town> towns = universe.getTowns();
+		for (int i = 0; i < PROBES; i++) {
+			coords[i] = universe.getWorldCoord(random.nextInt(extent), random.nextInt(extent));
+			attackers[i] = residents.get(random.nextInt(residents.size()));
+			defenders[i] = residents.get(random.nextInt(residents.size()));
+			townsA[i] = towns.get(random.nextInt(towns.size()));
+			townsB[i] = towns.get(random.nextInt(towns.size()));
+		}
+	}
+
+	/**
+	 * @return the index of the next lookup to use.
+	 */
+	public int next() {
+
+		return next++ & (PROBES - 1);
+	}
+}
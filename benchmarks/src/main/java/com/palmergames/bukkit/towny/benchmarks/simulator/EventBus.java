@@ -0,0 +1,148 @@
+package com.palmergames.bukkit.towny.benchmarks.simulator;
+
+import com.palmergames.bukkit.towny.profiler.LatencyHistogram;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Calls Towny's event handlers the way Bukkit's plugin manager would, in
+ * order of priority and skipping those which ignore cancelled events,
+ * timing each handler on its own.
+ */
+public class EventBus {
+
+	/**
+	 * One event handler, with its timings.
+	 */
+	public static class Handler {
+		private final Listener listener;
+		private final Method method;
+		private final EventHandler annotation;
+		private final String name;
+		private final LatencyHistogram histogram = new LatencyHistogram();
+		private final LongAdder errors = new LongAdder();
+
+		Handler(Listener listener, Method method, EventHandler annotation, Class<?> eventClass) {
+			this.listener = listener;
+			this.method = method;
+			this.annotation = annotation;
+			this.name = listener.getClass().getSimpleName() + "." + method.getName() + "(" + eventClass.getSimpleName() + ")";
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public LatencyHistogram getHistogram() {
+			return histogram;
+		}
+
+		public long getErrors() {
+			return errors.sum();
+		}
+	}
+
+	private final Map<Class<?>, List<Handler>> handlers = new HashMap<>();
+	private final Map<Class<?>, List<Handler>> resolved = new HashMap<>();
+	private final Map<Class<?>, Throwable> firstErrors = new LinkedHashMap<>();
+
+	/**
+	 * Registers every {@link EventHandler} method of a listener.
+	 *
+	 * @param listener - Listener to register.
+	 */
+	public void register(Listener listener) {
+
+		Set<Method> methods = new LinkedHashSet<>(Arrays.asList(listener.getClass().getMethods()));
+		methods.addAll(Arrays.asList(listener.getClass().getDeclaredMethods()));
+		for (Method method : methods) {
+			EventHandler annotation = method.getAnnotation(EventHandler.class);
+			if (annotation == null || method.isBridge() || method.isSynthetic())
+				continue;
+			if (method.getParameterTypes().length != 1 || !Event.class.isAssignableFrom(method.getParameterTypes()[0]))
+				continue;
+
+			Class<?> eventClass = method.getParameterTypes()[0];
+			method.setAccessible(true);
+			handlers.computeIfAbsent(eventClass, k -> new ArrayList<>()).add(new Handler(listener, method, annotation, eventClass));
+		}
+		resolved.clear();
+	}
+
+	/**
+	 * Calls every handler listening for the event, or for one of its superclasses.
+	 *
+	 * @param event - Event to call.
+	 * @return false if a handler threw.
+	 */
+	public boolean call(Event event) {
+
+		boolean ok = true;
+		for (Handler handler : getHandlers(event.getClass())) {
+			if (handler.annotation.ignoreCancelled() && event instanceof Cancellable && ((Cancellable) event).isCancelled())
+				continue;
+			long start = System.nanoTime();
+			try {
+				handler.method.invoke(handler.listener, event);
+			} catch (InvocationTargetException | IllegalAccessException e) {
+				ok = false;
+				handler.errors.increment();
+				firstErrors.putIfAbsent(handler.method.getDeclaringClass(), e instanceof InvocationTargetException ? e.getCause() : e);
+			} finally {
+				handler.histogram.record(System.nanoTime() - start);
+			}
+		}
+		return ok;
+	}
+
+	private List<Handler> getHandlers(Class<?> eventClass) {
+
+		List<Handler> list = resolved.get(eventClass);
+		if (list != null)
+			return list;
+
+		list = new ArrayList<>();
+		for (Class<?> type = eventClass; type != null && Event.class.isAssignableFrom(type); type = type.getSuperclass())
+			list.addAll(handlers.getOrDefault(type, new ArrayList<>()));
+		list.sort(Comparator.comparingInt(handler -> handler.annotation.priority().getSlot()));
+		resolved.put(eventClass, list);
+		return list;
+	}
+
+	/**
+	 * @return every handler which has been called, the ones which took the most time in total first.
+	 */
+	public List<Handler> getCalledHandlers() {
+
+		List<Handler> list = new ArrayList<>();
+		for (List<Handler> registered : handlers.values())
+			for (Handler handler : registered)
+				if (handler.histogram.getCount() > 0)
+					list.add(handler);
+		list.sort(Comparator.comparingLong((Handler handler) -> handler.histogram.getTotal()).reversed());
+		return list;
+	}
+
+	/**
+	 * @return the first error thrown by each listener class, for reporting.
+	 */
+	public Map<Class<?>, Throwable> getFirstErrors() {
+
+		return firstErrors;
+	}
+}
@@ -0,0 +1,477 @@
+package com.palmergames.bukkit.towny.benchmarks.simulator;
+
+import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyTimerHandler;
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.benchmarks.Stubs;
+import com.palmergames.bukkit.towny.benchmarks.SyntheticUniverse;
+import com.palmergames.bukkit.towny.command.NationCommand;
+import com.palmergames.bukkit.towny.command.PlotCommand;
+import com.palmergames.bukkit.towny.command.ResidentCommand;
+import com.palmergames.bukkit.towny.command.TownCommand;
+import com.palmergames.bukkit.towny.command.TownyCommand;
+import com.palmergames.bukkit.towny.exceptions.TownyException;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.profiler.LatencyHistogram;
+import com.palmergames.bukkit.towny.profiler.TownyProfiler;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Replays a trace of player actions through Towny's real listeners,
+ * commands and timer tasks, against a made up universe and a stub server,
+ * and reports how long each sort of action took and how much it allocated.
+ * <p>
+ * Traces are read from a file, see {@link TraceAction} for the format, or
+ * made up by {@link TraceGenerator}. Run with --help for the options.
+ */
+public class LoadSimulator {
+
+	/**
+	 * Timings of one sort of action.
+	 */
+	private static class Stats {
+		private final LatencyHistogram histogram = new LatencyHistogram();
+		private long errors = 0;
+		private long bytes = 0;
+
+		void record(long nanos, long allocated, boolean ok) {
+			histogram.record(nanos);
+			bytes += Math.max(0, allocated);
+			if (!ok)
+				errors++;
+		}
+
+		long getBytesPerOp() {
+			return histogram.getCount() == 0 ? 0 : bytes / histogram.getCount();
+		}
+	}
+
+	private static final String USAGE = String.join(System.lineSeparator(),
+		"Usage: LoadSimulator [options]",
+		"  --towns <n>               Towns in the universe (200).",
+		"  --residents-per-town <n>  Residents in each town (10).",
+		"  --townblocks-per-town <n> Townblocks claimed by each town (64).",
+		"  --towns-per-nation <n>    Towns in each nation, 0 for none (4).",
+		"  --players <n>             Players online, for made up traces (100).",
+		"  --ticks <n>               Ticks of made up trace (6000, five minutes).",
+		"  --warmup <n>              Ticks replayed before anything is recorded (1200).",
+		"  --seed <n>                Seed for made up traces (42).",
+		"  --trace <file>            Replay this trace instead of making one up.",
+		"  --save-trace <file>       Write the trace replayed to this file.",
+		"  --csv <file>              Write the results to this file as well.");
+
+	private final Towny towny;
+	private final World world;
+	private final EventBus bus = new EventBus();
+	private final Map<String, CommandExecutor> commands = new HashMap<>();
+	private final Map<String, Player> players = new LinkedHashMap<>();
+	private final Map<String, Location> locations = new HashMap<>();
+	private final Map<TraceAction.Type, Stats> stats = new EnumMap<>(TraceAction.Type.class);
+	private final Stats ticks = new Stats();
+	private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+	private final long allocationOverhead;
+	private long recordedActions = 0;
+	private long recordedNanos = 0;
+	private long recordedBytes = 0;
+
+	public LoadSimulator(SyntheticUniverse universe) throws IllegalAccessException {
+
+		this.towny = universe.getTowny();
+		this.world = Stubs.getWorld(SyntheticUniverse.WORLD);
+
+		// The same listeners Towny.registerEvents registers.
+		for (Field field : Towny.class.getDeclaredFields()) {
+			if (!Listener.class.isAssignableFrom(field.getType()))
+				continue;
+			field.setAccessible(true);
+			bus.register((Listener) field.get(towny));
+		}
+		bus.register(TownyUniverse.getInstance().getRankings());
+		Stubs.setEventListener(bus::call);
+
+		commands.put("town", new TownCommand(towny));
+		commands.put("nation", new NationCommand(towny));
+		commands.put("resident", new ResidentCommand(towny));
+		commands.put("plot", new PlotCommand(towny));
+		commands.put("towny", new TownyCommand(towny));
+
+		for (TraceAction.Type type : TraceAction.Type.values())
+			stats.put(type, new Stats());
+		threads.setThreadAllocatedMemoryEnabled(true);
+		allocationOverhead = measureAllocationOverhead();
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		Map<String, String> options = new HashMap<>();
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("--help") || args[i].equals("-h") || !args[i].startsWith("--") || i + 1 == args.length) {
+				System.out.println(USAGE);
+				return;
+			}
+			options.put(args[i].substring(2), args[++i]);
+		}
+
+		int towns = Integer.parseInt(options.getOrDefault("towns", "200"));
+		int residentsPerTown = Integer.parseInt(options.getOrDefault("residents-per-town", "10"));
+		int townBlocksPerTown = Integer.parseInt(options.getOrDefault("townblocks-per-town", "64"));
+		int townsPerNation = Integer.parseInt(options.getOrDefault("towns-per-nation", "4"));
+		int playerCount = Integer.parseInt(options.getOrDefault("players", "100"));
+		long tickCount = Long.parseLong(options.getOrDefault("ticks", "6000"));
+		long warmup = Long.parseLong(options.getOrDefault("warmup", "1200"));
+		long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+		System.out.println("[Towny] Loading " + towns + " towns of " + residentsPerTown + " residents and " + townBlocksPerTown + " townblocks.");
+		SyntheticUniverse universe = SyntheticUniverse.create(towns, residentsPerTown, townBlocksPerTown, townsPerNation);
+		LoadSimulator simulator = new LoadSimulator(universe);
+
+		List<TraceAction> trace;
+		if (options.containsKey("trace")) {
+			trace = readTrace(new File(options.get("trace")));
+		} else {
+			List<Resident> residents = universe.getResidents();
+			List<String> names = new ArrayList<>();
+			List<double[]> spawns = new ArrayList<>();
+			for (int p = 0; p < Math.min(playerCount, residents.size()); p++) {
+				String name = residents.get((int) ((long) p * residents.size() / Math.min(playerCount, residents.size()))).getName();
+				Location spawn = simulator.getSpawn(name);
+				names.add(name);
+				spawns.add(new double[] {spawn.getX(), spawn.getZ()});
+			}
+			trace = new TraceGenerator(universe, seed).generate(names, spawns, warmup + tickCount);
+		}
+		if (options.containsKey("save-trace"))
+			writeTrace(trace, new File(options.get("save-trace")));
+
+		System.out.println("[Towny] Replaying " + trace.size() + " actions.");
+		simulator.replay(trace, warmup);
+		simulator.report(new PrintWriter(System.out, true));
+		if (options.containsKey("csv")) {
+			try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(new File(options.get("csv")).toPath(), StandardCharsets.UTF_8))) {
+				simulator.writeCsv(out);
+			}
+		}
+	}
+
+	private static List<TraceAction> readTrace(File file) throws IOException {
+
+		List<TraceAction> trace = new ArrayList<>();
+		for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+			TraceAction action = TraceAction.parse(line);
+			if (action != null)
+				trace.add(action);
+		}
+		trace.sort((a, b) -> Long.compare(a.getTick(), b.getTick()));
+		return trace;
+	}
+
+	private static void writeTrace(List<TraceAction> trace, File file) throws IOException {
+
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+			out.println("# <tick> <player> <action> [arguments]");
+			for (TraceAction action : trace)
+				out.println(action);
+		}
+	}
+
+	/**
+	 * Brings every player in the trace online, starts Towny's timers and
+	 * replays the trace, a tick at a time.
+	 *
+	 * @param trace - Actions, in order of tick.
+	 * @param warmup - Ticks to replay before recording anything.
+	 */
+	public void replay(List<TraceAction> trace, long warmup) {
+
+		// Timer tasks are timed by the profiler, through BukkitTools.
+		TownyProfiler.setEnabled(true);
+		TownyTimerHandler.toggleTimerWheel(true);
+		TownyTimerHandler.toggleTownyRepeatingTimer(true);
+		TownyTimerHandler.toggleMobRemoval(true);
+		TownyTimerHandler.toggleHealthRegen(true);
+		TownyTimerHandler.toggleDrawSmokeTask(true);
+
+		Set<String> names = new LinkedHashSet<>();
+		for (TraceAction action : trace)
+			names.add(action.getPlayer());
+		for (String name : names)
+			join(name);
+
+		long tick = trace.isEmpty() ? 0 : trace.get(0).getTick();
+		long recordFrom = tick + warmup;
+		long start = System.nanoTime();
+		for (TraceAction action : trace) {
+			while (tick < action.getTick()) {
+				tick(tick >= recordFrom);
+				tick++;
+				if (tick == recordFrom) {
+					TownyProfiler.reset();
+					start = System.nanoTime();
+				}
+			}
+			perform(action, tick >= recordFrom);
+		}
+		tick(tick >= recordFrom);
+		recordedNanos = System.nanoTime() - start;
+
+		TownyTimerHandler.toggleTimerWheel(false);
+		TownyTimerHandler.toggleTownyRepeatingTimer(false);
+		TownyTimerHandler.toggleMobRemoval(false);
+		TownyTimerHandler.toggleHealthRegen(false);
+		TownyTimerHandler.toggleDrawSmokeTask(false);
+	}
+
+	private void join(String name) {
+
+		Location location = getSpawn(name);
+		Player player = Stubs.player(name, location);
+		players.put(name, player);
+		locations.put(name, location);
+		Stubs.addPlayer(player);
+		bus.call(new PlayerJoinEvent(player, name + " joined the game"));
+	}
+
+	/**
+	 * @param name - Name of a resident.
+	 * @return the middle of their town's homeblock, or 0,0 for those without one.
+	 */
+	public Location getSpawn(String name) {
+
+		int size = TownySettings.getTownBlockSize();
+		try {
+			Resident resident = TownyUniverse.getInstance().getDataSource().getResident(name);
+			TownBlock home = resident.getTown().getHomeBlock();
+			return new Location(world, home.getX() * size + size / 2.0, 64, home.getZ() * size + size / 2.0);
+		} catch (TownyException e) {
+			return new Location(world, 0.5, 64, 0.5);
+		}
+	}
+
+	private void tick(boolean record) {
+
+		long allocated = allocatedBytes();
+		long start = System.nanoTime();
+		Stubs.tick();
+		long nanos = System.nanoTime() - start;
+		if (record)
+			ticks.record(nanos, allocatedBytes() - allocated - allocationOverhead, true);
+	}
+
+	private void perform(TraceAction action, boolean record) {
+
+		Player player = players.get(action.getPlayer());
+		long allocated = allocatedBytes();
+		long start = System.nanoTime();
+		boolean ok;
+		try {
+			ok = dispatch(player, action);
+		} catch (RuntimeException e) {
+			ok = false;
+		}
+		long nanos = System.nanoTime() - start;
+		if (!record)
+			return;
+
+		long bytes = allocatedBytes() - allocated - allocationOverhead;
+		stats.get(action.getType()).record(nanos, bytes, ok);
+		recordedActions++;
+		recordedBytes += Math.max(0, bytes);
+	}
+
+	private boolean dispatch(Player player, TraceAction action) {
+
+		int x = (int) Math.floor(action.getX());
+		int y = (int) Math.floor(action.getY());
+		int z = (int) Math.floor(action.getZ());
+
+		switch (action.getType()) {
+			case MOVE:
+				Location location = locations.get(action.getPlayer());
+				Location to = new Location(world, action.getX(), action.getY(), action.getZ(), location.getYaw(), location.getPitch());
+				PlayerMoveEvent move = new PlayerMoveEvent(player, location.clone(), to);
+				boolean ok = bus.call(move);
+				if (!move.isCancelled()) {
+					location.setX(move.getTo().getX());
+					location.setY(move.getTo().getY());
+					location.setZ(move.getTo().getZ());
+				}
+				return ok;
+
+			case BREAK:
+				return bus.call(new BlockBreakEvent(Stubs.block(world, x, y, z, Material.STONE), player));
+
+			case PLACE:
+				Block placed = Stubs.block(world, x, y, z, Material.STONE);
+				Map<String, Function<Object[], Object>> replaced = new HashMap<>();
+				replaced.put("getBlock", args -> placed);
+				replaced.put("getType", args -> Material.AIR);
+				replaced.put("getWorld", args -> world);
+				replaced.put("getLocation", args -> placed.getLocation());
+				Block against = Stubs.block(world, x, y - 1, z, Material.STONE);
+				return bus.call(new BlockPlaceEvent(placed, Stubs.stub(BlockState.class, replaced), against, new ItemStack(Material.STONE), player, true, EquipmentSlot.HAND));
+
+			case INTERACT:
+				return bus.call(new PlayerInteractEvent(player, Action.RIGHT_CLICK_BLOCK, null, Stubs.block(world, x, y, z, Material.CHEST), BlockFace.UP));
+
+			case DAMAGE:
+				Player target = players.get(action.getArgument());
+				if (target == null)
+					return false;
+				return bus.call(new EntityDamageByEntityEvent(player, target, DamageCause.ENTITY_ATTACK, 1.0));
+
+			case COMMAND:
+				String message = "/" + action.getArgument();
+				PlayerCommandPreprocessEvent preprocess = new PlayerCommandPreprocessEvent(player, message);
+				boolean called = bus.call(preprocess);
+				if (preprocess.isCancelled())
+					return called;
+				String[] split = preprocess.getMessage().substring(1).split(" ");
+				CommandExecutor executor = commands.get(split[0].toLowerCase());
+				if (executor == null)
+					return false;
+				return executor.onCommand(player, null, split[0], Arrays.copyOfRange(split, 1, split.length)) && called;
+		}
+		return false;
+	}
+
+	private long allocatedBytes() {
+
+		return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	// What reading the allocation counter allocates itself, so it can be taken off.
+	private long measureAllocationOverhead() {
+
+		long least = Long.MAX_VALUE;
+		for (int i = 0; i < 32; i++) {
+			long before = allocatedBytes();
+			least = Math.min(least, allocatedBytes() - before);
+		}
+		return least;
+	}
+
+	/**
+	 * Prints the results.
+	 *
+	 * @param out - Where to.
+	 */
+	public void report(PrintWriter out) {
+
+		double seconds = recordedNanos / 1e9;
+		out.println();
+		out.printf("%d actions in %.2fs: %.0f actions/s, %.1f MB/s allocated.%n", recordedActions, seconds,
+			recordedActions / Math.max(seconds, 1e-9), recordedBytes / 1048576.0 / Math.max(seconds, 1e-9));
+
+		out.println();
+		out.printf("%-10s %10s %7s %10s %10s %10s %10s %10s%n", "action", "count", "errors", "p50", "p90", "p99", "max", "bytes/op");
+		for (Map.Entry<TraceAction.Type, Stats> entry : stats.entrySet())
+			printRow(out, "%-10s", entry.getKey().name().toLowerCase(), entry.getValue());
+		printRow(out, "%-10s", "tick", ticks);
+
+		out.println();
+		out.printf("%-60s %10s %7s %10s %10s %10s %10s%n", "handler", "count", "errors", "p50", "p90", "p99", "max");
+		for (EventBus.Handler handler : bus.getCalledHandlers()) {
+			LatencyHistogram h = handler.getHistogram();
+			out.printf("%-60s %10d %7d %10s %10s %10s %10s%n", handler.getName(), h.getCount(), handler.getErrors(),
+				format(h.getPercentile(50)), format(h.getPercentile(90)), format(h.getPercentile(99)), format(h.getMax()));
+		}
+
+		out.println();
+		out.printf("%-60s %10s %10s %10s %10s %10s%n", "task", "count", "p50", "p90", "p99", "max");
+		for (TownyProfiler.Entry entry : TownyProfiler.getEntries()) {
+			LatencyHistogram h = entry.getHistogram();
+			if (h.getCount() == 0)
+				continue;
+			out.printf("%-60s %10d %10s %10s %10s %10s%n", entry.getCategory().name().toLowerCase() + " " + entry.getName(), h.getCount(),
+				format(h.getPercentile(50)), format(h.getPercentile(90)), format(h.getPercentile(99)), format(h.getMax()));
+		}
+
+		if (!bus.getFirstErrors().isEmpty()) {
+			out.println();
+			out.println("First error thrown by each listener:");
+			for (Map.Entry<Class<?>, Throwable> error : bus.getFirstErrors().entrySet())
+				out.println("  " + error.getKey().getSimpleName() + ": " + error.getValue());
+		}
+		out.flush();
+	}
+
+	private static void printRow(PrintWriter out, String nameFormat, String name, Stats stats) {
+
+		LatencyHistogram h = stats.histogram;
+		out.printf(nameFormat + " %10d %7d %10s %10s %10s %10s %10d%n", name, h.getCount(), stats.errors,
+			format(h.getPercentile(50)), format(h.getPercentile(90)), format(h.getPercentile(99)), format(h.getMax()), stats.getBytesPerOp());
+	}
+
+	private static String format(long nanos) {
+
+		if (nanos >= 1000000)
+			return String.format("%.2fms", nanos / 1e6);
+		if (nanos >= 1000)
+			return String.format("%.1fus", nanos / 1e3);
+		return nanos + "ns";
+	}
+
+	/**
+	 * Writes the results as csv, with times in nanoseconds.
+	 *
+	 * @param out - Where to.
+	 */
+	public void writeCsv(PrintWriter out) {
+
+		out.println("kind,name,count,errors,p50_ns,p90_ns,p99_ns,max_ns,bytes_per_op");
+		for (Map.Entry<TraceAction.Type, Stats> entry : stats.entrySet())
+			writeCsvRow(out, "action", entry.getKey().name().toLowerCase(), entry.getValue().histogram, entry.getValue().errors, entry.getValue().getBytesPerOp());
+		writeCsvRow(out, "action", "tick", ticks.histogram, ticks.errors, ticks.getBytesPerOp());
+		for (EventBus.Handler handler : bus.getCalledHandlers())
+			writeCsvRow(out, "handler", handler.getName(), handler.getHistogram(), handler.getErrors(), -1);
+		for (TownyProfiler.Entry entry : TownyProfiler.getEntries())
+			if (entry.getHistogram().getCount() > 0)
+				writeCsvRow(out, entry.getCategory().name().toLowerCase(), entry.getName(), entry.getHistogram(), 0, -1);
+	}
+
+	private static void writeCsvRow(PrintWriter out, String kind, String name, LatencyHistogram h, long errors, long bytesPerOp) {
+
+		out.println(kind + ",\"" + name + "\"," + h.getCount() + "," + errors + "," + h.getPercentile(50) + "," + h.getPercentile(90) + ","
+			+ h.getPercentile(99) + "," + h.getMax() + "," + (bytesPerOp < 0 ? "" : bytesPerOp));
+	}
+}
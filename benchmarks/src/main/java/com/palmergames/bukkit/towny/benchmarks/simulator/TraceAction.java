@@ -0,0 +1,149 @@
+package com.palmergames.bukkit.towny.benchmarks.simulator;
+
+/**
+ * One thing a player does in a trace, written as a line of
+ * {@code <tick> <player> <action> [arguments]}:
+ *
+ * <pre>
+ * 0 Resident0_0 move 12.5 64 3.25
+ * 1 Resident0_0 break 12 63 3
+ * 1 Resident0_0 place 12 64 4
+ * 2 Resident0_0 interact 13 64 4
+ * 3 Resident0_0 damage Resident1_0
+ * 4 Resident0_0 command town here
+ * </pre>
+ *
+ * Blank lines and lines starting with # are ignored.
+ */
+public class TraceAction {
+
+	public enum Type {
+		MOVE, BREAK, PLACE, INTERACT, DAMAGE, COMMAND
+	}
+
+	private final long tick;
+	private final String player;
+	private final Type type;
+	private final double x, y, z;
+	private final String argument;
+
+	private TraceAction(long tick, String player, Type type, double x, double y, double z, String argument) {
+
+		this.tick = tick;
+		this.player = player;
+		this.type = type;
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.argument = argument;
+	}
+
+	/**
+	 * @param tick - Tick the action happens on.
+	 * @param player - Name of the player.
+	 * @param type - MOVE, BREAK, PLACE or INTERACT.
+	 * @param x - Where to, or which block.
+	 * @param y - Where to, or which block.
+	 * @param z - Where to, or which block.
+	 * @return the action.
+	 */
+	public static TraceAction at(long tick, String player, Type type, double x, double y, double z) {
+
+		return new TraceAction(tick, player, type, x, y, z, null);
+	}
+
+	/**
+	 * @param tick - Tick the action happens on.
+	 * @param player - Name of the player.
+	 * @param type - DAMAGE or COMMAND.
+	 * @param argument - Player damaged, or the command without its slash.
+	 * @return the action.
+	 */
+	public static TraceAction with(long tick, String player, Type type, String argument) {
+
+		return new TraceAction(tick, player, type, 0, 0, 0, argument);
+	}
+
+	/**
+	 * @param line - A line of a trace.
+	 * @return the action, or null for blank lines and comments.
+	 * @throws IllegalArgumentException if the line could not be read.
+	 */
+	public static TraceAction parse(String line) {
+
+		String trimmed = line.trim();
+		if (trimmed.isEmpty() || trimmed.startsWith("#"))
+			return null;
+
+		String[] split = trimmed.split("\\s+", 4);
+		if (split.length < 4)
+			throw new IllegalArgumentException("Expected <tick> <player> <action> <arguments>: " + line);
+
+		try {
+			long tick = Long.parseLong(split[0]);
+			Type type = Type.valueOf(split[2].toUpperCase());
+			switch (type) {
+				case DAMAGE:
+				case COMMAND:
+					return with(tick, split[1], type, split[3]);
+				default:
+					String[] xyz = split[3].split("\\s+");
+					if (xyz.length != 3)
+						throw new IllegalArgumentException("Expected x y z: " + line);
+					return at(tick, split[1], type, Double.parseDouble(xyz[0]), Double.parseDouble(xyz[1]), Double.parseDouble(xyz[2]));
+			}
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Could not read trace line: " + line, e);
+		}
+	}
+
+	public long getTick() {
+
+		return tick;
+	}
+
+	public String getPlayer() {
+
+		return player;
+	}
+
+	public Type getType() {
+
+		return type;
+	}
+
+	public double getX() {
+
+		return x;
+	}
+
+	public double getY() {
+
+		return y;
+	}
+
+	public double getZ() {
+
+		return z;
+	}
+
+	public String getArgument() {
+
+		return argument;
+	}
+
+	@Override
+	public String toString() {
+
+		String action = tick + " " + player + " " + type.name().toLowerCase() + " ";
+		switch (type) {
+			case DAMAGE:
+			case COMMAND:
+				return action + argument;
+			case MOVE:
+				return action + x + " " + y + " " + z;
+			default:
+				return action + (int) Math.floor(x) + " " + (int) Math.floor(y) + " " + (int) Math.floor(z);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.palmergames.bukkit.towny.benchmarks.simulator;
+
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.benchmarks.SyntheticUniverse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Makes up a trace of players wandering around near their towns, mostly
+ * walking, now and then breaking, placing or using a block, hitting
+ * another player or running a command.
+ * <p>
+ * Players walk at about sprinting speed and turn a little each tick, so
+ * they cross into new townblocks and out into the wilderness between towns
+ * every so often, as they would on a server.
+ */
+public class TraceGenerator {
+
+	private static final String[] COMMANDS = {"town", "resident", "nation", "plot perm", "town list", "towny"};
+	private static final double SPEED = 0.28; // Blocks a tick.
+	private static final int GROUND = 64;
+
+	// Chances, each tick, of each player doing something other than walking.
+	private static final double BREAK_CHANCE = 0.01;
+	private static final double PLACE_CHANCE = 0.01;
+	private static final double INTERACT_CHANCE = 0.02;
+	private static final double DAMAGE_CHANCE = 0.005;
+	private static final double COMMAND_CHANCE = 0.001;
+
+	private final SyntheticUniverse universe;
+	private final Random random;
+
+
+	public TraceGenerator(SyntheticUniverse universe, long seed) {
+
+		this.universe = universe;
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * @param players - Names of the players, each starting at the spawn of their town.
+	 * @param spawns - Where each player starts, as {x, z} in blocks.
+	 * @param ticks - How many ticks the trace runs for.
+	 * @return the actions, in order of tick.
+	 */
+	public List<TraceAction> generate(List<String> players, List<double[]> spawns, long ticks) {
+
+		int extent = universe.getExtent() * TownySettings.getTownBlockSize();
+		double[][] positions = new double[players.size()][];
+		double[] headings = new double[players.size()];
+		for (int p = 0; p < players.size(); p++) {
+			positions[p] = spawns.get(p).clone();
+			headings[p] = random.nextDouble() * Math.PI * 2;
+		}
+
+		List<TraceAction> trace = new ArrayList<>();
+		for (long tick = 0; tick < ticks; tick++) {
+			for (int p = 0; p < players.size(); p++) {
+				String player = players.get(p);
+				double[] position = positions[p];
+
+				headings[p] += (random.nextDouble() - 0.5) * 0.4;
+				double x = position[0] + Math.cos(headings[p]) * SPEED;
+				double z = position[1] + Math.sin(headings[p]) * SPEED;
+				if (x < 0 || z < 0 || x >= extent || z >= extent) {
+					// Turn around at the edge of the towns.
+					headings[p] += Math.PI;
+				} else {
+					position[0] = x;
+					position[1] = z;
+					trace.add(TraceAction.at(tick, player, TraceAction.Type.MOVE, x, GROUND, z));
+				}
+
+				int blockX = (int) Math.floor(position[0] + Math.cos(headings[p]) * 2);
+				int blockZ = (int) Math.floor(position[1] + Math.sin(headings[p]) * 2);
+				double roll = random.nextDouble();
+				if ((roll -= BREAK_CHANCE) < 0)
+					trace.add(TraceAction.at(tick, player, TraceAction.Type.BREAK, blockX, GROUND - 1, blockZ));
+				else if ((roll -= PLACE_CHANCE) < 0)
+					trace.add(TraceAction.at(tick, player, TraceAction.Type.PLACE, blockX, GROUND, blockZ));
+				else if ((roll -= INTERACT_CHANCE) < 0)
+					trace.add(TraceAction.at(tick, player, TraceAction.Type.INTERACT, blockX, GROUND, blockZ));
+				else if ((roll -= DAMAGE_CHANCE) < 0 && players.size() > 1)
+					trace.add(TraceAction.with(tick, player, TraceAction.Type.DAMAGE, players.get((p + 1 + random.nextInt(players.size() - 1)) % players.size())));
+				else if ((roll -= COMMAND_CHANCE) < 0)
+					trace.add(TraceAction.with(tick, player, TraceAction.Type.COMMAND, COMMANDS[random.nextInt(COMMANDS.length)]));
+			}
+		}
+		return trace;
+	}
+}
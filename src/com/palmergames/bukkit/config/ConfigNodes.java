@@ -770,6 +770,21 @@ public enum ConfigNodes {
 			"plugin.reset_log_on_boot",
 			"true",
 			"# If true this will cause the log to be wiped at every startup."),
+	PLUGIN_PROFILER(
+			"plugin.profiler",
+			"",
+			"",
+			"# Times Towny's event handlers, timer tasks and database work, for tracking down lag.",
+			"# See the results with /ta perf."),
+	PLUGIN_PROFILER_ENABLED(
+			"plugin.profiler.enabled",
+			"false",
+			"# Event handlers are only timed if this is true when the server starts."),
+	PLUGIN_PROFILER_DUMP_INTERVAL(
+			"plugin.profiler.dump_interval",
+			"30m",
+			"# How often the results are written to a csv and a json file in the logs folder.",
+			"# 0 to only write them with /ta perf dump."),
 	FILTERS_COLOUR_CHAT(
 			"filters_colour_chat",
 			"",
@@ -1187,6 +1202,11 @@ public enum ConfigNodes {
 			"0m",
 			"# When set for more than 0m, the amount of time (in minutes) which must have passed between",
 			"# a player's first log in and when they can be invited to a town."),
+	INVITE_SYSTEM_EXPIRATION_TIME(
+			"invite_system.expirationtime",
+			"0m",
+			"# When set for more than 0m, the amount of time until an invite or request expires and is removed.",
+			"# When 0m invites are only removed when accepted, denied or revoked."),
 	INVITE_SYSTEM_MAXIMUM_INVITES_SENT(
 			"invite_system.maximum_invites_sent",
 			"# Max invites for Town & Nations, which they can send. Invites are capped to decrease load on large servers.",
@@ -1287,6 +1307,19 @@ public enum ConfigNodes {
 			"true",
 			"# By default it is set to true.",
 			"# Rarely set to false. Set to false if you get concurrent modification errors on timers for daily tax collections."),
+	ECO_BALANCE_CACHE("economy.balance_cache", "", ""),
+	ECO_BALANCE_CACHE_ENABLED(
+			"economy.balance_cache.enabled",
+			"false",
+			"# When true Towny keeps its own copy of account balances and serves balance checks from it,",
+			"# handing deposits and withdrawals to the economy plugin on a background thread.",
+			"# Every transaction is written to data/economy_journal.txt before it is handed over, so",
+			"# anything left unfinished by a crash is reconciled against the economy plugin on the next start."),
+	ECO_BALANCE_CACHE_REFRESH(
+			"economy.balance_cache.refresh_seconds",
+			"60",
+			"# How many seconds a cached balance is trusted before it is read from the economy plugin again.",
+			"# Balances with transactions still waiting to be handed over are never re-read."),
 	ECO_TOWN_PREFIX(
 			"economy.town_prefix",
 			"town-",
@@ -1493,6 +1526,12 @@ public enum ConfigNodes {
 			"# If enabled and you set a negative upkeep for the town",
 			"# any funds the town gains via upkeep at a new day",
 			"# will be shared out between the plot owners."),
+	ECO_DAILY_TAXES_TICK_BUDGET(
+			"economy.daily_taxes.tick_budget_ms",
+			"10",
+			"# When economy.use_async is false, taxes and upkeep are paid out over several ticks.",
+			"# This is how many milliseconds of each tick may be spent on them.",
+			"# Balances are read off the main thread beforehand, see /townyadmin newday preview."),
 	ECO_PLOT_TYPE_COSTS("economy.plot_type_costs","",""),
 	ECO_PLOT_TYPE_COSTS_COMMERCIAL("economy.plot_type_costs.set_commercial",
 			"0.0",
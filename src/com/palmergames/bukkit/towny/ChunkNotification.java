@@ -1,7 +1,12 @@
 package com.palmergames.bukkit.towny;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.palmergames.bukkit.towny.object.PlotGroup;
 import com.palmergames.bukkit.towny.object.Translation;
@@ -44,6 +49,67 @@ public class ChunkNotification {
 	public static String plotTypeNotificationFormat = Colors.Gold + "[%s]";	
 	public static String groupNotificationFormat = Colors.White + "[%s]";
 
+	// The PvP notifications only ever say one of two things, so they are formatted once.
+	private static String wildernessPvPNotification, wildernessNoPvPNotification, townPvPNotification, townNoPvPNotification;
+	static {
+		formatPvPNotifications();
+	}
+
+	/**
+	 * The parts of a notification which depend only on the townblock being
+	 * entered, kept so entering a plot only has to put them together.
+	 */
+	private static class Fragments {
+		private final long version;
+		private final long regionVersion;
+		private final String area, owner, home, outpost, forSale, groupForSale, type, group;
+
+		Fragments(TownBlock townBlock, long version, long regionVersion) {
+			this.version = version;
+			this.regionVersion = regionVersion;
+
+			Town town = townBlock.getTownOrNull();
+			if (town == null)
+				area = null;
+			else if (TownySettings.isNotificationsTownNamesVerbose())
+				area = String.format(areaTownNotificationFormat, town.getFormattedName());
+			else
+				area = String.format(areaTownNotificationFormat, town);
+
+			String name = townBlock.getName();
+			Resident resident = townBlock.getResidentOrNull();
+			if (resident == null)
+				owner = String.format(noOwnerNotificationFormat, name.isEmpty() ? TownySettings.getUnclaimedPlotName() : name);
+			else if (TownySettings.isNotificationOwnerShowingNationTitles())
+				owner = String.format(ownerNotificationFormat, name.isEmpty() ? resident.getFormattedTitleName() : name);
+			else
+				owner = String.format(ownerNotificationFormat, name.isEmpty() ? resident.getFormattedName() : name);
+
+			home = townBlock.isHomeBlock() ? homeBlockNotification : null;
+			outpost = townBlock.isOutpost() ? outpostBlockNotification : null;
+			forSale = townBlock.getPlotPrice() != -1 ? String.format(forSaleNotificationFormat, TownyEconomyHandler.getFormattedBalance(townBlock.getPlotPrice())) : null;
+			PlotGroup plotGroup = townBlock.getPlotObjectGroup();
+			groupForSale = plotGroup != null && plotGroup.getPrice() != -1 ? String.format(forSaleNotificationFormat, TownyEconomyHandler.getFormattedBalance(plotGroup.getPrice())) : null;
+			group = plotGroup != null ? String.format(groupNotificationFormat, plotGroup.getName()) : null;
+			TownBlockType plotType = townBlock.getType();
+			type = plotType != null && plotType != TownBlockType.RESIDENTIAL ? String.format(plotTypeNotificationFormat, plotType.toString()) : null;
+		}
+
+		boolean isCurrent(long version, long regionVersion) {
+			return this.version == version && this.regionVersion == regionVersion;
+		}
+	}
+
+	/*
+	 * Fragments are thrown away when the townblock's region of the map changes, which
+	 * covers a townblock's owner, town, price and type, or when invalidateFragments() is
+	 * called by the setters of anything else shown in a notification.
+	 */
+	private static final AtomicLong fragmentsVersion = new AtomicLong();
+	private static final Map<TownBlock, Fragments> fragments = Collections.synchronizedMap(new WeakHashMap<>());
+	// Wilderness notifications by unclaimed zone name.
+	private static final Map<String, String> wildernessNotifications = new ConcurrentHashMap<>();
+
 	/**
 	 * Called on Config load.
 	 * Specifically: TownySettings.loadCachedLangStrings()
@@ -65,6 +131,44 @@ public class ChunkNotification {
 		forSaleNotificationFormat = TownySettings.getConfigLang(ConfigNodes.NOTIFICATION_PLOT_FORSALE);
 		plotTypeNotificationFormat = TownySettings.getConfigLang(ConfigNodes.NOTIFICATION_PLOT_TYPE);
 		groupNotificationFormat = TownySettings.getConfigLang(ConfigNodes.NOTIFICATION_GROUP);
+		formatPvPNotifications();
+		wildernessNotifications.clear();
+		invalidateFragments();
+	}
+
+	private static void formatPvPNotifications() {
+
+		wildernessPvPNotification = String.format(areaWildernessPvPNotificationFormat, Colors.Red + " (PvP)");
+		wildernessNoPvPNotification = String.format(areaWildernessPvPNotificationFormat, "");
+		townPvPNotification = String.format(areaTownPvPNotificationFormat, Colors.Red + "(PvP)");
+		townNoPvPNotification = String.format(areaTownPvPNotificationFormat, Colors.Green + "(No PVP)");
+	}
+
+	/**
+	 * Throws away the cached parts of notifications, so they are made again
+	 * from the towns, residents and townblocks as they are now. Called when
+	 * a plot or plot group name, plot group price, outpost, town or nation
+	 * name, resident title or surname is set, when a town gains or loses a
+	 * resident or its mayor, when a town joins or leaves a nation and when
+	 * a nation's capital changes.
+	 */
+	public static void invalidateFragments() {
+
+		fragmentsVersion.incrementAndGet();
+	}
+
+	private static Fragments getFragments(TownBlock townBlock) {
+
+		long version = fragmentsVersion.get();
+		TownyWorld world = townBlock.getWorld();
+		long regionVersion = world == null ? 0 : world.getRegionVersion(townBlock.getX() >> TownyWorld.REGION_SHIFT, townBlock.getZ() >> TownyWorld.REGION_SHIFT);
+		Fragments cached = fragments.get(townBlock);
+		if (cached != null && cached.isCurrent(version, regionVersion))
+			return cached;
+
+		Fragments made = new Fragments(townBlock, version, regionVersion);
+		fragments.put(townBlock, made);
+		return made;
 	}
 
 	WorldCoord from, to;
@@ -76,41 +180,31 @@ public class ChunkNotification {
 	TownBlockType fromPlotType = null, toPlotType = null;
 	PlotGroup fromPlotGroup = null, toPlotGroup = null;
 
+	Fragments toFragments = null;
+
 	public ChunkNotification(WorldCoord from, WorldCoord to) {
 
 		this.from = from;
 		this.to = to;
 
-		try {
-			fromTownBlock = from.getTownBlock();
+		// Looked up in the map directly, the wilderness is too common to throw for.
+		Map<WorldCoord, TownBlock> townBlocks = TownyUniverse.getInstance().getTownBlocks();
+		fromTownBlock = townBlocks.get(from);
+		if (fromTownBlock != null) {
 			fromPlotType = fromTownBlock.getType();
-			if (fromTownBlock.hasPlotObjectGroup())
-				fromPlotGroup = fromTownBlock.getPlotObjectGroup();
-			try {
-				fromTown = fromTownBlock.getTown();
-			} catch (NotRegisteredException e) {
-			}
-			try {
-				fromResident = fromTownBlock.getResident();
-			} catch (NotRegisteredException e) {
-			}
-		} catch (NotRegisteredException e) {
+			fromPlotGroup = fromTownBlock.getPlotObjectGroup();
+			fromTown = fromTownBlock.getTownOrNull();
+			fromResident = fromTownBlock.getResidentOrNull();
+		} else {
 			fromWild = true;
 		}
 
-		try {
-			toTownBlock = to.getTownBlock();
+		toTownBlock = townBlocks.get(to);
+		if (toTownBlock != null) {
 			toPlotType = toTownBlock.getType();
-			if (toTownBlock.hasPlotObjectGroup())
-				toPlotGroup = toTownBlock.getPlotObjectGroup();
-			try {
-				toTown = toTownBlock.getTown();
-			} catch (NotRegisteredException e) {
-			}
-			try {
-				toResident = toTownBlock.getResident();
-			} catch (NotRegisteredException e) {
-			}
+			toPlotGroup = toTownBlock.getPlotObjectGroup();
+			toTown = toTownBlock.getTownOrNull();
+			toResident = toTownBlock.getResidentOrNull();
 
 			toForSale = toTownBlock.getPlotPrice() != -1;
 			toHomeBlock = toTownBlock.isHomeBlock();
@@ -119,8 +213,9 @@ public class ChunkNotification {
 
 			if (toPlotGroupBlock)
 				toForSale = toTownBlock.getPlotObjectGroup().getPrice() != -1;
-			
-		} catch (NotRegisteredException e) {
+
+			toFragments = getFragments(toTownBlock);
+		} else {
 			toWild = true;
 		}
 
@@ -190,15 +285,13 @@ public class ChunkNotification {
 						}
 					}
 					
-					return String.format(areaWildernessNotificationFormat, to.getTownyWorld().getUnclaimedZoneName());
+					return wildernessNotifications.computeIfAbsent(to.getTownyWorld().getUnclaimedZoneName(), name -> String.format(areaWildernessNotificationFormat, name));
 				} catch (NotRegisteredException ex) {
 					// Not a Towny registered world
 				}
 			
-			} else if (TownySettings.isNotificationsTownNamesVerbose())
-				return String.format(areaTownNotificationFormat, toTown.getFormattedName());
-			else 
-				return String.format(areaTownNotificationFormat, toTown);
+			} else
+				return toFragments.area;
 			
 		} else if (fromWild && toWild) 
 			try {
@@ -226,7 +319,7 @@ public class ChunkNotification {
 		if (fromWild ^ toWild || !fromWild && !toWild && fromTown != null && toTown != null && fromTown != toTown) {
 			if (toWild)
 				try {
-					return String.format(areaWildernessPvPNotificationFormat, ((to.getTownyWorld().isPVP() && testWorldPVP()) ? Colors.Red + " (PvP)" : ""));
+					return (to.getTownyWorld().isPVP() && testWorldPVP()) ? wildernessPvPNotification : wildernessNoPvPNotification;
 				} catch (NotRegisteredException ex) {
 					// Not a Towny registered world
 				}
@@ -239,15 +332,7 @@ public class ChunkNotification {
 		if (((fromResident != toResident) || ((fromTownBlock != null) && (toTownBlock != null) && (!fromTownBlock.getName().equalsIgnoreCase(toTownBlock.getName()))))
 				&& !toWild) {
 			
-			if (toResident != null)
-				if (TownySettings.isNotificationOwnerShowingNationTitles()) {
-					return String.format(ownerNotificationFormat, (toTownBlock.getName().isEmpty()) ? toResident.getFormattedTitleName() : toTownBlock.getName());
-				} else {
-					return String.format(ownerNotificationFormat, (toTownBlock.getName().isEmpty()) ? toResident.getFormattedName() : toTownBlock.getName());
-				}
-			else
-				return  String.format(noOwnerNotificationFormat, (toTownBlock.getName().isEmpty()) ? TownySettings.getUnclaimedPlotName() : toTownBlock.getName());
-
+			return toFragments.owner;
 		}
 		return null;
 	}
@@ -256,7 +341,7 @@ public class ChunkNotification {
 
 		if (!toWild && ((fromWild) || (toTownBlock.getPermissions().pvp != fromTownBlock.getPermissions().pvp))) {
 			try {
-				return String.format(areaTownPvPNotificationFormat, ( !CombatUtil.preventPvP(to.getTownyWorld(), toTownBlock) ? Colors.Red + "(PvP)" : Colors.Green + "(No PVP)"));
+				return !CombatUtil.preventPvP(to.getTownyWorld(), toTownBlock) ? townPvPNotification : townNoPvPNotification;
 			} catch (NotRegisteredException e) {
 				// Not a Towny registered world.
 			}
@@ -315,14 +400,14 @@ public class ChunkNotification {
 	public String getHomeblockNotification() {
 
 		if (toHomeBlock)
-			return homeBlockNotification;
+			return toFragments.home;
 		return null;
 	}
 
 	public String getOutpostblockNotification() {
 
 		if (toOutpostBlock)
-			return outpostBlockNotification;
+			return toFragments.outpost;
 		return null;
 	}
 
@@ -330,23 +415,23 @@ public class ChunkNotification {
 
 		// Were heading to a plot group do some things differently
 		if (toForSale && toPlotGroupBlock && (fromPlotGroup != toPlotGroup))
-			return String.format(forSaleNotificationFormat, TownyEconomyHandler.getFormattedBalance(toTownBlock.getPlotObjectGroup().getPrice()));
+			return toFragments.groupForSale;
 		
 		if (toForSale && !toPlotGroupBlock)
-			return String.format(forSaleNotificationFormat, TownyEconomyHandler.getFormattedBalance(toTownBlock.getPlotPrice()));
+			return toFragments.forSale;
 		return null;
 	}
 	
 	public String getGroupNotification() {
 		if (toPlotGroupBlock && (fromPlotGroup != toPlotGroup))
-			return String.format(groupNotificationFormat, toTownBlock.getPlotObjectGroup().getName());
+			return toFragments.group;
 		return null;
 	}
 
 	public String getPlotTypeNotification() {
 
 		if (fromPlotType != toPlotType && toPlotType != null && toPlotType != TownBlockType.RESIDENTIAL)
-			return String.format(plotTypeNotificationFormat, toPlotType.toString());
+			return toFragments.type;
 		return null;
 	}
 }
@@ -0,0 +1,525 @@
+package com.palmergames.bukkit.towny;
+
+import com.palmergames.bukkit.towny.event.DeleteNationEvent;
+import com.palmergames.bukkit.towny.event.DeleteTownEvent;
+import com.palmergames.bukkit.towny.event.NationAddTownEvent;
+import com.palmergames.bukkit.towny.event.NationRemoveTownEvent;
+import com.palmergames.bukkit.towny.event.NewDayEvent;
+import com.palmergames.bukkit.towny.event.NewNationEvent;
+import com.palmergames.bukkit.towny.event.NewTownEvent;
+import com.palmergames.bukkit.towny.event.RenameNationEvent;
+import com.palmergames.bukkit.towny.event.RenameTownEvent;
+import com.palmergames.bukkit.towny.event.TownAddResidentEvent;
+import com.palmergames.bukkit.towny.event.TownClaimEvent;
+import com.palmergames.bukkit.towny.event.TownRemoveResidentEvent;
+import com.palmergames.bukkit.towny.event.TownBulkUnclaimEvent;
+import com.palmergames.bukkit.towny.event.TownUnclaimEvent;
+import com.palmergames.bukkit.towny.event.TownyTransactionEvent;
+import com.palmergames.bukkit.towny.exceptions.EconomyException;
+import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
+import com.palmergames.bukkit.towny.object.Government;
+import com.palmergames.bukkit.towny.object.Nation;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.util.BukkitTools;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Sorted views of every town and nation, used by /town list, /nation list
+ * and /towny top.
+ * <p>
+ * Each town and nation is held as a snapshot of the values it is ranked
+ * by, and every {@link Ranking} keeps the snapshots in a sorted list.
+ * Membership, claim, login and bank events mark the governments they
+ * concern as dirty, and the next query moves only those entries to their
+ * new place, so reading a page costs the page size plus the number of
+ * changes since the last read.
+ * <p>
+ * Bank balances are never read by a query or while the rankings are
+ * locked. A transaction only marks the balance as stale, and
+ * {@link #refreshBalances(Plugin, Runnable)}, which the list commands call
+ * before ranking by balance, reads the stale ones off the main thread.
+ * Until then the last balance read is used. Everything else, residents and
+ * townblocks included, is only read on the main thread.
+ */
+public class GovernmentRankings implements Listener {
+
+	public enum Ranking {
+		RESIDENTS(Comparator.comparingInt((Entry e) -> e.residents).reversed()),
+		TOWNS(Comparator.comparingInt((Entry e) -> e.towns).reversed()),
+		TOWNBLOCKS(Comparator.comparingInt((Entry e) -> e.townBlocks).reversed()),
+		ONLINE(Comparator.comparingInt((Entry e) -> e.online).reversed()),
+		BALANCE(Comparator.comparingDouble((Entry e) -> e.balance).reversed()),
+		NAME((e1, e2) -> 0),
+		// Open governments first, each half by population.
+		OPEN(Comparator.comparing((Entry e) -> !e.open).thenComparing(Comparator.comparingInt((Entry e) -> e.residents).reversed()));
+
+		private final Comparator<Entry> comparator;
+
+		Ranking(Comparator<Entry> comparator) {
+			// Ties are broken by name, so every entry has exactly one place in the list.
+			this.comparator = comparator.thenComparing(e -> e.name);
+		}
+	}
+
+	/**
+	 * The values a government was ranked by when it was last indexed.
+	 */
+	private static class Entry {
+		private final Government government;
+		private final String name;
+		private final int residents;
+		private final int towns;
+		private final int townBlocks;
+		private final int online;
+		private final double balance;
+		private final boolean open;
+
+		Entry(Government government, double balance, Set<String> onlineNames) {
+			this.government = government;
+			this.name = government.getName();
+			this.residents = government.getResidents().size();
+			if (government instanceof Nation) {
+				this.towns = ((Nation) government).getTowns().size();
+				this.townBlocks = ((Nation) government).getNumTownblocks();
+			} else {
+				this.towns = 0;
+				this.townBlocks = ((Town) government).getTownBlocks().size();
+			}
+			int online = 0;
+			for (Resident resident : government.getResidents())
+				if (onlineNames.contains(resident.getName()))
+					online++;
+			this.online = online;
+			this.balance = balance;
+			this.open = government.isOpen();
+		}
+	}
+
+	/**
+	 * The rankings of one kind of government.
+	 */
+	private static class Index<G extends Government> {
+		private final Supplier<Map<String, G>> source;
+		private final Map<G, Entry> entries = new HashMap<>();
+		private final Map<G, Double> balances = new HashMap<>();
+		private final Set<G> staleBalances = new HashSet<>();
+		private final Map<String, G> accounts = new HashMap<>();
+		private final Map<Ranking, List<Entry>> sorted = new EnumMap<>(Ranking.class);
+		private final Set<G> dirty = new HashSet<>();
+		private boolean rebuild = true;
+
+		Index(Supplier<Map<String, G>> source) {
+			this.source = source;
+		}
+
+		void markDirty(G government) {
+			if (government != null)
+				dirty.add(government);
+		}
+
+		void markBalanceDirty(G government) {
+			if (government != null)
+				staleBalances.add(government);
+		}
+
+		void markBalanceDirty(String accountName) {
+			markBalanceDirty(accounts.get(accountName));
+		}
+
+		void invalidate() {
+			rebuild = true;
+		}
+
+		void invalidateBalances() {
+			staleBalances.addAll(source.get().values());
+		}
+
+		/**
+		 * @return the governments whose balances need reading, which are no longer marked.
+		 */
+		List<G> takeStaleBalances() {
+			flush();
+			List<G> stale = new ArrayList<>(staleBalances);
+			staleBalances.clear();
+			return stale;
+		}
+
+		/**
+		 * Stores balances read by {@link GovernmentRankings#refreshBalances(Plugin, Runnable)}, re-ranking the governments they belong to.
+		 */
+		void putBalances(Map<G, Double> read) {
+			for (Map.Entry<G, Double> balance : read.entrySet()) {
+				G government = balance.getKey();
+				if (!isRegistered(government))
+					continue;
+				balances.put(government, balance.getValue());
+				dirty.add(government);
+			}
+		}
+
+		/**
+		 * Brings the sorted lists up to date with everything marked dirty.
+		 */
+		void flush() {
+			// Past a point re-sorting is cheaper than moving entries one at a time.
+			if (rebuild || dirty.size() > entries.size() / 4) {
+				rebuildAll();
+				return;
+			}
+
+			Set<String> onlineNames = dirty.isEmpty() ? Collections.emptySet() : getOnlineNames();
+			for (G government : dirty) {
+				Entry old = entries.remove(government);
+				Entry updated = isRegistered(government) ? newEntry(government, onlineNames) : null;
+				if (updated != null) {
+					entries.put(government, updated);
+				} else {
+					balances.remove(government);
+					staleBalances.remove(government);
+				}
+
+				for (Map.Entry<Ranking, List<Entry>> ranking : sorted.entrySet()) {
+					List<Entry> list = ranking.getValue();
+					Comparator<Entry> comparator = ranking.getKey().comparator;
+					if (old != null) {
+						int index = Collections.binarySearch(list, old, comparator);
+						if (index >= 0 && list.get(index) == old)
+							list.remove(index);
+						else
+							list.remove(old);
+					}
+					if (updated != null) {
+						int index = Collections.binarySearch(list, updated, comparator);
+						list.add(index < 0 ? -index - 1 : index, updated);
+					}
+				}
+			}
+			dirty.clear();
+		}
+
+		private void rebuildAll() {
+			Collection<G> governments = source.get().values();
+			entries.clear();
+			accounts.clear();
+			Set<G> registered = new HashSet<>(governments);
+			balances.keySet().retainAll(registered);
+			staleBalances.retainAll(registered);
+			Set<String> onlineNames = getOnlineNames();
+			for (G government : governments)
+				entries.put(government, newEntry(government, onlineNames));
+
+			for (Ranking ranking : Ranking.values()) {
+				List<Entry> list = new ArrayList<>(entries.values());
+				list.sort(ranking.comparator);
+				sorted.put(ranking, list);
+			}
+			dirty.clear();
+			rebuild = false;
+		}
+
+		private boolean isRegistered(G government) {
+			return source.get().get(government.getName().toLowerCase()) == government;
+		}
+
+		private Entry newEntry(G government, Set<String> onlineNames) {
+			accounts.put(government.getAccount().getName(), government);
+			Double balance = balances.get(government);
+			if (balance == null) {
+				// Never read, ranked as empty until it has been.
+				balance = 0.0;
+				staleBalances.add(government);
+			}
+			return new Entry(government, balance, onlineNames);
+		}
+
+		/**
+		 * @return the names of the players online, looked up once per flush rather than once per resident.
+		 */
+		private static Set<String> getOnlineNames() {
+			Set<String> names = new HashSet<>();
+			for (Player player : BukkitTools.getOnlinePlayers())
+				names.add(player.getName());
+			return names;
+		}
+
+		private static <G extends Government> Map<G, Double> readBalances(List<G> governments) {
+			Map<G, Double> read = new HashMap<>();
+			for (G government : governments)
+				read.put(government, readBalance(government));
+			return read;
+		}
+
+		private static double readBalance(Government government) {
+			if (!TownySettings.isUsingEconomy())
+				return 0;
+			try {
+				return government.getAccount().getHoldingBalance();
+			} catch (EconomyException e) {
+				return 0;
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		List<G> getPage(Ranking ranking, int from, int count) {
+			flush();
+			List<Entry> list = sorted.get(ranking);
+			List<G> page = new ArrayList<>(Math.max(0, Math.min(count, list.size() - from)));
+			for (int i = Math.max(0, from); i < list.size() && i < from + count; i++)
+				page.add((G) list.get(i).government);
+			return page;
+		}
+
+		int size() {
+			flush();
+			return entries.size();
+		}
+	}
+
+	private final Index<Town> towns = new Index<>(() -> TownyUniverse.getInstance().getTownsMap());
+	private final Index<Nation> nations = new Index<>(() -> TownyUniverse.getInstance().getNationsMap());
+
+	/**
+	 * Gets towns in ranked order.
+	 *
+	 * @param ranking - What to rank the towns by.
+	 * @param from - Position of the first town returned, starting at 0.
+	 * @param count - Greatest number of towns returned.
+	 * @return up to count towns, best first.
+	 */
+	public synchronized List<Town> getTowns(Ranking ranking, int from, int count) {
+		return towns.getPage(ranking, from, count);
+	}
+
+	/**
+	 * Gets nations in ranked order.
+	 *
+	 * @param ranking - What to rank the nations by.
+	 * @param from - Position of the first nation returned, starting at 0.
+	 * @param count - Greatest number of nations returned.
+	 * @return up to count nations, best first.
+	 */
+	public synchronized List<Nation> getNations(Ranking ranking, int from, int count) {
+		return nations.getPage(ranking, from, count);
+	}
+
+	public synchronized int getTownCount() {
+		return towns.size();
+	}
+
+	public synchronized int getNationCount() {
+		return nations.size();
+	}
+
+	/**
+	 * Reads the bank balances which have changed, or never been read, since
+	 * this was last called, then runs a task. Call this on the main thread
+	 * before asking for a {@link Ranking#BALANCE} page: the stale balances
+	 * are picked out here, the economy plugin is asked off the main thread
+	 * without the rankings being locked, and the balances are stored and
+	 * the task run back on the main thread.
+	 *
+	 * @param plugin - Plugin the reads are scheduled for.
+	 * @param then - Run on the main thread once the balances are stored.
+	 */
+	public void refreshBalances(Plugin plugin, Runnable then) {
+		List<Town> staleTowns;
+		List<Nation> staleNations;
+		synchronized (this) {
+			staleTowns = towns.takeStaleBalances();
+			staleNations = nations.takeStaleBalances();
+		}
+		if (staleTowns.isEmpty() && staleNations.isEmpty()) {
+			then.run();
+			return;
+		}
+
+		Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+			Map<Town, Double> townBalances = Index.readBalances(staleTowns);
+			Map<Nation, Double> nationBalances = Index.readBalances(staleNations);
+			Bukkit.getScheduler().runTask(plugin, () -> {
+				synchronized (this) {
+					towns.putBalances(townBalances);
+					nations.putBalances(nationBalances);
+				}
+				then.run();
+			});
+		});
+	}
+
+	/**
+	 * Marks a town, and the nation it belongs to, for re-ranking.
+	 *
+	 * @param town - Town which has changed.
+	 */
+	public synchronized void markDirty(Town town) {
+		if (town == null)
+			return;
+		towns.markDirty(town);
+		if (town.hasNation()) {
+			try {
+				nations.markDirty(town.getNation());
+			} catch (NotRegisteredException ignored) {
+			}
+		}
+	}
+
+	public synchronized void markDirty(Nation nation) {
+		nations.markDirty(nation);
+	}
+
+	private void markDirty(Resident resident) {
+		if (resident != null && resident.hasTown()) {
+			try {
+				markDirty(resident.getTown());
+			} catch (NotRegisteredException ignored) {
+			}
+		}
+	}
+
+	/**
+	 * Marks the town or nation owning an economy account for its balance to be read again.
+	 *
+	 * @param accountName - Name of the economy account which has changed.
+	 */
+	public synchronized void markBalanceDirty(String accountName) {
+		towns.markBalanceDirty(accountName);
+		nations.markBalanceDirty(accountName);
+	}
+
+	/**
+	 * Throws away every index, to be rebuilt on the next query.
+	 */
+	public synchronized void invalidateAll() {
+		towns.invalidate();
+		nations.invalidate();
+	}
+
+	/*
+	 * Membership and claims.
+	 */
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNewTown(NewTownEvent event) {
+		markDirty(event.getTown());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNewNation(NewNationEvent event) {
+		markDirty(event.getNation());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onDeleteTown(DeleteTownEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onDeleteNation(DeleteNationEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onRenameTown(RenameTownEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onRenameNation(RenameNationEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownAddResident(TownAddResidentEvent event) {
+		markDirty(event.getTown());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownRemoveResident(TownRemoveResidentEvent event) {
+		markDirty(event.getTown());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public synchronized void onNationAddTown(NationAddTownEvent event) {
+		towns.markDirty(event.getTown());
+		nations.markDirty(event.getNation());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public synchronized void onNationRemoveTown(NationRemoveTownEvent event) {
+		towns.markDirty(event.getTown());
+		nations.markDirty(event.getNation());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownClaim(TownClaimEvent event) {
+		try {
+			markDirty(event.getTownBlock().getTown());
+		} catch (NotRegisteredException ignored) {
+		}
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownUnclaim(TownUnclaimEvent event) {
+		markDirty(event.getTown());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownBulkUnclaim(TownBulkUnclaimEvent event) {
+		markDirty(event.getTown());
+	}
+
+	/*
+	 * Bank balances.
+	 */
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownyTransaction(TownyTransactionEvent event) {
+		if (event.getAccountName() != null)
+			markBalanceDirty(event.getAccountName());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public synchronized void onNewDay(NewDayEvent event) {
+		// Taxes and upkeep have moved money in and out of every bank.
+		towns.invalidateBalances();
+		nations.invalidateBalances();
+	}
+
+	/*
+	 * Online counts, re-counted when next queried, by which time a quitting player is gone.
+	 */
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public synchronized void onPlayerJoin(PlayerJoinEvent event) {
+		markDirty(getResident(event.getPlayer()));
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public synchronized void onPlayerQuit(PlayerQuitEvent event) {
+		markDirty(getResident(event.getPlayer()));
+	}
+
+	private static Resident getResident(Player player) {
+		return TownyUniverse.getInstance().getResidentMap().get(player.getName().toLowerCase());
+	}
+}
@@ -0,0 +1,349 @@
+package com.palmergames.bukkit.towny;
+
+import com.palmergames.bukkit.towny.event.BankTransactionEvent;
+import com.palmergames.bukkit.towny.event.DeleteNationEvent;
+import com.palmergames.bukkit.towny.event.DeleteTownEvent;
+import com.palmergames.bukkit.towny.event.GovernmentTagChangeEvent;
+import com.palmergames.bukkit.towny.event.NationAddTownEvent;
+import com.palmergames.bukkit.towny.event.NationCapitalChangeEvent;
+import com.palmergames.bukkit.towny.event.NationRemoveTownEvent;
+import com.palmergames.bukkit.towny.event.NewDayEvent;
+import com.palmergames.bukkit.towny.event.RenameNationEvent;
+import com.palmergames.bukkit.towny.event.RenameResidentEvent;
+import com.palmergames.bukkit.towny.event.RenameTownEvent;
+import com.palmergames.bukkit.towny.event.ResidentFriendsChangeEvent;
+import com.palmergames.bukkit.towny.event.ResidentJailStatusChangeEvent;
+import com.palmergames.bukkit.towny.event.ResidentTitleChangeEvent;
+import com.palmergames.bukkit.towny.event.TownAddResidentEvent;
+import com.palmergames.bukkit.towny.event.TownAddResidentRankEvent;
+import com.palmergames.bukkit.towny.event.TownBulkUnclaimEvent;
+import com.palmergames.bukkit.towny.event.TownClaimEvent;
+import com.palmergames.bukkit.towny.event.TownMayorChangeEvent;
+import com.palmergames.bukkit.towny.event.TownRemoveResidentEvent;
+import com.palmergames.bukkit.towny.event.TownRemoveResidentRankEvent;
+import com.palmergames.bukkit.towny.event.TownUnclaimEvent;
+import com.palmergames.bukkit.towny.event.TownyTransactionEvent;
+import com.palmergames.bukkit.towny.object.Nation;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.profiler.TownyProfiler;
+import com.palmergames.bukkit.towny.profiler.TownyProfiler.HitCounter;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-player cache of resolved PlaceholderAPI values.
+ * <p>
+ * Scoreboard and tab plugins ask for the same placeholders many times a
+ * second. Values are kept for a time-to-live chosen per placeholder and
+ * are thrown away early when a Towny event says they have changed:
+ * renames, residents joining or leaving towns, towns joining or leaving
+ * nations, claims, rank and tag changes, new mayors and capitals, and the
+ * new day. A resident's title, surname, jail and friends changes drop only
+ * that resident's values, and a bank transaction only the balance shown to
+ * the members of the town or nation whose account it was.
+ * <p>
+ * Hits and misses are always counted, under "placeholders" in /ta perf.
+ *
+ * @see TownyPlaceholderExpansion
+ */
+public class PlaceholderCache implements Listener {
+
+	private static final long DEFAULT_TTL = TimeUnit.SECONDS.toMillis(30);
+	private static final long BALANCE_TTL = TimeUnit.SECONDS.toMillis(10);
+	private static final long ONLINE_TTL = TimeUnit.SECONDS.toMillis(5);
+
+	private final Map<UUID, Map<String, CachedValue>> values = new ConcurrentHashMap<>();
+	private final HitCounter counter = TownyProfiler.getCounter("placeholders");
+
+	private static class CachedValue {
+		private final String value;
+		private final long expires;
+
+		CachedValue(String value, long expires) {
+			this.value = value;
+			this.expires = expires;
+		}
+	}
+
+	/**
+	 * Returns the cached value of a placeholder for a player, computing and
+	 * storing it when there is no live entry.
+	 *
+	 * @param player - Player the placeholder is resolved for.
+	 * @param identifier - Placeholder identifier, without the expansion prefix.
+	 * @param loader - Computes the value on a miss.
+	 * @return the value, or null for unknown placeholders.
+	 */
+	public String get(Player player, String identifier, Supplier<String> loader) {
+		long ttl = getTimeToLive(identifier);
+		if (ttl <= 0)
+			return loader.get();
+
+		Map<String, CachedValue> playerValues = values.computeIfAbsent(player.getUniqueId(), uuid -> new ConcurrentHashMap<>());
+		long now = System.currentTimeMillis();
+		CachedValue cached = playerValues.get(identifier);
+		if (cached != null && cached.expires > now) {
+			counter.hit();
+			return cached.value;
+		}
+
+		counter.miss();
+		String value = loader.get();
+		if (value != null)
+			playerValues.put(identifier, new CachedValue(value, now + ttl));
+		else
+			playerValues.remove(identifier);
+		return value;
+	}
+
+	/**
+	 * How long a value may be served from the cache before it is recomputed.
+	 * Placeholders which depend on where the player is standing are never cached.
+	 *
+	 * @param identifier - Placeholder identifier.
+	 * @return time-to-live in milliseconds, 0 for no caching.
+	 */
+	private static long getTimeToLive(String identifier) {
+		if (identifier.startsWith("player_plot_"))
+			return 0;
+		if (identifier.endsWith("_balance"))
+			return BALANCE_TTL;
+		if (identifier.endsWith("_online"))
+			return ONLINE_TTL;
+		return DEFAULT_TTL;
+	}
+
+	public void invalidate(Player player) {
+		values.remove(player.getUniqueId());
+	}
+
+	public void invalidate(Resident resident) {
+		if (resident.getUUID() != null)
+			values.remove(resident.getUUID());
+	}
+
+	/**
+	 * Drops one placeholder for each of the given residents.
+	 *
+	 * @param residents - Residents whose value is dropped.
+	 * @param identifier - Placeholder identifier, ie: "town_balance".
+	 */
+	private void invalidate(Collection<Resident> residents, String identifier) {
+		for (Resident resident : residents) {
+			if (resident.getUUID() == null)
+				continue;
+			Map<String, CachedValue> playerValues = values.get(resident.getUUID());
+			if (playerValues != null)
+				playerValues.remove(identifier);
+		}
+	}
+
+	/**
+	 * Drops the balance placeholder of the town or nation owning an economy
+	 * account. Resident accounts have no cached placeholder. When the account
+	 * can't be matched to a government, ie: its name was cut short, the
+	 * balance is dropped for everyone.
+	 *
+	 * @param accountName - Name of the economy account, or null if unknown.
+	 */
+	private void invalidateBalance(String accountName) {
+		if (accountName == null) {
+			invalidate("_balance");
+			return;
+		}
+
+		String debtPrefix = TownySettings.getDebtAccountPrefix();
+		String townPrefix = TownySettings.getTownAccountPrefix();
+		String nationPrefix = TownySettings.getNationAccountPrefix();
+		TownyUniverse universe = TownyUniverse.getInstance();
+		if (accountName.startsWith(debtPrefix) || accountName.startsWith(townPrefix)) {
+			String prefix = accountName.startsWith(debtPrefix) ? debtPrefix : townPrefix;
+			Town town = universe.getTownsMap().get(accountName.substring(prefix.length()).toLowerCase());
+			if (town != null)
+				invalidate(town.getResidents(), "town_balance");
+			else
+				invalidate("town_balance");
+		} else if (accountName.startsWith(nationPrefix)) {
+			Nation nation = universe.getNationsMap().get(accountName.substring(nationPrefix.length()).toLowerCase());
+			if (nation != null)
+				invalidate(nation.getResidents(), "nation_balance");
+			else
+				invalidate("nation_balance");
+		}
+	}
+
+	/**
+	 * Drops every player's cached values for placeholders containing the given fragment.
+	 *
+	 * @param fragment - Part of the placeholder identifier, ie: "_balance".
+	 */
+	public void invalidate(String fragment) {
+		for (Map<String, CachedValue> playerValues : values.values())
+			playerValues.keySet().removeIf(identifier -> identifier.contains(fragment));
+	}
+
+	public void invalidateAll() {
+		values.clear();
+	}
+
+	public int size() {
+		int size = 0;
+		for (Map<String, CachedValue> playerValues : values.values())
+			size += playerValues.size();
+		return size;
+	}
+
+	/*
+	 * Events which change values shown to many players at once.
+	 */
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onRenameTown(RenameTownEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onRenameNation(RenameNationEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onRenameResident(RenameResidentEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownAddResident(TownAddResidentEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownRemoveResident(TownRemoveResidentEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationAddTown(NationAddTownEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationRemoveTown(NationRemoveTownEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onDeleteTown(DeleteTownEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onDeleteNation(DeleteNationEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownAddResidentRank(TownAddResidentRankEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownRemoveResidentRank(TownRemoveResidentRankEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTagChange(GovernmentTagChangeEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownClaim(TownClaimEvent event) {
+		invalidate("_townblocks_");
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownUnclaim(TownUnclaimEvent event) {
+		invalidate("_townblocks_");
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownBulkUnclaim(TownBulkUnclaimEvent event) {
+		invalidate("_townblocks_");
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownMayorChange(TownMayorChangeEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNationCapitalChange(NationCapitalChangeEvent event) {
+		invalidateAll();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onNewDay(NewDayEvent event) {
+		invalidateAll();
+	}
+
+	/*
+	 * Events which change values shown to one resident.
+	 */
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onResidentTitleChange(ResidentTitleChangeEvent event) {
+		invalidate(event.getResident());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onResidentJailStatusChange(ResidentJailStatusChangeEvent event) {
+		invalidate(event.getResident());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onResidentFriendsChange(ResidentFriendsChangeEvent event) {
+		invalidate(event.getResident());
+	}
+
+	/*
+	 * Bank balances.
+	 */
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onBankTransaction(BankTransactionEvent event) {
+		invalidateBalance(event.getAccount().getName());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownyTransaction(TownyTransactionEvent event) {
+		invalidateBalance(event.getAccountName());
+	}
+
+	/*
+	 * Online counts and per-player cleanup.
+	 */
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerJoin(PlayerJoinEvent event) {
+		invalidate("_online");
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerQuit(PlayerQuitEvent event) {
+		invalidate(event.getPlayer());
+		invalidate("_online");
+	}
+}
@@ -0,0 +1,98 @@
+package com.palmergames.bukkit.towny;
+
+import com.palmergames.bukkit.towny.object.WorldCoord;
+import org.bukkit.entity.Player;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of which online players are standing in which townblock, so
+ * timer tasks can visit the occupied plots instead of looking every player up.
+ * <p>
+ * It is kept up to date by the player listener as players cross cell borders,
+ * teleport, change worlds, respawn, join and quit, the same moments the
+ * {@link com.palmergames.bukkit.towny.object.PlayerCache} location is updated.
+ * Reads are safe from any thread.
+ */
+public class PlayerLocationIndex {
+
+	private final Map<UUID, WorldCoord> locations = new ConcurrentHashMap<>();
+	private final Map<WorldCoord, Set<Player>> occupants = new ConcurrentHashMap<>();
+
+	/**
+	 * Records the townblock a player is now standing in.
+	 *
+	 * @param player - Player who moved.
+	 * @param worldCoord - Where they are now.
+	 */
+	public synchronized void update(Player player, WorldCoord worldCoord) {
+
+		WorldCoord old = locations.put(player.getUniqueId(), worldCoord);
+		if (worldCoord.equals(old))
+			return;
+
+		if (old != null)
+			leave(player, old);
+		occupants.computeIfAbsent(worldCoord, k -> ConcurrentHashMap.newKeySet()).add(player);
+	}
+
+	/**
+	 * Forgets a player, when they go offline.
+	 *
+	 * @param player - Player to forget.
+	 */
+	public synchronized void remove(Player player) {
+
+		WorldCoord old = locations.remove(player.getUniqueId());
+		if (old != null)
+			leave(player, old);
+	}
+
+	public synchronized void clear() {
+
+		locations.clear();
+		occupants.clear();
+	}
+
+	private void leave(Player player, WorldCoord worldCoord) {
+
+		Set<Player> players = occupants.get(worldCoord);
+		if (players == null)
+			return;
+
+		players.remove(player);
+		if (players.isEmpty())
+			occupants.remove(worldCoord);
+	}
+
+	/**
+	 * @param player - Player to look up.
+	 * @return the WorldCoord the player was last seen in, or null if they are not known.
+	 */
+	public WorldCoord getLocation(Player player) {
+
+		return locations.get(player.getUniqueId());
+	}
+
+	/**
+	 * @param worldCoord - WorldCoord to look in.
+	 * @return the players standing in it, which must not be changed.
+	 */
+	public Set<Player> getPlayersAt(WorldCoord worldCoord) {
+
+		Set<Player> players = occupants.get(worldCoord);
+		return players == null ? Collections.emptySet() : Collections.unmodifiableSet(players);
+	}
+
+	/**
+	 * @return every WorldCoord with a player in it, mapped to those players. Must not be changed.
+	 */
+	public Map<WorldCoord, Set<Player>> getOccupied() {
+
+		return Collections.unmodifiableMap(occupants);
+	}
+}
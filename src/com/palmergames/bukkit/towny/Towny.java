@@ -38,6 +38,7 @@ import com.palmergames.bukkit.towny.permissions.BukkitPermSource;
 import com.palmergames.bukkit.towny.permissions.GroupManagerSource;
 import com.palmergames.bukkit.towny.permissions.TownyPerms;
 import com.palmergames.bukkit.towny.permissions.VaultPermSource;
+import com.palmergames.bukkit.towny.profiler.TownyProfiler;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
 import com.palmergames.bukkit.towny.tasks.OnPlayerLogin;
 import com.palmergames.bukkit.towny.utils.PlayerCacheUtil;
@@ -64,9 +65,11 @@ import org.bukkit.command.CommandMap;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.RegisteredServiceProvider;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
 
 import java.io.File;
 import java.io.IOException;
@@ -76,6 +79,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Towny Plugin for Bukkit
@@ -105,6 +110,9 @@ public class Towny extends JavaPlugin {
 	private TownyUniverse townyUniverse;
 
 	private final Map<String, PlayerCache> playerCache = Collections.synchronizedMap(new HashMap<>());
+	// The same caches by UUID, so looking one up does not lowercase the player's name.
+	private final Map<UUID, PlayerCache> playerCacheById = new ConcurrentHashMap<>();
+	private final PlayerLocationIndex playerLocations = new PlayerLocationIndex();
 
 	private Essentials essentials = null;
 	private boolean citizens2 = false;
@@ -119,6 +127,20 @@ public class Towny extends JavaPlugin {
 		plugin = this;
 	}
 
+	/**
+	 * Loads Towny outside of a server, for the benchmarks and the load simulator.
+	 * 
+	 * @param loader - Loader standing in for the server's.
+	 * @param description - Towny's plugin.yml.
+	 * @param dataFolder - Folder to keep the settings and data in.
+	 * @param file - Towny's jar.
+	 */
+	protected Towny(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder, File file) {
+
+		super(loader, description, dataFolder, file);
+		plugin = this;
+	}
+
 	@Override
 	public void onEnable() {
 
@@ -221,18 +243,23 @@ public class Towny extends JavaPlugin {
 		TownyTimerHandler.toggleMobRemoval(false);
 		TownyTimerHandler.toggleHealthRegen(false);
 		TownyTimerHandler.toggleTeleportWarmup(false);
+		TownyTimerHandler.toggleTimerWheel(false);
 		TownyTimerHandler.toggleDrawSmokeTask(false);
 		TownyTimerHandler.toggleGatherResidentUUIDTask(false);
+		TownyTimerHandler.toggleProfilerDump(false);
 
 		TownyRegenAPI.cancelProtectionRegenTasks();
 
 		playerCache.clear();
+		playerCacheById.clear();
+		playerLocations.clear();
 		
 		try {
 			// Shut down our saving task.
 			System.out.println("[Towny] Finishing File IO Tasks...");
 			townyUniverse.getDataSource().finishTasks();
 			townyUniverse.finishTasks();
+			TownyEconomyHandler.shutdown();
 		} catch (NullPointerException ignored) {
 			// The saving task will not have started if this disable was fired by onEnable failing.			
 		}
@@ -263,8 +290,12 @@ public class Towny extends JavaPlugin {
 		TownyTimerHandler.toggleTeleportWarmup(false);
 		TownyTimerHandler.toggleCooldownTimer(false);
 		TownyTimerHandler.toggleDrawSmokeTask(false);
+		TownyTimerHandler.toggleProfilerDump(false);
+
+		TownyProfiler.setEnabled(TownySettings.isProfilerEnabled());
 
 		// Start timers
+		TownyTimerHandler.toggleTimerWheel(true);
 		TownyTimerHandler.toggleTownyRepeatingTimer(true);
 		TownyTimerHandler.toggleDailyTimer(true);
 		TownyTimerHandler.toggleMobRemoval(true);
@@ -272,6 +303,7 @@ public class Towny extends JavaPlugin {
 		TownyTimerHandler.toggleTeleportWarmup(TownySettings.getTeleportWarmupTime() > 0);
 		TownyTimerHandler.toggleCooldownTimer(TownySettings.getPVPCoolDownTime() > 0 || TownySettings.getSpawnCooldownTime() > 0);
 		TownyTimerHandler.toggleDrawSmokeTask(true);
+		TownyTimerHandler.toggleProfilerDump(TownyProfiler.isEnabled() && TownySettings.getProfilerDumpInterval() > 0);
 		if (!TownySettings.getUUIDPercent().equals("100%")) {
 			if (TownySettings.isGatheringResidentUUIDS())
 				TownyTimerHandler.toggleGatherResidentUUIDTask(true);
@@ -359,7 +391,9 @@ public class Towny extends JavaPlugin {
 
 		test = getServer().getPluginManager().getPlugin("PlaceholderAPI");
 		if(test != null){
-            new TownyPlaceholderExpansion(this).register();
+            TownyPlaceholderExpansion placeholderExpansion = new TownyPlaceholderExpansion(this);
+            placeholderExpansion.register();
+            getServer().getPluginManager().registerEvents(placeholderExpansion.getCache(), this);
             using.add(String.format("%s v%s", "PlaceholderAPI", test.getDescription().getVersion()));
 		}
 
@@ -381,26 +415,27 @@ public class Towny extends JavaPlugin {
 
 		if (!isError()) {
 			// Have War Events get launched before regular events.
-			pluginManager.registerEvents(flagWarBlockListener, this);
-			pluginManager.registerEvents(flagWarEntityListener, this);
+			TownyProfiler.registerEvents(pluginManager, flagWarBlockListener, this);
+			TownyProfiler.registerEvents(pluginManager, flagWarEntityListener, this);
 			
 			// Huds
-			pluginManager.registerEvents(HUDManager, this);
+			TownyProfiler.registerEvents(pluginManager, HUDManager, this);
 
 			// Manage player deaths and death payments
-			pluginManager.registerEvents(entityMonitorListener, this);
-			pluginManager.registerEvents(vehicleListener, this);
-			pluginManager.registerEvents(weatherListener, this);
-			pluginManager.registerEvents(flagWarCustomListener, this);
-			pluginManager.registerEvents(customListener, this);
-			pluginManager.registerEvents(worldListener, this);
-			pluginManager.registerEvents(loginListener, this);
+			TownyProfiler.registerEvents(pluginManager, entityMonitorListener, this);
+			TownyProfiler.registerEvents(pluginManager, vehicleListener, this);
+			TownyProfiler.registerEvents(pluginManager, weatherListener, this);
+			TownyProfiler.registerEvents(pluginManager, flagWarCustomListener, this);
+			TownyProfiler.registerEvents(pluginManager, customListener, this);
+			TownyProfiler.registerEvents(pluginManager, worldListener, this);
+			TownyProfiler.registerEvents(pluginManager, loginListener, this);
+			TownyProfiler.registerEvents(pluginManager, townyUniverse.getRankings(), this);
 		}
 
 		// Always register these events.
-		pluginManager.registerEvents(playerListener, this);
-		pluginManager.registerEvents(blockListener, this);
-		pluginManager.registerEvents(entityListener, this);
+		TownyProfiler.registerEvents(pluginManager, playerListener, this);
+		TownyProfiler.registerEvents(pluginManager, blockListener, this);
+		TownyProfiler.registerEvents(pluginManager, entityListener, this);
 
 	}
 
@@ -506,6 +541,7 @@ public class Towny extends JavaPlugin {
 		try {
 			PlayerCache cache = new PlayerCache(TownyUniverse.getInstance().getDataSource().getWorld(player.getWorld().getName()), player);
 			playerCache.put(player.getName().toLowerCase(), cache);
+			playerCacheById.put(player.getUniqueId(), cache);
 			return cache;
 		} catch (NotRegisteredException e) {
 			TownyMessaging.sendErrorMsg(player, "Could not create permission cache for this world (" + player.getWorld().getName() + ".");
@@ -521,7 +557,9 @@ public class Towny extends JavaPlugin {
 
 	public void deleteCache(String name) {
 
-		playerCache.remove(name.toLowerCase());
+		PlayerCache cache = playerCache.remove(name.toLowerCase());
+		if (cache != null)
+			playerCacheById.values().remove(cache);
 	}
 
 	/**
@@ -533,9 +571,14 @@ public class Towny extends JavaPlugin {
 	 */
 	public PlayerCache getCache(Player player) {
 
-		PlayerCache cache = playerCache.get(player.getName().toLowerCase());
-		
-		if (cache == null) {
+		PlayerCache cache = playerCacheById.get(player.getUniqueId());
+		if (cache != null)
+			return cache;
+
+		cache = playerCache.get(player.getName().toLowerCase());
+		if (cache != null) {
+			playerCacheById.put(player.getUniqueId(), cache);
+		} else {
 			cache = newCache(player);
 			
 			if (cache != null)
@@ -551,10 +594,19 @@ public class Towny extends JavaPlugin {
 	public void resetCache() {
 
 		for (Player player : BukkitTools.getOnlinePlayers())
-			if (player != null)
-				getCache(player).resetAndUpdate(WorldCoord.parseWorldCoord(player)); // Automatically
-																														// resets
-																														// permissions.
+			if (player != null) {
+				WorldCoord worldCoord = WorldCoord.parseWorldCoord(player);
+				getCache(player).resetAndUpdate(worldCoord); // Automatically resets permissions.
+				playerLocations.update(player, worldCoord);
+			}
+	}
+
+	/**
+	 * @return the index of which townblock each online player is standing in.
+	 */
+	public PlayerLocationIndex getPlayerLocations() {
+
+		return playerLocations;
 	}
 
 	/**
@@ -1,12 +1,15 @@
 package com.palmergames.bukkit.towny;
 
+import com.palmergames.bukkit.towny.object.RelationshipCache;
+import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.Translation;
+import com.palmergames.bukkit.towny.object.WorldCoord;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.Coord;
-import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownBlockType;
@@ -15,6 +18,31 @@ import com.palmergames.bukkit.util.ChatTools;
 import com.palmergames.bukkit.util.Colors;
 import com.palmergames.bukkit.util.Compass;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Draws the /towny map.
+ * <p>
+ * Townblocks are looked up a region of 16x16 at a time and the lookups
+ * kept per world, stamped with the world's claims version so a region is
+ * only looked up again once something in it has changed. Each player's
+ * last map is kept too: when they move a chunk the old cells are shifted
+ * along and only the new row or column is drawn. Claims made near a player
+ * in map mode are streamed to them, but only when their map has changed.
+ * Everything here runs on the main thread, apart from
+ * {@link #claimsChanged(Towny, WorldCoord)}, which only queues the change
+ * for the main thread.
+ */
 public class TownyAsciiMap {
 
 	public static final int lineWidth = 27;
@@ -28,6 +56,50 @@ public class TownyAsciiMap {
 			"  " + Colors.Green + "+" + Colors.LightGray + " = " + Translation.of("towny_map_ally"),
 			"  " + Colors.Red + "+" + Colors.LightGray + " = " + Translation.of("towny_map_enemy")};
 
+	private static final int REGION_SIZE = 1 << TownyWorld.REGION_SHIFT;
+	private static final int REGION_MASK = REGION_SIZE - 1;
+	private static final int MAX_REGIONS_PER_WORLD = 4096;
+
+	private static final Map<String, Map<Long, Region>> regions = new HashMap<>();
+	private static final Map<Player, MapView> views = new WeakHashMap<>();
+	private static final Queue<WorldCoord> changedCoords = new ConcurrentLinkedQueue<>();
+	private static final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+	/**
+	 * The townblocks of a 16x16 region, as they were at a claims version.
+	 */
+	private static class Region {
+		private final long version;
+		private final TownBlock[] townBlocks = new TownBlock[REGION_SIZE * REGION_SIZE];
+
+		Region(long version) {
+			this.version = version;
+		}
+	}
+
+	/**
+	 * The last map drawn for a player, without the marker for their own position.
+	 */
+	private static class MapView {
+		private String worldName;
+		private int lineHeight;
+		private Town town;
+		private long relationshipVersion;
+		private long claimsVersion;
+		private int centerX;
+		private int centerZ;
+		private String[][] cells;
+		private List<String> lastSent;
+
+		boolean covers(WorldCoord worldCoord) {
+			if (cells == null || !worldCoord.getWorldName().equals(worldName))
+				return false;
+			int halfLineHeight = lineHeight / 2;
+			return worldCoord.getX() >= centerX - halfLineWidth && worldCoord.getX() <= centerX + (lineWidth - halfLineWidth - 1)
+				&& worldCoord.getZ() >= centerZ - halfLineHeight && worldCoord.getZ() <= centerZ + (lineHeight - halfLineHeight - 1);
+		}
+	}
+
 	public static String[] generateCompass(Player player) {
 
 		Compass.Point dir = Compass.getCompassPointForDirection(player.getLocation().getYaw());
@@ -41,14 +113,64 @@ public class TownyAsciiMap {
 
 	public static void generateAndSend(Towny plugin, Player player, int lineHeight) {
 
+		send(plugin, player, lineHeight, false);
+	}
+
+	/**
+	 * Sends the map to a player only if it differs from the last one they were sent.
+	 *
+	 * @param plugin - Towny.
+	 * @param player - Player to send the map to.
+	 * @param lineHeight - Number of lines of townblocks.
+	 */
+	public static void sendIfChanged(Towny plugin, Player player, int lineHeight) {
+
+		send(plugin, player, lineHeight, true);
+	}
+
+	/**
+	 * Streams a changed townblock to every player in map mode whose map shows it.
+	 * Any number of changes in a tick are sent as one map per player on the next tick.
+	 * Safe to call from any thread, as claims are made off the main thread.
+	 *
+	 * @param plugin - Towny.
+	 * @param worldCoord - The townblock which has changed.
+	 */
+	public static void claimsChanged(Towny plugin, WorldCoord worldCoord) {
+
+		changedCoords.add(worldCoord);
+		if (refreshScheduled.compareAndSet(false, true))
+			Bukkit.getScheduler().runTask(plugin, () -> refreshChanged(plugin));
+	}
+
+	private static void refreshChanged(Towny plugin) {
+
+		// Cleared first, so a change queued while this runs schedules another refresh.
+		refreshScheduled.set(false);
+		Set<Player> refresh = new LinkedHashSet<>();
+		WorldCoord worldCoord;
+		while ((worldCoord = changedCoords.poll()) != null)
+			for (Map.Entry<Player, MapView> view : views.entrySet())
+				if (view.getValue().covers(worldCoord) && plugin.hasPlayerMode(view.getKey(), "map"))
+					refresh.add(view.getKey());
+
+		for (Player player : refresh) {
+			MapView view = views.get(player);
+			if (player.isOnline() && view != null)
+				sendIfChanged(plugin, player, view.lineHeight);
+		}
+	}
+
+	private static void send(Towny plugin, Player player, int lineHeight, boolean onlyIfChanged) {
+
 		// Collect Sample Data
-		boolean hasTown = false;
 		Resident resident;
+		Town town = null;
 		TownyUniverse townyUniverse = TownyUniverse.getInstance();
 		try {
 			resident = townyUniverse.getDataSource().getResident(player.getName());
 			if (resident.hasTown())
-				hasTown = true;
+				town = resident.getTown();
 		} catch (TownyException x) {
 			TownyMessaging.sendErrorMsg(player, x.getMessage());
 			return;
@@ -67,105 +189,195 @@ public class TownyAsciiMap {
 		}
 		Coord pos = Coord.parseCoord(plugin.getCache(player).getLastLocation());
 
-		// Generate Map 
+		// Generate Map
+		MapView view = views.computeIfAbsent(player, p -> new MapView());
+		String[][] townyMap = render(view, world, resident, town, pos, lineHeight);
 		int halfLineHeight = lineHeight / 2;
-		String[][] townyMap = new String[lineWidth][lineHeight];
-		int x, y = 0;
-		for (int tby = pos.getX() + (lineWidth - halfLineWidth - 1); tby >= pos.getX() - halfLineWidth; tby--) {
-			x = 0;
-			for (int tbx = pos.getZ() - halfLineHeight; tbx <= pos.getZ() + (lineHeight - halfLineHeight - 1); tbx++) {
-				try {
-					TownBlock townblock = world.getTownBlock(tby, tbx);
-					//TODO: possibly claim outside of towns
-					if (!townblock.hasTown())
-						throw new TownyException();
-					if (x == halfLineHeight && y == halfLineWidth)
-						// location
-						townyMap[y][x] = Colors.Gold;
-					else if (hasTown) {
-						if (resident.getTown() == townblock.getTown()) {
-							// own town
-							townyMap[y][x] = Colors.LightGreen;
-							try {
-								if (resident == townblock.getResident())
-									//own plot
-									townyMap[y][x] = Colors.Yellow;
-							} catch (NotRegisteredException e) {
-							}
-						} else if (resident.hasNation()) {
-							if (resident.getTown().getNation().hasTown(townblock.getTown()))
-								// towns
-								townyMap[y][x] = Colors.Green;
-							else if (townblock.getTown().hasNation()) {
-								Nation nation = resident.getTown().getNation();
-								if (nation.hasAlly(townblock.getTown().getNation()))
-									townyMap[y][x] = Colors.Green;
-								else if (nation.hasEnemy(townblock.getTown().getNation()))
-									// towns
-									townyMap[y][x] = Colors.Red;
-								else
-									townyMap[y][x] = Colors.White;
-							} else
-								townyMap[y][x] = Colors.White;
-						} else
-							townyMap[y][x] = Colors.White;
-					} else
-						townyMap[y][x] = Colors.White;
-
-					// Registered town block
-					if (townblock.getPlotPrice() != -1) {
-						// override the colour if it's a shop plot for sale
-						if (townblock.getType().equals(TownBlockType.COMMERCIAL))
-							townyMap[y][x] = Colors.Blue;
-						townyMap[y][x] += "$";
-					} else if (townblock.isHomeBlock())
-						townyMap[y][x] += "H";
-					else
-						townyMap[y][x] += townblock.getType().getAsciiMapKey();
-				} catch (TownyException e) {
-					if (x == halfLineHeight && y == halfLineWidth)
-						townyMap[y][x] = Colors.Gold;
-					else
-						townyMap[y][x] = Colors.Gray;
-
-					// Unregistered town block
-					townyMap[y][x] += "-";
-				}
-				x++;
-			}
-			y++;
-		}
 
 		String[] compass = generateCompass(player);
 
 		// Output
-		player.sendMessage(ChatTools.formatTitle(Translation.of("towny_map_header") + Colors.White + "(" + pos.toString() + ")"));
-		String line;
+		List<String> lines = new ArrayList<>(lineHeight + 2);
+		lines.add(ChatTools.formatTitle(Translation.of("towny_map_header") + Colors.White + "(" + pos.toString() + ")"));
+		StringBuilder line = new StringBuilder();
 		int lineCount = 0;
 		// Variables have been rotated to fit N/S/E/W properly
 		for (int my = 0; my < lineHeight; my++) {
-			line = compass[0];
-			if (lineCount < compass.length)
-				line = compass[lineCount];
+			line.setLength(0);
+			line.append(lineCount < compass.length ? compass[lineCount] : compass[0]);
 
-			for (int mx = lineWidth - 1; mx >= 0; mx--)
-				line += townyMap[mx][my];
+			for (int mx = lineWidth - 1; mx >= 0; mx--) {
+				String cell = townyMap[mx][my];
+				if (mx == halfLineWidth && my == halfLineHeight && !cell.startsWith(Colors.Blue))
+					// location, a commercial plot for sale keeps its colour.
+					line.append(Colors.Gold).append(cell, Colors.Gold.length(), cell.length());
+				else
+					line.append(cell);
+			}
 
 			if (lineCount < help.length)
-				line += help[lineCount];
+				line.append(help[lineCount]);
 
-			player.sendMessage(line);
+			lines.add(line.toString());
 			lineCount++;
 		}
 
 		// Current town block data
+		String current = null;
 		try {
 			TownBlock townblock = TownyAPI.getInstance().getTownBlock(plugin.getCache(player).getLastLocation());
-			TownyMessaging.sendMsg(player, (Translation.of("town_sing") + ": " + (townblock != null && townblock.hasTown() ? townblock.getTown().getName() : Translation.of("status_no_town")) + " : " + Translation.of("owner_status") + ": " + (townblock != null && townblock.hasResident() ? townblock.getResident().getName() : Translation.of("status_no_town"))));
+			current = Translation.of("town_sing") + ": " + (townblock != null && townblock.hasTown() ? townblock.getTown().getName() : Translation.of("status_no_town")) + " : " + Translation.of("owner_status") + ": " + (townblock != null && townblock.hasResident() ? townblock.getResident().getName() : Translation.of("status_no_town"));
 		} catch (TownyException e) {
 			//plugin.sendErrorMsg(player, e.getError());
+		}
+		lines.add(current == null ? "" : current);
+
+		if (onlyIfChanged && lines.equals(view.lastSent))
+			return;
+		view.lastSent = lines;
+
+		for (String output : lines.subList(0, lines.size() - 1))
+			player.sendMessage(output);
+		if (current != null)
+			TownyMessaging.sendMsg(player, current);
+		else
 			// Send a blank line instead of an error, to keep the map position tidy.
 			player.sendMessage("");
+	}
+
+	/**
+	 * Draws the cells of a player's map, reusing whatever is still valid from their last one.
+	 */
+	private static String[][] render(MapView view, TownyWorld world, Resident resident, Town town, Coord pos, int lineHeight) {
+
+		int halfLineHeight = lineHeight / 2;
+		long relationshipVersion = RelationshipCache.getVersion();
+		long claimsVersion = world.getClaimsVersion();
+
+		boolean reuse = view.cells != null && world.getName().equals(view.worldName) && view.lineHeight == lineHeight
+			&& view.town == town && view.relationshipVersion == relationshipVersion;
+		// Regions changed since the last map, worked out once per region as they come up.
+		Map<Long, Boolean> changedRegions = claimsVersion == view.claimsVersion ? null : new HashMap<>();
+		int dx = pos.getX() - view.centerX;
+		int dz = pos.getZ() - view.centerZ;
+
+		String[][] townyMap = new String[lineWidth][lineHeight];
+		for (int y = 0; y < lineWidth; y++) {
+			int tbx = pos.getX() + (lineWidth - halfLineWidth - 1) - y;
+			for (int x = 0; x < lineHeight; x++) {
+				int tbz = pos.getZ() - halfLineHeight + x;
+
+				// Where this townblock was on the last map, if it was on it.
+				int oldY = y - dx;
+				int oldX = x + dz;
+				if (reuse && oldY >= 0 && oldY < lineWidth && oldX >= 0 && oldX < lineHeight && !hasChanged(world, tbx, tbz, view.claimsVersion, changedRegions))
+					townyMap[y][x] = view.cells[oldY][oldX];
+				else
+					townyMap[y][x] = renderCell(getTownBlock(world, tbx, tbz), resident, town);
+			}
+		}
+
+		view.worldName = world.getName();
+		view.lineHeight = lineHeight;
+		view.town = town;
+		view.relationshipVersion = relationshipVersion;
+		view.claimsVersion = claimsVersion;
+		view.centerX = pos.getX();
+		view.centerZ = pos.getZ();
+		view.cells = townyMap;
+		return townyMap;
+	}
+
+	private static boolean hasChanged(TownyWorld world, int x, int z, long sinceVersion, Map<Long, Boolean> changedRegions) {
+
+		if (changedRegions == null)
+			return false;
+		int regionX = x >> TownyWorld.REGION_SHIFT;
+		int regionZ = z >> TownyWorld.REGION_SHIFT;
+		return changedRegions.computeIfAbsent(TownyWorld.getRegionKey(regionX, regionZ), key -> world.getRegionVersion(regionX, regionZ) > sinceVersion);
+	}
+
+	/**
+	 * Draws one townblock as seen by a resident: a colour followed by its key.
+	 */
+	private static String renderCell(TownBlock townblock, Resident resident, Town town) {
+
+		Town owner;
+		try {
+			//TODO: possibly claim outside of towns
+			if (townblock == null)
+				throw new TownyException();
+			owner = townblock.getTown();
+		} catch (TownyException e) {
+			// Unregistered town block
+			return Colors.Gray + "-";
+		}
+
+		String cell;
+		if (town == null)
+			cell = Colors.White;
+		else if (owner == town) {
+			// own town
+			cell = Colors.LightGreen;
+			if (townblock.hasResident() && isOwnPlot(townblock, resident))
+				//own plot
+				cell = Colors.Yellow;
+		} else if (RelationshipCache.isAlly(town, owner))
+			// nation or ally
+			cell = Colors.Green;
+		else if (RelationshipCache.isEnemy(town, owner))
+			cell = Colors.Red;
+		else
+			cell = Colors.White;
+
+		// Registered town block
+		if (townblock.getPlotPrice() != -1) {
+			// override the colour if it's a shop plot for sale
+			if (townblock.getType().equals(TownBlockType.COMMERCIAL))
+				cell = Colors.Blue;
+			return cell + "$";
+		} else if (townblock.isHomeBlock())
+			return cell + "H";
+		else
+			return cell + townblock.getType().getAsciiMapKey();
+	}
+
+	private static boolean isOwnPlot(TownBlock townblock, Resident resident) {
+
+		try {
+			return townblock.getResident() == resident;
+		} catch (NotRegisteredException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Gets the townblock at x, z from the cached region holding it, looking the region up again if it has changed.
+	 */
+	private static TownBlock getTownBlock(TownyWorld world, int x, int z) {
+
+		int regionX = x >> TownyWorld.REGION_SHIFT;
+		int regionZ = z >> TownyWorld.REGION_SHIFT;
+		long key = TownyWorld.getRegionKey(regionX, regionZ);
+
+		Map<Long, Region> worldRegions = regions.computeIfAbsent(world.getName(), name -> new LinkedHashMap<Long, Region>(64, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Region> eldest) {
+				return size() > MAX_REGIONS_PER_WORLD;
+			}
+		});
+
+		Region region = worldRegions.get(key);
+		if (region == null || region.version < world.getRegionVersion(regionX, regionZ)) {
+			region = new Region(world.getClaimsVersion());
+			Map<WorldCoord, TownBlock> townBlocks = TownyUniverse.getInstance().getTownBlocks();
+			for (int rx = 0; rx < REGION_SIZE; rx++)
+				for (int rz = 0; rz < REGION_SIZE; rz++)
+					region.townBlocks[(rx << TownyWorld.REGION_SHIFT) | rz] = townBlocks.get(new WorldCoord(world.getName(), (regionX << TownyWorld.REGION_SHIFT) + rx, (regionZ << TownyWorld.REGION_SHIFT) + rz));
+			worldRegions.put(key, region);
 		}
+		return region.townBlocks[((x & REGION_MASK) << TownyWorld.REGION_SHIFT) | (z & REGION_MASK)];
 	}
 }
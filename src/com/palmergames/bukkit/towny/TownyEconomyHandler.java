@@ -6,6 +6,7 @@ import com.palmergames.bukkit.towny.event.TownyTransactionEvent;
 import com.palmergames.bukkit.towny.object.economy.adapter.ReserveEconomyAdapter;
 import com.palmergames.bukkit.towny.object.Transaction;
 import com.palmergames.bukkit.towny.object.TransactionType;
+import com.palmergames.bukkit.towny.object.economy.adapter.CachingEconomyAdapter;
 import com.palmergames.bukkit.towny.object.economy.adapter.EconomyAdapter;
 import com.palmergames.bukkit.towny.object.economy.adapter.VaultEconomyAdapter;
 import com.palmergames.bukkit.util.BukkitTools;
@@ -18,7 +19,9 @@ import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.RegisteredServiceProvider;
 
+import java.io.File;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Economy handler to interface with Register or Vault directly.
@@ -95,7 +98,7 @@ public class TownyEconomyHandler {
 				/*
 				 * Flag as using Vault hooks
 				 */
-				economy = new VaultEconomyAdapter(vaultEcoProvider.getProvider());
+				setEconomy(new VaultEconomyAdapter(vaultEcoProvider.getProvider()));
 				setVersion(String.format("%s %s", vaultEcoProvider.getProvider().getName(), "via Vault" ));
 				Type = EcoType.VAULT;
 				return true;
@@ -111,7 +114,7 @@ public class TownyEconomyHandler {
 			/*
 			 * Flat as using Reserve Hooks.
 			 */
-			economy = new ReserveEconomyAdapter(((Reserve) economyProvider).economy());
+			setEconomy(new ReserveEconomyAdapter(((Reserve) economyProvider).economy()));
 			setVersion(String.format("%s %s", ((Reserve) economyProvider).economy().name(), "via Reserve" ));
 			Type = EcoType.RESERVE;
 			return true;
@@ -123,6 +126,31 @@ public class TownyEconomyHandler {
 		return false;
 	}
 
+	/**
+	 * Uses the given adapter, placing the balance cache in front of it
+	 * when enabled in the config.
+	 * 
+	 * @param adapter - Adapter of the economy plugin we found.
+	 */
+	private static void setEconomy(EconomyAdapter adapter) {
+		shutdown();
+
+		if (TownySettings.isEconomyBalanceCacheEnabled()) {
+			File journal = new File(TownyUniverse.getInstance().getRootFolder() + File.separator + "data" + File.separator + "economy_journal.txt");
+			economy = new CachingEconomyAdapter(adapter, journal, TimeUnit.SECONDS.toMillis(TownySettings.getEconomyBalanceCacheRefresh()), BukkitTools::getWorld);
+		} else {
+			economy = adapter;
+		}
+	}
+
+	/**
+	 * Finishes any economy transactions still queued by the balance cache.
+	 */
+	public static void shutdown() {
+		if (economy instanceof CachingEconomyAdapter)
+			((CachingEconomyAdapter) economy).shutdown();
+	}
+
 	
 	// This was removed because:
 	// 1.) Only we should handle concrete account classes
@@ -234,7 +262,7 @@ public class TownyEconomyHandler {
 
 		Player player = Bukkit.getServer().getPlayer(accountName);
 		Transaction transaction = new Transaction(TransactionType.SUBTRACT, player, amount);
-		TownyTransactionEvent event = new TownyTransactionEvent(transaction);
+		TownyTransactionEvent event = new TownyTransactionEvent(transaction, accountName);
 		
 		if (!runPreChecks(transaction, accountName)) {
 			return false;
@@ -260,7 +288,7 @@ public class TownyEconomyHandler {
 
 		Player player = Bukkit.getServer().getPlayer(accountName);
 		Transaction transaction = new Transaction(TransactionType.ADD, player, amount);
-		TownyTransactionEvent event = new TownyTransactionEvent(transaction);
+		TownyTransactionEvent event = new TownyTransactionEvent(transaction, accountName);
 
 		if (!runPreChecks(transaction, accountName)) {
 			return false;
@@ -276,7 +304,11 @@ public class TownyEconomyHandler {
 
 	public static boolean setBalance(String accountName, double amount, World world) {
 		checkNewAccount(accountName);
-		return economy.setBalance(accountName, amount, world);
+		if (!economy.setBalance(accountName, amount, world))
+			return false;
+
+		TownyUniverse.getInstance().getRankings().markBalanceDirty(accountName);
+		return true;
 	}
 
 	/**
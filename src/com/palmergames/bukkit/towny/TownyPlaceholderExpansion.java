@@ -22,6 +22,7 @@ public class TownyPlaceholderExpansion extends PlaceholderExpansion {
 	final String king = Translation.of("king_sing");
 	
 	private final Towny plugin;
+	private final PlaceholderCache cache = new PlaceholderCache();
 
 	/**
 	 * Since we register the expansion inside our own plugin, we can simply use this
@@ -93,6 +94,14 @@ public class TownyPlaceholderExpansion extends PlaceholderExpansion {
 		return plugin.getDescription().getVersion();
 	}
 
+	/**
+	 * @return the cache of resolved placeholder values, which must be
+	 *         registered as a listener to receive invalidations.
+	 */
+	public PlaceholderCache getCache() {
+		return cache;
+	}
+
 	/**
 	 * This is the method called when a placeholder with our identifier is found and
 	 * needs a value. <br>
@@ -110,13 +119,25 @@ public class TownyPlaceholderExpansion extends PlaceholderExpansion {
 		if (player == null) {
 			return "";
 		}
+		return cache.get(player, identifier, () -> resolvePlaceholder(player, identifier));
+	}
+
+	/**
+	 * Computes the value of a placeholder, bypassing the cache.
+	 *
+	 * @param player     A {@link org.bukkit.entity.Player Player}.
+	 * @param identifier A String containing the identifier/value.
+	 *
+	 * @return possibly-null String of the requested identifier.
+	 */
+	private String resolvePlaceholder(Player player, String identifier) {
+
 		Resident resident;
 		try {
 			resident = TownyAPI.getInstance().getDataSource().getResident(player.getName());
 		} catch (NotRegisteredException e) {
 			return null;
 		}
-		TownBlock townblock = TownyAPI.getInstance().getTownBlock(player.getLocation());
 		String town = "";
 		String nation = "";
 		String balance = "";
@@ -512,10 +533,14 @@ public class TownyPlaceholderExpansion extends PlaceholderExpansion {
 			}
 		case "player_jailed": // %townyadvanced_player_jailed%
 			return String.valueOf(resident.isJailed());
-		case "player_plot_type": // %townyadvanced_player_plot_type%
+		case "player_plot_type": { // %townyadvanced_player_plot_type%
+			TownBlock townblock = TownyAPI.getInstance().getTownBlock(player.getLocation());
 			return townblock != null ? townblock.getType().toString() : "";
-		case "player_plot_owner": // %townyadvanced_player_plot_owner%
+		}
+		case "player_plot_owner": { // %townyadvanced_player_plot_owner%
+			TownBlock townblock = TownyAPI.getInstance().getTownBlock(player.getLocation());
 			return townblock != null ? String.valueOf(townblock.isOwner(resident)) : "false";
+		}
 		default:
 			return null;
 		}
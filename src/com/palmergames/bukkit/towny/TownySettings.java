@@ -1286,6 +1286,16 @@ public class TownySettings {
 		return getBoolean(ConfigNodes.ECO_USE_ASYNC);
 	}
 
+	public static boolean isEconomyBalanceCacheEnabled() {
+
+		return getBoolean(ConfigNodes.ECO_BALANCE_CACHE_ENABLED);
+	}
+
+	public static int getEconomyBalanceCacheRefresh() {
+
+		return getInt(ConfigNodes.ECO_BALANCE_CACHE_REFRESH);
+	}
+
 	public static boolean isRemovingVillagerBabiesWorld() {
 
 		return getBoolean(ConfigNodes.PROT_MOB_REMOVE_VILLAGER_BABIES_WORLD);
@@ -1780,6 +1790,16 @@ public class TownySettings {
 		return getString(ConfigNodes.PLUGIN_DEV_MODE_DEV_NAME);
 	}
 
+	public static boolean isProfilerEnabled() {
+
+		return getBoolean(ConfigNodes.PLUGIN_PROFILER_ENABLED);
+	}
+
+	public static long getProfilerDumpInterval() {
+
+		return getSeconds(ConfigNodes.PLUGIN_PROFILER_DUMP_INTERVAL);
+	}
+
 	public static boolean isDeclaringNeutral() {
 
 		return getBoolean(ConfigNodes.WARTIME_NATION_CAN_BE_NEUTRAL);
@@ -1871,6 +1891,11 @@ public class TownySettings {
 		return getBoolean(ConfigNodes.ECO_UPKEEP_PLOTPAYMENTS);
 	}
 
+	public static long getNewDayTickBudget() {
+
+		return getInt(ConfigNodes.ECO_DAILY_TAXES_TICK_BUDGET);
+	}
+
 	public static double getTownPenaltyUpkeepCost(Town town) {
 		TownUpkeepPenalityCalculationEvent event = new TownUpkeepPenalityCalculationEvent(town, getTownPenaltyUpkeepCostRaw(town));
 		Bukkit.getPluginManager().callEvent(event);
@@ -2529,6 +2554,11 @@ public class TownySettings {
 		return getSeconds(ConfigNodes.INVITE_SYSTEM_COOLDOWN_TIME);
 	}
 
+	public static long getInviteExpirationTime() {
+
+		return getSeconds(ConfigNodes.INVITE_SYSTEM_EXPIRATION_TIME);
+	}
+
 	public static boolean isAppendingToLog() {
 
 		return !getBoolean(ConfigNodes.PLUGIN_RESET_LOG_ON_BOOT);
@@ -114,18 +114,9 @@ public class TownySpigotMessaging {
 	}
 	
 	public static void sendSpigotTownList(CommandSender sender, List<Town> towns, int page, int total) {
-		int iMax = Math.min(page * 10, towns.size());
-
-		BaseComponent[] townsformatted;
-		
-		if ((page * 10) > towns.size()) {
-			townsformatted = new BaseComponent[towns.size() % 10];
-		} else {
-			townsformatted = new BaseComponent[10];
-		}
+		BaseComponent[] townsformatted = new BaseComponent[towns.size()];
 		
-		
-		for (int i = (page - 1) * 10; i < iMax; i++) {
+		for (int i = 0; i < towns.size(); i++) {
 			Town town = towns.get(i);
 			TextComponent townName = new TextComponent(StringMgmt.remUnderscore(town.getName()));
 			townName.setColor(net.md_5.bungee.api.ChatColor.AQUA);
@@ -157,7 +148,7 @@ public class TownySpigotMessaging {
 			
 			adaptForHover(townName).setHoverText(hoverText);
 			townName.setClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/towny:town spawn " + town + " -ignore"));
-			townsformatted[i % 10] = townName;
+			townsformatted[i] = townName;
 			
 		}
 		
@@ -221,16 +212,9 @@ public class TownySpigotMessaging {
 	}
 	
 	public static void sendSpigotNationList(CommandSender sender, List<Nation> nations, int page, int total) {
-		int iMax = Math.min(page * 10, nations.size());
-
-		BaseComponent[] nationsformatted;
-		if ((page * 10) > nations.size()) {
-			nationsformatted = new BaseComponent[nations.size() % 10];
-		} else {
-			nationsformatted = new BaseComponent[10];
-		}
+		BaseComponent[] nationsformatted = new BaseComponent[nations.size()];
 		
-		for (int i = (page - 1) * 10; i < iMax; i++) {
+		for (int i = 0; i < nations.size(); i++) {
 			Nation nation = nations.get(i);
 			TextComponent nationName = new TextComponent(StringMgmt.remUnderscore(nation.getName()));
 			nationName.setColor(net.md_5.bungee.api.ChatColor.AQUA);
@@ -264,7 +248,7 @@ public class TownySpigotMessaging {
 
 			adaptForHover(nationName).setHoverText(hoverText);
 			nationName.setClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/towny:nation spawn " + nation + " -ignore"));
-			nationsformatted[i % 10] = nationName;
+			nationsformatted[i] = nationName;
 
 		}
 
@@ -1,17 +1,18 @@
 package com.palmergames.bukkit.towny;
 
-import com.palmergames.bukkit.towny.tasks.CooldownTimerTask;
+import com.palmergames.bukkit.towny.profiler.TownyProfiler;
 import com.palmergames.bukkit.towny.tasks.DailyTimerTask;
 import com.palmergames.bukkit.towny.tasks.DrawSmokeTask;
 import com.palmergames.bukkit.towny.tasks.GatherResidentUUIDTask;
 import com.palmergames.bukkit.towny.tasks.HealthRegenTimerTask;
 import com.palmergames.bukkit.towny.tasks.MobRemovalTimerTask;
 import com.palmergames.bukkit.towny.tasks.RepeatingTimerTask;
-import com.palmergames.bukkit.towny.tasks.TeleportWarmupTimerTask;
+import com.palmergames.bukkit.towny.tasks.TimerWheel;
 import com.palmergames.bukkit.util.BukkitTools;
 import com.palmergames.util.TimeMgmt;
 import com.palmergames.util.TimeTools;
 
+import java.io.IOException;
 import java.util.Calendar;
 import java.util.TimeZone;
 
@@ -35,10 +36,21 @@ public class TownyTimerHandler{
 	private static int dailyTask = -1;
 	private static int mobRemoveTask = -1;
 	private static int healthRegenTask = -1;
-	private static int teleportWarmupTask = -1;
-	private static int cooldownTimerTask = -1;
+	private static int timerWheelTask = -1;
+	private static boolean teleportWarmup = false;
+	private static boolean cooldownTimer = false;
 	private static int drawSmokeTask = -1;
 	private static int gatherResidentUUIDTask = -1;
+	private static int profilerDumpTask = -1;
+	
+	private static final TimerWheel timerWheel = new TimerWheel();
+
+	/**
+	 * @return the wheel running cooldowns, teleport warmups, confirmations and invite expiry.
+	 */
+	public static TimerWheel getTimerWheel() {
+		return timerWheel;
+	}
 
 	public static void newDay() {
 
@@ -109,28 +121,33 @@ public class TownyTimerHandler{
 		}
 	}
 
+	/**
+	 * Advances the {@link TimerWheel} every tick, firing any timers due.
+	 * 
+	 * @param on - Whether the wheel should turn.
+	 */
+	public static void toggleTimerWheel(boolean on) {
+
+		if (on && !isTimerWheelRunning()) {
+			timerWheelTask = BukkitTools.scheduleSyncRepeatingTask(timerWheel, 0, 1);
+			if (timerWheelTask == -1)
+				TownyMessaging.sendErrorMsg("Could not schedule timer wheel.");
+		} else if (!on && isTimerWheelRunning()) {
+			BukkitTools.getScheduler().cancelTask(timerWheelTask);
+			timerWheelTask = -1;
+		}
+	}
+
+	// Warmups are timers on the wheel, this only records whether they are in use.
 	public static void toggleTeleportWarmup(boolean on) {
 
-		if (on && !isTeleportWarmupRunning()) {
-			teleportWarmupTask = BukkitTools.scheduleSyncRepeatingTask(new TeleportWarmupTimerTask(plugin), 0, 20);
-			if (teleportWarmupTask == -1)
-				TownyMessaging.sendErrorMsg("Could not schedule teleport warmup loop.");
-		} else if (!on && isTeleportWarmupRunning()) {
-			BukkitTools.getScheduler().cancelTask(teleportWarmupTask);
-			teleportWarmupTask = -1;
-		}
+		teleportWarmup = on;
 	}
 	
+	// Cooldowns are timers on the wheel, this only records whether they are in use.
 	public static void toggleCooldownTimer(boolean on) {
 		
-		if (on && !isCooldownTimerRunning()) {
-			cooldownTimerTask = BukkitTools.scheduleAsyncRepeatingTask(new CooldownTimerTask(plugin), 0, 20);
-			if (cooldownTimerTask == -1)
-				TownyMessaging.sendErrorMsg("Could not schedule cooldown timer loop.");			
-		} else if (!on && isCooldownTimerRunning()) {
-			BukkitTools.getScheduler().cancelTask(cooldownTimerTask);
-			cooldownTimerTask = -1;
-		}
+		cooldownTimer = on;
 	}
 	
 	public static void toggleDrawSmokeTask(boolean on) {
@@ -157,6 +174,29 @@ public class TownyTimerHandler{
 		}
 	}
 
+	/**
+	 * Writes the profiler's results to the logs folder every plugin.profiler.dump_interval.
+	 * 
+	 * @param on - Whether the results should be written.
+	 */
+	public static void toggleProfilerDump(boolean on) {
+		if (on && !isProfilerDumpRunning()) {
+			long interval = TimeTools.convertToTicks(TownySettings.getProfilerDumpInterval());
+			profilerDumpTask = BukkitTools.scheduleAsyncRepeatingTask(() -> {
+				try {
+					TownyProfiler.dump();
+				} catch (IOException e) {
+					TownyMessaging.sendErrorMsg("Could not write the profiler results: " + e.getMessage());
+				}
+			}, interval, interval);
+			if (profilerDumpTask == -1)
+				TownyMessaging.sendErrorMsg("Could not schedule profiler dump loop");
+		} else if (!on && isProfilerDumpRunning()) {
+			BukkitTools.getScheduler().cancelTask(profilerDumpTask);
+			profilerDumpTask = -1;
+		}
+	}
+
 	public static boolean isTownyRepeatingTaskRunning() {
 
 		return townyRepeatingTask != -1;
@@ -178,14 +218,19 @@ public class TownyTimerHandler{
 		return healthRegenTask != -1;
 	}
 
+	public static boolean isTimerWheelRunning() {
+
+		return timerWheelTask != -1;
+	}
+
 	public static boolean isTeleportWarmupRunning() {
 
-		return teleportWarmupTask != -1;
+		return teleportWarmup;
 	}
 	
 	public static boolean isCooldownTimerRunning() {
 
-		return cooldownTimerTask != -1;
+		return cooldownTimer;
 	}
 	
 	public static boolean isDrawSmokeTaskRunning() {
@@ -198,6 +243,11 @@ public class TownyTimerHandler{
 		return gatherResidentUUIDTask != -1;
 	}
 	
+	public static boolean isProfilerDumpRunning() {
+		
+		return profilerDumpTask != -1;
+	}
+	
 	/**
 	 * Calculates the time in seconds until the next new day event.
 	 * TimeZone specific, including daylight savings.
@@ -11,6 +11,7 @@ import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.PlotGroup;
+import com.palmergames.bukkit.towny.object.RelationshipCache;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
@@ -60,6 +61,7 @@ public class TownyUniverse {
     private final Map<String, Nation> nations = new ConcurrentHashMap<>();
     private final Trie nationsTrie = new Trie();
     private final Map<String, TownyWorld> worlds = new ConcurrentHashMap<>();
+    private volatile TownyWorld[] worldsById = new TownyWorld[0];
     private final Map<String, CustomDataField> registeredMetadata = new HashMap<>();
 	private final Map<WorldCoord, TownBlock> townBlocks = new ConcurrentHashMap<>();
 	private CompletableFuture<Void> backupFuture;
@@ -68,6 +70,7 @@ public class TownyUniverse {
     private final String rootFolder;
     private TownyDataSource dataSource;
     private TownyPermissionSource permissionSource;
+    private final GovernmentRankings rankings = new GovernmentRankings();
     private War warEvent;
     private String saveDbType;
     private String loadDbType;
@@ -237,6 +240,10 @@ public class TownyUniverse {
     public void setPermissionSource(TownyPermissionSource permissionSource) {
         this.permissionSource = permissionSource;
     }
+
+    public GovernmentRankings getRankings() {
+        return rankings;
+    }
     
     public War getWarEvent() {
         return warEvent;
@@ -281,6 +288,37 @@ public class TownyUniverse {
     public Map<String, TownyWorld> getWorldMap() {
         return worlds;
     }
+
+    /**
+     * Looks a world up by the id {@link WorldCoord}s hold, without hashing
+     * its name. Worlds are remembered by id the first time they are looked
+     * up and forgotten by {@link #clearAll()}.
+     *
+     * @param worldId - Id from {@link TownyWorld#getWorldId(String)}.
+     * @return the TownyWorld, or null if Towny has no world by that name.
+     */
+    public TownyWorld getWorld(int worldId) {
+        TownyWorld[] byId = worldsById;
+        if (worldId >= 0 && worldId < byId.length && byId[worldId] != null)
+            return byId[worldId];
+
+        String name = TownyWorld.getWorldName(worldId);
+        if (name == null)
+            return null;
+        TownyWorld world = worlds.get(name.toLowerCase());
+        if (world != null)
+            rememberWorld(worldId, world);
+        return world;
+    }
+
+    private synchronized void rememberWorld(int worldId, TownyWorld world) {
+        // Checked again here, as clearAll may have run since the lookup.
+        if (worlds.get(world.getName().toLowerCase()) != world)
+            return;
+        TownyWorld[] byId = Arrays.copyOf(worldsById, Math.max(worldsById.length, worldId + 1));
+        byId[worldId] = world;
+        worldsById = byId;
+    }
     
     public TownyDataSource getDataSource() {
         return dataSource;
@@ -369,11 +407,15 @@ public class TownyUniverse {
     }
     
     public void clearAll() {
-    	worlds.clear();
+    	synchronized (this) {
+    		worlds.clear();
+    		worldsById = new TownyWorld[0];
+    	}
         nations.clear();
         towns.clear();
         residents.clear();
         townBlocks.clear();
+        RelationshipCache.clear();
     }
 
 	public boolean hasGroup(String townName, UUID groupID) {
@@ -517,6 +559,7 @@ public class TownyUniverse {
 		if (hasTownBlock(townBlock.getWorldCoord()))
 			return;
 		townBlocks.put(townBlock.getWorldCoord(), townBlock);
+		townBlock.getWorld().markClaimsChanged(townBlock.getX(), townBlock.getZ());
 	}
 	/**
 	 * Does this WorldCoord have a TownBlock?
@@ -534,6 +577,7 @@ public class TownyUniverse {
 	public void removeTownBlock(TownBlock townBlock) {
 		
 		if (removeTownBlock(townBlock.getWorldCoord())) {
+			townBlock.getWorld().markClaimsChanged(townBlock.getX(), townBlock.getZ());
 			try {
 				if (townBlock.hasResident())
 					townBlock.getResident().removeTownBlock(townBlock);
@@ -548,13 +592,28 @@ public class TownyUniverse {
 	}
 	
 	/**
-	 * Remove a list of TownBlocks from the TownyUniverse townblock map.
+	 * Remove a list of TownBlocks from the TownyUniverse townblock map,
+	 * saving each town they belonged to once.
 	 * @param townBlocks to remove.
 	 */
 	public void removeTownBlocks(List<TownBlock> townBlocks) {
 
-		for (TownBlock townBlock : new ArrayList<>(townBlocks))
-			removeTownBlock(townBlock);
+		Map<Town, List<TownBlock>> byTown = new HashMap<>();
+		for (TownBlock townBlock : new ArrayList<>(townBlocks)) {
+			if (!removeTownBlock(townBlock.getWorldCoord()))
+				continue;
+			townBlock.getWorld().markClaimsChanged(townBlock.getX(), townBlock.getZ());
+			try {
+				if (townBlock.hasResident())
+					townBlock.getResident().removeTownBlock(townBlock);
+			} catch (NotRegisteredException e) {
+			}
+			if (townBlock.hasTown())
+				byTown.computeIfAbsent(townBlock.getTownOrNull(), k -> new ArrayList<>()).add(townBlock);
+		}
+
+		for (Map.Entry<Town, List<TownBlock>> entry : byTown.entrySet())
+			entry.getKey().removeTownBlocks(entry.getValue());
 	}
 
 	/** 
@@ -61,7 +61,8 @@ public enum HelpMenu {
 				.add("backup", "")
 				.add("mysqldump", "")
 				.add("database [save/load]", "")
-				.add("newday", Translation.of("admin_panel_3"))
+				.add("perf [reset/dump]", "")
+				.add("newday [preview]", Translation.of("admin_panel_3"))
 				.add("purge [number of days]", "")
 				.add("delete [] .. []", "delete a residents data files.");
 		}
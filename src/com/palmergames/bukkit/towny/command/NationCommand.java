@@ -1,5 +1,6 @@
 package com.palmergames.bukkit.towny.command;
 
+import com.palmergames.bukkit.towny.GovernmentRankings.Ranking;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyEconomyHandler;
@@ -30,7 +31,6 @@ import com.palmergames.bukkit.towny.invites.InviteReceiver;
 import com.palmergames.bukkit.towny.invites.InviteSender;
 import com.palmergames.bukkit.towny.invites.exceptions.TooManyInvitesException;
 import com.palmergames.bukkit.towny.object.Coord;
-import com.palmergames.bukkit.towny.object.Government;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.SpawnType;
@@ -40,8 +40,6 @@ import com.palmergames.bukkit.towny.object.TownBlockType;
 import com.palmergames.bukkit.towny.object.Transaction;
 import com.palmergames.bukkit.towny.object.TransactionType;
 import com.palmergames.bukkit.towny.object.Translation;
-import com.palmergames.bukkit.towny.object.comparators.GovernmentComparators;
-import com.palmergames.bukkit.towny.object.comparators.NationComparators;
 import com.palmergames.bukkit.towny.object.inviteobjects.NationAllyNationInvite;
 import com.palmergames.bukkit.towny.object.inviteobjects.TownJoinNationInvite;
 import com.palmergames.bukkit.towny.permissions.PermissionNodes;
@@ -50,6 +48,7 @@ import com.palmergames.bukkit.towny.utils.MapUtil;
 import com.palmergames.bukkit.towny.utils.NameUtil;
 import com.palmergames.bukkit.towny.utils.ResidentUtil;
 import com.palmergames.bukkit.towny.utils.SpawnUtil;
+import com.palmergames.bukkit.towny.war.eventwar.War;
 import com.palmergames.bukkit.towny.war.flagwar.FlagWar;
 import com.palmergames.bukkit.util.BukkitTools;
 import com.palmergames.bukkit.util.ChatTools;
@@ -66,7 +65,6 @@ import java.io.InvalidObjectException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -1065,7 +1063,6 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 	 * @param split  - Current command arguments.
 	 * @throws TownyException - Thrown when player does not have permission node.
 	 */
-	@SuppressWarnings({"unchecked"})
 	public void listNations(CommandSender sender, String[] split) throws TownyException {
 		
 		TownyUniverse townyUniverse = TownyUniverse.getInstance();
@@ -1090,12 +1087,11 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 			player = (Player) sender;
 		}
 		
-		List<Nation> nationsToSort = TownyUniverse.getInstance().getDataSource().getNations();
 		int page = 1;
 		boolean pageSet = false;
 		boolean comparatorSet = false;
-		Comparator<? extends Government> comparator = GovernmentComparators.BY_NUM_RESIDENTS;
-		int total = (int) Math.ceil(((double) nationsToSort.size()) / ((double) 10));
+		Ranking ranking = Ranking.RESIDENTS;
+		int total = (int) Math.ceil(((double) townyUniverse.getRankings().getNationCount()) / ((double) 10));
 		for (int i = 1; i < split.length; i++) {
 			if (split[i].equalsIgnoreCase("by")) {
 				if (comparatorSet) {
@@ -1108,27 +1104,27 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 					if (split[i].equalsIgnoreCase("residents")) {
 						if (!console && !townyUniverse.getPermissionSource().testPermission(player, PermissionNodes.TOWNY_COMMAND_NATION_LIST_RESIDENTS.getNode()))
 							throw new TownyException(Translation.of("msg_err_command_disable"));
-						comparator = GovernmentComparators.BY_NUM_RESIDENTS;
+						ranking = Ranking.RESIDENTS;
 					} else if (split[i].equalsIgnoreCase("balance")) {
 						if (!console && !townyUniverse.getPermissionSource().testPermission(player, PermissionNodes.TOWNY_COMMAND_NATION_LIST_BALANCE.getNode()))
 							throw new TownyException(Translation.of("msg_err_command_disable"));
-						comparator = GovernmentComparators.BY_BANK_BALANCE;
+						ranking = Ranking.BALANCE;
 					} else if (split[i].equalsIgnoreCase("towns")) {
 						if (!console && !townyUniverse.getPermissionSource().testPermission(player, PermissionNodes.TOWNY_COMMAND_NATION_LIST_TOWNS.getNode()))
 							throw new TownyException(Translation.of("msg_err_command_disable"));
-						comparator = NationComparators.BY_NUM_TOWNS;
+						ranking = Ranking.TOWNS;
 					} else if (split[i].equalsIgnoreCase("name")) {
 						if (!console && !townyUniverse.getPermissionSource().testPermission(player, PermissionNodes.TOWNY_COMMAND_NATION_LIST_NAME.getNode()))
 							throw new TownyException(Translation.of("msg_err_command_disable"));
-						comparator = GovernmentComparators.BY_NAME;						
+						ranking = Ranking.NAME;						
 					} else if (split[i].equalsIgnoreCase("townblocks")) {
 						if (!console && !townyUniverse.getPermissionSource().testPermission(player, PermissionNodes.TOWNY_COMMAND_NATION_LIST_TOWNBLOCKS.getNode()))
 							throw new TownyException(Translation.of("msg_err_command_disable"));
-						comparator = NationComparators.BY_TOWNBLOCKS_CLAIMED;
+						ranking = Ranking.TOWNBLOCKS;
 					} else if (split[i].equalsIgnoreCase("online")) {
 						if (!console && !townyUniverse.getPermissionSource().testPermission(player, PermissionNodes.TOWNY_COMMAND_NATION_LIST_ONLINE.getNode()))
 							throw new TownyException(Translation.of("msg_err_command_disable"));
-						comparator = GovernmentComparators.BY_NUM_ONLINE;
+						ranking = Ranking.ONLINE;
 					} else {
 						TownyMessaging.sendErrorMsg(sender, Translation.of("msg_error_invalid_comparator_nation"));
 						return;
@@ -1167,20 +1163,25 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 	        return;
 	    }
 
-	    final List<Nation> nations = nationsToSort;
-	    final Comparator<Nation> comp = (Comparator<Nation>) comparator;
-	    final int pageNumber = page;
-		try {
-			Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-				nations.sort(comp);
-				sendList(sender, nations, pageNumber, total);
-			});
-		} catch (RuntimeException e) {
-			TownyMessaging.sendErrorMsg(sender, Translation.of("msg_error_comparator_failed"));
+		if (ranking == Ranking.BALANCE) {
+			// Balances which have changed are read from the economy plugin first, off the main thread.
+			final int pageNumber = page;
+			townyUniverse.getRankings().refreshBalances(plugin, () ->
+				sendList(sender, townyUniverse.getRankings().getNations(Ranking.BALANCE, (pageNumber - 1) * 10, 10), pageNumber, total));
+		} else {
+			// Ranked incrementally, so only the page asked for is read.
+			sendList(sender, townyUniverse.getRankings().getNations(ranking, (page - 1) * 10, 10), page, total);
 		}
-
 	}
 	
+	/**
+	 * Sends one page of the nation list.
+	 *
+	 * @param sender - Sender (player or console.)
+	 * @param nations - The nations on this page, in order.
+	 * @param page - Page number.
+	 * @param total - Number of pages.
+	 */
 	public void sendList(CommandSender sender, List<Nation> nations, int page, int total) {
 		
 		if (Towny.isSpigot  && sender instanceof Player) {
@@ -1188,11 +1189,9 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 			return;
 		}
 
-		int iMax = Math.min(page * 10, nations.size());
 		List<String> nationsordered = new ArrayList<>(10);
 		
-		for (int i = (page - 1) * 10; i < iMax; i++) {
-			Nation nation = nations.get(i);
+		for (Nation nation : nations) {
 			String output = Colors.Gold + StringMgmt.remUnderscore(nation.getName()) + Colors.Gray + " - " + Colors.LightBlue + "(" + nation.getNumResidents() + ")" + Colors.Gray + " - " + Colors.LightBlue + "(" + nation.getNumTowns() + ")";
 			nationsordered.add(output);
 		}
@@ -1638,7 +1637,7 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 		for (Town town : kicking)
 			if (town.isCapital())
 				remove.add(town);
-			else if (!nation.getTowns().contains(town))
+			else if (!nation.hasTown(town))
 				remove.add(town);
 			else 
 				town.removeNation();
@@ -1943,7 +1942,7 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 
 		for (Nation targetNation : allies)
 			try {
-				if (add && !nation.getAllies().contains(targetNation)) {
+				if (add && !nation.hasAlly(targetNation)) {
 					if (!targetNation.hasEnemy(nation)) {
 							try {
 								nation.addAlly(targetNation);
@@ -1959,7 +1958,7 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 						remove.add(targetNation);
 						TownyMessaging.sendPrefixedNationMessage(nation, Translation.of("msg_unable_ally_enemy", targetNation.getName()));
 					}
-				} else if (nation.getAllies().contains(targetNation)) {
+				} else if (nation.hasAlly(targetNation)) {
 					nation.removeAlly(targetNation);
 
 					TownyMessaging.sendPrefixedNationMessage(targetNation, Translation.of("msg_removed_ally", nation.getName()));
@@ -2015,7 +2014,7 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 					}
 				}
 			} else { // So we are removing an ally
-				if (nation.getAllies().contains(targetNation)) {
+				if (nation.hasAlly(targetNation)) {
 					try {
 						nation.removeAlly(targetNation);
 						TownyMessaging.sendPrefixedNationMessage(targetNation, Translation.of("msg_removed_ally", nation.getName()));
@@ -2101,7 +2100,7 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 		ArrayList<Nation> remove = new ArrayList<>();
 		for (Nation targetNation : enemies)
 			try {
-				if (add && !nation.getEnemies().contains(targetNation)) {
+				if (add && !nation.hasEnemy(targetNation)) {
 					NationPreAddEnemyEvent npaee = new NationPreAddEnemyEvent(nation, targetNation);
 					Bukkit.getPluginManager().callEvent(npaee);
 					
@@ -2121,7 +2120,7 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 						remove.add(targetNation);
 					}
 
-				} else if (nation.getEnemies().contains(targetNation)) {
+				} else if (nation.hasEnemy(targetNation)) {
 					NationPreRemoveEnemyEvent npree = new NationPreRemoveEnemyEvent(nation, targetNation);
 					Bukkit.getPluginManager().callEvent(npree);
 					if (!npree.isCancelled()) {
@@ -2556,6 +2555,11 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
 
 					TownyMessaging.sendPrefixedNationMessage(nation, Translation.of("msg_nation_peaceful") + (nation.isNeutral
 							() ? Colors.Green : Colors.Red + " not") + " peaceful.");
+
+					// A warring nation turning peaceful forfeits the war, now rather than on the next war tick.
+					War warEvent = townyUniverse.getWarEvent();
+					if (nation.isNeutral() && warEvent != null && warEvent.isWarTime() && warEvent.isWarringNation(nation))
+						warEvent.nationLeave(nation);
 				} catch (TownyException e) {
 					nation.setNeutral(false);
 					TownyMessaging.sendErrorMsg(player, e.getMessage());
@@ -2574,6 +2578,7 @@ public class NationCommand extends BaseCommand implements CommandExecutor {
                     throw new TownyException(Translation.of("msg_err_command_disable"));
 
                 nation.setOpen(!nation.isOpen());
+                townyUniverse.getRankings().markDirty(nation);
                 TownyMessaging.sendPrefixedNationMessage(nation, Translation.of("msg_nation_changed_open", nation.isOpen() ? Translation.of("enabled") : Translation.of("disabled")));
 
             } else {
@@ -750,13 +750,15 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 						}
 							
 
-						for (String material : townyUniverse.getDataSource().getWorld(world).getPlotManagementMayorDelete())
-							if (Material.matchMaterial(material) != null) {
-								TownyRegenAPI.deleteTownBlockMaterial(townBlock, Material.getMaterial(material));
-								player.sendMessage(Translation.of("msg_clear_plot_material", material));
-							} else
+						List<String> materials = townyUniverse.getDataSource().getWorld(world).getPlotManagementMayorDelete();
+						for (String material : materials)
+							if (Material.matchMaterial(material) == null)
 								throw new TownyException(Translation.of("msg_err_invalid_property", material));
 
+						TownyRegenAPI.deleteTownBlockMayorDeleteMaterials(townBlock);
+						for (String material : materials)
+							player.sendMessage(Translation.of("msg_clear_plot_material", material));
+
 						// Raise an event for the claim
 						BukkitTools.getPluginManager().callEvent(new PlotClearEvent(townBlock));
 
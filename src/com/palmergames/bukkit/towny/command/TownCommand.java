@@ -1,5 +1,6 @@
 package com.palmergames.bukkit.towny.command;
 
+import com.palmergames.bukkit.towny.GovernmentRankings.Ranking;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyEconomyHandler;
@@ -30,8 +31,6 @@ import com.palmergames.bukkit.towny.invites.InviteReceiver;
 import com.palmergames.bukkit.towny.invites.InviteSender;
 import com.palmergames.bukkit.towny.invites.exceptions.TooManyInvitesException;
 import com.palmergames.bukkit.towny.object.Coord;
-import com.palmergames.bukkit.towny.object.Government;
-import com.palmergames.bukkit.towny.object.comparators.GovernmentComparators;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.SpawnType;
@@ -39,7 +38,6 @@ import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownBlockOwner;
 import com.palmergames.bukkit.towny.object.TownBlockType;
-import com.palmergames.bukkit.towny.object.comparators.TownComparators;
 import com.palmergames.bukkit.towny.object.TownyPermission;
 import com.palmergames.bukkit.towny.object.TownyPermissionChange;
 import com.palmergames.bukkit.towny.object.TownyWorld;
@@ -58,6 +56,7 @@ import com.palmergames.bukkit.towny.tasks.TownClaim;
 import com.palmergames.bukkit.towny.utils.AreaSelectionUtil;
 import com.palmergames.bukkit.towny.utils.NameUtil;
 import com.palmergames.bukkit.towny.utils.OutpostUtil;
+import com.palmergames.bukkit.towny.utils.ProximityValidator;
 import com.palmergames.bukkit.towny.utils.ResidentUtil;
 import com.palmergames.bukkit.towny.utils.SpawnUtil;
 import com.palmergames.bukkit.towny.war.flagwar.FlagWar;
@@ -82,8 +81,9 @@ import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -1186,7 +1186,6 @@ public class TownCommand extends BaseCommand implements CommandExecutor, TabComp
 	 * @param split  - Current command arguments.
 	 * @throws TownyException - Thrown when player does not have permission nodes.
 	 */
-	@SuppressWarnings("unchecked")
 	public void listTowns(CommandSender sender, String[] split) throws TownyException {
 		
 		TownyUniverse townyUniverse = TownyUniverse.getInstance();
@@ -1210,12 +1209,11 @@ public class TownCommand extends BaseCommand implements CommandExecutor, TabComp
 			player = (Player) sender;
 		}
 
-		List<Town> townsToSort = TownyUniverse.getInstance().getDataSource().getTowns();
 		int page = 1;
 		boolean pageSet = false;
 		boolean comparatorSet = false;
-		Comparator<? extends Government> comparator = GovernmentComparators.BY_NUM_RESIDENTS;
-		int total = (int) Math.ceil(((double) townsToSort.size()) / ((double) 10));
+		Ranking ranking = Ranking.RESIDENTS;
+		int total = (int) Math.ceil(((double) townyUniverse.getRankings().getTownCount()) / ((double) 10));
 		for (int i = 1; i < split.length; i++) {
 			if (split[i].equalsIgnoreCase("by")) {
 				if (comparatorSet) {
@@ -1228,27 +1226,27 @@ public class TownCommand extends BaseCommand implements CommandExecutor, TabComp
 					if (split[i].equalsIgnoreCase("residents") || split[i].equalsIgnoreCase("resident")) {
 						if (!console && !townyUniverse.getPermissionSource().testPermission(player, PermissionNodes.TOWNY_COMMAND_TOWN_LIST_RESIDENTS.getNode()))
 							throw new TownyException(Translation.of("msg_err_command_disable"));
-						comparator = GovernmentComparators.BY_NUM_RESIDENTS;
+						ranking = Ranking.RESIDENTS;
 					} else if (split[i].equalsIgnoreCase("balance")) {
 						if (!console && !townyUniverse.getPermissionSource().testPermission(player, PermissionNodes.TOWNY_COMMAND_TOWN_LIST_BALANCE.getNode()))
 							throw new TownyException(Translation.of("msg_err_command_disable"));
-						comparator = GovernmentComparators.BY_BANK_BALANCE;
+						ranking = Ranking.BALANCE;
 					} else if (split[i].equalsIgnoreCase("name")) {
 						if (!console && !townyUniverse.getPermissionSource().testPermission(player, PermissionNodes.TOWNY_COMMAND_TOWN_LIST_NAME.getNode()))
 							throw new TownyException(Translation.of("msg_err_command_disable"));
-						comparator = GovernmentComparators.BY_NAME;
+						ranking = Ranking.NAME;
 					} else if (split[i].equalsIgnoreCase("townblocks")) {
 						if (!console && !townyUniverse.getPermissionSource().testPermission(player, PermissionNodes.TOWNY_COMMAND_TOWN_LIST_TOWNBLOCKS.getNode()))
 							throw new TownyException(Translation.of("msg_err_command_disable"));
-						comparator = TownComparators.BY_TOWNBLOCKS_CLAIMED;
+						ranking = Ranking.TOWNBLOCKS;
 					} else if (split[i].equalsIgnoreCase("online")) {
 						if (!console && !townyUniverse.getPermissionSource().testPermission(player, PermissionNodes.TOWNY_COMMAND_TOWN_LIST_ONLINE.getNode()))
 							throw new TownyException(Translation.of("msg_err_command_disable"));
-						comparator = GovernmentComparators.BY_NUM_ONLINE;
+						ranking = Ranking.ONLINE;
 					} else if (split[i].equalsIgnoreCase("open")) {
 						if (!console && !townyUniverse.getPermissionSource().testPermission(player, PermissionNodes.TOWNY_COMMAND_TOWN_LIST_OPEN.getNode()))
 							throw new TownyException(Translation.of("msg_err_command_disable"));
-						comparator = GovernmentComparators.BY_OPEN;
+						ranking = Ranking.OPEN;
 					} else {
 						TownyMessaging.sendErrorMsg(sender, Translation.of("msg_error_invalid_comparator_town"));
 						return;
@@ -1288,25 +1286,29 @@ public class TownCommand extends BaseCommand implements CommandExecutor, TabComp
 			return;
 		}
 		
-		final List<Town> towns = townsToSort;
-		final Comparator<Town> comp = (Comparator<Town>) comparator;
-		final int pageNumber = page;
-		final int totalNumber = total; 
-		try {
-			if (!TownySettings.isTownListRandom()) {
-				Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-					towns.sort(comp);
-					sendList(sender, towns, pageNumber, totalNumber);
-				});
-			} else { 
-				Collections.shuffle(towns);
-				sendList(sender, towns, pageNumber, totalNumber);
-			}
-		} catch (RuntimeException e) {
-			TownyMessaging.sendErrorMsg(sender, Translation.of("msg_error_comparator_failed"));
+		if (TownySettings.isTownListRandom()) {
+			List<Town> towns = townyUniverse.getDataSource().getTowns();
+			Collections.shuffle(towns);
+			sendList(sender, towns.subList((page - 1) * 10, Math.min(page * 10, towns.size())), page, total);
+		} else if (ranking == Ranking.BALANCE) {
+			// Balances which have changed are read from the economy plugin first, off the main thread.
+			final int pageNumber = page;
+			townyUniverse.getRankings().refreshBalances(plugin, () ->
+				sendList(sender, townyUniverse.getRankings().getTowns(Ranking.BALANCE, (pageNumber - 1) * 10, 10), pageNumber, total));
+		} else {
+			// Ranked incrementally, so only the page asked for is read.
+			sendList(sender, townyUniverse.getRankings().getTowns(ranking, (page - 1) * 10, 10), page, total);
 		}
 	}
 	
+	/**
+	 * Sends one page of the town list.
+	 *
+	 * @param sender - Sender (player or console.)
+	 * @param towns - The towns on this page, in order.
+	 * @param page - Page number.
+	 * @param total - Number of pages.
+	 */
 	public void sendList(CommandSender sender, List<Town> towns, int page, int total) {
 		
 		if (Towny.isSpigot && sender instanceof Player) {
@@ -1314,11 +1316,9 @@ public class TownCommand extends BaseCommand implements CommandExecutor, TabComp
 			return;
 		}
 
-		int iMax = Math.min(page * 10, towns.size());
 		List<String> townsformatted = new ArrayList<>(10);
 		
-		for (int i = (page - 1) * 10; i < iMax; i++) {
-			Town town = towns.get(i);
+		for (Town town : towns) {
 			String output = Colors.Blue + StringMgmt.remUnderscore(town.getName()) + 
 					(TownySettings.isTownListRandom() ? "" : Colors.Gray + " - " + Colors.LightBlue + "(" + town.getNumResidents() + ")");
 			if (town.isOpen())
@@ -1484,6 +1484,7 @@ public class TownCommand extends BaseCommand implements CommandExecutor, TabComp
 			} else if (split[0].equalsIgnoreCase("open")) {
 
 				town.setOpen(!town.isOpen());
+				townyUniverse.getRankings().markDirty(town);
 				TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_changed_open", town.isOpen() ? Translation.of("enabled") : Translation.of("disabled")));
 				if (admin)
 					TownyMessaging.sendMsg(sender, Translation.of("msg_changed_open", town.isOpen() ? Translation.of("enabled") : Translation.of("disabled")));
@@ -3373,15 +3374,18 @@ public class TownCommand extends BaseCommand implements CommandExecutor, TabComp
 						blockCost = town.getTownBlockCost();
 				}
 
-				if ((world.getMinDistanceFromOtherTownsPlots(key, town) < TownySettings.getMinDistanceFromTownPlotblocks()))
+				// Collects the claims and homeblocks near the selection once, for the key and every selected coord.
+				ProximityValidator proximity = new ProximityValidator(world, town, selection, TownySettings.getMinDistanceFromTownPlotblocks(), TownySettings.getMinDistanceFromTownHomeblocks());
+
+				if ((proximity.getMinDistanceFromOtherTownsPlots(key) < TownySettings.getMinDistanceFromTownPlotblocks()))
 					throw new TownyException(Translation.of("msg_too_close2", Translation.of("townblock")));
 
-				if(world.getMinDistanceFromOtherTowns(key, town) < TownySettings.getMinDistanceFromTownHomeblocks())
+				if(proximity.getMinDistanceFromOtherTowns(key) < TownySettings.getMinDistanceFromTownHomeblocks())
 					throw new TownyException(Translation.of("msg_too_close2", Translation.of("homeblock")));
 
 				TownyMessaging.sendDebugMsg("townClaim: Pre-Filter Selection ["+selection.size()+"] " + Arrays.toString(selection.toArray(new WorldCoord[0])));
 				selection = AreaSelectionUtil.filterTownOwnedBlocks(selection);
-				selection = AreaSelectionUtil.filterInvalidProximityTownBlocks(selection, town);
+				selection = AreaSelectionUtil.filterInvalidProximityTownBlocks(selection, proximity);
 				
 				TownyMessaging.sendDebugMsg("townClaim: Post-Filter Selection ["+selection.size()+"] " + Arrays.toString(selection.toArray(new WorldCoord[0])));
 				checkIfSelectionIsValid(town, selection, attachedToEdge, blockCost, false);
@@ -3489,11 +3493,19 @@ public class TownCommand extends BaseCommand implements CommandExecutor, TabComp
 
 	public static boolean isEdgeBlock(TownBlockOwner owner, List<WorldCoord> worldCoords) {
 
-		// TODO: Better algorithm that doesn't duplicates checks.
-
+		// Neighbours shared by several coords of the selection are only looked up once.
+		int[][] offset = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+		Set<WorldCoord> neighbours = new HashSet<>();
 		for (WorldCoord worldCoord : worldCoords)
-			if (isEdgeBlock(owner, worldCoord))
-				return true;
+			for (int i = 0; i < 4; i++)
+				neighbours.add(worldCoord.add(offset[i][0], offset[i][1]));
+
+		for (WorldCoord neighbour : neighbours)
+			try {
+				if (neighbour.getTownBlock().isOwner(owner))
+					return true;
+			} catch (NotRegisteredException e) {
+			}
 		return false;
 	}
 
@@ -32,9 +32,14 @@ import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
 import com.palmergames.bukkit.towny.permissions.PermissionNodes;
 import com.palmergames.bukkit.towny.permissions.TownyPerms;
+import com.palmergames.bukkit.towny.profiler.LatencyHistogram;
+import com.palmergames.bukkit.towny.profiler.TownyProfiler;
 import com.palmergames.bukkit.towny.tasks.BackupTask;
+import com.palmergames.bukkit.towny.tasks.NewDayLedger;
+import com.palmergames.bukkit.towny.tasks.NewDayLedger.EntryType;
 import com.palmergames.bukkit.towny.tasks.PlotClaim;
 import com.palmergames.bukkit.towny.tasks.ResidentPurge;
+import com.palmergames.bukkit.towny.tasks.TimerWheel;
 import com.palmergames.bukkit.towny.tasks.TownClaim;
 import com.palmergames.bukkit.towny.utils.AreaSelectionUtil;
 import com.palmergames.bukkit.towny.utils.NameUtil;
@@ -46,6 +51,7 @@ import com.palmergames.bukkit.util.Colors;
 import com.palmergames.bukkit.util.NameValidation;
 import com.palmergames.util.MemMgmt;
 import com.palmergames.util.StringMgmt;
+import com.palmergames.util.TimeMgmt;
 import com.palmergames.util.TimeTools;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -62,7 +68,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
@@ -96,7 +105,8 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 		"mysqldump",
 		"tpplot",
 		"database",
-		"depositall"
+		"depositall",
+		"perf"
 	);
 
 	private static final List<String> adminTownTabCompletes = Arrays.asList(
@@ -284,6 +294,10 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 				if (args.length == 2)
 					return NameUtil.filterByStart(adminDatabaseTabCompletes, args[1]);
 				break;
+			case "newday":
+				if (args.length == 2)
+					return NameUtil.filterByStart(Collections.singletonList("preview"), args[1]);
+				break;
 			case "resident":
 				switch (args.length) {
 					case 2:
@@ -386,6 +400,9 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 			case "unclaim":
 				if (args.length == 2)
 					return NameUtil.filterByStart(TownCommand.townUnclaimTabCompletes, args[1]);
+			case "perf":
+				if (args.length == 2)
+					return NameUtil.filterByStart(Arrays.asList("reset", "dump", "timers"), args[1]);
 			default:
 				if (args.length == 1)
 					return NameUtil.filterByStart(adminTabCompletes, args[0]);
@@ -507,7 +524,10 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 
 			} else if (split[0].equalsIgnoreCase("newday")) {
 
-				TownyTimerHandler.newDay();
+				if (split.length > 1 && split[1].equalsIgnoreCase("preview"))
+					newDayPreview();
+				else
+					TownyTimerHandler.newDay();
 
 			} else if (split[0].equalsIgnoreCase("purge")) {
 
@@ -540,6 +560,10 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 				
 				parseAdminDepositAllCommand(StringMgmt.remFirstArg(split));
 				
+			} else if (split[0].equalsIgnoreCase("perf")) {
+
+				parseAdminPerfCommand(StringMgmt.remFirstArg(split));
+
 			}  else {
 				TownyMessaging.sendErrorMsg(getSender(), Translation.of("msg_err_invalid_sub"));
 				return false;
@@ -549,6 +573,71 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 		return true;
 	}
 
+	/**
+	 * Works out the next new day's taxes and upkeep without paying any of
+	 * them, and reports the totals and the payments expected to fail.
+	 * 
+	 * @throws TownyException when taxes are not collected daily.
+	 */
+	private void newDayPreview() throws TownyException {
+		if (!TownyEconomyHandler.isActive() || !TownySettings.isTaxingDaily())
+			throw new TownyException(Translation.of("msg_err_new_day_not_taxing"));
+
+		// Kept, as the field may be reused by another command before the preview is ready.
+		CommandSender requester = getSender();
+		NewDayLedger ledger = NewDayLedger.snapshot();
+		CompletableFuture.runAsync(() -> {
+			try {
+				ledger.compute();
+				TownyMessaging.sendMessage(requester, getNewDayPreview(ledger));
+			} catch (EconomyException e) {
+				TownyMessaging.sendErrorMsg(requester, e.getMessage());
+			}
+		});
+	}
+
+	private static List<String> getNewDayPreview(NewDayLedger ledger) {
+		List<String> lines = new ArrayList<>();
+		lines.add(ChatTools.formatTitle(Translation.of("new_day_preview_title")));
+		for (Map.Entry<EntryType, Double> total : ledger.getTotals().entrySet())
+			lines.add(Colors.Green + getNewDayEntryName(total.getKey()) + ": " + Colors.LightGreen + TownyEconomyHandler.getFormattedBalance(total.getValue()));
+
+		Map<EntryType, List<String>> failures = new EnumMap<>(EntryType.class);
+		for (NewDayLedger.Entry entry : ledger.getPredictedFailures()) {
+			String name = entry.getResident() != null ? entry.getResident().getName() : entry.getTown() != null ? entry.getTown().getName() : entry.getNation().getName();
+			failures.computeIfAbsent(entry.getType(), type -> new ArrayList<>()).add(name);
+		}
+		if (failures.isEmpty())
+			lines.add(Colors.Green + Translation.of("new_day_preview_no_failures"));
+
+		for (Map.Entry<EntryType, List<String>> failure : failures.entrySet()) {
+			List<String> names = failure.getValue();
+			String shown = String.join(", ", names.subList(0, Math.min(10, names.size())));
+			if (names.size() > 10)
+				shown = Translation.of("new_day_preview_and_more", shown, names.size() - 10);
+			lines.add(Colors.Rose + getNewDayConsequence(failure.getKey()) + " (" + names.size() + "): " + Colors.White + shown);
+		}
+		return lines;
+	}
+
+	private static String getNewDayEntryName(EntryType type) {
+		return Translation.of("new_day_entry_" + type.name().toLowerCase());
+	}
+
+	private static String getNewDayConsequence(EntryType type) {
+		switch (type) {
+			case TOWN_TAX:
+			case PLOT_TAX:
+			case NATION_TAX:
+			case TOWN_UPKEEP:
+			case NATION_UPKEEP:
+			case NATION_NEUTRALITY:
+				return Translation.of("new_day_failure_" + type.name().toLowerCase());
+			default:
+				return Translation.of("new_day_failure_other", getNewDayEntryName(type));
+		}
+	}
+
 	private void parseAdminDatabaseCommand(String[] split) {
 	
 		if (split.length == 0 || split.length > 2 || split[0].equalsIgnoreCase("?")) {
@@ -1575,6 +1664,10 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 			e.printStackTrace();
 			return;
 		}
+
+		// Worlds without lists of their own follow the config's.
+		for (TownyWorld world : TownyUniverse.getInstance().getWorldMap().values())
+			world.compileRules();
 		
 		TownyMessaging.sendMsg(sender, Translation.of("msg_reloaded_config"));
 	}
@@ -2057,6 +2150,72 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 		return true;
 	}
 	
+	private void parseAdminPerfCommand(String[] split) throws TownyException {
+
+		if (split.length > 0 && split[0].equalsIgnoreCase("?")) {
+			sender.sendMessage(ChatTools.formatTitle("/ta perf"));
+			sender.sendMessage(ChatTools.formatCommand("", "/ta perf", "", Translation.of("ta_perf_help_0")));
+			sender.sendMessage(ChatTools.formatCommand("", "/ta perf", "reset", Translation.of("ta_perf_help_1")));
+			sender.sendMessage(ChatTools.formatCommand("", "/ta perf", "dump", Translation.of("ta_perf_help_2")));
+			sender.sendMessage(ChatTools.formatCommand("", "/ta perf", "timers", Translation.of("ta_perf_help_3")));
+			return;
+		}
+
+		// Pending timers are listed whether or not the profiler is on.
+		if (split.length > 0 && split[0].equalsIgnoreCase("timers")) {
+			TimerWheel wheel = TownyTimerHandler.getTimerWheel();
+			sender.sendMessage(ChatTools.formatTitle(Translation.of("ta_perf_timers_title")));
+			sender.sendMessage(Colors.Green + Translation.of("ta_perf_timers_total", wheel.getPendingCount()));
+			for (Map.Entry<String, Integer> count : wheel.getPendingCounts().entrySet())
+				sender.sendMessage(Colors.Green + count.getKey() + Colors.Gray + ": " + Colors.LightGreen + count.getValue());
+			List<TimerWheel.Timer> timers = wheel.getPending();
+			timers.sort(Comparator.comparingLong(TimerWheel.Timer::getDeadline));
+			for (TimerWheel.Timer timer : timers.subList(0, Math.min(10, timers.size())))
+				sender.sendMessage(Colors.Gray + timer.toString());
+			return;
+		}
+
+		if (!TownyProfiler.isEnabled())
+			throw new TownyException(Translation.of("msg_err_profiler_off"));
+
+		if (split.length == 0) {
+			sender.sendMessage(ChatTools.formatTitle(Translation.of("ta_perf_title")));
+			sender.sendMessage(Colors.Green + Translation.of("ta_perf_since") + Colors.LightGreen + TimeMgmt.formatCountdownTime((System.currentTimeMillis() - TownyProfiler.getSince()) / 1000) + Colors.Gray + Translation.of("ta_perf_columns"));
+			List<TownyProfiler.Entry> entries = TownyProfiler.getEntries();
+			for (TownyProfiler.Entry entry : entries.subList(0, Math.min(10, entries.size()))) {
+				LatencyHistogram histogram = entry.getHistogram();
+				sender.sendMessage(Colors.Green + entry.getName() + Colors.Gray + " [" + entry.getCategory().name().toLowerCase() + "] " + Colors.LightGreen + histogram.getCount()
+					+ Colors.Gray + ", " + formatNanos(histogram.getMean()) + ", " + formatNanos(histogram.getPercentile(99)) + ", " + formatNanos(histogram.getMax()));
+			}
+			for (Map.Entry<String, TownyProfiler.HitCounter> counter : TownyProfiler.getCounters().entrySet()) {
+				long hits = counter.getValue().getHits();
+				long misses = counter.getValue().getMisses();
+				sender.sendMessage(Colors.Green + counter.getKey() + Colors.Gray + " [" + Translation.of("ta_perf_cache") + "] " + Colors.LightGreen + Translation.of("ta_perf_hits", hits) + Colors.Gray + ", " + Colors.Rose + Translation.of("ta_perf_misses", misses)
+					+ Colors.Gray + (hits + misses > 0 ? String.format(" (%.1f%%)", hits * 100.0 / (hits + misses)) : ""));
+			}
+
+		} else if (split[0].equalsIgnoreCase("reset")) {
+			TownyProfiler.reset();
+			TownyMessaging.sendMsg(sender, Translation.of("msg_profiler_reset"));
+
+		} else if (split[0].equalsIgnoreCase("dump")) {
+			try {
+				File csv = TownyProfiler.dump();
+				TownyMessaging.sendMsg(sender, Translation.of("msg_profiler_dumped", csv.getName()));
+			} catch (IOException e) {
+				throw new TownyException(Translation.of("msg_err_profiler_dump_failed", e.getMessage()));
+			}
+
+		} else {
+			TownyMessaging.sendErrorMsg(getSender(), Translation.of("msg_err_invalid_sub"));
+		}
+	}
+
+	private static String formatNanos(long nanos) {
+
+		return String.format("%.3fms", nanos / 1000000.0);
+	}
+
 	private void showReloadHelp() {
 		sender.sendMessage(ChatTools.formatTitle("/ta reload"));
 		sender.sendMessage(ChatTools.formatCommand("", "/ta reload", "database", "Reloads database"));
@@ -1,5 +1,6 @@
 package com.palmergames.bukkit.towny.command;
 
+import com.palmergames.bukkit.towny.GovernmentRankings.Ranking;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyAsciiMap;
@@ -22,7 +23,6 @@ import com.palmergames.bukkit.towny.object.TownyObject;
 import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.towny.permissions.PermissionNodes;
 import com.palmergames.bukkit.towny.utils.NameUtil;
-import com.palmergames.bukkit.towny.war.eventwar.War;
 import com.palmergames.bukkit.util.BukkitTools;
 import com.palmergames.bukkit.util.ChatTools;
 import com.palmergames.bukkit.util.Colors;
@@ -305,8 +305,8 @@ public class TownyCommand extends BaseCommand implements CommandExecutor {
 
 	private void parseWarParticipants(Player player, String[] split) throws NotRegisteredException {
 		TownyUniverse townyUniverse = TownyUniverse.getInstance();
-		List<Town> townsToSort = War.warringTowns;
-		List<Nation> nationsToSort = War.warringNations;
+		List<Town> townsToSort = townyUniverse.getWarEvent().getWarringTowns();
+		List<Nation> nationsToSort = townyUniverse.getWarEvent().getWarringNations();
 		int page = 1;
 		List<String> output = new ArrayList<>();
 		String nationLine;
@@ -374,22 +374,23 @@ public class TownyCommand extends BaseCommand implements CommandExecutor {
 			towny_top.add(ChatTools.formatCommand("", "/towny top", "land [all/resident/town]", ""));
 		} else if (args[0].equalsIgnoreCase("residents"))
 			if (args.length == 1 || args[1].equalsIgnoreCase("all")) {
-				List<ResidentList> list = new ArrayList<>(universe.getDataSource().getTowns());
-				list.addAll(universe.getDataSource().getNations());
+				// The overall top ten is found among the top ten of each.
+				List<ResidentList> list = new ArrayList<>(universe.getRankings().getTowns(Ranking.RESIDENTS, 0, 10));
+				list.addAll(universe.getRankings().getNations(Ranking.RESIDENTS, 0, 10));
 				towny_top.add(ChatTools.formatTitle("Most Residents"));
 				towny_top.addAll(getMostResidents(list, 10));
 			} else if (args[1].equalsIgnoreCase("town")) {
 				towny_top.add(ChatTools.formatTitle("Most Residents in a Town"));
-				towny_top.addAll(getMostResidents(new ArrayList<>(universe.getDataSource().getTowns()), 10));
+				towny_top.addAll(getMostResidents(new ArrayList<>(universe.getRankings().getTowns(Ranking.RESIDENTS, 0, 10)), 10));
 			} else if (args[1].equalsIgnoreCase("nation")) {
 				towny_top.add(ChatTools.formatTitle("Most Residents in a Nation"));
-				towny_top.addAll(getMostResidents(new ArrayList<>(universe.getDataSource().getNations()), 10));
+				towny_top.addAll(getMostResidents(new ArrayList<>(universe.getRankings().getNations(Ranking.RESIDENTS, 0, 10)), 10));
 			} else
 				sendErrorMsg(player, "Invalid sub command.");
 		else if (args[0].equalsIgnoreCase("land"))
 			if (args.length == 1 || args[1].equalsIgnoreCase("all")) {
 				List<TownBlockOwner> list = new ArrayList<>(universe.getDataSource().getResidents());
-				list.addAll(universe.getDataSource().getTowns());
+				list.addAll(universe.getRankings().getTowns(Ranking.TOWNBLOCKS, 0, 10));
 				towny_top.add(ChatTools.formatTitle("Most Land Owned"));
 				towny_top.addAll(getMostLand(list, 10));
 			} else if (args[1].equalsIgnoreCase("resident")) {
@@ -397,7 +398,7 @@ public class TownyCommand extends BaseCommand implements CommandExecutor {
 				towny_top.addAll(getMostLand(new ArrayList<>(universe.getDataSource().getResidents()), 10));
 			} else if (args[1].equalsIgnoreCase("town")) {
 				towny_top.add(ChatTools.formatTitle("Most Land Owned by Town"));
-				towny_top.addAll(getMostLand(new ArrayList<>(universe.getDataSource().getTowns()), 10));
+				towny_top.addAll(getMostLand(new ArrayList<>(universe.getRankings().getTowns(Ranking.TOWNBLOCKS, 0, 10)), 10));
 			} else
 				sendErrorMsg(player, "Invalid sub command.");
 		else
@@ -2,7 +2,9 @@ package com.palmergames.bukkit.towny.confirmations;
 
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.TownyTimerHandler;
 import com.palmergames.bukkit.towny.object.Translation;
+import com.palmergames.bukkit.towny.tasks.TimerWheel.Timer;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 
@@ -22,11 +24,11 @@ public class ConfirmationHandler {
 	
 	private static final class ConfirmationContext {
 		final Confirmation confirmation;
-		final int taskID;
+		final Timer timer;
 		
-		ConfirmationContext(Confirmation confirmation, int taskID) {
+		ConfirmationContext(Confirmation confirmation, Timer timer) {
 			this.confirmation = confirmation;
-			this.taskID = taskID;
+			this.timer = timer;
 		}
 	}
 
@@ -38,7 +40,7 @@ public class ConfirmationHandler {
 	public static void revokeConfirmation(CommandSender sender) {
 		ConfirmationContext context = confirmations.get(sender);
 		
-		Bukkit.getScheduler().cancelTask(context.taskID);
+		context.timer.cancel();
 		Confirmation confirmation = context.confirmation;
 		confirmations.remove(sender);
 		
@@ -70,20 +72,17 @@ public class ConfirmationHandler {
 		
 		int duration = confirmation.getDuration();
 		
-		Runnable handler = () -> {
-			// Show cancel messages only if the confirmation exists.
-			if (hasConfirmation(sender)) {
+		Timer timer = TownyTimerHandler.getTimerWheel().schedule("confirmation", sender.getName(), duration * 1000L, expired -> {
+			// Show cancel messages only if the confirmation still belongs to this timer.
+			ConfirmationContext context = confirmations.get(sender);
+			if (context != null && context.timer == expired) {
 				confirmations.remove(sender);
 				TownyMessaging.sendErrorMsg(sender, "Confirmation Timed out.");
 			}
-		};
-		
-		int taskID;
-		long ticks = 20L * duration;
-		taskID = Bukkit.getScheduler().runTaskLater(plugin, handler, ticks).getTaskId();
+		});
 
-		// Cache the task.
-		confirmations.put(sender, new ConfirmationContext(confirmation, taskID));
+		// Cache the timer.
+		confirmations.put(sender, new ConfirmationContext(confirmation, timer));
 	}
 
 	/**
@@ -98,8 +97,8 @@ public class ConfirmationHandler {
 		// Get handler
 		Runnable handler = context.confirmation.getAcceptHandler();
 
-		// Cancel task.
-		Bukkit.getScheduler().cancelTask(context.taskID);
+		// Cancel timer.
+		context.timer.cancel();
 
 		// Remove confirmation as it's been handled.
 		confirmations.remove(sender);
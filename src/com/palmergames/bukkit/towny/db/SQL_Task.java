@@ -11,6 +11,8 @@ public class SQL_Task {
 	public final String tb_name;
 	public final HashMap<String, Object> args;
 	public final List<String> keys;
+	// Set instead of args when one delete covers many rows.
+	public final List<HashMap<String, Object>> rows;
 
 	/**
 	 * Constructor for a Delete task
@@ -20,7 +22,19 @@ public class SQL_Task {
 	 */
 	public SQL_Task(String tb_name, HashMap<String, Object> args) {
 
-		this(false, tb_name, args, null);
+		this(false, tb_name, args, null, null);
+
+	}
+
+	/**
+	 * Constructor for a Delete task covering many rows.
+	 * 
+	 * @param tb_name - Table name.
+	 * @param rows - Arguments of each row.
+	 */
+	public SQL_Task(String tb_name, List<HashMap<String, Object>> rows) {
+
+		this(false, tb_name, null, null, rows);
 
 	}
 
@@ -33,16 +47,17 @@ public class SQL_Task {
 	 */
 	public SQL_Task(String tb_name, HashMap<String, Object> args, List<String> keys) {
 
-		this(true, tb_name, args, keys);
+		this(true, tb_name, args, keys, null);
 
 	}
 
-	private SQL_Task(boolean update, String tb_name, HashMap<String, Object> args, List<String> keys) {
+	private SQL_Task(boolean update, String tb_name, HashMap<String, Object> args, List<String> keys, List<HashMap<String, Object>> rows) {
 
 		this.update = update;
 		this.tb_name = tb_name;
 		this.args = args;
 		this.keys = keys;
+		this.rows = rows;
 
 	}
 
@@ -12,6 +12,8 @@ import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownyWorld;
+import com.palmergames.bukkit.towny.profiler.TownyProfiler;
+import com.palmergames.bukkit.towny.profiler.TownyProfiler.Category;
 import com.palmergames.bukkit.towny.regen.PlotBlockData;
 import com.palmergames.bukkit.towny.tasks.GatherResidentUUIDTask;
 
@@ -59,12 +61,22 @@ public abstract class TownyDataSource {
 
 	public boolean loadAll() {
 
-		return loadWorldList() && loadNationList() && loadTownList() && loadPlotGroupList() && loadResidentList() && loadTownBlockList() && loadWorlds() && loadResidents() && loadTowns() && loadNations() && loadTownBlocks() && loadPlotGroups() && loadRegenList() && loadSnapshotList();
+		long start = TownyProfiler.start();
+		try {
+			return loadWorldList() && loadNationList() && loadTownList() && loadPlotGroupList() && loadResidentList() && loadTownBlockList() && loadWorlds() && loadResidents() && loadTowns() && loadNations() && loadTownBlocks() && loadPlotGroups() && loadRegenList() && loadSnapshotList();
+		} finally {
+			TownyProfiler.record(Category.DATABASE, "loadAll", start);
+		}
 	}
 
 	public boolean saveAll() {
 
-		return saveWorldList() && savePlotGroupList() && saveWorlds() && saveNations() && saveTowns() && saveResidents() && savePlotGroups() && saveAllTownBlocks() && saveRegenList() && saveSnapshotList();
+		long start = TownyProfiler.start();
+		try {
+			return saveWorldList() && savePlotGroupList() && saveWorlds() && saveNations() && saveTowns() && saveResidents() && savePlotGroups() && saveAllTownBlocks() && saveRegenList() && saveSnapshotList();
+		} finally {
+			TownyProfiler.record(Category.DATABASE, "saveAll", start);
+		}
 	}
 
 	public boolean saveAllWorlds() {
@@ -147,6 +159,17 @@ public abstract class TownyDataSource {
 
 	abstract public void deleteTownBlock(TownBlock townBlock);
 
+	/**
+	 * Deletes many townblocks together, which sources may do in one go.
+	 * 
+	 * @param townBlocks - TownBlocks to delete.
+	 */
+	public void deleteTownBlocks(Collection<TownBlock> townBlocks) {
+
+		for (TownBlock townBlock : townBlocks)
+			deleteTownBlock(townBlock);
+	}
+
 	abstract public void deleteFile(String file);
 	
 	abstract public void deletePlotGroup(PlotGroup group);
@@ -302,6 +325,8 @@ public abstract class TownyDataSource {
 
 	abstract public void removeTownBlocks(Town town);
 
+	abstract public void removeTownBlocks(Town town, List<TownBlock> townBlocks);
+
 	abstract public Collection<TownBlock> getAllTownBlocks();
 
 	abstract public void newResident(String name) throws AlreadyRegisteredException, NotRegisteredException;
@@ -12,6 +12,8 @@ import com.palmergames.bukkit.towny.event.PreDeleteTownEvent;
 import com.palmergames.bukkit.towny.event.RenameNationEvent;
 import com.palmergames.bukkit.towny.event.RenameResidentEvent;
 import com.palmergames.bukkit.towny.event.RenameTownEvent;
+import com.palmergames.bukkit.towny.event.TownBulkUnclaimEvent;
+import com.palmergames.bukkit.towny.event.TownPreBulkUnclaimEvent;
 import com.palmergames.bukkit.towny.event.TownPreUnclaimEvent;
 import com.palmergames.bukkit.towny.event.TownUnclaimEvent;
 import com.palmergames.bukkit.towny.event.PreDeleteNationEvent;
@@ -21,11 +23,13 @@ import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.PlotGroup;
+import com.palmergames.bukkit.towny.object.RelationshipCache;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownyPermission;
 import com.palmergames.bukkit.towny.object.TownyWorld;
+import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.regen.PlotBlockData;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
 import com.palmergames.bukkit.towny.war.eventwar.WarSpoils;
@@ -384,8 +388,54 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 	@Override
 	public void removeTownBlocks(Town town) {
 
-		for (TownBlock townBlock : new ArrayList<>(town.getTownBlocks()))
-			removeTownBlock(townBlock);
+		removeTownBlocks(town, new ArrayList<>(town.getTownBlocks()));
+	}
+
+	/**
+	 * Unclaims many townblocks of a town together. One
+	 * {@link TownPreBulkUnclaimEvent} and one {@link TownBulkUnclaimEvent}
+	 * are thrown for all of them, the town is saved once, the townblocks
+	 * are deleted in one go and their regeneration is queued as one batch.
+	 * 
+	 * @param town - Town unclaiming.
+	 * @param townBlocks - TownBlocks of the town to unclaim.
+	 */
+	@Override
+	public void removeTownBlocks(Town town, List<TownBlock> townBlocks) {
+
+		if (townBlocks.isEmpty())
+			return;
+
+		TownPreBulkUnclaimEvent event = new TownPreBulkUnclaimEvent(town, townBlocks);
+		BukkitTools.getPluginManager().callEvent(event);
+
+		if (event.isCancelled())
+			return;
+
+		TownyUniverse.getInstance().removeTownBlocks(townBlocks);
+		deleteTownBlocks(townBlocks);
+
+		List<WorldCoord> worldCoords = new ArrayList<>(townBlocks.size());
+		List<WorldCoord> deleteIds = new ArrayList<>();
+		List<PlotBlockData> reverts = new ArrayList<>();
+		for (TownBlock townBlock : townBlocks) {
+			worldCoords.add(townBlock.getWorldCoord());
+
+			if (townBlock.getWorld().isUsingPlotManagementDelete())
+				deleteIds.add(townBlock.getWorldCoord());
+
+			// Move the plot to be restored
+			if (townBlock.getWorld().isUsingPlotManagementRevert()) {
+				PlotBlockData plotData = TownyRegenAPI.getPlotChunkSnapshot(townBlock);
+				if (plotData != null && !plotData.getBlockList().isEmpty())
+					reverts.add(plotData);
+			}
+		}
+		TownyRegenAPI.addDeleteTownBlockIdQueue(deleteIds);
+		TownyRegenAPI.addPlotChunks(reverts, true);
+
+		// Raise one event to signal the unclaim
+		BukkitTools.getPluginManager().callEvent(new TownBulkUnclaimEvent(town, worldCoords));
 	}
 
 	@Override
@@ -513,6 +563,7 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 		
 		universe.getTownsTrie().removeKey(town.getName());
 		universe.getTownsMap().remove(town.getName().toLowerCase());
+		RelationshipCache.removeTown(town);
 		plugin.resetCache();
 		deleteTown(town);
 		
@@ -559,6 +610,7 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 		deleteNation(nation);
 		List<Town> toSave = new ArrayList<>(nation.getTowns());
 		nation.clear();
+		RelationshipCache.removeNation(nation);
 
 		universe.getNationsTrie().removeKey(nation.getName().toLowerCase());
 		universe.getNationsMap().remove(nation.getName().toLowerCase());
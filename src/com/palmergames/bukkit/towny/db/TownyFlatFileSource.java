@@ -17,6 +17,8 @@ import com.palmergames.bukkit.towny.object.TownyObject;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
+import com.palmergames.bukkit.towny.profiler.TownyProfiler;
+import com.palmergames.bukkit.towny.profiler.TownyProfiler.Category;
 import com.palmergames.bukkit.towny.regen.PlotBlockData;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
 import com.palmergames.bukkit.towny.tasks.DeleteFileTask;
@@ -87,7 +89,9 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		task = BukkitTools.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
 			while (!TownyFlatFileSource.this.queryQueue.isEmpty()) {
 				Runnable operation = TownyFlatFileSource.this.queryQueue.poll();
+				long start = TownyProfiler.start();
 				operation.run();
+				TownyProfiler.record(Category.DATABASE, "flatfile queued write", start);
 			}
 		}, 5L, 5L);
 	}
@@ -2366,6 +2370,25 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 			}
 		});
 	}
+
+	@Override
+	public void deleteTownBlocks(Collection<TownBlock> townBlocks) {
+
+		List<File> files = new ArrayList<>(townBlocks.size());
+		List<String> names = new ArrayList<>(townBlocks.size());
+		for (TownBlock townBlock : townBlocks) {
+			files.add(new File(getTownBlockFilename(townBlock)));
+			Town town = townBlock.getTownOrNull();
+			names.add(town != null ? town.getName() : "");
+		}
+
+		// One task moves every file, rather than one task each.
+		queryQueue.add(() -> {
+			for (int i = 0; i < files.size(); i++)
+				if (files.get(i).exists())
+					FileMgmt.moveTownBlockFile(files.get(i), "deleted", names.get(i));
+		});
+	}
 	
 	@Override
 	public void deletePlotGroup(PlotGroup group) {
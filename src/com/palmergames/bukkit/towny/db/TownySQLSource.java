@@ -23,6 +23,8 @@ import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
+import com.palmergames.bukkit.towny.profiler.TownyProfiler;
+import com.palmergames.bukkit.towny.profiler.TownyProfiler.Category;
 import com.palmergames.bukkit.towny.regen.PlotBlockData;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
 import com.palmergames.bukkit.towny.tasks.DeleteFileTask;
@@ -66,6 +68,9 @@ import java.util.stream.Collectors;
 
 public final class TownySQLSource extends TownyDatabaseHandler {
 
+	// Rows removed by each statement of a bulk delete, keeping statements well under max_allowed_packet.
+	private static final int BULK_DELETE_ROWS = 500;
+
 	private final Queue<SQL_Task> queryQueue = new ConcurrentLinkedQueue<>();
 	private final Queue<Runnable> ffQueryQueue = new ConcurrentLinkedQueue<>();
 	private BukkitTask task = null;
@@ -163,18 +168,29 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 			while (!TownySQLSource.this.queryQueue.isEmpty()) {
 
 				SQL_Task query = TownySQLSource.this.queryQueue.poll();
+				long start = TownyProfiler.start();
 
 				if (query.update) {
 					TownySQLSource.this.QueueUpdateDB(query.tb_name, query.args, query.keys);
+					if (TownyProfiler.isEnabled())
+						TownyProfiler.record(Category.DATABASE, "sql update " + query.tb_name, start);
+				} else if (query.rows != null) {
+					TownySQLSource.this.QueueDeleteDB(query.tb_name, query.rows);
+					if (TownyProfiler.isEnabled())
+						TownyProfiler.record(Category.DATABASE, "sql bulk delete " + query.tb_name, start);
 				} else {
 					TownySQLSource.this.QueueDeleteDB(query.tb_name, query.args);
+					if (TownyProfiler.isEnabled())
+						TownyProfiler.record(Category.DATABASE, "sql delete " + query.tb_name, start);
 				}
 
 			}
 			
 			while (!TownySQLSource.this.ffQueryQueue.isEmpty()) {
 				Runnable operation = TownySQLSource.this.ffQueryQueue.poll();
+				long start = TownyProfiler.start();
 				operation.run();
+				TownyProfiler.record(Category.DATABASE, "flatfile queued write", start);
 			}
 
 		}, 5L, 5L);
@@ -191,6 +207,8 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 			if (query.update) {
 				TownySQLSource.this.QueueUpdateDB(query.tb_name, query.args, query.keys);
+			} else if (query.rows != null) {
+				TownySQLSource.this.QueueDeleteDB(query.tb_name, query.rows);
 			} else {
 				TownySQLSource.this.QueueDeleteDB(query.tb_name, query.args);
 			}
@@ -433,6 +451,24 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 	}
 
+	/**
+	 * Queues one delete for many rows of a table, as one statement for each
+	 * {@link #BULK_DELETE_ROWS} rows.
+	 * 
+	 * @param tb_name - Table name.
+	 * @param rows - Arguments of each row.
+	 * @return true
+	 */
+	public boolean DeleteDB(String tb_name, List<HashMap<String, Object>> rows) {
+
+		// Make sure we only execute queries in async
+
+		this.queryQueue.add(new SQL_Task(tb_name, rows));
+
+		return true;
+
+	}
+
 	public boolean QueueDeleteDB(String tb_name, HashMap<String, Object> args) {
 
 		if (!getContext())
@@ -440,20 +476,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		try {
 			StringBuilder wherecode = new StringBuilder(
 					"DELETE FROM " + tb_prefix + (tb_name.toUpperCase()) + " WHERE ");
-			Set<Map.Entry<String, Object>> set = args.entrySet();
-			Iterator<Map.Entry<String, Object>> i = set.iterator();
-			while (i.hasNext()) {
-				Map.Entry<String, Object> me = i.next();
-				wherecode.append("`").append(me.getKey()).append("` = ");
-				if (me.getValue() instanceof String)
-					wherecode.append("'").append(((String) me.getValue()).replace("'", "''")).append("'");
-				else if (me.getValue() instanceof Boolean)
-					wherecode.append("'").append(((Boolean) me.getValue()) ? "1" : "0").append("'");
-				else
-					wherecode.append("'").append(me.getValue()).append("'");
-
-				wherecode.append(i.hasNext() ? " AND " : "");
-			}
+			appendWhere(wherecode, args);
 			Statement s = cntx.createStatement();
 			int rs = s.executeUpdate(wherecode.toString());
 			s.close();
@@ -466,6 +489,51 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		return false;
 	}
 
+	public boolean QueueDeleteDB(String tb_name, List<HashMap<String, Object>> rows) {
+
+		if (!getContext())
+			return false;
+		try {
+			Statement s = cntx.createStatement();
+			for (int from = 0; from < rows.size(); from += BULK_DELETE_ROWS) {
+				StringBuilder wherecode = new StringBuilder(
+						"DELETE FROM " + tb_prefix + (tb_name.toUpperCase()) + " WHERE ");
+				int to = Math.min(rows.size(), from + BULK_DELETE_ROWS);
+				for (int row = from; row < to; row++) {
+					wherecode.append("(");
+					appendWhere(wherecode, rows.get(row));
+					wherecode.append(row < to - 1 ? ") OR " : ")");
+				}
+				int rs = s.executeUpdate(wherecode.toString());
+				if (rs < to - from) {
+					TownyMessaging.sendDebugMsg("SQL: bulk delete from " + tb_name + " removed " + rs + " of " + (to - from) + " rows.");
+				}
+			}
+			s.close();
+		} catch (SQLException e) {
+			TownyMessaging.sendErrorMsg("SQL: Error delete : " + e.getMessage());
+		}
+		return false;
+	}
+
+	private static void appendWhere(StringBuilder wherecode, HashMap<String, Object> args) {
+
+		Set<Map.Entry<String, Object>> set = args.entrySet();
+		Iterator<Map.Entry<String, Object>> i = set.iterator();
+		while (i.hasNext()) {
+			Map.Entry<String, Object> me = i.next();
+			wherecode.append("`").append(me.getKey()).append("` = ");
+			if (me.getValue() instanceof String)
+				wherecode.append("'").append(((String) me.getValue()).replace("'", "''")).append("'");
+			else if (me.getValue() instanceof Boolean)
+				wherecode.append("'").append(((Boolean) me.getValue()) ? "1" : "0").append("'");
+			else
+				wherecode.append("'").append(me.getValue()).append("'");
+
+			wherecode.append(i.hasNext() ? " AND " : "");
+		}
+	}
+
 	/*
 	 * Load keys
 	 */
@@ -2245,6 +2313,19 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		DeleteDB("TOWNBLOCKS", twn_hm);
 	}
 
+	@Override
+	public void deleteTownBlocks(Collection<TownBlock> townBlocks) {
+		List<HashMap<String, Object>> rows = new ArrayList<>(townBlocks.size());
+		for (TownBlock townBlock : townBlocks) {
+			HashMap<String, Object> twn_hm = new HashMap<>();
+			twn_hm.put("world", townBlock.getWorld().getName());
+			twn_hm.put("x", townBlock.getX());
+			twn_hm.put("z", townBlock.getZ());
+			rows.add(twn_hm);
+		}
+		DeleteDB("TOWNBLOCKS", rows);
+	}
+
 	@Override
 	public void deletePlotGroup(PlotGroup group) {
 
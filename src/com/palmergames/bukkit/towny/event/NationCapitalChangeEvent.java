@@ -0,0 +1,52 @@
+package com.palmergames.bukkit.towny.event;
+
+import com.palmergames.bukkit.towny.object.Nation;
+import com.palmergames.bukkit.towny.object.Town;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Fired after a Nation has been given a new capital, and so a new king.
+ */
+public class NationCapitalChangeEvent extends Event {
+
+	private static final HandlerList handlers = new HandlerList();
+
+	private final Town oldCapital;
+	private final Town newCapital;
+	private final Nation nation;
+
+	public NationCapitalChangeEvent(Town oldCapital, Town newCapital, Nation nation) {
+		super(!Bukkit.getServer().isPrimaryThread());
+		this.oldCapital = oldCapital;
+		this.newCapital = newCapital;
+		this.nation = nation;
+	}
+
+	/**
+	 * @return the previous capital, or null if the nation had none.
+	 */
+	public Town getOldCapital() {
+		return oldCapital;
+	}
+
+	public Town getNewCapital() {
+		return newCapital;
+	}
+
+	public Nation getNation() {
+		return nation;
+	}
+
+	@Override
+	public HandlerList getHandlers() {
+
+		return handlers;
+	}
+
+	public static HandlerList getHandlerList() {
+
+		return handlers;
+	}
+}
@@ -0,0 +1,36 @@
+package com.palmergames.bukkit.towny.event;
+
+import com.palmergames.bukkit.towny.object.Resident;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Fired after friends have been added to or removed from a Resident's friends list.
+ */
+public class ResidentFriendsChangeEvent extends Event {
+
+	private static final HandlerList handlers = new HandlerList();
+
+	private final Resident resident;
+
+	public ResidentFriendsChangeEvent(Resident resident) {
+		super(!Bukkit.getServer().isPrimaryThread());
+		this.resident = resident;
+	}
+
+	public Resident getResident() {
+		return resident;
+	}
+
+	@Override
+	public HandlerList getHandlers() {
+
+		return handlers;
+	}
+
+	public static HandlerList getHandlerList() {
+
+		return handlers;
+	}
+}
@@ -0,0 +1,39 @@
+package com.palmergames.bukkit.towny.event;
+
+import com.palmergames.bukkit.towny.object.Resident;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Fired after a Resident has been jailed or freed.
+ */
+public class ResidentJailStatusChangeEvent extends Event {
+
+	private static final HandlerList handlers = new HandlerList();
+
+	private final Resident resident;
+
+	public ResidentJailStatusChangeEvent(Resident resident) {
+		super(!Bukkit.getServer().isPrimaryThread());
+		this.resident = resident;
+	}
+
+	/**
+	 * @return the resident, whose {@link Resident#isJailed()} gives the new status.
+	 */
+	public Resident getResident() {
+		return resident;
+	}
+
+	@Override
+	public HandlerList getHandlers() {
+
+		return handlers;
+	}
+
+	public static HandlerList getHandlerList() {
+
+		return handlers;
+	}
+}
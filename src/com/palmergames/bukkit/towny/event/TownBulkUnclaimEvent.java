@@ -0,0 +1,56 @@
+package com.palmergames.bukkit.towny.event;
+
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.WorldCoord;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown once after many TownBlocks of a Town have been unclaimed together,
+ * in place of a {@link TownUnclaimEvent} for each of them.
+ */
+public class TownBulkUnclaimEvent extends Event {
+
+	private static final HandlerList handlers = new HandlerList();
+	private final Town town;
+	private final List<WorldCoord> worldCoords;
+
+	@Override
+	public HandlerList getHandlers() {
+
+		return handlers;
+	}
+
+	public static HandlerList getHandlerList() {
+
+		return handlers;
+	}
+
+	/**
+	 * @param town - The Town which unclaimed.
+	 * @param worldCoords - The unclaimed WorldCoords.
+	 */
+	public TownBulkUnclaimEvent(Town town, List<WorldCoord> worldCoords) {
+		super(!Bukkit.getServer().isPrimaryThread());
+		this.town = town;
+		this.worldCoords = Collections.unmodifiableList(worldCoords);
+	}
+
+	/**
+	 * @return the Town.
+	 */
+	public Town getTown() {
+		return town;
+	}
+
+	/**
+	 * @return the unclaimed WorldCoords.
+	 */
+	public List<WorldCoord> getWorldCoords() {
+		return worldCoords;
+	}
+}
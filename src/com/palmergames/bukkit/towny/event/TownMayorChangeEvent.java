@@ -0,0 +1,52 @@
+package com.palmergames.bukkit.towny.event;
+
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Fired after a Town has been given a new mayor.
+ */
+public class TownMayorChangeEvent extends Event {
+
+	private static final HandlerList handlers = new HandlerList();
+
+	private final Resident oldMayor;
+	private final Resident newMayor;
+	private final Town town;
+
+	public TownMayorChangeEvent(Resident oldMayor, Resident newMayor, Town town) {
+		super(!Bukkit.getServer().isPrimaryThread());
+		this.oldMayor = oldMayor;
+		this.newMayor = newMayor;
+		this.town = town;
+	}
+
+	/**
+	 * @return the previous mayor, or null if the town had none.
+	 */
+	public Resident getOldMayor() {
+		return oldMayor;
+	}
+
+	public Resident getNewMayor() {
+		return newMayor;
+	}
+
+	public Town getTown() {
+		return town;
+	}
+
+	@Override
+	public HandlerList getHandlers() {
+
+		return handlers;
+	}
+
+	public static HandlerList getHandlerList() {
+
+		return handlers;
+	}
+}
@@ -0,0 +1,70 @@
+package com.palmergames.bukkit.towny.event;
+
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown once before many TownBlocks of a Town are unclaimed together, when
+ * a town is deleted, unclaims everything or unclaims an area. No
+ * {@link TownPreUnclaimEvent} is thrown for each of the TownBlocks.
+ * Cancelling this keeps every one of them claimed.
+ */
+public class TownPreBulkUnclaimEvent extends Event implements Cancellable {
+
+	private static final HandlerList handlers = new HandlerList();
+	private final Town town;
+	private final List<TownBlock> townBlocks;
+	private boolean isCancelled = false;
+
+	@Override
+	public HandlerList getHandlers() {
+
+		return handlers;
+	}
+
+	public static HandlerList getHandlerList() {
+
+		return handlers;
+	}
+
+	/**
+	 * @param town - The Town unclaiming.
+	 * @param townBlocks - The TownBlocks which will be unclaimed.
+	 */
+	public TownPreBulkUnclaimEvent(Town town, List<TownBlock> townBlocks) {
+		super(!Bukkit.getServer().isPrimaryThread());
+		this.town = town;
+		this.townBlocks = Collections.unmodifiableList(townBlocks);
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return isCancelled;
+	}
+
+	@Override
+	public void setCancelled(boolean cancelled) {
+		isCancelled = cancelled;
+	}
+
+	/**
+	 * @return the Town.
+	 */
+	public Town getTown() {
+		return town;
+	}
+
+	/**
+	 * @return the soon-to-be unclaimed TownBlocks.
+	 */
+	public List<TownBlock> getTownBlocks() {
+		return townBlocks;
+	}
+}
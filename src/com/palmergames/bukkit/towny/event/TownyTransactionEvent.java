@@ -8,11 +8,17 @@ import org.bukkit.event.HandlerList;
 public class TownyTransactionEvent extends Event {
 	
 	private final Transaction transaction;
+	private final String accountName;
 	private static final HandlerList handlers = new HandlerList();
 	
 	public TownyTransactionEvent(Transaction transaction) {
+		this(transaction, null);
+	}
+
+	public TownyTransactionEvent(Transaction transaction, String accountName) {
 		super(!Bukkit.getServer().isPrimaryThread());
 		this.transaction = transaction;
+		this.accountName = accountName;
 	}
 
 	@Override
@@ -28,4 +34,11 @@ public class TownyTransactionEvent extends Event {
 	public Transaction getTransaction() {
 		return transaction;
 	}
+
+	/**
+	 * @return the name of the economy account changed, or null if unknown.
+	 */
+	public String getAccountName() {
+		return accountName;
+	}
 }
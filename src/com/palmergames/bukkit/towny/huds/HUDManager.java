@@ -18,16 +18,17 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerQuitEvent;
 
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 public class HUDManager implements Listener{
 
-	ArrayList<Player> warUsers;
-	ArrayList<Player> permUsers;
+	Set<Player> warUsers;
+	Set<Player> permUsers;
 
 	public HUDManager (Towny plugin) {
-		warUsers = new ArrayList<>();
-		permUsers = new ArrayList<>();
+		warUsers = new LinkedHashSet<>();
+		permUsers = new LinkedHashSet<>();
 	}
 
 	//**TOGGLES**//
@@ -36,9 +36,9 @@ public class WarHUD {
 		try {
 			nation_loc = at.getTownBlock().getTown().getNation().getName();
 		} catch (NotRegisteredException e) {nation_loc = "";}
-		p.getScoreboard().getTeam("nation").setSuffix(HUDManager.check(nation_loc));
-		p.getScoreboard().getTeam("town").setSuffix(HUDManager.check(town_loc));
-		p.getScoreboard().getTeam("home").setSuffix(HUDManager.check(homeblock));
+		setSuffix(p, "nation", HUDManager.check(nation_loc));
+		setSuffix(p, "town", HUDManager.check(town_loc));
+		setSuffix(p, "home", HUDManager.check(homeblock));
 	}
 
 	public static void updateAttackable(Player p, WorldCoord at, War war) {
@@ -49,7 +49,7 @@ public class WarHUD {
 			onEdge = Translation.of("war_hud_true");
 		else
 			onEdge = Translation.of("war_hud_false");
-		p.getScoreboard().getTeam("edge").setSuffix(HUDManager.check(onEdge));
+		setSuffix(p, "edge", HUDManager.check(onEdge));
 	}
 
 	public static void updateHealth(Player p, WorldCoord at, War war) {
@@ -71,16 +71,16 @@ public class WarHUD {
 			else
 				health = "";
 		}
-		p.getScoreboard().getTeam("health").setSuffix(health);
+		setSuffix(p, "health", health);
 	}
 
 	public static void updateHealth (Player p, int health, boolean home) {
 		if (health > 0) 
-			p.getScoreboard().getTeam("health").setSuffix(health + "" + ChatColor.AQUA + "/" + (home ? home_health : town_health));
+			setSuffix(p, "health", health + "" + ChatColor.AQUA + "/" + (home ? home_health : town_health));
 		else {
-			p.getScoreboard().getTeam("health").setSuffix(Translation.of("war_hud_fallen"));
+			setSuffix(p, "health", Translation.of("war_hud_fallen"));
 			if (TownySettings.getOnlyAttackEdgesInWar())
-				p.getScoreboard().getTeam("edge").setSuffix("war_hud_false");
+				setSuffix(p, "edge", "war_hud_false");
 		}
 	}
 
@@ -91,7 +91,7 @@ public class WarHUD {
 		} catch (NotRegisteredException e) {
 			homeTown = Translation.of("war_hud_townless");
 		}
-		p.getScoreboard().getTeam("town_title").setSuffix(HUDManager.check(homeTown));
+		setSuffix(p, "town_title", HUDManager.check(homeTown));
 	}
 
 	public static void updateScore(Player p, War war) {
@@ -104,7 +104,7 @@ public class WarHUD {
 			else
 				score = "";
 		} catch (NotRegisteredException e) {score = "";}
-		p.getScoreboard().getTeam("town_score").setSuffix(HUDManager.check(score));
+		setSuffix(p, "town_score", HUDManager.check(score));
 	}
 
 	public static void updateTopScores(Player p, String[] top) {
@@ -114,16 +114,16 @@ public class WarHUD {
 		String fsuffix = top[0].contains("-") ? top[0].split("-")[1] : "";
 		String ssuffix = top[1].contains("-") ? top[1].split("-")[1] : "";
 		String tsuffix = top[2].contains("-") ? top[2].split("-")[1] : "";
-		p.getScoreboard().getTeam("first").setPrefix(HUDManager.check(fprefix));
-		p.getScoreboard().getTeam("first").setSuffix(HUDManager.check(fsuffix));
-		p.getScoreboard().getTeam("second").setPrefix(HUDManager.check(sprefix));
-		p.getScoreboard().getTeam("second").setSuffix(HUDManager.check(ssuffix));
-		p.getScoreboard().getTeam("third").setPrefix(HUDManager.check(tprefix));
-		p.getScoreboard().getTeam("third").setSuffix(HUDManager.check(tsuffix));
+		setPrefix(p, "first", HUDManager.check(fprefix));
+		setSuffix(p, "first", HUDManager.check(fsuffix));
+		setPrefix(p, "second", HUDManager.check(sprefix));
+		setSuffix(p, "second", HUDManager.check(ssuffix));
+		setPrefix(p, "third", HUDManager.check(tprefix));
+		setSuffix(p, "third", HUDManager.check(tsuffix));
 	}
 
 	public static void updateScore(Player p, int score) {
-		p.getScoreboard().getTeam("town_score").setSuffix(HUDManager.check(score + ""));
+		setSuffix(p, "town_score", HUDManager.check(score + ""));
 	}
 
 	public static void toggleOn (Player p, War war) {
@@ -211,6 +211,21 @@ public class WarHUD {
 		updateTopScores(p, war.getTopThree());
 	}
 
+	/*
+	 * Scoreboard teams are only sent to the player when their text actually changes.
+	 */
+	private static void setSuffix(Player p, String teamName, String suffix) {
+		Team team = p.getScoreboard().getTeam(teamName);
+		if (team != null && !suffix.equals(team.getSuffix()))
+			team.setSuffix(suffix);
+	}
+
+	private static void setPrefix(Player p, String teamName, String prefix) {
+		Team team = p.getScoreboard().getTeam(teamName);
+		if (team != null && !prefix.equals(team.getPrefix()))
+			team.setPrefix(prefix);
+	}
+
 	public static boolean isOnEdgeOfTown(WorldCoord worldCoord, War war) {
 
 		Town currentTown;
@@ -2,15 +2,19 @@ package com.palmergames.bukkit.towny.invites;
 
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyTimerHandler;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.tasks.TimerWheel.Timer;
 
 import java.io.InvalidObjectException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -21,6 +25,7 @@ public class InviteHandler {
 	private static Towny plugin;
 	
 	private static final Set<Invite> activeInvites = new HashSet<>();
+	private static final Map<Invite, Timer> expiryTimers = new HashMap<>();
 
 	public static void initialize(Towny plugin) {
 
@@ -31,6 +36,7 @@ public class InviteHandler {
 		if (activeInvites.contains(invite)) {
 			invite.accept();
 			activeInvites.remove(invite);
+			cancelExpiry(invite);
 			return;
 		}
 		throw new InvalidObjectException("Invite not valid!"); // I throw this as a backup (failsafe)
@@ -41,6 +47,7 @@ public class InviteHandler {
 		if (activeInvites.contains(invite)) {
 			invite.decline(fromSender);
 			activeInvites.remove(invite);
+			cancelExpiry(invite);
 			return;
 		}
 		throw new InvalidObjectException("Invite not valid!"); // I throw this as a backup (failsafe)
@@ -49,6 +56,29 @@ public class InviteHandler {
 	
 	public static void addInvite(Invite invite) {
 		activeInvites.add(invite);
+
+		long expiry = TownySettings.getInviteExpirationTime();
+		if (expiry > 0)
+			expiryTimers.put(invite, TownyTimerHandler.getTimerWheel().schedule("invite", invite.getSender().getName() + " -> " + invite.getReceiver().getName(), expiry * 1000, timer -> expireInvite(invite)));
+	}
+
+	/**
+	 * Quietly removes an invite nobody answered in time.
+	 * 
+	 * @param invite The invite which has expired.
+	 */
+	private static void expireInvite(Invite invite) {
+		expiryTimers.remove(invite);
+		if (activeInvites.remove(invite)) {
+			invite.getSender().deleteSentInvite(invite);
+			invite.getReceiver().deleteReceivedInvite(invite);
+		}
+	}
+
+	private static void cancelExpiry(Invite invite) {
+		Timer timer = expiryTimers.remove(invite);
+		if (timer != null)
+			timer.cancel();
 	}
 	
 	public static Collection<Invite> getActiveInvites() {
@@ -3,6 +3,7 @@ package com.palmergames.bukkit.towny.listeners;
 import com.palmergames.bukkit.config.ConfigNodes;
 import com.palmergames.bukkit.towny.ChunkNotification;
 import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownyAsciiMap;
 import com.palmergames.bukkit.towny.TownyEconomyHandler;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
@@ -12,13 +13,20 @@ import com.palmergames.bukkit.towny.command.TownCommand;
 import com.palmergames.bukkit.towny.command.TownyCommand;
 import com.palmergames.bukkit.towny.event.NewTownEvent;
 import com.palmergames.bukkit.towny.event.PlayerChangePlotEvent;
+import com.palmergames.bukkit.towny.event.TownAddResidentEvent;
+import com.palmergames.bukkit.towny.event.TownClaimEvent;
+import com.palmergames.bukkit.towny.event.TownBulkUnclaimEvent;
+import com.palmergames.bukkit.towny.event.TownRemoveResidentEvent;
+import com.palmergames.bukkit.towny.event.TownUnclaimEvent;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.object.CellBorder;
+import com.palmergames.bukkit.towny.object.CellSurface;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.utils.BorderUtil;
+import com.palmergames.bukkit.towny.war.eventwar.War;
 import com.palmergames.bukkit.util.DrawSmokeTaskFactory;
 import com.palmergames.util.TimeMgmt;
 
@@ -115,8 +123,16 @@ public class TownyCustomListener implements Listener {
 		}
 
 		if (plugin.hasPlayerMode(player, "plotborder")) {
-			CellBorder cellBorder = BorderUtil.getPlotBorder(to);
-			cellBorder.runBorderedOnSurface(1, 2, DrawSmokeTaskFactory.sendToPlayer(player));
+			CellSurface surface = BorderUtil.getPlotSurface(to);
+			if (surface != null) {
+				surface.forEach(DrawSmokeTaskFactory.sendToPlayer(player));
+			} else {
+				CellBorder cellBorder = BorderUtil.getPlotBorder(to);
+				cellBorder.runBorderedOnSurface(1, 2, DrawSmokeTaskFactory.sendToPlayer(player));
+			}
+		} else if (plugin.hasPlayerMode(player, "constantplotborder")) {
+			// Have the surface ready by the time the smoke task next draws.
+			BorderUtil.getPlotSurface(to);
 		}
 	}
 	
@@ -134,4 +150,44 @@ public class TownyCustomListener implements Listener {
 		// links to the commands page on the wiki.
 		
 	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownClaim(TownClaimEvent event) {
+		TownyAsciiMap.claimsChanged(plugin, event.getTownBlock().getWorldCoord());
+		BorderUtil.invalidatePlotSurface(event.getTownBlock().getWorldCoord());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownUnclaim(TownUnclaimEvent event) {
+		TownyAsciiMap.claimsChanged(plugin, event.getWorldCoord());
+		BorderUtil.invalidatePlotSurface(event.getWorldCoord());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownBulkUnclaim(TownBulkUnclaimEvent event) {
+		for (WorldCoord worldCoord : event.getWorldCoords()) {
+			TownyAsciiMap.claimsChanged(plugin, worldCoord);
+			BorderUtil.invalidatePlotSurface(worldCoord);
+		}
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownAddResident(TownAddResidentEvent event) {
+		invalidateWarParticipants();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onTownRemoveResident(TownRemoveResidentEvent event) {
+		invalidateWarParticipants();
+	}
+
+	/**
+	 * A resident's side in a war follows their town, so the sides are
+	 * worked out again on the next war tick.
+	 */
+	private void invalidateWarParticipants() {
+		War war = TownyUniverse.getInstance().getWarEvent();
+		if (war != null && war.isWarTime())
+			war.getParticipants().invalidate();
+	}
 }
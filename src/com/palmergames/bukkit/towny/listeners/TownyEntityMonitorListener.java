@@ -570,7 +570,7 @@ public class TownyEntityMonitorListener implements Listener {
 			if (!attackerResident.hasNation() || !defenderResident.hasNation()) 
 				return;
 			try {
-				if (!attackerResident.getTown().getNation().getEnemies().contains(defenderResident.getTown().getNation())) 
+				if (!attackerResident.getTown().getNation().hasEnemy(defenderResident.getTown().getNation())) 
 					return;
 			} catch (NotRegisteredException e) {
 				e.printStackTrace();
@@ -32,6 +32,7 @@ import com.palmergames.bukkit.towny.tasks.TeleportWarmupTimerTask;
 import com.palmergames.bukkit.towny.utils.CombatUtil;
 import com.palmergames.bukkit.towny.utils.PlayerCacheUtil;
 import com.palmergames.bukkit.towny.war.common.WarZoneConfig;
+import com.palmergames.bukkit.towny.war.eventwar.War;
 import com.palmergames.bukkit.towny.war.eventwar.WarUtil;
 import com.palmergames.bukkit.towny.war.flagwar.FlagWarConfig;
 import com.palmergames.bukkit.util.BukkitTools;
@@ -117,6 +118,8 @@ public class TownyPlayerListener implements Listener {
 			return;
 		}
 
+		updateLocation(player, WorldCoord.parseWorldCoord(player));
+
 		// Perform login code in it's own thread to update Towny data.
 		if (BukkitTools.scheduleSyncDelayedTask(new OnPlayerLogin(Towny.getPlugin(), player), 0L) == -1) {
 			TownyMessaging.sendErrorMsg("Could not schedule OnLogin.");
@@ -148,7 +151,11 @@ public class TownyPlayerListener implements Listener {
 		}
 
 		plugin.deleteCache(event.getPlayer());
+		plugin.getPlayerLocations().remove(event.getPlayer());
+		if (TownyUniverse.getInstance().getWarEvent() != null)
+			TownyUniverse.getInstance().getWarEvent().getParticipants().remove(event.getPlayer());
 		TownyPerms.removeAttachment(event.getPlayer().getName());
+		TownyUniverse.getInstance().getPermissionSource().invalidate(event.getPlayer());
 	}
 	
 	@EventHandler(priority = EventPriority.NORMAL)
@@ -186,6 +193,16 @@ public class TownyPlayerListener implements Listener {
 		}
 	}
 	
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onPlayerRespawnLocation(PlayerRespawnEvent event) {
+
+		if (plugin.isError())
+			return;
+
+		Location respawn = event.getRespawnLocation();
+		updateLocation(event.getPlayer(), WorldCoord.parseWorldCoord(respawn));
+	}
+
 	@EventHandler(priority = EventPriority.HIGHEST)
 	public void onPlayerJailRespawn(PlayerRespawnEvent event) {
 
@@ -546,47 +563,42 @@ public class TownyPlayerListener implements Listener {
 			event.setCancelled(true);
 			return;
 		}
-		TownyUniverse townyUniverse = TownyUniverse.getInstance();
 
 		/*
 		 * Abort if we havn't really moved
 		 */
-		if (event.getFrom().getBlockX() == event.getTo().getBlockX() && event.getFrom().getBlockZ() == event.getTo().getBlockZ() && event.getFrom().getBlockY() == event.getTo().getBlockY()) {
+		Location to = event.getTo();
+		if (event.getFrom().getBlockX() == to.getBlockX() && event.getFrom().getBlockZ() == to.getBlockZ() && event.getFrom().getBlockY() == to.getBlockY()) {
 			return;
 		}
 
 		Player player = event.getPlayer();
-		Location to = event.getTo();
-		Location from;
-		PlayerCache cache = plugin.getCache(player);
-		Resident resident = null;
-		try {
-			resident = townyUniverse.getDataSource().getResident(player.getName());
-		} catch (NotRegisteredException ignored) {
-		}
-		
-		if (resident != null
-				&& TownyTimerHandler.isTeleportWarmupRunning()				 
-				&& TownySettings.getTeleportWarmupTime() > 0 
-				&& TownySettings.isMovementCancellingSpawnWarmup() 
-				&& !townyUniverse.getPermissionSource().has(player, PermissionNodes.TOWNY_ADMIN.getNode()) 
-				&& resident.getTeleportRequestTime() > 0) {
-			TeleportWarmupTimerTask.abortTeleportRequest(resident);
-			TownyMessaging.sendMsg(resident, ChatColor.RED + Translation.of("msg_err_teleport_cancelled"));
-		}
 
-		try {
-			from = cache.getLastLocation();
-		} catch (NullPointerException e) {
-			from = event.getFrom();
+		/*
+		 * Moving a block cancels a teleport warmup, looked into only while somebody has one.
+		 */
+		if (TeleportWarmupTimerTask.hasPendingWarmups()
+				&& TownyTimerHandler.isTeleportWarmupRunning()
+				&& TownySettings.getTeleportWarmupTime() > 0
+				&& TownySettings.isMovementCancellingSpawnWarmup()) {
+			abortTeleportWarmup(player);
 		}
-		
+
+		/*
+		 * Most moves stay in the same cell, which needs nothing more than comparing ints.
+		 */
+		PlayerCache cache = plugin.getCache(player);
+		if (cache == null || cache.isInLastCell(to))
+			return;
+
+		TownyUniverse townyUniverse = TownyUniverse.getInstance();
+		Location from = cache.hasLastLocation() ? cache.getLastLocation() : event.getFrom();
 		if (WorldCoord.cellChanged(from, to)) {
 			try {
 				TownyWorld fromWorld = townyUniverse.getDataSource().getWorld(from.getWorld().getName());
-				WorldCoord fromCoord = new WorldCoord(fromWorld.getName(), Coord.parseCoord(from));
+				WorldCoord fromCoord = WorldCoord.parseWorldCoord(fromWorld.getName(), from.getBlockX(), from.getBlockZ());
 				TownyWorld toWorld = townyUniverse.getDataSource().getWorld(to.getWorld().getName());
-				WorldCoord toCoord = new WorldCoord(toWorld.getName(), Coord.parseCoord(to));
+				WorldCoord toCoord = WorldCoord.parseWorldCoord(toWorld.getName(), to.getBlockX(), to.getBlockZ());
 				
 				onPlayerMoveChunk(player, fromCoord, toCoord, from, to, event);
 			} catch (NotRegisteredException e) {
@@ -598,6 +610,23 @@ public class TownyPlayerListener implements Listener {
 		cache.setLastLocation(to);
 	}
 
+	private void abortTeleportWarmup(Player player) {
+
+		TownyUniverse townyUniverse = TownyUniverse.getInstance();
+		Resident resident;
+		try {
+			resident = townyUniverse.getDataSource().getResident(player.getName());
+		} catch (NotRegisteredException e) {
+			return;
+		}
+
+		if (resident.getTeleportRequestTime() > 0
+				&& !townyUniverse.getPermissionSource().has(player, PermissionNodes.TOWNY_ADMIN.getNode())) {
+			TeleportWarmupTimerTask.abortTeleportRequest(resident);
+			TownyMessaging.sendMsg(resident, ChatColor.RED + Translation.of("msg_err_teleport_cancelled"));
+		}
+	}
+
 	@EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
 	public void onPlayerTeleport(PlayerTeleportEvent event) {
 
@@ -657,8 +686,10 @@ public class TownyPlayerListener implements Listener {
 
 	@EventHandler(priority = EventPriority.LOWEST)
 	public void onPlayerChangeWorld(PlayerChangedWorldEvent event) { // has changed worlds
-		if (event.getPlayer().isOnline())
+		if (event.getPlayer().isOnline()) {
 			TownyPerms.assignPermissions(null, event.getPlayer());
+			updateLocation(event.getPlayer(), WorldCoord.parseWorldCoord(event.getPlayer()));
+		}
 	}
 
 	@EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
@@ -881,11 +912,23 @@ public class TownyPlayerListener implements Listener {
 
 		plugin.getCache(player).setLastLocation(toLoc);
 		plugin.getCache(player).updateCoord(to);
+		updateLocation(player, to);
 
 		PlayerChangePlotEvent event = new PlayerChangePlotEvent(player, from, to, moveEvent);
 		Bukkit.getServer().getPluginManager().callEvent(event);
 	}
 	
+	/*
+	* Keeps the index of who is standing where, and the sides of an event war, up to date.
+	*/
+	private void updateLocation(Player player, WorldCoord worldCoord) {
+
+		plugin.getPlayerLocations().update(player, worldCoord);
+		War warEvent = TownyUniverse.getInstance().getWarEvent();
+		if (warEvent != null && warEvent.isWarTime())
+			warEvent.getParticipants().update(player, worldCoord);
+	}
+	
 	/*
 	* PlayerChangePlotEvent that can fire the PlayerLeaveTownEvent and PlayerEnterTownEvent
 	*/
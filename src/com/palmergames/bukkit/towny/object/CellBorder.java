@@ -75,40 +75,61 @@ public class CellBorder extends WorldCoord {
 		return getZ() * getCellSize();
 	}
 
+	/**
+	 * Receives one straight run of border blocks, see {@link #runBorderedSections(int, int, SectionRunnable)}.
+	 */
+	public interface SectionRunnable {
+
+		void run(int x1, int z1, int x2, int z2, int height);
+	}
+
 	public void runBorderedOnSurface(int wallHeight, int cornerHeight, LocationRunnable runnable) {
 
+		World world = getBukkitWorld();
+		runBorderedSections(wallHeight, cornerHeight, (x1, z1, x2, z2, height) -> DrawUtil.runOnSurface(world, x1, z1, x2, z2, height, runnable));
+	}
+
+	/**
+	 * Hands each bordered section of this cell to a runnable as a rectangle
+	 * of block coordinates, along with how high it should be drawn.
+	 *
+	 * @param wallHeight - Height of the walls, 0 to skip them.
+	 * @param cornerHeight - Height of the corners, 0 to skip them.
+	 * @param runnable - Run once per bordered section.
+	 */
+	public void runBorderedSections(int wallHeight, int cornerHeight, SectionRunnable runnable) {
+
 		int x = getBlockX(); // positive x is east, negative x is west
 		int z = getBlockZ(); // positive z is south, negative z is north
 		int w = Coord.getCellSize() - 1;
-		World world = getBukkitWorld();
 
 		for (Section section : Section.values()) {
 			if (border[section.ordinal()]) {
 				if ((section.getType() == Section.Type.WALL && wallHeight > 0) || section.getType() == Section.Type.CORNER && cornerHeight > 0) {
 					switch (section) {
 					case N:
-						DrawUtil.runOnSurface(world, x, z, x, z + w, wallHeight, runnable);
+						runnable.run(x, z, x, z + w, wallHeight);
 						break;
 					case NE:
-						DrawUtil.runOnSurface(world, x, z, x, z, cornerHeight, runnable);
+						runnable.run(x, z, x, z, cornerHeight);
 						break;
 					case E:
-						DrawUtil.runOnSurface(world, x, z, x + w, z, wallHeight, runnable);
+						runnable.run(x, z, x + w, z, wallHeight);
 						break;
 					case SE:
-						DrawUtil.runOnSurface(world, x + w, z, x + w, z, cornerHeight, runnable);
+						runnable.run(x + w, z, x + w, z, cornerHeight);
 						break;
 					case S:
-						DrawUtil.runOnSurface(world, x + w, z, x + w, z + w, wallHeight, runnable);
+						runnable.run(x + w, z, x + w, z + w, wallHeight);
 						break;
 					case SW:
-						DrawUtil.runOnSurface(world, x + w, z + w, x + w, z + w, cornerHeight, runnable);
+						runnable.run(x + w, z + w, x + w, z + w, cornerHeight);
 						break;
 					case W:
-						DrawUtil.runOnSurface(world, x, z + w, x + w, z + w, wallHeight, runnable);
+						runnable.run(x, z + w, x + w, z + w, wallHeight);
 						break;
 					case NW:
-						DrawUtil.runOnSurface(world, x, z + w, x, z + w, cornerHeight, runnable);
+						runnable.run(x, z + w, x, z + w, cornerHeight);
 						break;
 					}
 				}
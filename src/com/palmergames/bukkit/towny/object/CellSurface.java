@@ -0,0 +1,181 @@
+package com.palmergames.bukkit.towny.object;
+
+import com.palmergames.bukkit.util.LocationRunnable;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The blocks a {@link CellBorder} is drawn on, worked out once from chunk
+ * snapshots so it can be drawn again and again without touching the world.
+ * <p>
+ * The snapshots are taken on the main thread by {@link #takeSnapshots(World, CellBorder)},
+ * after which {@link #compute(CellBorder, int, int, Map, int)} may run on
+ * any thread.
+ */
+public class CellSurface {
+
+	private final String worldName;
+	private final int[] points; // x, y, z of each block, one after the other.
+	private final long created = System.currentTimeMillis();
+
+	private CellSurface(String worldName, int[] points) {
+		this.worldName = worldName;
+		this.points = points;
+	}
+
+	/**
+	 * Snapshots the loaded chunks a border runs through. Must be called on the main thread.
+	 *
+	 * @param world - World the border is in.
+	 * @param border - The border.
+	 * @return the snapshots keyed by {@link #getChunkKey(int, int)}, unloaded chunks are left out.
+	 */
+	public static Map<Long, ChunkSnapshot> takeSnapshots(World world, CellBorder border) {
+
+		Map<Long, ChunkSnapshot> snapshots = new HashMap<>();
+		int w = Coord.getCellSize() - 1;
+		for (int chunkX = border.getBlockX() >> 4; chunkX <= (border.getBlockX() + w) >> 4; chunkX++) {
+			for (int chunkZ = border.getBlockZ() >> 4; chunkZ <= (border.getBlockZ() + w) >> 4; chunkZ++) {
+				if (!world.isChunkLoaded(chunkX, chunkZ))
+					continue;
+				Chunk chunk = world.getChunkAt(chunkX, chunkZ);
+				snapshots.put(getChunkKey(chunkX, chunkZ), chunk.getChunkSnapshot(true, false, false));
+			}
+		}
+		return snapshots;
+	}
+
+	/**
+	 * Works out the blocks a border is drawn on, as {@link CellBorder#runBorderedOnSurface(int, int, LocationRunnable)} would.
+	 *
+	 * @param border - The border.
+	 * @param wallHeight - Height of the walls.
+	 * @param cornerHeight - Height of the corners.
+	 * @param snapshots - Chunk snapshots from {@link #takeSnapshots(World, CellBorder)}.
+	 * @param maxHeight - Height of the world.
+	 * @return the surface.
+	 */
+	public static CellSurface compute(CellBorder border, int wallHeight, int cornerHeight, Map<Long, ChunkSnapshot> snapshots, int maxHeight) {
+
+		PointBuffer buffer = new PointBuffer();
+		border.runBorderedSections(wallHeight, cornerHeight, (x1, z1, x2, z2, height) -> {
+			for (int z = Math.min(z1, z2); z <= Math.max(z1, z2); z++) {
+				for (int x = Math.min(x1, x2); x <= Math.max(x1, x2); x++) {
+					ChunkSnapshot snapshot = snapshots.get(getChunkKey(x >> 4, z >> 4));
+					if (snapshot == null)
+						continue;
+
+					int start = snapshot.getHighestBlockYAt(x & 15, z & 15);
+					int end = (start + height) < maxHeight ? (start + height - 1) : maxHeight;
+					for (int y = start; y <= end; y++)
+						buffer.add(x, y, z);
+				}
+			}
+		});
+		return new CellSurface(border.getWorldName(), buffer.toArray());
+	}
+
+	private static class PointBuffer {
+		private int[] points = new int[96];
+		private int size = 0;
+
+		void add(int x, int y, int z) {
+			if (size + 3 > points.length) {
+				int[] grown = new int[points.length * 2];
+				System.arraycopy(points, 0, grown, 0, size);
+				points = grown;
+			}
+			points[size++] = x;
+			points[size++] = y;
+			points[size++] = z;
+		}
+
+		int[] toArray() {
+			int[] trimmed = new int[size];
+			System.arraycopy(points, 0, trimmed, 0, size);
+			return trimmed;
+		}
+	}
+
+	public static long getChunkKey(int chunkX, int chunkZ) {
+
+		return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * @param maxAgeMillis - How long a surface may be used before the terrain is read again.
+	 * @return true if this surface is older than that.
+	 */
+	public boolean isOlderThan(long maxAgeMillis) {
+
+		return System.currentTimeMillis() - created > maxAgeMillis;
+	}
+
+	public int size() {
+
+		return points.length / 3;
+	}
+
+	/**
+	 * Runs on every block of the surface.
+	 *
+	 * @param runnable - Run on each block.
+	 */
+	public void forEach(LocationRunnable runnable) {
+
+		World world = Bukkit.getWorld(worldName);
+		if (world == null)
+			return;
+
+		for (int i = 0; i < points.length; i += 3)
+			runnable.run(new Location(world, points[i], points[i + 1], points[i + 2]));
+	}
+
+	/**
+	 * Draws the surface for a player, skipping blocks they cannot see well.
+	 * Blocks close to the player are always drawn, blocks further away only
+	 * if they lie within the player's view cone, and nothing past maxDistance.
+	 *
+	 * @param player - Player to draw for.
+	 * @param maxDistance - Furthest a block may be from the player's eyes.
+	 * @param minCosine - Cosine of the widest angle from the player's line of sight.
+	 * @param budget - Most blocks drawn.
+	 * @param runnable - Run on each block drawn.
+	 * @return the number of blocks drawn.
+	 */
+	public int draw(Player player, double maxDistance, double minCosine, int budget, LocationRunnable runnable) {
+
+		Location eye = player.getEyeLocation();
+		World world = eye.getWorld();
+		if (world == null || !world.getName().equals(worldName))
+			return 0;
+
+		Vector direction = eye.getDirection();
+		double maxDistanceSquared = maxDistance * maxDistance;
+		int drawn = 0;
+		for (int i = 0; i < points.length && drawn < budget; i += 3) {
+			double dx = points[i] + 0.5 - eye.getX();
+			double dy = points[i + 1] + 0.5 - eye.getY();
+			double dz = points[i + 2] + 0.5 - eye.getZ();
+			double distanceSquared = dx * dx + dy * dy + dz * dz;
+			if (distanceSquared > maxDistanceSquared)
+				continue;
+			// Within a cell's width everything is drawn, wherever the player is looking.
+			if (distanceSquared > Coord.getCellSize() * Coord.getCellSize()
+				&& (dx * direction.getX() + dy * direction.getY() + dz * direction.getZ()) < minCosine * Math.sqrt(distanceSquared))
+				continue;
+
+			runnable.run(new Location(world, points[i], points[i + 1], points[i + 2]));
+			drawn++;
+		}
+		return drawn;
+	}
+}
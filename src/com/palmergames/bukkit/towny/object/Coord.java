@@ -48,10 +48,30 @@ public class Coord {
 	@Override
 	public int hashCode() {
 
-		int result = 17;
-		result = 27 * result + x;
-		result = 27 * result + z;
-		return result;
+		return fold(mix(-1, x, z));
+	}
+
+	/**
+	 * Mixes a world id and cell into a 64 bit hash. Neighbouring cells land
+	 * far apart, so grids of cells spread evenly over a hash table's buckets.
+	 * 
+	 * @param worldId - Id of the world, or -1 for none.
+	 * @param x - Cell x.
+	 * @param z - Cell z.
+	 * @return the hash.
+	 */
+	public static long mix(int worldId, int x, int z) {
+
+		long h = ((long) x << 32 | (z & 0xFFFFFFFFL)) ^ (worldId * 0x9E3779B97F4A7C15L);
+		// The MurmurHash3 finaliser.
+		h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+		h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return h ^ (h >>> 33);
+	}
+
+	protected static int fold(long hash) {
+
+		return (int) (hash ^ (hash >>> 32));
 	}
 
 	@Override
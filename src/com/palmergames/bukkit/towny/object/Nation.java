@@ -1,10 +1,12 @@
 package com.palmergames.bukkit.towny.object;
 
 import com.palmergames.bukkit.config.ConfigNodes;
+import com.palmergames.bukkit.towny.ChunkNotification;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.event.NationCapitalChangeEvent;
 import com.palmergames.bukkit.towny.exceptions.AlreadyRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.EconomyException;
 import com.palmergames.bukkit.towny.exceptions.EmptyNationException;
@@ -27,23 +29,28 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public class Nation extends Government {
 
 	private static final String ECONOMY_ACCOUNT_PREFIX = TownySettings.getNationAccountPrefix();
 
-	private final List<Town> towns = new ArrayList<>();
-	private List<Nation> allies = new ArrayList<>();
-	private List<Nation> enemies = new ArrayList<>();
+	private final Set<Town> towns = new LinkedHashSet<>();
+	private List<Town> townsView = null;
+	private final Set<Nation> allies = new LinkedHashSet<>();
+	private List<Nation> alliesView = null;
+	private final Set<Nation> enemies = new LinkedHashSet<>();
+	private List<Nation> enemiesView = null;
 	private Town capital;
 	private boolean neutral = false;
 	private String mapColorHexCode = "";
 	public UUID uuid;
 	private Location nationSpawn;
 	private final transient List<Invite> sentAllyInvites = new ArrayList<>();
+	transient int relationId = -1; // Dense id handed out by the RelationshipCache.
 	@SuppressWarnings("unused")
 	private final AccountAuditor accountAuditor = new GovernmentAccountAuditor();
 
@@ -63,7 +70,9 @@ public class Nation extends Government {
 			try {
 				removeEnemy(nation);
 			} catch (NotRegisteredException ignored) {}
-			getAllies().add(nation);
+			allies.add(nation);
+			alliesView = null;
+			RelationshipCache.updateNation(this);
 		}
 	}
 
@@ -71,13 +80,15 @@ public class Nation extends Government {
 
 		if (!hasAlly(nation))
 			throw new NotRegisteredException();
-		else
-			return getAllies().remove(nation);
+		alliesView = null;
+		boolean removed = allies.remove(nation);
+		RelationshipCache.updateNation(this);
+		return removed;
 	}
 
 	public boolean removeAllAllies() {
 
-		for (Nation ally : new ArrayList<>(getAllies()))
+		for (Nation ally : getAllies())
 			try {
 				removeAlly(ally);
 				ally.removeAlly(this);
@@ -87,12 +98,12 @@ public class Nation extends Government {
 
 	public boolean hasAlly(Nation nation) {
 
-		return getAllies().contains(nation);
+		return allies.contains(nation);
 	}
 
 	public boolean IsAlliedWith(Nation nation) {
 
-		return getAllies().contains(nation);
+		return allies.contains(nation);
 	}
 
 	public void addEnemy(Nation nation) throws AlreadyRegisteredException {
@@ -103,7 +114,9 @@ public class Nation extends Government {
 			try {
 				removeAlly(nation);
 			} catch (NotRegisteredException ignored) {}
-			getEnemies().add(nation);
+			enemies.add(nation);
+			enemiesView = null;
+			RelationshipCache.updateNation(this);
 		}
 
 	}
@@ -112,13 +125,15 @@ public class Nation extends Government {
 
 		if (!hasEnemy(nation))
 			throw new NotRegisteredException();
-		else
-			return getEnemies().remove(nation);
+		enemiesView = null;
+		boolean removed = enemies.remove(nation);
+		RelationshipCache.updateNation(this);
+		return removed;
 	}
 
 	public boolean removeAllEnemies() {
 
-		for (Nation enemy : new ArrayList<>(getEnemies()))
+		for (Nation enemy : getEnemies())
 			try {
 				removeEnemy(enemy);
 				enemy.removeEnemy(this);
@@ -128,11 +143,14 @@ public class Nation extends Government {
 
 	public boolean hasEnemy(Nation nation) {
 
-		return getEnemies().contains(nation);
+		return enemies.contains(nation);
 	}
 
 	public List<Town> getTowns() {
-		return Collections.unmodifiableList(towns);
+		// Hand out a cached snapshot, rebuilt only after the membership changes.
+		if (townsView == null)
+			townsView = Collections.unmodifiableList(new ArrayList<>(towns));
+		return townsView;
 	}
 
 	public boolean isKing(Resident resident) {
@@ -157,10 +175,8 @@ public class Nation extends Government {
 
 	public boolean hasTown(String name) {
 
-		for (Town town : towns)
-			if (town.getName().equalsIgnoreCase(name))
-				return true;
-		return false;
+		Town town = TownyUniverse.getInstance().getTownsMap().get(name.toLowerCase());
+		return town != null && towns.contains(town);
 	}
 
 	public boolean hasTown(Town town) {
@@ -169,7 +185,8 @@ public class Nation extends Government {
 	}
 
 	public void addTown(Town town) {
-		towns.add(town);
+		if (towns.add(town))
+			townsView = null;
 	}
 
 	/**
@@ -197,12 +214,16 @@ public class Nation extends Government {
 	public void setCapital(Town capital) {
 
 		TownyMessaging.sendDebugMsg("Nation " + this.getName() + " has set a capital city of " + capital.getName());
+		Town oldCapital = this.capital;
 		this.capital = capital;
+		ChunkNotification.invalidateFragments();
 		try {
 			TownyPerms.assignPermissions(capital.getMayor(), null);
 		} catch (Exception e) {
 			// Dummy catch to prevent errors on startup when setting nation.
 		}
+		if (oldCapital != capital)
+			BukkitTools.getPluginManager().callEvent(new NationCapitalChangeEvent(oldCapital, capital, this));
 	}
 
 	public Town getCapital() {
@@ -323,22 +344,32 @@ public class Nation extends Government {
 
 	public void setEnemies(List<Nation> enemies) {
 
-		this.enemies = enemies;
+		this.enemies.clear();
+		this.enemies.addAll(enemies);
+		enemiesView = null;
+		RelationshipCache.updateNation(this);
 	}
 
 	public List<Nation> getEnemies() {
 
-		return enemies;
+		if (enemiesView == null)
+			enemiesView = Collections.unmodifiableList(new ArrayList<>(enemies));
+		return enemiesView;
 	}
 
 	public void setAllies(List<Nation> allies) {
 
-		this.allies = allies;
+		this.allies.clear();
+		this.allies.addAll(allies);
+		alliesView = null;
+		RelationshipCache.updateNation(this);
 	}
 
 	public List<Nation> getAllies() {
 
-		return allies;
+		if (alliesView == null)
+			alliesView = Collections.unmodifiableList(new ArrayList<>(allies));
+		return alliesView;
 	}
 
 	public int getNumTowns() {
@@ -379,12 +410,14 @@ public class Nation extends Government {
 
 	private void remove(Town town) {
 
-		towns.remove(town);
+		if (towns.remove(town))
+			townsView = null;
 	}
 
 	private void removeAllTowns() {
 
 		towns.clear();
+		townsView = null;
 	}
 
 	public void setTaxes(double taxes) {
@@ -412,12 +445,10 @@ public class Nation extends Government {
 		if(capital != null) {
 			if (TownySettings.getNationRequiresProximity() > 0) {
 				final Coord capitalCoord = capital.getHomeBlock().getCoord();
-				Iterator<Town> it = towns.iterator();
-				while(it.hasNext()) {
-					Town town = it.next();
+				for (Town town : getTowns()) {
 					Coord townCoord = town.getHomeBlock().getCoord();
 					if (!capital.getHomeBlock().getWorld().getName().equals(town.getHomeBlock().getWorld().getName())) {
-						it.remove();
+						this.remove(town);
 						continue;
 					}
 
@@ -426,7 +457,6 @@ public class Nation extends Government {
 						TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_town_left_nation", this.getName()));
 						TownyMessaging.sendPrefixedNationMessage(this, Translation.of("msg_nation_town_left", town.getName()));
 						this.remove(town);
-						it.remove();
 					}
 				}
 			}
@@ -479,6 +509,7 @@ public class Nation extends Government {
 	public void setNeutral(boolean neutral) {
 
 		this.neutral = neutral;
+		RelationshipCache.updateNation(this);
 	}
 
 	public boolean isNeutral() {
@@ -607,6 +638,12 @@ public class Nation extends Government {
 		return capital.getMayor();
 	}
 
+	@Override
+	public void setName(String name) {
+		super.setName(name);
+		ChunkNotification.invalidateFragments();
+	}
+
 	@Override
 	public String getFormattedName() {
 		return TownySettings.getNationPrefix(this) + this.getName().replaceAll("_", " ")
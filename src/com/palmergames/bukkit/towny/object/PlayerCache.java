@@ -4,6 +4,7 @@ import com.palmergames.bukkit.towny.object.TownyPermission.ActionType;
 
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
 import java.util.HashMap;
@@ -23,6 +24,10 @@ public class PlayerCache {
 	private WorldCoord lastWorldCoord;
 	private String blockErrMsg;
 	private Location lastLocation;
+	// The cell lastLocation is in, so moves within it can be spotted without allocating.
+	private World lastWorld;
+	private int lastCellX;
+	private int lastCellZ;
 
 	//TODO: cache last entity attacked
 
@@ -250,9 +255,39 @@ public class PlayerCache {
 		return blockErrMsg != null;
 	}
 
+	/**
+	 * Set when the player moves into another cell, and when they join or
+	 * teleport. Moves within a cell do not update it, so it is only as exact
+	 * as the cell.
+	 * 
+	 * @param lastLocation - Where the player is.
+	 */
 	public void setLastLocation(Location lastLocation) {
 
 		this.lastLocation = lastLocation.clone();
+		this.lastWorld = lastLocation.getWorld();
+		this.lastCellX = Coord.toCell(lastLocation.getBlockX());
+		this.lastCellZ = Coord.toCell(lastLocation.getBlockZ());
+	}
+
+	public boolean hasLastLocation() {
+
+		return lastLocation != null;
+	}
+
+	/**
+	 * Checks a location against the cell of the last location, comparing
+	 * ints only, so it is cheap enough to run on every move.
+	 * 
+	 * @param location - Location to check.
+	 * @return true if the location is in the same cell of the same world.
+	 */
+	public boolean isInLastCell(Location location) {
+
+		return lastLocation != null
+			&& location.getWorld() == lastWorld
+			&& Coord.toCell(location.getBlockX()) == lastCellX
+			&& Coord.toCell(location.getBlockZ()) == lastCellZ;
 	}
 
 	public Location getLastLocation() throws NullPointerException {
@@ -1,5 +1,6 @@
 package com.palmergames.bukkit.towny.object;
 
+import com.palmergames.bukkit.towny.ChunkNotification;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import java.util.ArrayList;
@@ -52,6 +53,7 @@ public class PlotGroup extends ObjectGroup implements TownBlockOwner {
 			super.setName(name);
 			town.renamePlotGroup(oldName, this);
 		}
+		ChunkNotification.invalidateFragments();
 	}
 	
 	public void setTown(Town town) {
@@ -120,15 +122,15 @@ public class PlotGroup extends ObjectGroup implements TownBlockOwner {
 
 	public void setPrice(double price) {
 		this.price = price;
+		ChunkNotification.invalidateFragments();
 	}
 	
 	public void addPlotPrice(double pPrice) {
-		if (getPrice() == -1) {
+		if (getPrice() == -1)
 			this.price = pPrice;
-			return;
-		}
-		
-		this.price += pPrice;
+		else
+			this.price += pPrice;
+		ChunkNotification.invalidateFragments();
 	}
 
 	@Override
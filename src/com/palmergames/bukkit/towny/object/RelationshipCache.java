@@ -0,0 +1,292 @@
+package com.palmergames.bukkit.towny.object;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A dense, bitset backed view of the town and nation relationships used
+ * by the combat and permission checks.
+ * <p>
+ * Every town and nation is handed a small integer id. Town ids index an
+ * array holding the id of the town's nation, and every nation id owns a
+ * row of ally and enemy bits. Answering "are these towns allied?" is then
+ * a couple of array reads instead of a walk from town to nation to the
+ * nation's ally list (and the exceptions thrown when a town has no nation).
+ * <p>
+ * The arrays are kept current incrementally by {@link Town} and
+ * {@link Nation} whenever a town joins or leaves a nation or a nation
+ * changes its allies or enemies. Every change bumps a global version
+ * number which callers may use to invalidate anything they derived from
+ * these relationships.
+ */
+public class RelationshipCache {
+
+	private static final int NONE = -1;
+
+	private static final AtomicLong version = new AtomicLong();
+
+	private static int[] townNations = newIdArray(256);
+	private static int nextTownId = 0;
+	private static final Deque<Integer> freeTownIds = new ArrayDeque<>();
+
+	private static Nation[] nations = new Nation[64];
+	private static BitSet[] allies = new BitSet[64];
+	private static BitSet[] enemies = new BitSet[64];
+	private static int nextNationId = 0;
+	private static final Deque<Integer> freeNationIds = new ArrayDeque<>();
+
+	/**
+	 * @return the current relationship version, bumped on every change.
+	 */
+	public static long getVersion() {
+		return version.get();
+	}
+
+	/*
+	 * Queries
+	 */
+
+	/**
+	 * Is town b in a nation with town a?
+	 *
+	 * @param a - Town A in comparison
+	 * @param b - Town B in comparison
+	 * @return true if they are the same town or share a nation.
+	 */
+	public static boolean isSameNation(Town a, Town b) {
+		if (a == b)
+			return true;
+
+		int nationA = getNationId(a);
+		return nationA != NONE && nationA == getNationId(b);
+	}
+
+	/**
+	 * Is town b an ally of town a?
+	 *
+	 * @param a - Town A in comparison
+	 * @param b - Town B in comparison
+	 * @return true if they are the same town, share a nation or a's nation has allied b's.
+	 */
+	public static boolean isAlly(Town a, Town b) {
+		if (a == b)
+			return true;
+
+		int nationA = getNationId(a);
+		if (nationA == NONE)
+			return false;
+		int nationB = getNationId(b);
+		if (nationB == NONE)
+			return false;
+
+		return nationA == nationB || hasBit(allies, nationA, nationB);
+	}
+
+	/**
+	 * Is town b an enemy of town a?
+	 *
+	 * @param a - Town A in comparison
+	 * @param b - Town B in comparison
+	 * @return true if a's nation has declared b's nation an enemy.
+	 */
+	public static boolean isEnemy(Town a, Town b) {
+		if (a == b)
+			return false;
+
+		int nationA = getNationId(a);
+		if (nationA == NONE)
+			return false;
+		int nationB = getNationId(b);
+		if (nationB == NONE || nationA == nationB)
+			return false;
+
+		return hasBit(enemies, nationA, nationB);
+	}
+
+	/**
+	 * Can residents of town a attack residents of town b as enemies?
+	 *
+	 * @param a - Town A in comparison
+	 * @param b - Town B in comparison
+	 * @return true if neither nation is neutral and a's nation has declared b's an enemy.
+	 */
+	public static boolean canAttackEnemy(Town a, Town b) {
+		if (a == b)
+			return false;
+
+		int nationA = getNationId(a);
+		if (nationA == NONE)
+			return false;
+		int nationB = getNationId(b);
+		if (nationB == NONE || nationA == nationB)
+			return false;
+
+		Nation[] nations = RelationshipCache.nations;
+		if (nationA >= nations.length || nationB >= nations.length || nations[nationA] == null || nations[nationB] == null)
+			return false;
+		if (nations[nationA].isNeutral() || nations[nationB].isNeutral())
+			return false;
+
+		return hasBit(enemies, nationA, nationB);
+	}
+
+	private static int getNationId(Town town) {
+		int id = town.relationId;
+		int[] townNations = RelationshipCache.townNations;
+		if (id == NONE || id >= townNations.length)
+			return NONE;
+		return townNations[id];
+	}
+
+	private static boolean hasBit(BitSet[] rows, int row, int bit) {
+		if (row >= rows.length)
+			return false;
+		BitSet bits = rows[row];
+		return bits != null && bits.get(bit);
+	}
+
+	/*
+	 * Updates
+	 */
+
+	/**
+	 * Records which nation a town belongs to. Called by {@link Town#setNation(Nation)}.
+	 *
+	 * @param town - Town which has joined or left a nation.
+	 * @param nation - The town's new nation, or null.
+	 */
+	static synchronized void setTownNation(Town town, Nation nation) {
+		int id = getOrCreateTownId(town);
+		townNations[id] = nation == null ? NONE : getOrCreateNationId(nation);
+		version.incrementAndGet();
+	}
+
+	/**
+	 * Rebuilds the ally and enemy rows of a nation. Called by {@link Nation}
+	 * whenever its allies or enemies change.
+	 *
+	 * @param nation - Nation whose relations have changed.
+	 */
+	static synchronized void updateNation(Nation nation) {
+		int id = getOrCreateNationId(nation);
+
+		BitSet allyBits = new BitSet();
+		for (Nation ally : nation.getAllies())
+			allyBits.set(getOrCreateNationId(ally));
+
+		BitSet enemyBits = new BitSet();
+		for (Nation enemy : nation.getEnemies())
+			enemyBits.set(getOrCreateNationId(enemy));
+
+		// Rows are swapped in whole so readers never see a half built row.
+		allies[id] = allyBits;
+		enemies[id] = enemyBits;
+		version.incrementAndGet();
+	}
+
+	/**
+	 * Releases the id of a deleted town.
+	 *
+	 * @param town - Town being removed from the universe.
+	 */
+	public static synchronized void removeTown(Town town) {
+		int id = town.relationId;
+		if (id == NONE)
+			return;
+
+		townNations[id] = NONE;
+		town.relationId = NONE;
+		freeTownIds.push(id);
+		version.incrementAndGet();
+	}
+
+	/**
+	 * Releases the id of a deleted nation, dropping it from every other
+	 * nation's rows and detaching any towns still pointing at it.
+	 *
+	 * @param nation - Nation being removed from the universe.
+	 */
+	public static synchronized void removeNation(Nation nation) {
+		int id = nation.relationId;
+		if (id == NONE)
+			return;
+
+		for (int i = 0; i < nextNationId; i++) {
+			if (allies[i] != null)
+				allies[i].clear(id);
+			if (enemies[i] != null)
+				enemies[i].clear(id);
+		}
+		for (int i = 0; i < nextTownId; i++)
+			if (townNations[i] == id)
+				townNations[i] = NONE;
+
+		nations[id] = null;
+		allies[id] = null;
+		enemies[id] = null;
+		nation.relationId = NONE;
+		freeNationIds.push(id);
+		version.incrementAndGet();
+	}
+
+	/**
+	 * Forgets every id, used when the universe is cleared for a reload.
+	 */
+	public static synchronized void clear() {
+		for (Nation nation : nations)
+			if (nation != null)
+				nation.relationId = NONE;
+
+		townNations = newIdArray(256);
+		nextTownId = 0;
+		freeTownIds.clear();
+		nations = new Nation[64];
+		allies = new BitSet[64];
+		enemies = new BitSet[64];
+		nextNationId = 0;
+		freeNationIds.clear();
+		version.incrementAndGet();
+	}
+
+	private static int getOrCreateTownId(Town town) {
+		if (town.relationId != NONE)
+			return town.relationId;
+
+		int id = freeTownIds.isEmpty() ? nextTownId++ : freeTownIds.pop();
+		if (id >= townNations.length) {
+			int[] grown = Arrays.copyOf(townNations, townNations.length * 2);
+			Arrays.fill(grown, townNations.length, grown.length, NONE);
+			townNations = grown;
+		}
+		townNations[id] = NONE;
+		town.relationId = id;
+		return id;
+	}
+
+	private static int getOrCreateNationId(Nation nation) {
+		if (nation.relationId != NONE)
+			return nation.relationId;
+
+		int id = freeNationIds.isEmpty() ? nextNationId++ : freeNationIds.pop();
+		if (id >= nations.length) {
+			int size = nations.length * 2;
+			nations = Arrays.copyOf(nations, size);
+			allies = Arrays.copyOf(allies, size);
+			enemies = Arrays.copyOf(enemies, size);
+		}
+		nations[id] = nation;
+		allies[id] = new BitSet();
+		enemies[id] = new BitSet();
+		nation.relationId = id;
+		return id;
+	}
+
+	private static int[] newIdArray(int size) {
+		int[] ids = new int[size];
+		Arrays.fill(ids, NONE);
+		return ids;
+	}
+}
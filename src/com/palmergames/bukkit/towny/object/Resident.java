@@ -1,11 +1,15 @@
 package com.palmergames.bukkit.towny.object;
 
+import com.palmergames.bukkit.towny.ChunkNotification;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.confirmations.Confirmation;
+import com.palmergames.bukkit.towny.event.ResidentFriendsChangeEvent;
+import com.palmergames.bukkit.towny.event.ResidentJailStatusChangeEvent;
+import com.palmergames.bukkit.towny.event.ResidentTitleChangeEvent;
 import com.palmergames.bukkit.towny.event.TownAddResidentEvent;
 import com.palmergames.bukkit.towny.event.TownAddResidentRankEvent;
 import com.palmergames.bukkit.towny.event.TownRemoveResidentEvent;
@@ -34,11 +38,14 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public class Resident extends TownyObject implements InviteReceiver, EconomyHandler, TownBlockOwner {
-	private List<Resident> friends = new ArrayList<>();
+	private final Set<Resident> friends = new LinkedHashSet<>();
+	private List<Resident> friendsView = null;
 	// private List<Object[][][]> regenUndo = new ArrayList<>(); // Feature is disabled as of MC 1.13, maybe it'll come back.
 	private UUID uuid = null;
 	private Town town = null;
@@ -61,7 +68,7 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 
 	private final List<String> townRanks = new ArrayList<>();
 	private final List<String> nationRanks = new ArrayList<>();
-	private List<TownBlock> townBlocks = new ArrayList<>();
+	private final Set<TownBlock> townBlocks = new LinkedHashSet<>();
 	private final TownyPermission permissions = new TownyPermission();
 
 	public Resident(String name) {
@@ -102,12 +109,16 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 	}
 
 	public void setJailed(boolean isJailed) {
+		boolean changed = this.isJailed != isJailed;
 		this.isJailed = isJailed;
 		
 		if (isJailed)
 			TownyUniverse.getInstance().getJailedResidentMap().add(this);
 		else 
 			TownyUniverse.getInstance().getJailedResidentMap().remove(this);
+
+		if (changed)
+			BukkitTools.getPluginManager().callEvent(new ResidentJailStatusChangeEvent(this));
 	}
 	
 	public void sendToJail(int index, Town town) {
@@ -258,7 +269,13 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 	}
 
 	public void setTitle(String title) {
-		this.title = title.trim();
+		title = title.trim();
+		if (title.equals(this.title))
+			return;
+
+		this.title = title;
+		ChunkNotification.invalidateFragments();
+		BukkitTools.getPluginManager().callEvent(new ResidentTitleChangeEvent(this));
 	}
 
 	public String getTitle() {
@@ -272,7 +289,13 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 	}
 
 	public void setSurname(String surname) {
-		this.surname = surname.trim();
+		surname = surname.trim();
+		if (surname.equals(this.surname))
+			return;
+
+		this.surname = surname;
+		ChunkNotification.invalidateFragments();
+		BukkitTools.getPluginManager().callEvent(new ResidentTitleChangeEvent(this));
 	}
 
 	public String getSurname() {
@@ -397,17 +420,23 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 
 	public void setFriends(List<Resident> newFriends) {
 
-		friends = newFriends;
+		friends.clear();
+		friends.addAll(newFriends);
+		friendsView = null;
 	}
 
 	public List<Resident> getFriends() {
-		return Collections.unmodifiableList(friends);
+		if (friendsView == null)
+			friendsView = Collections.unmodifiableList(new ArrayList<>(friends));
+		return friendsView;
 	}
 
 	public void removeFriend(Resident resident) {
 
-		if (hasFriend(resident))
-			friends.remove(resident);
+		if (friends.remove(resident)) {
+			friendsView = null;
+			BukkitTools.getPluginManager().callEvent(new ResidentFriendsChangeEvent(this));
+		}
 	}
 
 	public boolean hasFriend(Resident resident) {
@@ -419,13 +448,21 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 
 		if (hasFriend(resident))
 			throw new AlreadyRegisteredException();
-		else
+		else {
 			friends.add(resident);
+			friendsView = null;
+			BukkitTools.getPluginManager().callEvent(new ResidentFriendsChangeEvent(this));
+		}
 	}
 
 	public void removeAllFriends() {
-		// Wipe the array.
+		// Wipe the set.
+		if (friends.isEmpty())
+			return;
+
 		friends.clear();
+		friendsView = null;
+		BukkitTools.getPluginManager().callEvent(new ResidentFriendsChangeEvent(this));
 	}
 
 	public void updatePerms() {
@@ -843,7 +880,10 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 	}
 
 	public void setTownblocks(Collection<TownBlock> townBlocks) {
-		this.townBlocks = new ArrayList<>(townBlocks);
+		// Copy first, the given collection may be a view of our own set.
+		List<TownBlock> newTownBlocks = new ArrayList<>(townBlocks);
+		this.townBlocks.clear();
+		this.townBlocks.addAll(newTownBlocks);
 	}
 
 	@Override
@@ -1,12 +1,14 @@
 package com.palmergames.bukkit.towny.object;
 
 import com.palmergames.bukkit.config.ConfigNodes;
+import com.palmergames.bukkit.towny.ChunkNotification;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.event.NationAddTownEvent;
 import com.palmergames.bukkit.towny.event.NationRemoveTownEvent;
+import com.palmergames.bukkit.towny.event.TownMayorChangeEvent;
 import com.palmergames.bukkit.towny.exceptions.AlreadyRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.EconomyException;
 import com.palmergames.bukkit.towny.exceptions.EmptyNationException;
@@ -25,7 +27,9 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -35,8 +39,10 @@ public class Town extends Government implements TownBlockOwner {
 
 	private static final String ECONOMY_ACCOUNT_PREFIX = TownySettings.getTownAccountPrefix();
 
-	private final List<Resident> residents = new ArrayList<>();
-	private final List<Resident> outlaws = new ArrayList<>();
+	private final Set<Resident> residents = new LinkedHashSet<>();
+	private List<Resident> residentsView = null;
+	private final Set<Resident> outlaws = new LinkedHashSet<>();
+	private Collection<Resident> outlawsView = null;
 	private List<Location> outpostSpawns = new ArrayList<>();
 	private final List<Location> jailSpawns = new ArrayList<>();
 	private HashMap<String, PlotGroup> plotGroups = null;
@@ -62,6 +68,7 @@ public class Town extends Government implements TownBlockOwner {
 	private int conqueredDays;
 	private final ConcurrentHashMap<WorldCoord, TownBlock> townBlocks = new ConcurrentHashMap<>();
 	private final TownyPermission permissions = new TownyPermission();
+	transient int relationId = -1; // Dense id handed out by the RelationshipCache.
 
 	public Town(String name) {
 		super(name);
@@ -149,9 +156,13 @@ public class Town extends Government implements TownBlockOwner {
 		if (!hasResident(mayor))
 			return;
 				
+		Resident oldMayor = this.mayor;
 		this.mayor = mayor;
+		ChunkNotification.invalidateFragments();
 		
 		TownyPerms.assignPermissions(mayor, null);	
+		if (oldMayor != mayor)
+			BukkitTools.getPluginManager().callEvent(new TownMayorChangeEvent(oldMayor, mayor, this));
 	}
 
 	public Nation getNation() throws NotRegisteredException {
@@ -202,6 +213,8 @@ public class Town extends Government implements TownBlockOwner {
 
 		if (nation == null) {
 			this.nation = null;
+			RelationshipCache.setTownNation(this, null);
+			ChunkNotification.invalidateFragments();
 			return;
 		}
 
@@ -210,13 +223,18 @@ public class Town extends Government implements TownBlockOwner {
 
 		this.nation = nation;
 		nation.addTown(this);
+		RelationshipCache.setTownNation(this, nation);
+		ChunkNotification.invalidateFragments();
 		TownyPerms.updateTownPerms(this);
 		BukkitTools.getPluginManager().callEvent(new NationAddTownEvent(this, nation));
 	}
 
 	@Override
 	public List<Resident> getResidents() {
-		return Collections.unmodifiableList(residents);
+		// Hand out a cached snapshot, rebuilt only after the membership changes.
+		if (residentsView == null)
+			residentsView = Collections.unmodifiableList(new ArrayList<>(residents));
+		return residentsView;
 	}
 
 	@Deprecated
@@ -239,10 +257,8 @@ public class Town extends Government implements TownBlockOwner {
 	@Override
 	public boolean hasResident(String name) {
 
-		for (Resident resident : residents)
-			if (resident.getName().equalsIgnoreCase(name))
-				return true;
-		return false;
+		Resident resident = TownyUniverse.getInstance().getResidentMap().get(name.toLowerCase());
+		return resident != null && residents.contains(resident);
 	}
 
 	public boolean hasResident(Resident resident) {
@@ -270,6 +286,9 @@ public class Town extends Government implements TownBlockOwner {
 
 		addResidentCheck(resident);
 		residents.add(resident);
+		residentsView = null;
+		// The town's level, and so its name's prefix and postfix, may have changed.
+		ChunkNotification.invalidateFragments();
 	}
 
 	public void addResidentCheck(Resident resident) throws AlreadyRegisteredException {
@@ -504,7 +523,10 @@ public class Town extends Government implements TownBlockOwner {
 		}
 		if (!hasTownBlock(homeBlock))
 			throw new TownyException(Translation.of("msg_err_town_has_no_claim_over_this_town_block"));
+		if (this.homeBlock != null)
+			this.homeBlock.markClaimsChanged();
 		this.homeBlock = homeBlock;
+		homeBlock.markClaimsChanged();
 
 		// Set the world as it may have changed
 		if (this.world != homeBlock.getWorld()) {
@@ -557,7 +579,10 @@ public class Town extends Government implements TownBlockOwner {
 			return;
 		}
 
+		if (this.homeBlock != null)
+			this.homeBlock.markClaimsChanged();
 		this.homeBlock = homeBlock;
+		homeBlock.markClaimsChanged();
 
 		// Set the world as it may have changed
 		if (this.world != homeBlock.getWorld()) {
@@ -653,6 +678,8 @@ public class Town extends Government implements TownBlockOwner {
 		}
 		// Remove resident.
 		residents.remove(resident);
+		residentsView = null;
+		ChunkNotification.invalidateFragments();
 	}
 	
 	/** 
@@ -745,24 +772,70 @@ public class Town extends Government implements TownBlockOwner {
 	@Override
 	public void removeTownBlock(TownBlock townBlock) {
 
-		if (hasTownBlock(townBlock)) {
-			// Remove the spawn point for this outpost.
-			if (townBlock.isOutpost()) {
-				removeOutpostSpawn(townBlock.getCoord());
-			}
-			if (townBlock.isJail()) {
-				removeJailSpawn(townBlock.getCoord());
-			}
-			
-			// Clear the towns homeblock if this is it.
+		if (removeTownBlockWithoutSave(townBlock))
+			TownyUniverse.getInstance().getDataSource().saveTown(this);
+	}
+
+	/**
+	 * Removes many townblocks at once, as {@link #removeTownBlock(TownBlock)}
+	 * does for each, saving the town once at the end.
+	 * 
+	 * @param toRemove - TownBlocks to remove.
+	 */
+	public void removeTownBlocks(Collection<TownBlock> toRemove) {
+
+		boolean removed = false;
+		for (TownBlock townBlock : toRemove)
+			removed |= removeTownBlockWithoutSave(townBlock);
+		if (removed)
+			TownyUniverse.getInstance().getDataSource().saveTown(this);
+	}
+
+	/**
+	 * @param townBlock - TownBlock to remove.
+	 * @return true if the town had the townblock and needs saving.
+	 */
+	private boolean removeTownBlockWithoutSave(TownBlock townBlock) {
+
+		if (!hasTownBlock(townBlock))
+			return false;
+
+		// Remove the spawn point for this outpost.
+		if (townBlock.isOutpost()) {
+			removeSpawns(outpostSpawns, townBlock.getCoord());
+		}
+		if (townBlock.isJail()) {
+			removeSpawns(jailSpawns, townBlock.getCoord());
+		}
+		
+		// Clear the towns homeblock if this is it.
+		if (homeBlock == townBlock) {
 			try {
-				if (getHomeBlock() == townBlock) {
-					setHomeBlock(null);
-				}
+				setHomeBlock(null);
 			} catch (TownyException ignored) {}
-			townBlocks.remove(townBlock.getWorldCoord());
-			TownyUniverse.getInstance().getDataSource().saveTown(this);
 		}
+		townBlocks.remove(townBlock.getWorldCoord());
+		return true;
+	}
+
+	/**
+	 * Removes the spawns standing in the given coord.
+	 * 
+	 * @param spawns - Outpost or jail spawns.
+	 * @param coord - Coord to clear.
+	 * @return true if any spawn was removed.
+	 */
+	private static boolean removeSpawns(List<Location> spawns, Coord coord) {
+
+		boolean removed = false;
+		for (Location spawn : new ArrayList<>(spawns)) {
+			Coord spawnBlock = Coord.parseCoord(spawn);
+			if ((coord.getX() == spawnBlock.getX()) && (coord.getZ() == spawnBlock.getZ())) {
+				spawns.remove(spawn);
+				removed = true;
+			}
+		}
+		return removed;
 	}
 
 	@Override
@@ -842,13 +915,8 @@ public class Town extends Government implements TownBlockOwner {
 
 	public void removeOutpostSpawn(Coord coord) {
 
-		for (Location spawn : new ArrayList<>(outpostSpawns)) {
-			Coord spawnBlock = Coord.parseCoord(spawn);
-			if ((coord.getX() == spawnBlock.getX()) && (coord.getZ() == spawnBlock.getZ())) {
-				outpostSpawns.remove(spawn);
-				TownyUniverse.getInstance().getDataSource().saveTown(this);
-			}
-		}
+		if (removeSpawns(outpostSpawns, coord))
+			TownyUniverse.getInstance().getDataSource().saveTown(this);
 	}
 
 	public void setPlotPrice(double plotPrice) {
@@ -993,13 +1061,8 @@ public class Town extends Government implements TownBlockOwner {
 	
 	public void removeJailSpawn(Coord coord) {
 
-		for (Location spawn : new ArrayList<>(jailSpawns)) {
-			Coord spawnBlock = Coord.parseCoord(spawn);
-			if ((coord.getX() == spawnBlock.getX()) && (coord.getZ() == spawnBlock.getZ())) {
-				jailSpawns.remove(spawn);
-				TownyUniverse.getInstance().getDataSource().saveTown(this);
-			}
-		}
+		if (removeSpawns(jailSpawns, coord))
+			TownyUniverse.getInstance().getDataSource().saveTown(this);
 	}
 
 	/**
@@ -1044,14 +1107,14 @@ public class Town extends Government implements TownBlockOwner {
 
 	@Override
 	public Collection<Resident> getOutlaws() {
-		return Collections.unmodifiableList(outlaws);
+		if (outlawsView == null)
+			outlawsView = Collections.unmodifiableList(new ArrayList<>(outlaws));
+		return outlawsView;
 	}
 	
 	public boolean hasOutlaw (String name) {
-		for (Resident outlaw : outlaws)
-			if (outlaw.getName().equalsIgnoreCase(name))
-				return true;
-		return false;		
+		Resident outlaw = TownyUniverse.getInstance().getResidentMap().get(name.toLowerCase());
+		return outlaw != null && outlaws.contains(outlaw);
 	}
 	
 	public boolean hasOutlaw(Resident outlaw) {
@@ -1063,6 +1126,7 @@ public class Town extends Government implements TownBlockOwner {
 
 		addOutlawCheck(resident);
 		outlaws.add(resident);
+		outlawsView = null;
 	}
 	
 	public void addOutlawCheck(Resident resident) throws AlreadyRegisteredException {
@@ -1080,8 +1144,8 @@ public class Town extends Government implements TownBlockOwner {
 	
 	public void removeOutlaw(Resident resident) {
 
-		if (hasOutlaw(resident))
-			outlaws.remove(resident);			
+		if (outlaws.remove(resident))
+			outlawsView = null;
 	}
 
 	public UUID getUuid() {
@@ -1255,6 +1319,12 @@ public class Town extends Government implements TownBlockOwner {
 		return ECONOMY_ACCOUNT_PREFIX;
 	}
 
+	@Override
+	public void setName(String name) {
+		super.setName(name);
+		ChunkNotification.invalidateFragments();
+	}
+
 	@Override
 	public String getFormattedName() {
 		if (this.isCapital()) {
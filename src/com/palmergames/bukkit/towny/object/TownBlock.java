@@ -1,5 +1,6 @@
 package com.palmergames.bukkit.towny.object;
 
+import com.palmergames.bukkit.towny.ChunkNotification;
 import com.palmergames.bukkit.towny.TownyEconomyHandler;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
@@ -47,12 +48,21 @@ public class TownBlock extends TownyObject {
 		if (hasTown())
 			this.town.removeTownBlock(this);
 		this.town = town;
+		markClaimsChanged();
 		try {
 			TownyUniverse.getInstance().addTownBlock(this);
 			town.addTownBlock(this);
 		} catch (AlreadyRegisteredException | NullPointerException ignored) {}
 	}
 
+	/**
+	 * Tells this townblock's world that the way it is drawn on the map has changed.
+	 */
+	void markClaimsChanged() {
+		if (world != null)
+			world.markClaimsChanged(x, z);
+	}
+
 	public Town getTown() throws NotRegisteredException {
 
 		if (!hasTown())
@@ -65,6 +75,14 @@ public class TownBlock extends TownyObject {
 		return town != null;
 	}
 
+	/**
+	 * @return the town, or null if the townblock has none.
+	 */
+	public Town getTownOrNull() {
+
+		return town;
+	}
+
 	public void setResident(Resident resident) {
 		boolean successful;
 		try {
@@ -83,6 +101,7 @@ public class TownBlock extends TownyObject {
 			Bukkit.getPluginManager().callEvent(new PlotChangeOwnerEvent(this.resident, resident, this));
 		}
 		this.resident = resident;
+		markClaimsChanged();
 	}
 
 	public Resident getResident() throws NotRegisteredException {
@@ -97,6 +116,14 @@ public class TownBlock extends TownyObject {
 		return resident != null;
 	}
 
+	/**
+	 * @return the resident, or null if the townblock has none.
+	 */
+	public Resident getResidentOrNull() {
+
+		return resident;
+	}
+
 	public boolean isOwner(TownBlockOwner owner) {
 
 		try {
@@ -114,6 +141,8 @@ public class TownBlock extends TownyObject {
 
 	public void setPlotPrice(double ForSale) {
 
+		if (ForSale != this.plotPrice)
+			markClaimsChanged();
 		this.plotPrice = ForSale;
 
 	}
@@ -176,6 +205,7 @@ public class TownBlock extends TownyObject {
 	public void setOutpost(boolean outpost) {
 
 		this.outpost = outpost;
+		ChunkNotification.invalidateFragments();
 	}
 
 	public TownBlockType getType() {
@@ -191,6 +221,7 @@ public class TownBlock extends TownyObject {
 			Bukkit.getPluginManager().callEvent(new PlotChangeTypeEvent(this.type, type, this));
 		}
 		this.type = type;
+		markClaimsChanged();
 
 		// Custom plot settings here
 		switch (type) {
@@ -336,6 +367,7 @@ public class TownBlock extends TownyObject {
 	@Override
 	public void setName(String newName) {
 		super.setName(newName.replace("_", " ")); 
+		ChunkNotification.invalidateFragments();
 	}
 
 	public void setX(int x) {
@@ -365,7 +397,7 @@ public class TownBlock extends TownyObject {
 
 	public WorldCoord getWorldCoord() {
 
-		return new WorldCoord(world.getName(), x, z);
+		return WorldCoord.of(world.getId(), x, z);
 	}
 
 	/**
@@ -458,6 +490,7 @@ public class TownBlock extends TownyObject {
 
 	public void setPlotObjectGroup(PlotGroup group) {
 		this.plotGroup = group;
+		ChunkNotification.invalidateFragments();
 
 		try {
 			group.addTownBlock(this);
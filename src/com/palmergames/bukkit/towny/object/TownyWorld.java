@@ -9,14 +9,27 @@ import com.palmergames.bukkit.towny.object.TownyPermission.ActionType;
 import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
 import org.bukkit.Material;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class TownyWorld extends TownyObject {
 
+	// Ids are handed out the first time a world name is seen and never reused.
+	private static final Map<String, Integer> worldIds = new ConcurrentHashMap<>();
+	private static volatile String[] worldNames = new String[0];
+
+	private final int id;
 	private HashMap<String, Town> towns = new HashMap<>();
 	private boolean isClaimable = true;
 	private boolean isUsingPlotManagementDelete = TownySettings.isUsingPlotManagementDelete();
@@ -32,8 +45,14 @@ public class TownyWorld extends TownyObject {
 	private Boolean unclaimedZoneBuild = null, unclaimedZoneDestroy = null,
 			unclaimedZoneSwitch = null, unclaimedZoneItemUse = null;
 	private String unclaimedZoneName = null;
-	private List<Coord> warZones = new ArrayList<>();
+	private final Set<Coord> warZones = ConcurrentHashMap.newKeySet();
 	private List<String> entityExplosionProtection = null;
+
+	// The lists above compiled for lookups, null until first asked for or after the list they come from changes.
+	private volatile EnumSet<Material> plotManagementDeleteSet = null;
+	private volatile EnumSet<Material> plotManagementMayorDeleteSet = null;
+	private volatile EnumSet<Material> plotManagementIgnoreSet = null;
+	private volatile EnumSet<EntityType> explosionProtectionSet = null;
 	
 	private boolean isUsingTowny = TownySettings.isUsingTowny();
 	private boolean isWarAllowed = TownySettings.isWarAllowed();
@@ -50,11 +69,61 @@ public class TownyWorld extends TownyObject {
 	private boolean isDisablePlayerTrample = TownySettings.isPlayerTramplingCropsDisabled();
 	private boolean isDisableCreatureTrample = TownySettings.isCreatureTramplingCropsDisabled();
 
+	// Bumped whenever a townblock in this world is claimed, unclaimed or changes how it is drawn on the map.
+	public static final int REGION_SHIFT = 4;
+	private final AtomicLong claimsVersion = new AtomicLong();
+	private final Map<Long, Long> regionVersions = new ConcurrentHashMap<>();
+
 	// TODO: private List<TownBlock> adminTownBlocks = new
 	// ArrayList<TownBlock>();
 
 	public TownyWorld(String name) {
 		super(name);
+		this.id = getWorldId(name);
+	}
+
+	/**
+	 * @return the small number standing in for this world's name in {@link WorldCoord}s.
+	 */
+	public int getId() {
+
+		return id;
+	}
+
+	/**
+	 * @param name - Name of a world, as Bukkit has it.
+	 * @return the world's id, handing one out if it has not got one yet, or -1 for null.
+	 */
+	public static int getWorldId(String name) {
+
+		if (name == null)
+			return -1;
+		Integer id = worldIds.get(name);
+		return id != null ? id : newWorldId(name);
+	}
+
+	private static synchronized int newWorldId(String name) {
+
+		Integer id = worldIds.get(name);
+		if (id != null)
+			return id;
+
+		// The name goes in first, so anyone holding the id can always look it up.
+		String[] names = Arrays.copyOf(worldNames, worldNames.length + 1);
+		names[names.length - 1] = name;
+		worldNames = names;
+		worldIds.put(name, names.length - 1);
+		return names.length - 1;
+	}
+
+	/**
+	 * @param id - Id from {@link #getWorldId(String)}.
+	 * @return the name of the world, or null if no world has the id.
+	 */
+	public static String getWorldName(int id) {
+
+		String[] names = worldNames;
+		return id >= 0 && id < names.length ? names[id] : null;
 	}
 
 	public HashMap<String, Town> getTowns() {
@@ -98,6 +167,38 @@ public class TownyWorld extends TownyObject {
 		return TownyUniverse.getInstance().hasTownBlock(new WorldCoord(this.getName(), key));
 	}
 
+	/**
+	 * Records that the townblock at x, z was claimed, unclaimed or otherwise
+	 * changed, stamping its region of 16x16 townblocks with a new claims version.
+	 *
+	 * @param x - Townblock x coordinate.
+	 * @param z - Townblock z coordinate.
+	 */
+	public void markClaimsChanged(int x, int z) {
+		regionVersions.put(getRegionKey(x >> REGION_SHIFT, z >> REGION_SHIFT), claimsVersion.incrementAndGet());
+	}
+
+	/**
+	 * @return the claims version of this world, bumped on every change to any of its townblocks.
+	 */
+	public long getClaimsVersion() {
+		return claimsVersion.get();
+	}
+
+	/**
+	 * @param regionX - Region x coordinate, the townblock x coordinate shifted by {@link #REGION_SHIFT}.
+	 * @param regionZ - Region z coordinate, the townblock z coordinate shifted by {@link #REGION_SHIFT}.
+	 * @return the claims version of the last change in the region, 0 if it has never changed.
+	 */
+	public long getRegionVersion(int regionX, int regionZ) {
+		Long version = regionVersions.get(getRegionKey(regionX, regionZ));
+		return version == null ? 0 : version;
+	}
+
+	public static long getRegionKey(int regionX, int regionZ) {
+		return ((long) regionX << 32) | (regionZ & 0xFFFFFFFFL);
+	}
+
 	public TownBlock getTownBlock(int x, int z) throws NotRegisteredException {
 
 		return getTownBlock(new Coord(x, z));
@@ -336,12 +437,22 @@ public class TownyWorld extends TownyObject {
 
 	public boolean isPlotManagementDeleteIds(String id) {
 
-		return getPlotManagementDeleteIds().contains(id);
+		Material mat = Material.getMaterial(id);
+		return mat != null && isPlotManagementDeleteIds(mat);
+	}
+
+	public boolean isPlotManagementDeleteIds(Material mat) {
+
+		EnumSet<Material> set = plotManagementDeleteSet;
+		if (set == null)
+			plotManagementDeleteSet = set = toMaterialSet(getPlotManagementDeleteIds());
+		return set.contains(mat);
 	}
 
 	public void setPlotManagementDeleteIds(List<String> plotManagementDeleteIds) {
 
 		this.plotManagementDeleteIds = plotManagementDeleteIds;
+		this.plotManagementDeleteSet = null;
 	}
 
 	public List<String> getPlotManagementMayorDelete() {
@@ -354,12 +465,22 @@ public class TownyWorld extends TownyObject {
 
 	public boolean isPlotManagementMayorDelete(String material) {
 
-		return getPlotManagementMayorDelete().contains(material.toUpperCase());
+		Material mat = Material.getMaterial(material.toUpperCase());
+		return mat != null && isPlotManagementMayorDelete(mat);
+	}
+
+	public boolean isPlotManagementMayorDelete(Material mat) {
+
+		EnumSet<Material> set = plotManagementMayorDeleteSet;
+		if (set == null)
+			plotManagementMayorDeleteSet = set = toMaterialSet(getPlotManagementMayorDelete());
+		return set.contains(mat);
 	}
 
 	public void setPlotManagementMayorDelete(List<String> plotManagementMayorDelete) {
 
 		this.plotManagementMayorDelete = plotManagementMayorDelete;
+		this.plotManagementMayorDeleteSet = null;
 	}
 
 	public List<String> getPlotManagementIgnoreIds() {
@@ -371,7 +492,11 @@ public class TownyWorld extends TownyObject {
 	}
 
 	public boolean isPlotManagementIgnoreIds(Material mat) {
-		return getPlotManagementIgnoreIds().contains(mat.toString());
+
+		EnumSet<Material> set = plotManagementIgnoreSet;
+		if (set == null)
+			plotManagementIgnoreSet = set = toMaterialSet(getPlotManagementIgnoreIds());
+		return set.contains(mat);
 	}
 	
 	@Deprecated
@@ -386,6 +511,7 @@ public class TownyWorld extends TownyObject {
 	public void setPlotManagementIgnoreIds(List<String> plotManagementIgnoreIds) {
 
 		this.plotManagementIgnoreIds = plotManagementIgnoreIds;
+		this.plotManagementIgnoreSet = null;
 	}
 
 	/**
@@ -449,7 +575,7 @@ public class TownyWorld extends TownyObject {
 			if (!mob.equals("")) {
 				entityExplosionProtection.add(mob.toLowerCase());
 			}
-
+		explosionProtectionSet = null;
 	}
 
 	public List<String> getPlotManagementWildRevertEntities() {
@@ -462,11 +588,10 @@ public class TownyWorld extends TownyObject {
 
 	public boolean isProtectingExplosionEntity(Entity entity) {
 
-		if (entityExplosionProtection == null)
-			setPlotManagementWildRevertEntities(TownySettings.getWildExplosionProtectionEntities());
-
-		return (entityExplosionProtection.contains(entity.getType().getEntityClass().getSimpleName().toLowerCase()));
-
+		EnumSet<EntityType> set = explosionProtectionSet;
+		if (set == null)
+			explosionProtectionSet = set = toEntityTypeSet(getPlotManagementWildRevertEntities());
+		return set.contains(entity.getType());
 	}
 
 	public void setUnclaimedZoneIgnore(List<String> unclaimedZoneIgnoreIds) {
@@ -482,12 +607,54 @@ public class TownyWorld extends TownyObject {
 			return unclaimedZoneIgnoreBlockMaterials;
 	}
 
+	/*
+	 * This looks for a Material in a list of Strings, so it never matches and
+	 * wildignore has no effect. Making it match would open up the wilderness
+	 * on servers which have a wildignore list, so it is left as it is.
+	 */
 	@SuppressWarnings("unlikely-arg-type")
 	public boolean isUnclaimedZoneIgnoreMaterial(Material mat) {
 
 		return getUnclaimedZoneIgnoreMaterials().contains(mat);
 	}
 
+	/**
+	 * Compiles this world's material and entity lists again. Worlds which
+	 * have no list of their own use the config's, so this is needed after
+	 * the config is reloaded.
+	 */
+	public void compileRules() {
+
+		plotManagementDeleteSet = toMaterialSet(getPlotManagementDeleteIds());
+		plotManagementMayorDeleteSet = toMaterialSet(getPlotManagementMayorDelete());
+		plotManagementIgnoreSet = toMaterialSet(getPlotManagementIgnoreIds());
+		explosionProtectionSet = toEntityTypeSet(getPlotManagementWildRevertEntities());
+	}
+
+	private static EnumSet<Material> toMaterialSet(List<String> names) {
+
+		EnumSet<Material> set = EnumSet.noneOf(Material.class);
+		for (String name : names) {
+			Material mat = Material.getMaterial(name);
+			if (mat != null)
+				set.add(mat);
+		}
+		return set;
+	}
+
+	/*
+	 * Entities are listed by the simple name of their class, in lower case.
+	 */
+	private static EnumSet<EntityType> toEntityTypeSet(List<String> names) {
+
+		Set<String> lookup = new HashSet<>(names);
+		EnumSet<EntityType> set = EnumSet.noneOf(EntityType.class);
+		for (EntityType type : EntityType.values())
+			if (type.getEntityClass() != null && lookup.contains(type.getEntityClass().getSimpleName().toLowerCase()))
+				set.add(type);
+		return set;
+	}
+
 
 	public boolean getUnclaimedZonePerm(ActionType type) {
 
@@ -719,18 +886,25 @@ public class TownyWorld extends TownyObject {
 
 	public void addWarZone(Coord coord) {
 
-		if (!isWarZone(coord))
-			warZones.add(coord);
+		warZones.add(toWarZoneKey(coord));
 	}
 
 	public void removeWarZone(Coord coord) {
 
-		warZones.remove(coord);
+		warZones.remove(toWarZoneKey(coord));
 	}
 
 	public boolean isWarZone(Coord coord) {
 
-		return warZones.contains(coord);
+		return warZones.contains(toWarZoneKey(coord));
+	}
+
+	/*
+	 * WorldCoords hash differently to Coords, so the war zones are keyed by plain Coords.
+	 */
+	private static Coord toWarZoneKey(Coord coord) {
+
+		return coord.getClass() == Coord.class ? coord : new Coord(coord.getX(), coord.getZ());
 	}
 
 	@Override
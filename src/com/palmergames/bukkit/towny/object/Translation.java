@@ -8,10 +8,14 @@ import com.palmergames.bukkit.towny.command.HelpMenu;
 import com.palmergames.bukkit.towny.utils.NameUtil;
 import com.palmergames.util.FileMgmt;
 import com.palmergames.util.StringMgmt;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.InvalidConfigurationException;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * A convenience object to facilitate translation. 
@@ -19,6 +23,7 @@ import java.io.IOException;
 public final class Translation {
 	
 	public static CommentedConfiguration language;
+	private static Map<String, TranslationTemplate> templates = Collections.emptyMap();
 
 	// This will read the language entry in the config.yml to attempt to load
 	// custom languages
@@ -32,6 +37,7 @@ public final class Translation {
 		// read the (language).yml into memory
 		language = new CommentedConfiguration(file);
 		language.load();
+		compileTemplates();
 		HelpMenu.loadMenus();
 		CommentedConfiguration newLanguage = new CommentedConfiguration(file);
 		
@@ -49,6 +55,7 @@ public final class Translation {
 
 		if (!langVersion.equalsIgnoreCase(resVersion)) {
 			language = newLanguage;
+			compileTemplates();
 			TownyMessaging.sendMsg("Newer language file available, language file updated.");
 			FileMgmt.stringToFile(FileMgmt.convertStreamToString("/" + res), file);
 		}
@@ -57,6 +64,32 @@ public final class Translation {
 	private static String parseSingleLineString(String str) {
 		return NameUtil.translateColorCodes(str);
 	}
+
+	/**
+	 * Translates the colours of every string in the loaded language once and
+	 * parses them into templates, so lookups never touch the yaml again.
+	 */
+	private static void compileTemplates() {
+		Map<String, TranslationTemplate> compiled = new HashMap<>();
+		for (String key : language.getKeys(true)) {
+			Object value = language.get(key);
+			if (value == null || value instanceof ConfigurationSection)
+				continue;
+
+			compiled.put(key, TranslationTemplate.compile(StringMgmt.translateHexColors(parseSingleLineString(value.toString()))));
+		}
+		templates = Collections.unmodifiableMap(compiled);
+	}
+
+	private static TranslationTemplate getTemplate(String key) {
+		TranslationTemplate template = templates.get(key);
+		if (template == null) {
+			template = templates.get(key.toLowerCase());
+			if (template == null)
+				TownySettings.sendError(key.toLowerCase() + " from " + TownySettings.getString(ConfigNodes.LANGUAGE));
+		}
+		return template;
+	}
 	
 	/**
 	 * Translates give key into its respective language. 
@@ -65,13 +98,8 @@ public final class Translation {
 	 * @return The localized string.
 	 */
 	public static String of(String key) {
-		String data = language.getString(key.toLowerCase());
-
-		if (data == null) {
-			TownySettings.sendError(key.toLowerCase() + " from " + TownySettings.getString(ConfigNodes.LANGUAGE));
-			return "";
-		}
-		return StringMgmt.translateHexColors(parseSingleLineString(data));
+		TranslationTemplate template = getTemplate(key);
+		return template == null ? "" : template.getText();
 	}
 
 	/**
@@ -82,7 +110,8 @@ public final class Translation {
 	 * @return The localized string.
 	 */
 	public static String of(String key, Object... args) {
-		return String.format(of(key), args);
+		TranslationTemplate template = getTemplate(key);
+		return template == null ? "" : template.format(args);
 	}
 
 	private Translation() {}
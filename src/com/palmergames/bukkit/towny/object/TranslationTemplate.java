@@ -0,0 +1,103 @@
+package com.palmergames.bukkit.towny.object;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable, pre-parsed language string.
+ * <p>
+ * Colour codes are translated once when the template is built and the
+ * string is split into literal text and argument slots, so formatting it
+ * is a single pass over the segments instead of {@link String#format}
+ * re-parsing the pattern on every call. Only the plain {@code %s},
+ * {@code %d} and {@code %%} conversions are handled here; anything fancier
+ * (flags, widths, explicit indexes) falls back to {@link String#format}.
+ */
+final class TranslationTemplate {
+
+	private static final char STRING_ARG = 's';
+	private static final char INTEGER_ARG = 'd';
+
+	private final String text;
+	private final String[] literals;
+	private final char[] conversions;
+	private final boolean simple;
+
+	private TranslationTemplate(String text, String[] literals, char[] conversions, boolean simple) {
+		this.text = text;
+		this.literals = literals;
+		this.conversions = conversions;
+		this.simple = simple;
+	}
+
+	/**
+	 * Parses an already colour translated string into a template.
+	 *
+	 * @param text - The translated language string.
+	 * @return a template which formats like {@link String#format} would.
+	 */
+	static TranslationTemplate compile(String text) {
+		List<String> literals = new ArrayList<>();
+		StringBuilder conversions = new StringBuilder();
+		StringBuilder literal = new StringBuilder();
+
+		int length = text.length();
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+			if (c != '%') {
+				literal.append(c);
+				continue;
+			}
+
+			char next = i + 1 < length ? text.charAt(i + 1) : 0;
+			if (next == '%') {
+				literal.append('%');
+				i++;
+			} else if (next == STRING_ARG || next == INTEGER_ARG) {
+				literals.add(literal.toString());
+				literal.setLength(0);
+				conversions.append(next);
+				i++;
+			} else {
+				// Something String.format understands but we don't, let it do the work.
+				return new TranslationTemplate(text, null, null, false);
+			}
+		}
+		literals.add(literal.toString());
+
+		return new TranslationTemplate(text, literals.toArray(new String[0]), conversions.toString().toCharArray(), true);
+	}
+
+	/**
+	 * @return the string with colours translated and no arguments applied.
+	 */
+	String getText() {
+		return text;
+	}
+
+	/**
+	 * Fills the argument slots of the template.
+	 *
+	 * @param args - The arguments to insert.
+	 * @return the formatted string.
+	 */
+	String format(Object... args) {
+		if (!simple || args == null || args.length < conversions.length)
+			return String.format(text, args);
+
+		if (conversions.length == 0)
+			return literals[0];
+
+		StringBuilder out = new StringBuilder(text.length() + 16 * conversions.length);
+		for (int i = 0; i < conversions.length; i++) {
+			out.append(literals[i]);
+			Object arg = args[i];
+			if (conversions[i] == INTEGER_ARG && !(arg instanceof Integer || arg instanceof Long || arg instanceof Short || arg instanceof Byte || arg == null))
+				// Let String.format raise the same error it always has.
+				return String.format(text, args);
+			out.append(arg);
+		}
+		out.append(literals[conversions.length]);
+		return out.toString();
+	}
+}
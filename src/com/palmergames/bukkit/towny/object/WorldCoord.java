@@ -12,25 +12,74 @@ import java.util.Objects;
 
 public class WorldCoord extends Coord {
 
-	private final String worldName;
+	// Direct mapped, a cell pushes out whichever cell last had its slot.
+	private static final int CANONICAL_CACHE_SIZE = 8192;
+	private static final WorldCoord[] canonical = new WorldCoord[CANONICAL_CACHE_SIZE];
+
+	private final int worldId;
 
 	public WorldCoord(String worldName, int x, int z) {
-		super(x, z);
-		this.worldName = worldName;
+		this(TownyWorld.getWorldId(worldName), x, z);
 	}
 
 	public WorldCoord(String worldName, Coord coord) {
 		super(coord);
-		this.worldName = worldName;
+		this.worldId = TownyWorld.getWorldId(worldName);
 	}
 
 	public WorldCoord(WorldCoord worldCoord) {
 		super(worldCoord);
-		this.worldName = worldCoord.getWorldName();
+		this.worldId = worldCoord.getWorldId();
+	}
+
+	/**
+	 * @param worldId - Id of the world, see {@link TownyWorld#getWorldId(String)}.
+	 * @param x - Cell x.
+	 * @param z - Cell z.
+	 */
+	public WorldCoord(int worldId, int x, int z) {
+		super(x, z);
+		this.worldId = worldId;
+	}
+
+	/**
+	 * Returns a shared WorldCoord for the cell, making one only when the cell
+	 * is not in the cache. WorldCoords cannot be changed, so the same one can
+	 * be handed to everyone asking about a cell.
+	 * 
+	 * @param worldId - Id of the world, see {@link TownyWorld#getWorldId(String)}.
+	 * @param x - Cell x.
+	 * @param z - Cell z.
+	 * @return a WorldCoord for the cell.
+	 */
+	public static WorldCoord of(int worldId, int x, int z) {
+		int slot = fold(mix(worldId, x, z)) & (CANONICAL_CACHE_SIZE - 1);
+		WorldCoord worldCoord = canonical[slot];
+		if (worldCoord != null && worldCoord.worldId == worldId && worldCoord.getX() == x && worldCoord.getZ() == z)
+			return worldCoord;
+
+		// Final fields make the racy write safe, the worst a race does is make an extra WorldCoord.
+		worldCoord = new WorldCoord(worldId, x, z);
+		canonical[slot] = worldCoord;
+		return worldCoord;
+	}
+
+	/**
+	 * @param worldName - Name of the world.
+	 * @param x - Cell x.
+	 * @param z - Cell z.
+	 * @return a WorldCoord for the cell, see {@link #of(int, int, int)}.
+	 */
+	public static WorldCoord of(String worldName, int x, int z) {
+		return of(TownyWorld.getWorldId(worldName), x, z);
+	}
+
+	public int getWorldId() {
+		return worldId;
 	}
 
 	public String getWorldName() {
-		return worldName;
+		return TownyWorld.getWorldName(worldId);
 	}
 
 	public Coord getCoord() {
@@ -44,14 +93,13 @@ public class WorldCoord extends Coord {
 
 	@Deprecated
 	public WorldCoord(TownyWorld world, int x, int z) {
-		super(x, z);
-		this.worldName = world.getName();
+		this(world.getId(), x, z);
 	}
 
 	@Deprecated
 	public WorldCoord(TownyWorld world, Coord coord) {
 		super(coord);
-		this.worldName = world.getName();
+		this.worldId = world.getId();
 	}
 
 	public static WorldCoord parseWorldCoord(Entity entity) {
@@ -59,7 +107,7 @@ public class WorldCoord extends Coord {
 	}
 
 	public static WorldCoord parseWorldCoord(String worldName, int blockX, int blockZ) {
-		return new WorldCoord(worldName, toCell(blockX), toCell(blockZ));
+		return of(worldName, toCell(blockX), toCell(blockZ));
 	}
 	
 	public static WorldCoord parseWorldCoord(Location loc) {
@@ -72,17 +120,13 @@ public class WorldCoord extends Coord {
 
 	public WorldCoord add(int xOffset, int zOffset) {
 
-		return new WorldCoord(getWorldName(), getX() + xOffset, getZ() + zOffset);
+		return of(worldId, getX() + xOffset, getZ() + zOffset);
 	}
 
 	@Override
 	public int hashCode() {
 
-		int hash = 17;
-		hash = hash * 27 + (worldName == null ? 0 : worldName.hashCode());
-		hash = hash * 27 + getX();
-		hash = hash * 27 + getZ();
-		return hash;
+		return fold(mix(worldId, getX(), getZ()));
 	}
 
 	@Override
@@ -98,12 +142,12 @@ public class WorldCoord extends Coord {
 		}
 
 		WorldCoord that = (WorldCoord) obj;
-		return this.getX() == that.getX() && this.getZ() == that.getZ() && (Objects.equals(this.worldName, that.worldName));
+		return this.getX() == that.getX() && this.getZ() == that.getZ() && this.worldId == that.worldId;
 	}
 
 	@Override
 	public String toString() {
-		return worldName + "," + super.toString();
+		return getWorldName() + "," + super.toString();
 	}
 
 	/**
@@ -112,17 +156,21 @@ public class WorldCoord extends Coord {
 	 * @return the relevant org.bukkit.World instance
 	 */
 	public World getBukkitWorld() {
-		return Bukkit.getWorld(worldName);
+		return Bukkit.getWorld(getWorldName());
 	}
 
 	/**
-	 * Shortcut for TownyUniverse.getDataSource().getWorld(worldName)
+	 * Shortcut for TownyUniverse.getDataSource().getWorld(worldName), looked
+	 * up by the world's id rather than its name.
 	 * 
 	 * @return the relevant TownyWorld instance
 	 * @throws NotRegisteredException if unable to return a TownyWorld instance
 	 */
 	public TownyWorld getTownyWorld() throws NotRegisteredException {
-		return TownyUniverse.getInstance().getDataSource().getWorld(worldName);
+		TownyWorld world = TownyUniverse.getInstance().getWorld(worldId);
+		if (world == null)
+			throw new NotRegisteredException("World not registered!");
+		return world;
 	}
 
 	/**
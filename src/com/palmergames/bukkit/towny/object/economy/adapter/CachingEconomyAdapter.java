@@ -0,0 +1,345 @@
+package com.palmergames.bukkit.towny.object.economy.adapter;
+
+import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.object.economy.adapter.EconomyJournal.Entry;
+import com.palmergames.bukkit.towny.object.economy.adapter.EconomyJournal.Operation;
+import org.bukkit.World;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * An {@link EconomyAdapter} which sits in front of the real economy adapter,
+ * keeping a Towny-side copy of every balance it has seen.
+ * <p>
+ * Balance reads are answered from the cache. Deposits, withdrawals and
+ * balance sets update the cached balance straight away, are written to
+ * the {@link EconomyJournal} and are then handed to the backing economy
+ * in order on a single background thread. A withdrawal the cached balance
+ * cannot cover is refused, after asking the economy plugin for the real
+ * balance if nothing is queued for the account, and never waits for the
+ * queue. Deleting an account is queued the same way, and the account reads
+ * as empty until the economy plugin has deleted it.
+ * <p>
+ * Balances are cached per account and world, as economy plugins may keep
+ * a balance for each world. Cached balances are re-read from the economy
+ * plugin once they are older than the refresh time and have no queued
+ * transactions, which picks up changes made by other plugins. A
+ * transaction the economy plugin rejects is taken back out of the cached
+ * balance, and forces the next read to go to the economy plugin as well.
+ */
+public class CachingEconomyAdapter implements EconomyAdapter {
+
+	private static final double EPSILON = 0.0001;
+
+	private final EconomyAdapter economy;
+	private final EconomyJournal journal;
+	private final long refreshMillis;
+	private final Function<String, World> worldResolver;
+	private final Map<AccountKey, CachedAccount> accounts = new ConcurrentHashMap<>();
+	private final Set<String> accountNames = ConcurrentHashMap.newKeySet();
+	// Accounts with a delete queued, by the number of deletes queued.
+	private final Map<String, Integer> deleting = new ConcurrentHashMap<>();
+	private final AtomicInteger queued = new AtomicInteger();
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Towny-Economy");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static class CachedAccount {
+		private double balance;
+		private long syncedAt;
+		private int pending;
+	}
+
+	private static final class AccountKey {
+		private final String name;
+		private final String world;
+
+		AccountKey(String name, World world) {
+			this.name = name;
+			this.world = world == null ? null : world.getName();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o)
+				return true;
+			if (!(o instanceof AccountKey))
+				return false;
+			AccountKey other = (AccountKey) o;
+			return name.equals(other.name) && Objects.equals(world, other.world);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * name.hashCode() + Objects.hashCode(world);
+		}
+	}
+
+	/**
+	 * @param economy - The adapter of the real economy plugin.
+	 * @param journalFile - Where the transaction journal is kept.
+	 * @param refreshMillis - How long an idle cached balance is trusted.
+	 * @param worldResolver - Looks up worlds by name when replaying the journal.
+	 */
+	public CachingEconomyAdapter(EconomyAdapter economy, File journalFile, long refreshMillis, Function<String, World> worldResolver) {
+		this.economy = economy;
+		this.journal = new EconomyJournal(journalFile);
+		this.refreshMillis = refreshMillis;
+		this.worldResolver = worldResolver;
+
+		recover();
+	}
+
+	/**
+	 * Reconciles the transactions a previous run queued but never finished.
+	 * Transactions the economy plugin never saw are run now, those it did
+	 * are marked done, and anything else is logged for an admin to check.
+	 */
+	private void recover() {
+		List<Entry> unfinished;
+		try {
+			unfinished = journal.readUnfinished();
+		} catch (IOException e) {
+			TownyMessaging.sendErrorMsg("Could not read the economy journal: " + e.getMessage());
+			return;
+		}
+
+		for (Entry entry : unfinished) {
+			World world = entry.world == null ? null : worldResolver.apply(entry.world);
+			double balance = economy.getBalance(entry.account, world);
+
+			if (Math.abs(balance - entry.after) < EPSILON && Math.abs(entry.after - entry.before) >= EPSILON) {
+				journal.committed(entry);
+			} else if (Math.abs(balance - entry.before) < EPSILON) {
+				if (apply(entry, world)) {
+					journal.committed(entry);
+					TownyMessaging.sendMsg("Economy journal: replayed " + entry);
+				} else {
+					journal.failed(entry);
+					TownyMessaging.sendErrorMsg("Economy journal: could not replay " + entry);
+				}
+			} else {
+				journal.failed(entry);
+				TownyMessaging.sendErrorMsg("Economy journal: balance of " + entry.account + " is " + balance + ", cannot tell if " + entry + " was applied. Please check it by hand.");
+			}
+		}
+		journal.truncate();
+	}
+
+	private boolean apply(Entry entry, World world) {
+		switch (entry.operation) {
+			case ADD:
+				return economy.add(entry.account, entry.amount, world);
+			case SUBTRACT:
+				return economy.subtract(entry.account, entry.amount, world);
+			case SET:
+				return economy.setBalance(entry.account, entry.after, world);
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Gets the cached account, reading the balance from the economy plugin
+	 * when it is unknown or idle and out of date.
+	 */
+	private CachedAccount getAccount(String accountName, World world) {
+		CachedAccount account = accounts.computeIfAbsent(new AccountKey(accountName, world), key -> new CachedAccount());
+		accountNames.add(accountName);
+		synchronized (account) {
+			if (account.pending == 0 && System.currentTimeMillis() - account.syncedAt > refreshMillis) {
+				if (deleting.containsKey(accountName)) {
+					// The economy plugin still has the old balance, read it again once the delete has run.
+					account.balance = 0;
+					account.syncedAt = 0;
+				} else {
+					account.balance = economy.getBalance(accountName, world);
+					account.syncedAt = System.currentTimeMillis();
+				}
+			}
+		}
+		return account;
+	}
+
+	/**
+	 * Journals a transaction and queues it for the economy plugin.
+	 */
+	private Future<Boolean> queue(CachedAccount account, Operation operation, String accountName, double amount, World world, double before, double after) {
+		// Counted before journaling so the journal is never emptied under a new entry.
+		queued.incrementAndGet();
+		account.pending++;
+		Entry entry = journal.pending(operation, accountName, amount, world == null ? null : world.getName(), before, after);
+
+		return executor.submit(() -> {
+			// The pending line must reach the file before the economy plugin sees the transaction.
+			journal.flush();
+			boolean success = false;
+			try {
+				success = apply(entry, world);
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+			}
+
+			if (success) {
+				journal.committed(entry);
+			} else {
+				journal.failed(entry);
+				TownyMessaging.sendErrorMsg("Economy transaction failed: " + entry);
+			}
+
+			synchronized (account) {
+				account.pending--;
+				if (!success) {
+					// Take the transaction back out of our copy, and read the real balance once the queue is clear.
+					account.balance += entry.before - entry.after;
+					account.syncedAt = 0;
+				}
+			}
+
+			if (queued.decrementAndGet() == 0)
+				journal.truncateIf(() -> queued.get() == 0);
+			return success;
+		});
+	}
+
+	private static boolean await(Future<Boolean> result) {
+		try {
+			return result.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (ExecutionException e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	@Override
+	public boolean add(String accountName, double amount, World world) {
+		CachedAccount account = getAccount(accountName, world);
+		synchronized (account) {
+			double before = account.balance;
+			account.balance += amount;
+			queue(account, Operation.ADD, accountName, amount, world, before, account.balance);
+		}
+		return true;
+	}
+
+	@Override
+	public boolean subtract(String accountName, double amount, World world) {
+		CachedAccount account = getAccount(accountName, world);
+		synchronized (account) {
+			if (account.balance < amount) {
+				// Another plugin may have paid in since we last looked, but only an idle account can be checked.
+				if (account.pending > 0)
+					return false;
+				account.balance = economy.getBalance(accountName, world);
+				account.syncedAt = System.currentTimeMillis();
+				if (account.balance < amount)
+					return false;
+			}
+
+			double before = account.balance;
+			account.balance -= amount;
+			queue(account, Operation.SUBTRACT, accountName, amount, world, before, account.balance);
+		}
+		return true;
+	}
+
+	@Override
+	public boolean setBalance(String accountName, double amount, World world) {
+		CachedAccount account = getAccount(accountName, world);
+		synchronized (account) {
+			double before = account.balance;
+			account.balance = amount;
+			queue(account, Operation.SET, accountName, amount, world, before, amount);
+		}
+		return true;
+	}
+
+	@Override
+	public double getBalance(String accountName, World world) {
+		CachedAccount account = getAccount(accountName, world);
+		synchronized (account) {
+			return account.balance;
+		}
+	}
+
+	@Override
+	public boolean hasAccount(String accountName) {
+		return accountNames.contains(accountName) || (!deleting.containsKey(accountName) && economy.hasAccount(accountName));
+	}
+
+	@Override
+	public void newAccount(String accountName) {
+		economy.newAccount(accountName);
+	}
+
+	@Override
+	public void deleteAccount(String accountName) {
+		deleting.merge(accountName, 1, Integer::sum);
+		accounts.keySet().removeIf(key -> key.name.equals(accountName));
+		accountNames.remove(accountName);
+
+		// Queued so it cannot overtake transactions still waiting for this account.
+		executor.execute(() -> {
+			try {
+				economy.deleteAccount(accountName);
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+			} finally {
+				deleting.computeIfPresent(accountName, (name, count) -> count == 1 ? null : count - 1);
+			}
+		});
+	}
+
+	@Override
+	public String getFormattedBalance(double balance) {
+		return economy.getFormattedBalance(balance);
+	}
+
+	/**
+	 * @return the number of transactions waiting for the economy plugin.
+	 */
+	public int getQueuedTransactions() {
+		return queued.get();
+	}
+
+	/**
+	 * Waits for the transactions queued so far to be handed to the economy plugin.
+	 */
+	void awaitQueued() {
+		await(executor.submit(() -> true));
+	}
+
+	/**
+	 * Hands every queued transaction to the economy plugin and stops the
+	 * background thread. Anything still unfinished after the timeout stays
+	 * in the journal for the next start.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(30, TimeUnit.SECONDS))
+				TownyMessaging.sendErrorMsg("Economy transactions are still queued, they will be reconciled on the next start.");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		journal.close();
+	}
+}
@@ -0,0 +1,191 @@
+package com.palmergames.bukkit.towny.object.economy.adapter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * An append-only log of the transactions handed to the backing economy
+ * by the {@link CachingEconomyAdapter}.
+ * <p>
+ * Every transaction is written as pending before it is queued and marked
+ * committed or failed once the economy plugin has answered. Pending lines
+ * are buffered, and the background thread flushes them before it hands
+ * the transaction to the economy plugin. Whoever queues a transaction
+ * never waits on the disk, and a busy queue flushes many lines at once.
+ * Failed lines are flushed straight away, so a rejected transaction is
+ * never replayed. Committed lines can wait, as a committed transaction
+ * still shows its "after" balance. Each entry
+ * carries the balance Towny expected before and after it, which is what
+ * allows an unfinished entry to be reconciled after a crash: if the
+ * economy still shows the "before" balance the transaction never ran, if
+ * it shows the "after" balance it did.
+ * <p>
+ * Line format: {@code id|state|operation|account|amount|world|before|after}
+ */
+class EconomyJournal {
+
+	enum Operation {
+		ADD, SUBTRACT, SET
+	}
+
+	private static final String PENDING = "P";
+	private static final String COMMITTED = "C";
+	private static final String FAILED = "F";
+
+	static class Entry {
+		final long id;
+		final Operation operation;
+		final String account;
+		final double amount;
+		final String world;
+		final double before;
+		final double after;
+
+		Entry(long id, Operation operation, String account, double amount, String world, double before, double after) {
+			this.id = id;
+			this.operation = operation;
+			this.account = account;
+			this.amount = amount;
+			this.world = world;
+			this.before = before;
+			this.after = after;
+		}
+
+		@Override
+		public String toString() {
+			return operation + " " + amount + " " + account + " (" + before + " -> " + after + ")";
+		}
+	}
+
+	private final File file;
+	private BufferedWriter writer;
+	private long nextId = 1;
+
+	EconomyJournal(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Reads the journal left behind by the previous run.
+	 *
+	 * @return the entries which were never marked committed or failed, in the order they were written.
+	 * @throws IOException when the journal cannot be read.
+	 */
+	synchronized List<Entry> readUnfinished() throws IOException {
+		Map<Long, Entry> unfinished = new LinkedHashMap<>();
+		if (!file.exists())
+			return new ArrayList<>();
+
+		try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] split = line.split("\\|");
+				if (split.length < 2)
+					continue;
+
+				try {
+					long id = Long.parseLong(split[0]);
+					nextId = Math.max(nextId, id + 1);
+					if (split[1].equals(PENDING) && split.length == 8) {
+						String world = split[5].isEmpty() ? null : split[5];
+						unfinished.put(id, new Entry(id, Operation.valueOf(split[2]), split[3], Double.parseDouble(split[4]), world, Double.parseDouble(split[6]), Double.parseDouble(split[7])));
+					} else {
+						unfinished.remove(id);
+					}
+				} catch (IllegalArgumentException ignored) {
+					// A torn last line from a crash mid-write, nothing was queued for it.
+				}
+			}
+		}
+		return new ArrayList<>(unfinished.values());
+	}
+
+	/**
+	 * Records a transaction about to be queued.
+	 *
+	 * @return the entry, holding the id used to finish it.
+	 */
+	synchronized Entry pending(Operation operation, String account, double amount, String world, double before, double after) {
+		Entry entry = new Entry(nextId++, operation, account, amount, world, before, after);
+		write(entry.id + "|" + PENDING + "|" + operation + "|" + account + "|" + amount + "|" + (world == null ? "" : world) + "|" + before + "|" + after, false);
+		return entry;
+	}
+
+	synchronized void committed(Entry entry) {
+		write(entry.id + "|" + COMMITTED, false);
+	}
+
+	synchronized void failed(Entry entry) {
+		write(entry.id + "|" + FAILED, true);
+	}
+
+	/**
+	 * Writes out every line buffered so far.
+	 */
+	synchronized void flush() {
+		if (writer == null)
+			return;
+
+		try {
+			writer.flush();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Empties the journal. Only safe when nothing is pending.
+	 */
+	synchronized void truncate() {
+		close();
+		try {
+			new FileWriter(file, false).close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Empties the journal if the condition still holds once the journal is locked.
+	 *
+	 * @param nothingPending - Checks that no transaction is waiting.
+	 */
+	synchronized void truncateIf(BooleanSupplier nothingPending) {
+		if (nothingPending.getAsBoolean())
+			truncate();
+	}
+
+	synchronized void close() {
+		if (writer == null)
+			return;
+
+		try {
+			writer.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		writer = null;
+	}
+
+	private void write(String line, boolean flush) {
+		try {
+			if (writer == null)
+				writer = new BufferedWriter(new FileWriter(file, true));
+			writer.write(line);
+			writer.newLine();
+			if (flush)
+				writer.flush();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
@@ -1,5 +1,10 @@
 package com.palmergames.bukkit.towny.permissions;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * @author ElgarL
  * 
@@ -284,6 +289,7 @@ public enum PermissionNodes {
 	TOWNY_COMMAND_TOWNYADMIN_UNCLAIM("towny.command.townyadmin.unclaim"),
 	TOWNY_COMMAND_TOWNYADMIN_RESIDNET_DELETE("towny.command.townyadmin.resident.delete"),
 	TOWNY_COMMAND_TOWNYADMIN_DEPOSITALL("towny.command.townyadmin.depositall"),
+	TOWNY_COMMAND_TOWNYADMIN_PERF("towny.command.townyadmin.perf"),
 	
 	/*
 	 * Towny command permissions
@@ -389,6 +395,14 @@ public enum PermissionNodes {
 	
 
 	private String value;
+	private final String[] wildcardParents;
+
+	private static final Map<String, String[]> wildcardParentsByNode = new HashMap<>();
+
+	static {
+		for (PermissionNodes node : values())
+			wildcardParentsByNode.put(node.value, node.wildcardParents);
+	}
 
 	/**
 	 * Constructor
@@ -398,6 +412,7 @@ public enum PermissionNodes {
 	PermissionNodes(String permission) {
 
 		this.value = permission;
+		this.wildcardParents = splitWildcardParents(permission);
 	}
 
 	/**
@@ -426,4 +441,34 @@ public enum PermissionNodes {
 
 		return value.replace("*", replace + "");
 	}
+
+	/**
+	 * Lists the wildcard parents of a node, in the order
+	 * {@link TownyPermissionSource#has(org.bukkit.entity.Player, String)}
+	 * tests them, each negation before the wildcard itself:
+	 * -*, *, -towny.*, towny.*, -towny.town.*, towny.town.* and so on.
+	 * Parents of the nodes listed here are worked out once, when the class
+	 * loads.
+	 * 
+	 * @param node - Permission node.
+	 * @return the negated and plain wildcard parents, in pairs.
+	 */
+	public static String[] getWildcardParents(String node) {
+
+		String[] parents = wildcardParentsByNode.get(node);
+		return parents != null ? parents : splitWildcardParents(node);
+	}
+
+	private static String[] splitWildcardParents(String node) {
+
+		List<String> parents = new ArrayList<>();
+		parents.add("-*");
+		parents.add("*");
+		for (int dot = node.indexOf('.'); dot >= 0; dot = node.indexOf('.', dot + 1)) {
+			String parent = node.substring(0, dot + 1) + "*";
+			parents.add("-" + parent);
+			parents.add(parent);
+		}
+		return parents.toArray(new String[0]);
+	}
 }
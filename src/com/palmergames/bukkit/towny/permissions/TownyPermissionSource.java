@@ -12,8 +12,14 @@ import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.TownyPermission;
 import com.palmergames.bukkit.towny.object.TownyWorld;
+import com.palmergames.bukkit.towny.profiler.TownyProfiler;
 import com.palmergames.bukkit.util.BukkitTools;
 
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author ElgarL
  * 
@@ -27,6 +33,28 @@ public abstract class TownyPermissionSource {
 
 	protected GroupManager groupManager = null;
 
+	/*
+	 * Towny drops a player's decisions whenever it reassigns their
+	 * permissions, so this only bounds how long a change made by another
+	 * permissions plugin can go unseen.
+	 */
+	private static final long DECISION_TTL = TimeUnit.SECONDS.toMillis(5);
+	private static final int MAX_DECISIONS = 1024;
+
+	private final Map<UUID, Decisions> decisions = new ConcurrentHashMap<>();
+
+	/**
+	 * The answers given by {@link #has(Player, String)} for one player.
+	 */
+	private static class Decisions {
+		private final Map<String, Boolean> nodes = new ConcurrentHashMap<>();
+		private final long expires;
+
+		Decisions(long expires) {
+			this.expires = expires;
+		}
+	}
+
 	abstract public String getPrefixSuffix(Resident resident, String node);
 
 	abstract public int getGroupPermissionIntNode(String playerName, String node);
@@ -212,7 +240,9 @@ public abstract class TownyPermissionSource {
 	/**
 	 * All permission checks should go through here.
 	 * 
-	 * Returns true if a player has a certain permission node.
+	 * Returns true if a player has a certain permission node. Answers are
+	 * kept for each player until {@link #invalidate(Player)} is called or
+	 * a few seconds have passed.
 	 * 
 	 * @param player - Player to check
 	 * @param node - Permission node to check for
@@ -223,6 +253,37 @@ public abstract class TownyPermissionSource {
 		if (player.isOp())
 			return true;
 
+		UUID uuid = player.getUniqueId();
+		long now = System.currentTimeMillis();
+		Decisions cached = decisions.get(uuid);
+		if (cached == null || cached.expires <= now) {
+			cached = new Decisions(now + DECISION_TTL);
+			decisions.put(uuid, cached);
+		}
+
+		Boolean decision = cached.nodes.get(node);
+		if (decision != null) {
+			TownyProfiler.countHit("permission decisions");
+			return decision;
+		}
+
+		TownyProfiler.countMiss("permission decisions");
+		boolean result = resolve(player, node);
+		if (cached.nodes.size() < MAX_DECISIONS)
+			cached.nodes.put(node, result);
+		return result;
+
+	}
+
+	/**
+	 * Works out whether a player has a node, without the cache.
+	 * 
+	 * @param player - Player to check
+	 * @param node - Permission node to check for
+	 * @return true if the player has this permission node.
+	 */
+	protected boolean resolve(Player player, String node) {
+
 		/*
 		 * Node has been set or negated so return the actual value
 		 */
@@ -232,18 +293,14 @@ public abstract class TownyPermissionSource {
 		/*
 		 * Check for a parent with a wildcard
 		 */
-		final String[] parts = node.split("\\.");
-		final StringBuilder builder = new StringBuilder(node.length());
-		for (String part : parts) {
-			builder.append('*');
-			if (player.hasPermission("-" + builder.toString())) {
+		final String[] parents = PermissionNodes.getWildcardParents(node);
+		for (int i = 0; i < parents.length; i += 2) {
+			if (player.hasPermission(parents[i])) {
 				return false;
 			}
-			if (player.hasPermission(builder.toString())) {
+			if (player.hasPermission(parents[i + 1])) {
 				return true;
 			}
-			builder.deleteCharAt(builder.length() - 1);
-			builder.append(part).append('.');
 		}
 
 		/*
@@ -252,4 +309,23 @@ public abstract class TownyPermissionSource {
 		return false;
 
 	}
+
+	/**
+	 * Forgets the answers {@link #has(Player, String)} has given for a player,
+	 * to be called whenever their permissions are recalculated.
+	 * 
+	 * @param player - Player whose permissions changed.
+	 */
+	public void invalidate(Player player) {
+
+		decisions.remove(player.getUniqueId());
+	}
+
+	/**
+	 * Forgets every answer {@link #has(Player, String)} has given.
+	 */
+	public void invalidateAll() {
+
+		decisions.clear();
+	}
 }
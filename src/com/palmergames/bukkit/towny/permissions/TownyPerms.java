@@ -20,14 +20,18 @@ import org.bukkit.permissions.PermissionDefault;
 import java.io.File;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author ElgarL
@@ -39,6 +43,22 @@ public class TownyPerms {
 	protected static HashMap<String, PermissionAttachment> attachments = new HashMap<>();
 	private static CommentedConfiguration perms;
 	private static Towny plugin;
+
+	/*
+	 * Resolved permission maps by signature (town, mayor, town ranks, nation, king, nation ranks),
+	 * shared by every resident with the same signature. Cleared when townyperms.yml is loaded or
+	 * the registered permissions are collected again.
+	 */
+	private static final Map<String, Map<String, Boolean>> resolvedPerms = new ConcurrentHashMap<>();
+	private static final int MAX_RESOLVED_PERMS = 4096;
+
+	/*
+	 * Residents waiting for their attachments to be updated, worked through a batch a tick.
+	 * Only updates of more than a batch of players are queued.
+	 */
+	private static final Set<String> pendingUpdates = new LinkedHashSet<>();
+	private static final int UPDATE_BATCH_SIZE = 50;
+	private static boolean updateScheduled = false;
 	
 	public static void initialize(Towny plugin) {
 		TownyPerms.plugin = plugin;
@@ -80,6 +100,9 @@ public class TownyPerms {
 		 * Only do this once as we are really only interested in Towny perms.
 		 */
 		collectPermissions();
+		resolvedPerms.clear();
+		if (TownyUniverse.getInstance().getPermissionSource() != null)
+			TownyUniverse.getInstance().getPermissionSource().invalidateAll();
 		
 	}
 	
@@ -111,6 +134,11 @@ public class TownyPerms {
 		 * online)
 		 */
 
+		// Updated now, so a queued update would only repeat it.
+		synchronized (pendingUpdates) {
+			pendingUpdates.remove(resident.getName());
+		}
+
 		if ((player == null) || !player.isOnline()) {
 			attachments.remove(resident.getName());
 			return;
@@ -156,7 +184,7 @@ public class TownyPerms {
 					/*
 					 * Fill with the fresh perm nodes
 					 */
-					orig.putAll(TownyPerms.getResidentPerms(resident));
+					orig.putAll(getResolvedPerms(resident));
 
 					// System.out.print("Perms set for: " + resident.getName());
 				}
@@ -168,6 +196,9 @@ public class TownyPerms {
 		} catch (IllegalArgumentException | IllegalAccessException e) {
 			e.printStackTrace();
 		}
+
+		if (townyUniverse.getPermissionSource() != null)
+			townyUniverse.getPermissionSource().invalidate(player);
 		
 		/*
 		 * Store the attachment for future reference
@@ -193,8 +224,15 @@ public class TownyPerms {
 	 */
 	public static void updateOnlinePerms() {
 		
-		for (Player player : BukkitTools.getOnlinePlayers()) {
-			assignPermissions(null, player);
+		List<Player> players = new ArrayList<>(BukkitTools.getOnlinePlayers());
+		if (players.size() <= UPDATE_BATCH_SIZE) {
+			for (Player player : players)
+				assignPermissions(null, player);
+			return;
+		}
+
+		for (Player player : players) {
+			queueUpdate(player.getName());
 		}
 		
 	}
@@ -206,11 +244,84 @@ public class TownyPerms {
 	 */
 	public static void updateTownPerms(Town town) {
 		
-		for (Resident resident: town.getResidents()) {
-			assignPermissions(resident, null);
-		}
+		updateResidentPerms(getOnlineResidents(town, new ArrayList<>()));
 		
 	}
+
+	private static List<Resident> getOnlineResidents(Town town, List<Resident> online) {
+
+		for (Resident resident : town.getResidents())
+			if (BukkitTools.getPlayerExact(resident.getName()) != null)
+				online.add(resident);
+		return online;
+	}
+
+	/**
+	 * Updates the residents' attachments now if they fit in one batch,
+	 * otherwise queues them.
+	 * 
+	 * @param residents - Online residents to update.
+	 */
+	private static void updateResidentPerms(List<Resident> residents) {
+
+		if (residents.size() <= UPDATE_BATCH_SIZE) {
+			for (Resident resident : residents)
+				assignPermissions(resident, null);
+			return;
+		}
+
+		for (Resident resident : residents) {
+			queueUpdate(resident.getName());
+		}
+	}
+
+	/**
+	 * Queues a resident's attachment to be updated. Queued residents are
+	 * updated from the next tick, {@link #UPDATE_BATCH_SIZE} a tick, so a
+	 * change to a large town or nation does not recalculate everyone's
+	 * permissions at once. Queuing a resident twice updates them once, and
+	 * a resident whose permissions are assigned in the meantime is dropped.
+	 * 
+	 * @param name - Name of the resident.
+	 */
+	private static void queueUpdate(String name) {
+
+		synchronized (pendingUpdates) {
+			pendingUpdates.add(name);
+			if (updateScheduled)
+				return;
+			updateScheduled = true;
+		}
+		if (BukkitTools.scheduleSyncDelayedTask(TownyPerms::applyPendingUpdates, 1) == -1)
+			applyPendingUpdates();
+	}
+
+	private static void applyPendingUpdates() {
+
+		List<String> batch = new ArrayList<>(UPDATE_BATCH_SIZE);
+		boolean more;
+		synchronized (pendingUpdates) {
+			Iterator<String> it = pendingUpdates.iterator();
+			while (it.hasNext() && batch.size() < UPDATE_BATCH_SIZE) {
+				batch.add(it.next());
+				it.remove();
+			}
+			more = !pendingUpdates.isEmpty();
+			updateScheduled = more;
+		}
+
+		TownyUniverse townyUniverse = TownyUniverse.getInstance();
+		for (String name : batch) {
+			try {
+				assignPermissions(townyUniverse.getDataSource().getResident(name), null);
+			} catch (NotRegisteredException ignored) {
+				// Deleted since it was queued.
+			}
+		}
+
+		if (more && BukkitTools.scheduleSyncDelayedTask(TownyPerms::applyPendingUpdates, 1) == -1)
+			applyPendingUpdates();
+	}
 	
 	/**
 	 * Update the permissions for all residents of a nation (if online)
@@ -219,9 +330,11 @@ public class TownyPerms {
 	 */
 	public static void updateNationPerms(Nation nation) {
 		
+		List<Resident> online = new ArrayList<>();
 		for (Town town: nation.getTowns()) {
-			updateTownPerms(town);
+			getOnlineResidents(town, online);
 		}
+		updateResidentPerms(online);
 		
 	}
 
@@ -246,6 +359,73 @@ public class TownyPerms {
 	 * @return a sorted Map of permission nodes
 	 */
 	public static LinkedHashMap<String, Boolean> getResidentPerms(Resident resident) {
+
+		return new LinkedHashMap<>(getResolvedPerms(resident));
+	}
+
+	/**
+	 * The resident's permissions, resolved once for everyone with the same
+	 * town, nation, ranks and titles.
+	 * 
+	 * @param resident - Resident to check
+	 * @return a sorted, unmodifiable Map of permission nodes
+	 */
+	private static Map<String, Boolean> getResolvedPerms(Resident resident) {
+
+		String signature = getPermsSignature(resident);
+		Map<String, Boolean> resolved = resolvedPerms.get(signature);
+		if (resolved != null)
+			return resolved;
+
+		resolved = Collections.unmodifiableMap(resolveResidentPerms(resident));
+		if (resolvedPerms.size() >= MAX_RESOLVED_PERMS)
+			resolvedPerms.clear(); // Renamed towns and nations leave old signatures behind.
+		resolvedPerms.put(signature, resolved);
+		return resolved;
+	}
+
+	/**
+	 * @param resident - Resident to check
+	 * @return everything getResidentPerms depends on, as a String.
+	 */
+	private static String getPermsSignature(Resident resident) {
+
+		StringBuilder signature = new StringBuilder();
+		if (!resident.hasTown())
+			return "";
+
+		try {
+			Town town = resident.getTown();
+			signature.append(town.getName());
+			if (resident.isMayor())
+				signature.append("|mayor");
+			appendRanks(signature, "|t:", resident.getTownRanks());
+
+			if (resident.hasNation()) {
+				signature.append("|n:").append(town.getNation().getName());
+				if (resident.isKing())
+					signature.append("|king");
+				appendRanks(signature, "|nr:", resident.getNationRanks());
+			}
+		} catch (NotRegisteredException e) {
+			// Not Possible! Resolved on its own rather than shared.
+			signature.append("|").append(resident.getName());
+		}
+		return signature.toString();
+	}
+
+	private static void appendRanks(StringBuilder signature, String prefix, List<String> ranks) {
+
+		List<String> sorted = ranks;
+		if (ranks.size() > 1) {
+			sorted = new ArrayList<>(ranks);
+			Collections.sort(sorted);
+		}
+		for (String rank : sorted)
+			signature.append(prefix).append(rank);
+	}
+
+	private static LinkedHashMap<String, Boolean> resolveResidentPerms(Resident resident) {
 		// Start by adding the default perms everyone gets
 		Set<String> permList = new HashSet<>(getDefault());
 		
@@ -474,6 +654,7 @@ public class TownyPerms {
 		for (Permission perm : BukkitTools.getPluginManager().getPermissions()) {
 			registeredPermissions.put(perm.getName().toLowerCase(), perm);
 		}
+		resolvedPerms.clear();
 
 	}
 	
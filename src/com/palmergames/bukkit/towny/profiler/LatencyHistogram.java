@@ -0,0 +1,113 @@
+package com.palmergames.bukkit.towny.profiler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how long something took, in nanoseconds, in buckets which grow
+ * with the size of the value so percentiles can be read back to within
+ * about three percent at any scale, the way an HDR histogram does.
+ * <p>
+ * Values below {@link #SUB_BUCKETS} get a bucket each. Past that each power
+ * of two is split into {@link #SUB_BUCKETS} equal buckets. Recording is a
+ * few atomic adds and never allocates, so it is safe from any thread.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder total = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * @param nanos - How long something took.
+	 */
+	public void record(long nanos) {
+
+		if (nanos < 0)
+			nanos = 0;
+		buckets.incrementAndGet(getBucket(nanos));
+		count.increment();
+		total.add(nanos);
+		max.accumulateAndGet(nanos, Math::max);
+	}
+
+	private static int getBucket(long value) {
+
+		if (value < SUB_BUCKETS)
+			return (int) value;
+
+		int magnitude = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * @param bucket - Bucket index.
+	 * @return the highest value which is counted in the bucket.
+	 */
+	private static long getHighestValue(int bucket) {
+
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	public long getCount() {
+
+		return count.sum();
+	}
+
+	public long getTotal() {
+
+		return total.sum();
+	}
+
+	public long getMax() {
+
+		return max.get();
+	}
+
+	public long getMean() {
+
+		long count = getCount();
+		return count == 0 ? 0 : getTotal() / count;
+	}
+
+	/**
+	 * @param percentile - Between 0 and 100.
+	 * @return the value which that percentage of recorded values are at or below.
+	 */
+	public long getPercentile(double percentile) {
+
+		long count = getCount();
+		if (count == 0)
+			return 0;
+
+		long wanted = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += buckets.get(i);
+			if (seen >= wanted)
+				return Math.min(getHighestValue(i), getMax());
+		}
+		return getMax();
+	}
+
+	public void reset() {
+
+		for (int i = 0; i < BUCKETS; i++)
+			buckets.set(i, 0);
+		count.reset();
+		total.reset();
+		max.set(0);
+	}
+}
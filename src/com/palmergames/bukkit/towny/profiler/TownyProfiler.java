@@ -0,0 +1,366 @@
+package com.palmergames.bukkit.towny.profiler;
+
+import com.palmergames.bukkit.towny.TownyTimerHandler;
+import com.palmergames.bukkit.towny.TownyUniverse;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times Towny's event handlers, timer tasks and database work, and counts
+ * cache hits and misses, so an admin can see what is costing
+ * tick time without attaching a profiler.
+ * <p>
+ * Off unless plugin.profiler.enabled is set. While off, {@link #start()}
+ * and {@link #record(Category, String, long)} do nothing but read a flag.
+ * Results are shown by /ta perf and written to the logs folder by
+ * {@link #dump()}.
+ */
+public class TownyProfiler {
+
+	public enum Category {
+		EVENT, TASK, DATABASE
+	}
+
+	/**
+	 * The hits and misses of one cache.
+	 */
+	public static class HitCounter {
+		private final LongAdder hits = new LongAdder();
+		private final LongAdder misses = new LongAdder();
+
+		/**
+		 * Counts a hit whether or not the profiler is on, for caches
+		 * cheap enough to count all the time.
+		 */
+		public void hit() {
+			hits.increment();
+		}
+
+		public void miss() {
+			misses.increment();
+		}
+
+		public long getHits() {
+			return hits.sum();
+		}
+
+		public long getMisses() {
+			return misses.sum();
+		}
+
+		void reset() {
+			hits.reset();
+			misses.reset();
+		}
+	}
+
+	/**
+	 * One histogram, with what it times, for reports.
+	 */
+	public static class Entry {
+		private final Category category;
+		private final String name;
+		private final LatencyHistogram histogram;
+
+		Entry(Category category, String name, LatencyHistogram histogram) {
+			this.category = category;
+			this.name = name;
+			this.histogram = histogram;
+		}
+
+		public Category getCategory() {
+			return category;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public LatencyHistogram getHistogram() {
+			return histogram;
+		}
+	}
+
+	// Returned by start() while off, so record() knows not to.
+	private static final long NOT_TIMED = Long.MIN_VALUE;
+
+	private static volatile boolean enabled = false;
+	private static volatile long since = System.currentTimeMillis();
+	private static final Map<Category, Map<String, LatencyHistogram>> histograms = new EnumMap<>(Category.class);
+	private static final Map<String, HitCounter> counters = new ConcurrentHashMap<>();
+
+	static {
+		for (Category category : Category.values())
+			histograms.put(category, new ConcurrentHashMap<>());
+	}
+
+	public static boolean isEnabled() {
+
+		return enabled;
+	}
+
+	public static void setEnabled(boolean enabled) {
+
+		if (enabled && !TownyProfiler.enabled)
+			reset();
+		TownyProfiler.enabled = enabled;
+	}
+
+	/**
+	 * @return the time to pass to {@link #record(Category, String, long)}.
+	 */
+	public static long start() {
+
+		return enabled ? System.nanoTime() : NOT_TIMED;
+	}
+
+	/**
+	 * Records the time since {@link #start()} was called.
+	 *
+	 * @param category - What sort of thing was timed.
+	 * @param name - What was timed.
+	 * @param start - The value returned by {@link #start()}.
+	 */
+	public static void record(Category category, String name, long start) {
+
+		if (start == NOT_TIMED || !enabled)
+			return;
+		long nanos = System.nanoTime() - start;
+		getHistogram(category, name).record(nanos);
+	}
+
+	private static LatencyHistogram getHistogram(Category category, String name) {
+
+		Map<String, LatencyHistogram> map = histograms.get(category);
+		LatencyHistogram histogram = map.get(name);
+		return histogram != null ? histogram : map.computeIfAbsent(name, k -> new LatencyHistogram());
+	}
+
+	/**
+	 * @param cache - Name of the cache.
+	 */
+	public static void countHit(String cache) {
+
+		if (enabled)
+			getCounter(cache).hits.increment();
+	}
+
+	/**
+	 * @param cache - Name of the cache.
+	 */
+	public static void countMiss(String cache) {
+
+		if (enabled)
+			getCounter(cache).misses.increment();
+	}
+
+	/**
+	 * @param cache - Name of the cache.
+	 * @return the counter shown for the cache, created when first asked for.
+	 */
+	public static HitCounter getCounter(String cache) {
+
+		HitCounter counter = counters.get(cache);
+		return counter != null ? counter : counters.computeIfAbsent(cache, k -> new HitCounter());
+	}
+
+	/**
+	 * Wraps a timer task so each run is timed, under the name of its class.
+	 * While the profiler is off the task is returned as it is.
+	 *
+	 * @param task - Task to time.
+	 * @return a Runnable running the task.
+	 */
+	public static Runnable wrap(Runnable task) {
+
+		if (!enabled)
+			return task;
+
+		String name = getTaskName(task);
+		return () -> {
+			long start = start();
+			try {
+				task.run();
+			} finally {
+				record(Category.TASK, name, start);
+			}
+		};
+	}
+
+	private static String getTaskName(Runnable task) {
+
+		String name = task.getClass().getSimpleName();
+		int lambda = name.indexOf("$$Lambda");
+		return lambda < 0 ? name : name.substring(0, lambda) + " (lambda)";
+	}
+
+	/**
+	 * Registers a listener's event handlers, timing each of them when the
+	 * profiler is on. When it is off this is the same as
+	 * {@link PluginManager#registerEvents(Listener, Plugin)}, so handlers
+	 * cost nothing extra, and a restart is needed to start timing them.
+	 *
+	 * @param pluginManager - The server's plugin manager.
+	 * @param listener - Listener to register.
+	 * @param plugin - Plugin the listener belongs to.
+	 */
+	public static void registerEvents(PluginManager pluginManager, Listener listener, Plugin plugin) {
+
+		if (!enabled) {
+			pluginManager.registerEvents(listener, plugin);
+			return;
+		}
+
+		Set<Method> methods = new LinkedHashSet<>(Arrays.asList(listener.getClass().getMethods()));
+		methods.addAll(Arrays.asList(listener.getClass().getDeclaredMethods()));
+		for (Method method : methods) {
+			EventHandler handler = method.getAnnotation(EventHandler.class);
+			if (handler == null || method.isBridge() || method.isSynthetic())
+				continue;
+			if (method.getParameterTypes().length != 1 || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+				plugin.getLogger().warning("Profiler could not register " + method.toGenericString() + ", it is not an event handler.");
+				continue;
+			}
+
+			Class<? extends Event> eventClass = method.getParameterTypes()[0].asSubclass(Event.class);
+			String name = listener.getClass().getSimpleName() + "." + method.getName() + "(" + eventClass.getSimpleName() + ")";
+			method.setAccessible(true);
+			pluginManager.registerEvent(eventClass, listener, handler.priority(), (l, event) -> {
+				// Handlers are registered against the event's handler list, which subclasses share.
+				if (!eventClass.isInstance(event))
+					return;
+				long start = start();
+				try {
+					method.invoke(l, event);
+				} catch (InvocationTargetException e) {
+					throw new EventException(e.getCause());
+				} catch (IllegalAccessException e) {
+					throw new EventException(e);
+				} finally {
+					record(Category.EVENT, name, start);
+				}
+			}, plugin, handler.ignoreCancelled());
+		}
+	}
+
+	/**
+	 * @return every histogram, the ones which took the most time in total first.
+	 */
+	public static List<Entry> getEntries() {
+
+		List<Entry> entries = new ArrayList<>();
+		for (Map.Entry<Category, Map<String, LatencyHistogram>> category : histograms.entrySet())
+			for (Map.Entry<String, LatencyHistogram> histogram : category.getValue().entrySet())
+				entries.add(new Entry(category.getKey(), histogram.getKey(), histogram.getValue()));
+		entries.sort(Comparator.comparingLong((Entry entry) -> entry.getHistogram().getTotal()).reversed());
+		return entries;
+	}
+
+	public static Map<String, HitCounter> getCounters() {
+
+		return counters;
+	}
+
+	/**
+	 * @return when the figures were last reset, in milliseconds.
+	 */
+	public static long getSince() {
+
+		return since;
+	}
+
+	public static void reset() {
+
+		for (Map<String, LatencyHistogram> map : histograms.values())
+			for (LatencyHistogram histogram : map.values())
+				histogram.reset();
+		for (HitCounter counter : counters.values())
+			counter.reset();
+		since = System.currentTimeMillis();
+	}
+
+	/**
+	 * Writes the figures, and the number of pending timers of each kind, to
+	 * profiler-[date].csv and profiler-[date].json in the logs folder.
+	 *
+	 * @return the csv file written.
+	 * @throws IOException if either file could not be written.
+	 */
+	public static File dump() throws IOException {
+
+		String logFolder = TownyUniverse.getInstance().getRootFolder() + File.separator + "logs";
+		String stamp = new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss").format(new Date());
+		File csv = new File(logFolder, "profiler-" + stamp + ".csv");
+		File json = new File(logFolder, "profiler-" + stamp + ".json");
+		List<Entry> entries = getEntries();
+		List<Map.Entry<String, Integer>> timers = new ArrayList<>(TownyTimerHandler.getTimerWheel().getPendingCounts().entrySet());
+
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv.toPath(), StandardCharsets.UTF_8))) {
+			out.println("category,name,count,total_ns,mean_ns,p50_ns,p90_ns,p99_ns,max_ns");
+			for (Entry entry : entries) {
+				LatencyHistogram h = entry.getHistogram();
+				out.println(entry.getCategory().name().toLowerCase() + ",\"" + entry.getName() + "\"," + h.getCount() + "," + h.getTotal() + "," + h.getMean() + ","
+					+ h.getPercentile(50) + "," + h.getPercentile(90) + "," + h.getPercentile(99) + "," + h.getMax());
+			}
+			for (Map.Entry<String, HitCounter> counter : counters.entrySet())
+				out.println("cache,\"" + counter.getKey() + "\",hits=" + counter.getValue().getHits() + ",misses=" + counter.getValue().getMisses() + ",,,,,");
+			for (Map.Entry<String, Integer> timer : timers)
+				out.println("timer,\"" + timer.getKey() + "\",pending=" + timer.getValue() + ",,,,,,");
+		}
+
+		try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(json.toPath(), StandardCharsets.UTF_8))) {
+			out.println("{");
+			out.println("  \"since\": " + since + ",");
+			out.println("  \"until\": " + System.currentTimeMillis() + ",");
+			out.println("  \"timings\": [");
+			for (int i = 0; i < entries.size(); i++) {
+				Entry entry = entries.get(i);
+				LatencyHistogram h = entry.getHistogram();
+				out.println("    {\"category\": \"" + entry.getCategory().name().toLowerCase() + "\", \"name\": \"" + entry.getName() + "\", \"count\": " + h.getCount()
+					+ ", \"total_ns\": " + h.getTotal() + ", \"mean_ns\": " + h.getMean() + ", \"p50_ns\": " + h.getPercentile(50) + ", \"p90_ns\": " + h.getPercentile(90)
+					+ ", \"p99_ns\": " + h.getPercentile(99) + ", \"max_ns\": " + h.getMax() + "}" + (i < entries.size() - 1 ? "," : ""));
+			}
+			out.println("  ],");
+			out.println("  \"caches\": [");
+			List<Map.Entry<String, HitCounter>> caches = new ArrayList<>(counters.entrySet());
+			for (int i = 0; i < caches.size(); i++) {
+				Map.Entry<String, HitCounter> counter = caches.get(i);
+				out.println("    {\"name\": \"" + counter.getKey() + "\", \"hits\": " + counter.getValue().getHits() + ", \"misses\": " + counter.getValue().getMisses() + "}"
+					+ (i < caches.size() - 1 ? "," : ""));
+			}
+			out.println("  ],");
+			out.println("  \"timers\": [");
+			for (int i = 0; i < timers.size(); i++) {
+				Map.Entry<String, Integer> timer = timers.get(i);
+				out.println("    {\"kind\": \"" + timer.getKey() + "\", \"pending\": " + timer.getValue() + "}" + (i < timers.size() - 1 ? "," : ""));
+			}
+			out.println("  ]");
+			out.println("}");
+		}
+		return csv;
+	}
+}
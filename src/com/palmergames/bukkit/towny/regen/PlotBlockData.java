@@ -168,7 +168,7 @@ public class PlotBlockData {
 						TownyMessaging.sendErrorMsg("PlotBlockData:restoreNextBlock() - Material Null, skipping block.");
 					} else if (blockMat != mat) {
 						TownyMessaging.sendDebugMsg("PlotBlockData:restoreNextBlock() - blockMat " + blockMat.toString() + " doesn't match mat " + mat.toString());
-						if (!this.townBlock.getWorld().isPlotManagementIgnoreIds(mat.name(), storedData.getData())) {
+						if (!this.townBlock.getWorld().isPlotManagementIgnoreIds(mat)) {
 			
 							try {
 			
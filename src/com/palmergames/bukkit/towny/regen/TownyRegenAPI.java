@@ -6,6 +6,7 @@ import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.regen.block.BlockLocation;
 import com.palmergames.bukkit.towny.tasks.ProtectionRegenTask;
@@ -14,10 +15,12 @@ import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * @author ElgarL
@@ -136,6 +139,25 @@ public class TownyRegenAPI {
 		}
 	}
 
+	/**
+	 * Adds many Plot Chunks to the regeneration Hashtable,
+	 * saving the Regen List once.
+	 * 
+	 * @param plotChunks - Chunks to add (PlotBlockData)
+	 * @param save - If Regen List should be saved
+	 */
+	public static void addPlotChunks(Collection<PlotBlockData> plotChunks, boolean save) {
+
+		boolean added = false;
+		for (PlotBlockData plotChunk : plotChunks)
+			if (!PlotChunks.containsKey(getPlotKey(plotChunk))) {
+				PlotChunks.put(getPlotKey(plotChunk), plotChunk);
+				added = true;
+			}
+		if (save && added)
+			TownyUniverse.getInstance().getDataSource().saveRegenList();
+	}
+
 	/**
 	 * Saves a Plot Chunk snapshot to the datasource
 	 * 
@@ -351,6 +373,14 @@ public class TownyRegenAPI {
 			deleteTownBlockIdQueue.add(plot);
 	}
 
+	public static void addDeleteTownBlockIdQueue(Collection<WorldCoord> plots) {
+
+		Set<WorldCoord> queued = new HashSet<>(deleteTownBlockIdQueue);
+		for (WorldCoord plot : plots)
+			if (queued.add(plot))
+				deleteTownBlockIdQueue.add(plot);
+	}
+
 	public static WorldCoord getDeleteTownBlockIdQueue() {
 
 		if (!deleteTownBlockIdQueue.isEmpty()) {
@@ -391,7 +421,7 @@ public class TownyRegenAPI {
 					for (int y = height; y > 0; y--) { //Check from bottom up else minecraft won't remove doors
 						Block block = world.getBlockAt(worldx + x, y, worldz + z);
 						try {
-							if (worldCoord.getTownyWorld().isPlotManagementDeleteIds(block.getType().name())) {
+							if (worldCoord.getTownyWorld().isPlotManagementDeleteIds(block.getType())) {
 								block.setType(Material.AIR);
 							}
 						} catch (NotRegisteredException e) {
@@ -411,11 +441,28 @@ public class TownyRegenAPI {
 	 */
 	public static void deleteTownBlockMaterial(TownBlock townBlock, Material material) {
 
+		TownyMessaging.sendDebugMsg("Processing deleteTownBlockMaterial");
+		deleteTownBlockMaterials(townBlock, mat -> mat == material);
+	}
+
+	/**
+	 * Deletes every block type in the world's plot management mayor delete
+	 * list from a TownBlock, in one pass over the plot.
+	 * 
+	 * @param townBlock - TownBlock to delete from
+	 */
+	public static void deleteTownBlockMayorDeleteMaterials(TownBlock townBlock) {
+
+		TownyMessaging.sendDebugMsg("Processing deleteTownBlockMayorDeleteMaterials");
+		TownyWorld townyWorld = townBlock.getWorld();
+		deleteTownBlockMaterials(townBlock, townyWorld::isPlotManagementMayorDelete);
+	}
+
+	private static void deleteTownBlockMaterials(TownBlock townBlock, Predicate<Material> delete) {
+
 		//Block block = null;
 		int plotSize = TownySettings.getTownBlockSize();
 
-		TownyMessaging.sendDebugMsg("Processing deleteTownBlockMaterial");
-
 		World world = BukkitTools.getServer().getWorld(townBlock.getWorld().getName());
 
 		if (world != null) {
@@ -432,7 +479,7 @@ public class TownyRegenAPI {
 				for (int x = 0; x < plotSize; x++)
 					for (int y = height; y > 0; y--) { //Check from bottom up else minecraft won't remove doors
 						Block block = world.getBlockAt(worldx + x, y, worldz + z);
-						if (block.getType() == material) {
+						if (delete.test(block.getType())) {
 							block.setType(Material.AIR);
 						}
 						block = null;
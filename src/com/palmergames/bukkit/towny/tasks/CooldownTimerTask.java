@@ -1,20 +1,26 @@
 package com.palmergames.bukkit.towny.tasks;
 
-import java.util.AbstractMap;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownySettings;
-
-public class CooldownTimerTask extends TownyTimerTask {
+import com.palmergames.bukkit.towny.TownyTimerHandler;
+import com.palmergames.bukkit.towny.tasks.TimerWheel.Timer;
+
+/**
+ * Cooldowns, kept per type and run by the {@link TimerWheel}.
+ * An expired cooldown removes itself, nothing scans for them.
+ */
+public class CooldownTimerTask {
 	
-	private static ConcurrentHashMap<AbstractMap.SimpleEntry<String, CooldownType>, Long> cooldowns;	
-
+	private static final Map<CooldownType, Map<String, Timer>> cooldowns = new EnumMap<>(CooldownType.class);
 
 	public enum CooldownType{
 		PVP(TownySettings.getPVPCoolDownTime()),
 		TELEPORT(TownySettings.getSpawnCooldownTime());
 		
 		private final int seconds;
+		private final String timerKind;
 		
 		private int getSeconds() {
 			return seconds;
@@ -22,46 +28,35 @@ public class CooldownTimerTask extends TownyTimerTask {
 
 		CooldownType(int seconds) {
 			this.seconds = seconds;
+			this.timerKind = "cooldown " + name().toLowerCase();
 		}
 		
 	}
 
-	public CooldownTimerTask(Towny plugin) {
-
-		super(plugin);
-		cooldowns = new ConcurrentHashMap<>();
-	}
-
-	@Override
-	public void run() {
-		long currentTime = System.currentTimeMillis();
-
-		while (!cooldowns.isEmpty()) {
-			for (AbstractMap.SimpleEntry<String, CooldownType> map : cooldowns.keySet()) {
-				long time = cooldowns.get(map);
-				if (time < currentTime)					
-					cooldowns.remove(map);
-			}
-			break;
-		}
+	static {
+		for (CooldownType type : CooldownType.values())
+			cooldowns.put(type, new ConcurrentHashMap<>());
 	}
 	
 	public static void addCooldownTimer(String object, CooldownType type) {
-		AbstractMap.SimpleEntry<String, CooldownType> map = new AbstractMap.SimpleEntry<String, CooldownTimerTask.CooldownType>(object, type);		
-		cooldowns.put(map, (System.currentTimeMillis() + (type.getSeconds() * 1000)));
+		Map<String, Timer> timers = cooldowns.get(type);
+		Timer timer = TownyTimerHandler.getTimerWheel().schedule(type.timerKind, object, type.getSeconds() * 1000L,
+			expired -> timers.remove(object, expired));
+
+		Timer previous = timers.put(object, timer);
+		if (previous != null)
+			previous.cancel();
 	}
 	
 	public static boolean hasCooldown(String object, CooldownType type) {
-		AbstractMap.SimpleEntry<String, CooldownType> map = new AbstractMap.SimpleEntry<String, CooldownTimerTask.CooldownType>(object, type);
-		if (cooldowns.containsKey(map))			
-			return true;
-		return false;
+		Timer timer = cooldowns.get(type).get(object);
+		return timer != null && timer.isPending();
 	}
 	
 	public static int getCooldownRemaining(String object, CooldownType type) {
-		AbstractMap.SimpleEntry<String, CooldownType> map = new AbstractMap.SimpleEntry<String, CooldownTimerTask.CooldownType>(object, type);
-		if (cooldowns.containsKey(map))
-			return (int) ((cooldowns.get(map) - System.currentTimeMillis())/1000);
+		Timer timer = cooldowns.get(type).get(object);
+		if (timer != null && timer.isPending())
+			return (int) (timer.getRemainingMillis() / 1000);
 		return 0;		
 	}
 }
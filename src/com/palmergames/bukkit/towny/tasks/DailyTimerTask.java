@@ -13,15 +13,13 @@ import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
-import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.Translation;
-import com.palmergames.bukkit.towny.permissions.TownyPerms;
-import com.palmergames.bukkit.util.ChatTools;
+import com.palmergames.bukkit.util.BukkitTools;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.function.Consumer;
 import org.bukkit.Bukkit;
 import org.bukkit.scheduler.BukkitRunnable;
 
@@ -53,27 +51,89 @@ public class DailyTimerTask extends TownyTimerTask {
 		// Collect taxes
 		if (TownyEconomyHandler.isActive() && TownySettings.isTaxingDaily()) {
 			TownyMessaging.sendGlobalMessage(Translation.of("msg_new_day_tax"));
-			try {
-				TownyMessaging.sendDebugMsg("Collecting Town Taxes");
-				collectTownTaxes();
-				TownyMessaging.sendDebugMsg("Collecting Nation Taxes");
-				collectNationTaxes();
-				TownyMessaging.sendDebugMsg("Collecting Town Costs");
-				collectTownCosts();
-				TownyMessaging.sendDebugMsg("Collecting Nation Costs");
-				collectNationCosts();
-				
-				Bukkit.getServer().getPluginManager().callEvent(new NewDayEvent(removedTowns, removedNations, totalTownUpkeep, totalNationUpkeep, start));
-				
-			} catch (EconomyException ex) {
-				TownyMessaging.sendErrorMsg("Economy Exception");
-				ex.printStackTrace();
-			} catch (TownyException e) {
-				// TODO king exception
-				e.printStackTrace();
-			}
-		} else
+			TownyMessaging.sendDebugMsg("Building New Day Ledger");
+
+			// Upkeep is priced from town and nation sizes, so it is only
+			// snapshotted once residents and towns which could not pay their
+			// taxes have been removed.
+			payLedger(NewDayLedger.snapshotTaxes(), taxTask -> {
+				if (taxTask == null) {
+					finishNewDay(start);
+					return;
+				}
+				NewDayLedger upkeep = NewDayLedger.snapshotUpkeep();
+				payLedger(upkeep, upkeepTask -> {
+					if (upkeepTask != null)
+						taxesCollected(upkeep, taxTask, upkeepTask, start);
+					finishNewDay(start);
+				});
+			});
+		} else {
 			TownyMessaging.sendGlobalMessage(Translation.of("msg_new_day"));
+			finishNewDay(start);
+		}
+	}
+
+	/**
+	 * Computes and pays out a ledger. With an async economy this is already
+	 * off the main thread, so everything is paid in one go; otherwise balances
+	 * are read off the main thread, then a slice of the ledger is paid every tick.
+	 * 
+	 * @param ledger - Ledger to pay.
+	 * @param then - Given the finished task, or null if the ledger could not be computed.
+	 */
+	private void payLedger(NewDayLedger ledger, Consumer<NewDayLedgerTask> then) {
+
+		if (TownySettings.isEconomyAsync()) {
+			NewDayLedgerTask task = null;
+			if (computeLedger(ledger)) {
+				task = new NewDayLedgerTask(ledger, 0, null);
+				task.applyAll();
+			}
+			then.accept(task);
+			return;
+		}
+
+		BukkitTools.scheduleAsyncDelayedTask(() -> {
+			boolean computed = computeLedger(ledger);
+			BukkitTools.scheduleSyncDelayedTask(() -> {
+				if (computed)
+					new NewDayLedgerTask(ledger, TownySettings.getNewDayTickBudget(), then).runTaskTimer(plugin, 0, 1);
+				else
+					then.accept(null);
+			}, 0);
+		}, 0);
+	}
+
+	private static boolean computeLedger(NewDayLedger ledger) {
+		try {
+			TownyMessaging.sendDebugMsg("Computing New Day Ledger");
+			ledger.compute();
+			return true;
+		} catch (EconomyException ex) {
+			TownyMessaging.sendErrorMsg("Economy Exception");
+			ex.printStackTrace();
+			return false;
+		}
+	}
+
+	private void taxesCollected(NewDayLedger upkeep, NewDayLedgerTask taxTask, NewDayLedgerTask upkeepTask, long start) {
+		totalTownUpkeep = upkeep.getTotalTownUpkeep();
+		totalNationUpkeep = upkeep.getTotalNationUpkeep();
+		removedTowns.addAll(taxTask.getRemovedTowns());
+		removedTowns.addAll(upkeepTask.getRemovedTowns());
+		removedNations.addAll(taxTask.getRemovedNations());
+		removedNations.addAll(upkeepTask.getRemovedNations());
+
+		Bukkit.getServer().getPluginManager().callEvent(new NewDayEvent(removedTowns, removedNations, totalTownUpkeep, totalNationUpkeep, start));
+	}
+
+	/**
+	 * Everything done at a new day once the taxes are collected.
+	 * 
+	 * @param start - When the new day began.
+	 */
+	private void finishNewDay(long start) {
 
 		// Automatically delete old residents
 		if (TownySettings.isDeletingOldResidents()) {
@@ -165,21 +225,10 @@ public class DailyTimerTask extends TownyTimerTask {
 	 * @throws EconomyException - EconomyException
 	 */
 	public void collectNationTaxes() throws EconomyException {
-		TownyUniverse townyUniverse = TownyUniverse.getInstance();
-
-		List<Nation> nations = new ArrayList<>(townyUniverse.getDataSource().getNations());
-		ListIterator<Nation> nationItr = nations.listIterator();
-		Nation nation;
-
-		while (nationItr.hasNext()) {
-			nation = nationItr.next();
-			/*
-			 * Only collect tax for this nation if it really still exists.
-			 * We are running in an Async thread so MUST verify all objects.
-			 */
-			if (townyUniverse.getDataSource().hasNation(nation.getName()))
-				collectNationTaxes(nation);
-		}
+		NewDayLedger ledger = new NewDayLedger();
+		for (Nation nation : new ArrayList<>(TownyUniverse.getInstance().getDataSource().getNations()))
+			ledger.addNationTaxes(nation);
+		collect(ledger);
 	}
 
 	/**
@@ -189,42 +238,9 @@ public class DailyTimerTask extends TownyTimerTask {
 	 * @throws EconomyException - EconomyException
 	 */
 	protected void collectNationTaxes(Nation nation) throws EconomyException {
-		
-		if (nation.getTaxes() > 0) {
-
-			List<String> localRemovedTowns = new ArrayList<>();
-			List<Town> towns = new ArrayList<>(nation.getTowns());
-			ListIterator<Town> townItr = towns.listIterator();
-			Town town;
-			TownyUniverse townyUniverse = TownyUniverse.getInstance();
-
-			while (townItr.hasNext()) {
-				town = townItr.next();
-
-				/*
-				 * Only collect nation tax from this town if it really still
-				 * exists.
-				 * We are running in an Async thread so MUST verify all objects.
-				 */
-				if (townyUniverse.getDataSource().hasTown(town.getName())) {
-					if (town.isCapital() || !town.hasUpkeep())
-						continue;
-					if (!town.getAccount().payTo(nation.getTaxes(), nation, "Nation Tax")) {
-						localRemovedTowns.add(town.getName());		
-						town.removeNation();
-					} else {
-						TownyMessaging.sendPrefixedTownMessage(town, TownySettings.getPayedTownTaxMsg() + nation.getTaxes());
-					}
-				}
-			}
-			if (localRemovedTowns != null) {
-				if (localRemovedTowns.size() == 1) 
-					TownyMessaging.sendNationMessagePrefixed(nation, Translation.of("msg_couldnt_pay_tax", ChatTools.list(localRemovedTowns), "nation"));
-				else
-					TownyMessaging.sendNationMessagePrefixed(nation, ChatTools.list(localRemovedTowns, Translation.of("msg_couldnt_pay_nation_tax_multiple")));
-			}
-		}
-
+		NewDayLedger ledger = new NewDayLedger();
+		ledger.addNationTaxes(nation);
+		collect(ledger);
 	}
 
 	/**
@@ -233,22 +249,10 @@ public class DailyTimerTask extends TownyTimerTask {
 	 * @throws EconomyException - EconomyException
 	 */
 	public void collectTownTaxes() throws EconomyException {
-		TownyUniverse townyUniverse = TownyUniverse.getInstance();
-
-		List<Town> towns = new ArrayList<>(townyUniverse.getDataSource().getTowns());
-		ListIterator<Town> townItr = towns.listIterator();
-		Town town;
-
-		while (townItr.hasNext()) {
-			town = townItr.next();
-			/*
-			 * Only collect resident tax for this town if it really still
-			 * exists.
-			 * We are running in an Async thread so MUST verify all objects.
-			 */
-			if (townyUniverse.getDataSource().hasTown(town.getName()))
-				collectTownTaxes(town);
-		}
+		NewDayLedger ledger = new NewDayLedger();
+		for (Town town : new ArrayList<>(TownyUniverse.getInstance().getDataSource().getTowns()))
+			ledger.addTownTaxes(town);
+		collect(ledger);
 	}
 
 	/**
@@ -258,108 +262,9 @@ public class DailyTimerTask extends TownyTimerTask {
 	 * @throws EconomyException - EconomyException
 	 */
 	protected void collectTownTaxes(Town town) throws EconomyException {
-		TownyUniverse townyUniverse = TownyUniverse.getInstance();
-		// Resident Tax
-		if (town.getTaxes() > 0) {
-
-			List<Resident> residents = new ArrayList<>(town.getResidents());
-			ListIterator<Resident> residentItr = residents.listIterator();
-			List<String> removedResidents = new ArrayList<>();
-			Resident resident;
-
-			while (residentItr.hasNext()) {
-				resident = residentItr.next();
-
-				/*
-				 * Only collect resident tax from this resident if it really
-				 * still exists. We are running in an Async thread so MUST
-				 * verify all objects.
-				 */
-				if (townyUniverse.getDataSource().hasResident(resident.getName())) {
-
-					if (TownyPerms.getResidentPerms(resident).containsKey("towny.tax_exempt") || resident.isNPC() || resident.isMayor()) {
-						try {
-							TownyMessaging.sendResidentMessage(resident, TownySettings.getTaxExemptMsg());
-						} catch (TownyException e) {
-							// Player is not online
-						}
-						continue;
-					} else if (town.isTaxPercentage()) {
-						double cost = resident.getAccount().getHoldingBalance() * town.getTaxes() / 100;
-						
-						// Make sure that the town percent tax doesn't remove above the
-						// allotted amount of cash.
-						cost = Math.min(cost, town.getMaxPercentTaxAmount());
-						
-						resident.getAccount().payTo(cost, town, "Town Tax (Percentage)");
-					} else if (!resident.getAccount().payTo(town.getTaxes(), town, "Town Tax")) {
-						removedResidents.add(resident.getName());
-						
-						// remove this resident from the town.
-						resident.removeTown();
-					}
-				}
-			}
-			if (removedResidents != null) {
-				if (removedResidents.size() == 1) 
-					TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_couldnt_pay_tax", ChatTools.list(removedResidents), "town"));
-				else
-					TownyMessaging.sendPrefixedTownMessage(town, ChatTools.list(removedResidents, Translation.of("msg_couldnt_pay_town_tax_multiple")));
-			}
-		}
-
-		// Plot Tax
-		if (town.getPlotTax() > 0 || town.getCommercialPlotTax() > 0 || town.getEmbassyPlotTax() > 0) {
-
-			List<TownBlock> townBlocks = new ArrayList<>(town.getTownBlocks());
-			List<String> lostPlots = new ArrayList<>();
-			ListIterator<TownBlock> townBlockItr = townBlocks.listIterator();
-			TownBlock townBlock;
-
-			while (townBlockItr.hasNext()) {
-				townBlock = townBlockItr.next();
-
-				if (!townBlock.hasResident())
-					continue;
-				try {
-					Resident resident = townBlock.getResident();
-
-					/*
-					 * Only collect plot tax from this resident if it really
-					 * still exists. We are running in an Async thread so MUST
-					 * verify all objects.
-					 */
-					if (townyUniverse.getDataSource().hasResident(resident.getName())) {
-						if (resident.hasTown())
-							if (resident.getTown() == townBlock.getTown())
-								if (TownyPerms.getResidentPerms(resident).containsKey("towny.tax_exempt") || resident.isNPC())
-									continue;
-							
-						if (!resident.getAccount().payTo(townBlock.getType().getTax(town), town, String.format("Plot Tax (%s)", townBlock.getType()))) {
-							if (!lostPlots.contains(resident.getName()))
-									lostPlots.add(resident.getName());
-
-							townBlock.setResident(null);
-							townBlock.setPlotPrice(-1);
-
-							// Set the plot permissions to mirror the towns.
-							townBlock.setType(townBlock.getType());
-							
-							townyUniverse.getDataSource().saveResident(resident);
-							townyUniverse.getDataSource().saveTownBlock(townBlock);
-						}
-					}
-				} catch (NotRegisteredException ignored) {
-				}
-				
-			}
-			if (lostPlots != null) {
-				if (lostPlots.size() == 1) 
-					TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_couldnt_pay_plot_taxes", ChatTools.list(lostPlots)));
-				else
-					TownyMessaging.sendPrefixedTownMessage(town, ChatTools.list(lostPlots, Translation.of("msg_couldnt_pay_plot_taxes_multiple")));
-			}
-		}
+		NewDayLedger ledger = new NewDayLedger();
+		ledger.addTownTaxes(town);
+		collect(ledger);
 	}
 
 	/**
@@ -369,62 +274,10 @@ public class DailyTimerTask extends TownyTimerTask {
 	 * @throws TownyException if there is a error with Towny
 	 */
 	public void collectTownCosts() throws EconomyException, TownyException {
-		TownyUniverse townyUniverse = TownyUniverse.getInstance();
-		List<Town> towns = new ArrayList<>(townyUniverse.getDataSource().getTowns());
-		ListIterator<Town> townItr = towns.listIterator();
-		Town town;
-
-		while (townItr.hasNext()) {
-			town = townItr.next();
-
-			/*
-			 * Only charge/pay upkeep for this town if it really still exists.
-			 * We are running in an Async thread so MUST verify all objects.
-			 */
-			if (townyUniverse.getDataSource().hasTown(town.getName())) {
-
-				if (town.hasUpkeep()) {
-					double upkeep = TownySettings.getTownUpkeepCost(town);
-					double upkeepPenalty = TownySettings.getTownPenaltyUpkeepCost(town);
-					if (upkeepPenalty > 0 && upkeep > 0)
-						upkeep = upkeep + upkeepPenalty;
-				
-					totalTownUpkeep = totalTownUpkeep + upkeep;
-					if (upkeep > 0) {
-						// Town is paying upkeep
-						if (!town.getAccount().withdraw(upkeep, "Town Upkeep")) {
-							townyUniverse.getDataSource().removeTown(town);
-							removedTowns.add(town.getName());
-						}
-					} else if (upkeep < 0) {						
-						// Negative upkeep
-						if (TownySettings.isUpkeepPayingPlots()) {
-							// Pay each plot owner a share of the negative
-							// upkeep
-							List<TownBlock> plots = new ArrayList<>(town.getTownBlocks());
-
-							for (TownBlock townBlock : plots) {
-								if (townBlock.hasResident())
-									townBlock.getResident().getAccount().withdraw((upkeep / plots.size()), "Negative Town Upkeep - Plot income");
-								else
-									town.getAccount().withdraw((upkeep / plots.size()), "Negative Town Upkeep - Plot income");
-							}
-
-						} else {
-							// Not paying plot owners so just pay the town
-							town.getAccount().withdraw(upkeep, "Negative Town Upkeep");
-						}
-
-					}
-				}
-			}			
-		}
-		if (removedTowns != null) {
-			if (removedTowns.size() == 1) 
-				TownyMessaging.sendGlobalMessage(Translation.of("msg_bankrupt_town2", removedTowns.get(0)));
-			else
-				TownyMessaging.sendGlobalMessage(ChatTools.list(removedTowns, Translation.of("msg_bankrupt_town_multiple")));
-		}	
+		NewDayLedger ledger = new NewDayLedger();
+		for (Town town : new ArrayList<>(TownyUniverse.getInstance().getDataSource().getTowns()))
+			ledger.addTownUpkeep(town);
+		collect(ledger);
 	}
 
 	/**
@@ -433,48 +286,26 @@ public class DailyTimerTask extends TownyTimerTask {
 	 * @throws EconomyException if there is an error with Economy handling
 	 */
 	public void collectNationCosts() throws EconomyException {
-		TownyUniverse townyUniverse = TownyUniverse.getInstance();
-		List<Nation> nations = new ArrayList<>(townyUniverse.getDataSource().getNations());
-		ListIterator<Nation> nationItr = nations.listIterator();
-		Nation nation;
-
-		while (nationItr.hasNext()) {
-			nation = nationItr.next();
-
-			/*
-			 * Only charge upkeep for this nation if it really still exists.
-			 * We are running in an Async thread so MUST verify all objects.
-			 */
-			if (townyUniverse.getDataSource().hasNation(nation.getName())) {
-
-				double upkeep = TownySettings.getNationUpkeepCost(nation);
-
-				totalNationUpkeep = totalNationUpkeep + upkeep;
-				if (upkeep > 0) {
-					// Town is paying upkeep
+		NewDayLedger ledger = new NewDayLedger();
+		for (Nation nation : new ArrayList<>(TownyUniverse.getInstance().getDataSource().getNations()))
+			ledger.addNationUpkeep(nation);
+		collect(ledger);
+	}
 
-					if (!nation.getAccount().withdraw(TownySettings.getNationUpkeepCost(nation), "Nation Upkeep")) {
-						townyUniverse.getDataSource().removeNation(nation);
-						removedNations.add(nation.getName());
-					}
-					if (nation.isNeutral()) {
-						if (!nation.getAccount().withdraw(TownySettings.getNationNeutralityCost(), "Nation Peace Upkeep")) {
-							nation.setNeutral(false);
-							townyUniverse.getDataSource().saveNation(nation);
-							TownyMessaging.sendPrefixedNationMessage(nation, Translation.of("msg_nation_not_peaceful"));
-						}
-					}
-					
-				} else if (upkeep < 0) {
-					nation.getAccount().withdraw(upkeep, "Negative Nation Upkeep");
-				}
-			}
-		}
-		if (removedNations != null && !removedNations.isEmpty()) {
-			if (removedNations.size() == 1)
-				TownyMessaging.sendGlobalMessage(Translation.of("msg_bankrupt_nation2", removedNations.get(0)));
-			else
-				TownyMessaging.sendGlobalMessage(ChatTools.list(removedNations, Translation.of("msg_bankrupt_nation_multiple")));
-		}
+	/**
+	 * Computes and applies a ledger on the current thread in one go.
+	 * 
+	 * @param ledger - Ledger holding the payments to make.
+	 * @throws EconomyException if the balances could not be read.
+	 */
+	private void collect(NewDayLedger ledger) throws EconomyException {
+		ledger.compute();
+		NewDayLedgerTask task = new NewDayLedgerTask(ledger, 0, null);
+		task.applyAll();
+
+		totalTownUpkeep = totalTownUpkeep + ledger.getTotalTownUpkeep();
+		totalNationUpkeep = totalNationUpkeep + ledger.getTotalNationUpkeep();
+		removedTowns.addAll(task.getRemovedTowns());
+		removedNations.addAll(task.getRemovedNations());
 	}
 }
@@ -5,7 +5,7 @@ import java.util.Collection;
 import org.bukkit.entity.Player;
 
 import com.palmergames.bukkit.towny.Towny;
-import com.palmergames.bukkit.towny.object.CellBorder;
+import com.palmergames.bukkit.towny.object.CellSurface;
 import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.utils.BorderUtil;
@@ -14,6 +14,11 @@ import com.palmergames.bukkit.util.DrawSmokeTaskFactory;
 
 public class DrawSmokeTask extends TownyTimerTask{
 
+	// Only the border a player can actually see is drawn, and no more of it than this.
+	private static final double MAX_DISTANCE = 48.0;
+	private static final double MIN_COSINE = 0.3;
+	private static final int PARTICLE_BUDGET = 128;
+
 	public DrawSmokeTask(Towny plugin) {
 
 		super(plugin);
@@ -22,13 +27,15 @@ public class DrawSmokeTask extends TownyTimerTask{
 	@Override
 	public void run() {
 		
+		BorderUtil.expirePlotSurfaces();
 		Collection<? extends Player> players = BukkitTools.getOnlinePlayers();
 		
 		for (Player player: players) {
 			if (plugin.hasPlayerMode(player, "constantplotborder")) {
 				WorldCoord wc = new WorldCoord(player.getWorld().getName(), Coord.parseCoord(player.getLocation()));
-				CellBorder cellBorder = BorderUtil.getPlotBorder(wc);
-				cellBorder.runBorderedOnSurface(1, 2, DrawSmokeTaskFactory.sendToPlayer(player));
+				CellSurface surface = BorderUtil.getPlotSurface(wc);
+				if (surface != null)
+					surface.draw(player, MAX_DISTANCE, MIN_COSINE, PARTICLE_BUDGET, DrawSmokeTaskFactory.sendToPlayer(player));
 			}
 		}
 	}	
@@ -10,12 +10,17 @@ import org.bukkit.event.entity.EntityRegainHealthEvent.RegainReason;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
+import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownBlockType;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.utils.CombatUtil;
 
+import java.util.Map;
+import java.util.Set;
+
 public class HealthRegenTimerTask extends TownyTimerTask {
 
 	private final Server server;
@@ -32,20 +37,28 @@ public class HealthRegenTimerTask extends TownyTimerTask {
 		if (TownyAPI.getInstance().isWarTime())
 			return;
 
-		for (Player player : server.getOnlinePlayers()) {
-			if (player.getHealth() <= 0)
+		// Only the plots someone is standing in are visited, wilderness is skipped once per plot.
+		for (Map.Entry<WorldCoord, Set<Player>> occupied : plugin.getPlayerLocations().getOccupied().entrySet()) {
+			TownBlock townBlock = TownyUniverse.getInstance().getTownBlocks().get(occupied.getKey());
+			if (townBlock == null || !townBlock.hasTown() || townBlock.getType() == TownBlockType.ARENA) // only regen if not in an arena
 				continue;
 
+			Town town;
 			try {
-				if (TownyAPI.getInstance().isWilderness(player.getLocation()))
+				town = townBlock.getTown();
+			} catch (NotRegisteredException e) {
+				continue;
+			}
+
+			for (Player player : occupied.getValue()) {
+				if (player.getHealth() <= 0)
 					continue;
-				
-				TownBlock townBlock = TownyUniverse.getInstance().getTownBlock(new WorldCoord(WorldCoord.parseWorldCoord(player.getLocation())));
-				
-				if (townBlock != null && CombatUtil.isAlly(townBlock.getTown(), TownyUniverse.getInstance().getDataSource().getResident(player.getName()).getTown()))
-					if (!townBlock.getType().equals(TownBlockType.ARENA)) // only regen if not in an arena
+
+				try {
+					if (CombatUtil.isAlly(town, TownyUniverse.getInstance().getDataSource().getResident(player.getName()).getTown()))
 						incHealth(player);
-			} catch (TownyException x) {
+				} catch (TownyException x) {
+				}
 			}
 		}
 
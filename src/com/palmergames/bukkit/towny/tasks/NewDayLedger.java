@@ -0,0 +1,405 @@
+package com.palmergames.bukkit.towny.tasks;
+
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.exceptions.EconomyException;
+import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
+import com.palmergames.bukkit.towny.object.Nation;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.economy.Account;
+import com.palmergames.bukkit.towny.permissions.TownyPerms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every tax and upkeep payment due at a new day, worked out up front.
+ * <p>
+ * A ledger is built in two steps. {@link #snapshotTaxes()} or
+ * {@link #snapshotUpkeep()} walks the towns and nations on the calling thread, recording who owes what to whom at fixed
+ * amounts (upkeep calculations fire events, so this stays on the thread the
+ * new day runs on). {@link #compute()} then reads the balances it needs,
+ * filling in percentage taxes and predicting which payments will fail. It
+ * touches nothing but the economy and so may run off the main thread.
+ * <p>
+ * The entries are applied by a {@link NewDayLedgerTask}, in the order they
+ * were recorded. A new day pays a taxes ledger first and only then snapshots
+ * the upkeep, since residents and towns which could not pay their taxes
+ * have been removed by then and upkeep depends on town and nation size.
+ */
+public class NewDayLedger {
+
+	public enum EntryType {
+		TOWN_TAX("Town Tax"),
+		TOWN_PERCENT_TAX("Town Tax (Percentage)"),
+		PLOT_TAX("Plot Tax"),
+		NATION_TAX("Nation Tax"),
+		TOWN_UPKEEP("Town Upkeep"),
+		TOWN_NEGATIVE_UPKEEP("Negative Town Upkeep"),
+		PLOT_INCOME("Negative Town Upkeep - Plot income"),
+		NATION_UPKEEP("Nation Upkeep"),
+		NATION_NEGATIVE_UPKEEP("Negative Nation Upkeep"),
+		NATION_NEUTRALITY("Nation Peace Upkeep");
+
+		private final String reason;
+
+		EntryType(String reason) {
+			this.reason = reason;
+		}
+
+		public String getReason() {
+			return reason;
+		}
+	}
+
+	/**
+	 * A single payment. The resident, townblock, town and nation are those
+	 * the payment concerns, any of which may be null when not relevant.
+	 */
+	public static class Entry {
+		private final EntryType type;
+		private final Resident resident;
+		private final TownBlock townBlock;
+		private final Town town;
+		private final Nation nation;
+		private double amount;
+		private boolean predictedFailure = false;
+
+		Entry(EntryType type, Resident resident, TownBlock townBlock, Town town, Nation nation, double amount) {
+			this.type = type;
+			this.resident = resident;
+			this.townBlock = townBlock;
+			this.town = town;
+			this.nation = nation;
+			this.amount = amount;
+		}
+
+		public EntryType getType() {
+			return type;
+		}
+
+		public Resident getResident() {
+			return resident;
+		}
+
+		public TownBlock getTownBlock() {
+			return townBlock;
+		}
+
+		public Town getTown() {
+			return town;
+		}
+
+		public Nation getNation() {
+			return nation;
+		}
+
+		public double getAmount() {
+			return amount;
+		}
+
+		/**
+		 * @return true if {@link NewDayLedger#compute()} expects this payment to fail.
+		 */
+		public boolean isPredictedFailure() {
+			return predictedFailure;
+		}
+
+		/**
+		 * @return the account the money is taken from.
+		 */
+		Account getPayer() {
+			switch (type) {
+				case TOWN_TAX:
+				case TOWN_PERCENT_TAX:
+				case PLOT_TAX:
+					return resident.getAccount();
+				case PLOT_INCOME:
+					return resident != null ? resident.getAccount() : town.getAccount();
+				case NATION_TAX:
+				case TOWN_UPKEEP:
+				case TOWN_NEGATIVE_UPKEEP:
+					return town.getAccount();
+				default:
+					return nation.getAccount();
+			}
+		}
+
+		/**
+		 * @return the account the money is paid into, or null when it leaves for the server.
+		 */
+		Account getPayee() {
+			switch (type) {
+				case TOWN_TAX:
+				case TOWN_PERCENT_TAX:
+				case PLOT_TAX:
+					return town.getAccount();
+				case NATION_TAX:
+					return nation.getAccount();
+				default:
+					return null;
+			}
+		}
+	}
+
+	private final List<Entry> entries = new ArrayList<>();
+	private final List<Resident> taxExempt = new ArrayList<>();
+	private double totalTownUpkeep = 0.0;
+	private double totalNationUpkeep = 0.0;
+	private boolean computed = false;
+
+	/**
+	 * Creates an empty ledger, see {@link #snapshotTaxes()} for one covering the whole server.
+	 */
+	public NewDayLedger() {
+	}
+
+	/**
+	 * Records every payment due at a new day from all towns and nations, in
+	 * one ledger. Upkeep is priced from the towns and nations as they are now,
+	 * before any taxes are collected, so this is only fit for a preview.
+	 *
+	 * @return the ledger, still to be computed.
+	 */
+	public static NewDayLedger snapshot() {
+		NewDayLedger ledger = snapshotTaxes();
+		ledger.addUpkeep();
+		return ledger;
+	}
+
+	/**
+	 * Records the town, plot and nation taxes due at a new day.
+	 *
+	 * @return the ledger, still to be computed.
+	 */
+	public static NewDayLedger snapshotTaxes() {
+		TownyUniverse townyUniverse = TownyUniverse.getInstance();
+		NewDayLedger ledger = new NewDayLedger();
+		for (Town town : townyUniverse.getDataSource().getTowns())
+			ledger.addTownTaxes(town);
+		for (Nation nation : townyUniverse.getDataSource().getNations())
+			ledger.addNationTaxes(nation);
+		return ledger;
+	}
+
+	/**
+	 * Records the town and nation upkeep due at a new day. Take this after
+	 * the taxes ledger has been paid, so the sizes upkeep is priced from
+	 * no longer count anyone removed for not paying.
+	 *
+	 * @return the ledger, still to be computed.
+	 */
+	public static NewDayLedger snapshotUpkeep() {
+		NewDayLedger ledger = new NewDayLedger();
+		ledger.addUpkeep();
+		return ledger;
+	}
+
+	private void addUpkeep() {
+		TownyUniverse townyUniverse = TownyUniverse.getInstance();
+		for (Town town : townyUniverse.getDataSource().getTowns())
+			addTownUpkeep(town);
+		for (Nation nation : townyUniverse.getDataSource().getNations())
+			addNationUpkeep(nation);
+	}
+
+	/**
+	 * Records the resident and plot taxes due to a town.
+	 *
+	 * @param town - Town collecting taxes.
+	 */
+	public void addTownTaxes(Town town) {
+		if (town.getTaxes() > 0) {
+			for (Resident resident : town.getResidents()) {
+				if (TownyPerms.getResidentPerms(resident).containsKey("towny.tax_exempt") || resident.isNPC() || resident.isMayor())
+					taxExempt.add(resident);
+				else if (town.isTaxPercentage())
+					// The amount depends on the resident's balance, filled in by compute().
+					add(EntryType.TOWN_PERCENT_TAX, resident, null, town, null, 0);
+				else
+					add(EntryType.TOWN_TAX, resident, null, town, null, town.getTaxes());
+			}
+		}
+
+		if (town.getPlotTax() > 0 || town.getCommercialPlotTax() > 0 || town.getEmbassyPlotTax() > 0) {
+			for (TownBlock townBlock : town.getTownBlocks()) {
+				if (!townBlock.hasResident())
+					continue;
+				try {
+					Resident resident = townBlock.getResident();
+					if (resident.hasTown() && resident.getTown() == town)
+						if (TownyPerms.getResidentPerms(resident).containsKey("towny.tax_exempt") || resident.isNPC())
+							continue;
+
+					add(EntryType.PLOT_TAX, resident, townBlock, town, null, townBlock.getType().getTax(town));
+				} catch (NotRegisteredException ignored) {
+				}
+			}
+		}
+	}
+
+	/**
+	 * Records the taxes due to a nation from its member towns.
+	 *
+	 * @param nation - Nation collecting taxes.
+	 */
+	public void addNationTaxes(Nation nation) {
+		if (nation.getTaxes() <= 0)
+			return;
+
+		for (Town town : nation.getTowns())
+			if (!town.isCapital() && town.hasUpkeep())
+				add(EntryType.NATION_TAX, null, null, town, nation, nation.getTaxes());
+	}
+
+	/**
+	 * Records the upkeep a town pays, or is paid when negative.
+	 *
+	 * @param town - Town paying upkeep.
+	 */
+	public void addTownUpkeep(Town town) {
+		if (!town.hasUpkeep())
+			return;
+
+		double upkeep = TownySettings.getTownUpkeepCost(town);
+		double upkeepPenalty = TownySettings.getTownPenaltyUpkeepCost(town);
+		if (upkeepPenalty > 0 && upkeep > 0)
+			upkeep = upkeep + upkeepPenalty;
+
+		totalTownUpkeep = totalTownUpkeep + upkeep;
+		if (upkeep > 0) {
+			add(EntryType.TOWN_UPKEEP, null, null, town, null, upkeep);
+		} else if (upkeep < 0) {
+			if (TownySettings.isUpkeepPayingPlots()) {
+				// Pay each plot owner a share of the negative upkeep.
+				List<TownBlock> plots = new ArrayList<>(town.getTownBlocks());
+				for (TownBlock townBlock : plots) {
+					Resident owner = null;
+					try {
+						if (townBlock.hasResident())
+							owner = townBlock.getResident();
+					} catch (NotRegisteredException ignored) {
+					}
+					add(EntryType.PLOT_INCOME, owner, townBlock, town, null, upkeep / plots.size());
+				}
+			} else {
+				add(EntryType.TOWN_NEGATIVE_UPKEEP, null, null, town, null, upkeep);
+			}
+		}
+	}
+
+	/**
+	 * Records the upkeep and neutrality cost a nation pays, or is paid when negative.
+	 *
+	 * @param nation - Nation paying upkeep.
+	 */
+	public void addNationUpkeep(Nation nation) {
+		double upkeep = TownySettings.getNationUpkeepCost(nation);
+
+		totalNationUpkeep = totalNationUpkeep + upkeep;
+		if (upkeep > 0) {
+			add(EntryType.NATION_UPKEEP, null, null, null, nation, upkeep);
+			if (nation.isNeutral())
+				add(EntryType.NATION_NEUTRALITY, null, null, null, nation, TownySettings.getNationNeutralityCost());
+		} else if (upkeep < 0) {
+			add(EntryType.NATION_NEGATIVE_UPKEEP, null, null, null, nation, upkeep);
+		}
+	}
+
+	private void add(EntryType type, Resident resident, TownBlock townBlock, Town town, Nation nation, double amount) {
+		entries.add(new Entry(type, resident, townBlock, town, nation, amount));
+	}
+
+	/**
+	 * Reads the balances the ledger depends on: percentage taxes are
+	 * priced from them, and each payment is played against a running copy
+	 * of the balances to predict whether it will go through. Nothing is
+	 * paid. Safe to call off the main thread.
+	 *
+	 * @throws EconomyException if the economy could not be read.
+	 */
+	public void compute() throws EconomyException {
+		Map<String, Double> balances = new HashMap<>();
+
+		for (Entry entry : entries) {
+			Account payer = entry.getPayer();
+			double balance = getBalance(balances, payer);
+
+			if (entry.type == EntryType.TOWN_PERCENT_TAX)
+				entry.amount = Math.min(balance * entry.town.getTaxes() / 100, entry.town.getMaxPercentTaxAmount());
+
+			// Negative amounts are paid out by the server and cannot fail.
+			if (entry.amount > 0 && entry.amount > balance) {
+				entry.predictedFailure = true;
+				continue;
+			}
+
+			balances.put(payer.getName(), balance - entry.amount);
+			Account payee = entry.getPayee();
+			if (payee != null)
+				balances.put(payee.getName(), getBalance(balances, payee) + entry.amount);
+		}
+		computed = true;
+	}
+
+	private static double getBalance(Map<String, Double> balances, Account account) throws EconomyException {
+		Double balance = balances.get(account.getName());
+		if (balance == null) {
+			balance = account.getHoldingBalance();
+			balances.put(account.getName(), balance);
+		}
+		return balance;
+	}
+
+	public boolean isComputed() {
+		return computed;
+	}
+
+	public List<Entry> getEntries() {
+		return Collections.unmodifiableList(entries);
+	}
+
+	/**
+	 * @return residents let off their town tax, who are told so when the ledger is applied.
+	 */
+	public List<Resident> getTaxExempt() {
+		return Collections.unmodifiableList(taxExempt);
+	}
+
+	public double getTotalTownUpkeep() {
+		return totalTownUpkeep;
+	}
+
+	public double getTotalNationUpkeep() {
+		return totalNationUpkeep;
+	}
+
+	/**
+	 * Sums the ledger by type, for the new day preview.
+	 *
+	 * @return the total amount of each type of payment.
+	 */
+	public Map<EntryType, Double> getTotals() {
+		Map<EntryType, Double> totals = new EnumMap<>(EntryType.class);
+		for (Entry entry : entries)
+			totals.merge(entry.type, entry.amount, Double::sum);
+		return totals;
+	}
+
+	/**
+	 * @return the payments {@link #compute()} expects to fail, in ledger order.
+	 */
+	public List<Entry> getPredictedFailures() {
+		List<Entry> failures = new ArrayList<>();
+		for (Entry entry : entries)
+			if (entry.predictedFailure)
+				failures.add(entry);
+		return failures;
+	}
+}
@@ -0,0 +1,278 @@
+package com.palmergames.bukkit.towny.tasks;
+
+import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.db.TownyDataSource;
+import com.palmergames.bukkit.towny.exceptions.EconomyException;
+import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
+import com.palmergames.bukkit.towny.exceptions.TownyException;
+import com.palmergames.bukkit.towny.object.Nation;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.Translation;
+import com.palmergames.bukkit.towny.tasks.NewDayLedger.Entry;
+import com.palmergames.bukkit.util.ChatTools;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Pays out a computed {@link NewDayLedger}.
+ * <p>
+ * When scheduled every tick it applies as many entries as fit in the
+ * configured time budget and picks up where it left off on the next tick,
+ * so a large server's new day no longer stalls the main thread in one go.
+ * Objects changed along the way are saved once when the ledger is done,
+ * and each town, nation or resident gets at most one message about it.
+ */
+public class NewDayLedgerTask extends BukkitRunnable {
+
+	private final NewDayLedger ledger;
+	private final long budgetNanos;
+	private final Consumer<NewDayLedgerTask> onComplete;
+	private int next = 0;
+
+	private final Set<Resident> residentsToSave = new LinkedHashSet<>();
+	private final Set<TownBlock> townBlocksToSave = new LinkedHashSet<>();
+	private final Set<Nation> nationsToSave = new LinkedHashSet<>();
+
+	private final Map<Town, List<String>> removedResidents = new LinkedHashMap<>();
+	private final Map<Town, List<String>> lostPlots = new LinkedHashMap<>();
+	private final Map<Nation, List<String>> removedNationTowns = new LinkedHashMap<>();
+	private final List<String> removedTowns = new ArrayList<>();
+	private final List<String> removedNations = new ArrayList<>();
+
+	/**
+	 * @param ledger - A computed ledger.
+	 * @param budgetMillis - How long each tick may spend applying entries.
+	 * @param onComplete - Run once every entry is applied and saved, may be null.
+	 */
+	public NewDayLedgerTask(NewDayLedger ledger, long budgetMillis, Consumer<NewDayLedgerTask> onComplete) {
+		this.ledger = ledger;
+		this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, budgetMillis));
+		this.onComplete = onComplete;
+	}
+
+	@Override
+	public void run() {
+		long deadline = System.nanoTime() + budgetNanos;
+		List<Entry> entries = ledger.getEntries();
+
+		while (next < entries.size()) {
+			apply(entries.get(next++));
+			if (System.nanoTime() >= deadline)
+				return;
+		}
+
+		cancel();
+		finish();
+	}
+
+	/**
+	 * Applies the whole ledger on the current thread, ignoring the time budget.
+	 */
+	public void applyAll() {
+		for (Entry entry : ledger.getEntries().subList(next, ledger.getEntries().size()))
+			apply(entry);
+		next = ledger.getEntries().size();
+		finish();
+	}
+
+	public List<String> getRemovedTowns() {
+		return removedTowns;
+	}
+
+	public List<String> getRemovedNations() {
+		return removedNations;
+	}
+
+	private void apply(Entry entry) {
+		TownyDataSource dataSource = TownyUniverse.getInstance().getDataSource();
+		Resident resident = entry.getResident();
+		Town town = entry.getTown();
+		Nation nation = entry.getNation();
+		double amount = entry.getAmount();
+		String reason = entry.getType().getReason();
+
+		/*
+		 * The ledger was recorded earlier, possibly several ticks ago, so
+		 * every object MUST be verified before money is moved.
+		 */
+		try {
+			switch (entry.getType()) {
+				case TOWN_TAX:
+					if (!isMember(dataSource, resident, town))
+						return;
+					if (!resident.getAccount().payTo(amount, town, reason)) {
+						getList(removedResidents, town).add(resident.getName());
+						// remove this resident from the town.
+						resident.removeTown();
+					}
+					break;
+
+				case TOWN_PERCENT_TAX:
+					if (isMember(dataSource, resident, town))
+						resident.getAccount().payTo(amount, town, reason);
+					break;
+
+				case PLOT_TAX:
+					TownBlock townBlock = entry.getTownBlock();
+					if (!dataSource.hasTown(town.getName()) || !dataSource.hasResident(resident.getName()) || !isOwner(townBlock, resident))
+						return;
+					if (!resident.getAccount().payTo(amount, town, String.format("Plot Tax (%s)", townBlock.getType()))) {
+						List<String> lost = getList(lostPlots, town);
+						if (!lost.contains(resident.getName()))
+							lost.add(resident.getName());
+
+						townBlock.setResident(null);
+						townBlock.setPlotPrice(-1);
+						// Set the plot permissions to mirror the towns.
+						townBlock.setType(townBlock.getType());
+
+						residentsToSave.add(resident);
+						townBlocksToSave.add(townBlock);
+					}
+					break;
+
+				case NATION_TAX:
+					if (!dataSource.hasTown(town.getName()) || !dataSource.hasNation(nation.getName()) || !town.hasNation() || town.getNation() != nation)
+						return;
+					if (!town.getAccount().payTo(amount, nation, reason)) {
+						getList(removedNationTowns, nation).add(town.getName());
+						town.removeNation();
+					} else {
+						TownyMessaging.sendPrefixedTownMessage(town, TownySettings.getPayedTownTaxMsg() + amount);
+					}
+					break;
+
+				case TOWN_UPKEEP:
+					if (!dataSource.hasTown(town.getName()))
+						return;
+					if (!town.getAccount().withdraw(amount, reason)) {
+						dataSource.removeTown(town);
+						removedTowns.add(town.getName());
+					}
+					break;
+
+				case TOWN_NEGATIVE_UPKEEP:
+				case PLOT_INCOME:
+					if (dataSource.hasTown(town.getName()))
+						entry.getPayer().withdraw(amount, reason);
+					break;
+
+				case NATION_UPKEEP:
+					if (!dataSource.hasNation(nation.getName()))
+						return;
+					if (!nation.getAccount().withdraw(amount, reason)) {
+						dataSource.removeNation(nation);
+						removedNations.add(nation.getName());
+					}
+					break;
+
+				case NATION_NEUTRALITY:
+					if (!dataSource.hasNation(nation.getName()) || !nation.isNeutral())
+						return;
+					if (!nation.getAccount().withdraw(amount, reason)) {
+						nation.setNeutral(false);
+						nationsToSave.add(nation);
+						TownyMessaging.sendPrefixedNationMessage(nation, Translation.of("msg_nation_not_peaceful"));
+					}
+					break;
+
+				case NATION_NEGATIVE_UPKEEP:
+					if (dataSource.hasNation(nation.getName()))
+						nation.getAccount().withdraw(amount, reason);
+					break;
+			}
+		} catch (EconomyException e) {
+			TownyMessaging.sendErrorMsg("Economy Exception");
+			e.printStackTrace();
+		} catch (NotRegisteredException ignored) {
+		}
+	}
+
+	private static boolean isMember(TownyDataSource dataSource, Resident resident, Town town) {
+		return dataSource.hasTown(town.getName()) && dataSource.hasResident(resident.getName()) && town.hasResident(resident);
+	}
+
+	private static boolean isOwner(TownBlock townBlock, Resident resident) {
+		try {
+			return townBlock.hasResident() && townBlock.getResident() == resident;
+		} catch (NotRegisteredException e) {
+			return false;
+		}
+	}
+
+	private static <T> List<String> getList(Map<T, List<String>> map, T key) {
+		return map.computeIfAbsent(key, k -> new ArrayList<>());
+	}
+
+	/**
+	 * Sends the collected messages, saves everything touched once and hands over to the caller.
+	 */
+	private void finish() {
+		TownyDataSource dataSource = TownyUniverse.getInstance().getDataSource();
+
+		for (Resident resident : ledger.getTaxExempt()) {
+			try {
+				TownyMessaging.sendResidentMessage(resident, TownySettings.getTaxExemptMsg());
+			} catch (TownyException e) {
+				// Player is not online
+			}
+		}
+
+		for (Map.Entry<Town, List<String>> removed : removedResidents.entrySet()) {
+			if (removed.getValue().size() == 1)
+				TownyMessaging.sendPrefixedTownMessage(removed.getKey(), Translation.of("msg_couldnt_pay_tax", ChatTools.list(removed.getValue()), "town"));
+			else
+				TownyMessaging.sendPrefixedTownMessage(removed.getKey(), ChatTools.list(removed.getValue(), Translation.of("msg_couldnt_pay_town_tax_multiple")));
+		}
+
+		for (Map.Entry<Town, List<String>> lost : lostPlots.entrySet()) {
+			if (lost.getValue().size() == 1)
+				TownyMessaging.sendPrefixedTownMessage(lost.getKey(), Translation.of("msg_couldnt_pay_plot_taxes", ChatTools.list(lost.getValue())));
+			else
+				TownyMessaging.sendPrefixedTownMessage(lost.getKey(), ChatTools.list(lost.getValue(), Translation.of("msg_couldnt_pay_plot_taxes_multiple")));
+		}
+
+		for (Map.Entry<Nation, List<String>> removed : removedNationTowns.entrySet()) {
+			if (removed.getValue().size() == 1)
+				TownyMessaging.sendNationMessagePrefixed(removed.getKey(), Translation.of("msg_couldnt_pay_tax", ChatTools.list(removed.getValue()), "nation"));
+			else
+				TownyMessaging.sendNationMessagePrefixed(removed.getKey(), ChatTools.list(removed.getValue(), Translation.of("msg_couldnt_pay_nation_tax_multiple")));
+		}
+
+		if (removedTowns.size() == 1)
+			TownyMessaging.sendGlobalMessage(Translation.of("msg_bankrupt_town2", removedTowns.get(0)));
+		else if (removedTowns.size() > 1)
+			TownyMessaging.sendGlobalMessage(ChatTools.list(removedTowns, Translation.of("msg_bankrupt_town_multiple")));
+
+		if (removedNations.size() == 1)
+			TownyMessaging.sendGlobalMessage(Translation.of("msg_bankrupt_nation2", removedNations.get(0)));
+		else if (removedNations.size() > 1)
+			TownyMessaging.sendGlobalMessage(ChatTools.list(removedNations, Translation.of("msg_bankrupt_nation_multiple")));
+
+		// One save per object, skipping anything deleted since it was changed.
+		for (Resident resident : residentsToSave)
+			if (dataSource.hasResident(resident.getName()))
+				dataSource.saveResident(resident);
+		for (TownBlock townBlock : townBlocksToSave)
+			if (townBlock.hasTown())
+				dataSource.saveTownBlock(townBlock);
+		for (Nation nation : nationsToSave)
+			if (dataSource.hasNation(nation.getName()))
+				dataSource.saveNation(nation);
+
+		if (onComplete != null)
+			onComplete.accept(this);
+	}
+}
@@ -1,14 +1,15 @@
 package com.palmergames.bukkit.towny.tasks;
 
-import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyTimerHandler;
 import com.palmergames.bukkit.towny.exceptions.EconomyException;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.towny.tasks.CooldownTimerTask.CooldownType;
+import com.palmergames.bukkit.towny.tasks.TimerWheel.Timer;
 
 import io.papermc.lib.PaperLib;
 
@@ -17,70 +18,64 @@ import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.player.PlayerTeleportEvent.TeleportCause;
 
-import java.util.ArrayDeque;
-import java.util.Arrays;
-import java.util.Queue;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * Teleport warmups, each one a timer on the {@link TimerWheel}.
+ * 
  * @author dumptruckman
  */
-public class TeleportWarmupTimerTask extends TownyTimerTask {
+public class TeleportWarmupTimerTask {
 
-	private static Queue<Resident> teleportQueue;
+	private static final Map<Resident, Timer> warmups = new ConcurrentHashMap<>();
 
-	public TeleportWarmupTimerTask(Towny plugin) {
+	private static void teleport(Resident resident) {
 
-		super(plugin);
-		teleportQueue = new ArrayDeque<>();
-	}
-
-	@Override
-	public void run() {
-
-		long currentTime = System.currentTimeMillis();
-
-		while (true) {
-			Resident resident = teleportQueue.peek();
-			if (resident == null)
-				break;
-			if (currentTime > resident.getTeleportRequestTime() + (TownySettings.getTeleportWarmupTime() * 1000)) {
-				resident.clearTeleportRequest();
-				// Make sure the chunk we teleport to is loaded.
-				Chunk chunk = resident.getTeleportDestination().getWorld().getChunkAt(resident.getTeleportDestination().getBlock());
-				if (!chunk.isLoaded()) {
-					chunk.load();
-				}
-				Player p = TownyAPI.getInstance().getPlayer(resident);
-				if (p == null) {
-					return;
-				}
-				PaperLib.teleportAsync(p, resident.getTeleportDestination(), TeleportCause.COMMAND);
-				if (TownySettings.getSpawnCooldownTime() > 0)
-					CooldownTimerTask.addCooldownTimer(resident.getName(), CooldownType.TELEPORT);
-				teleportQueue.poll();
-			} else {
-				break;
-			}
+		resident.clearTeleportRequest();
+		// Make sure the chunk we teleport to is loaded.
+		Chunk chunk = resident.getTeleportDestination().getWorld().getChunkAt(resident.getTeleportDestination().getBlock());
+		if (!chunk.isLoaded()) {
+			chunk.load();
+		}
+		Player p = TownyAPI.getInstance().getPlayer(resident);
+		if (p == null) {
+			return;
 		}
+		PaperLib.teleportAsync(p, resident.getTeleportDestination(), TeleportCause.COMMAND);
+		if (TownySettings.getSpawnCooldownTime() > 0)
+			CooldownTimerTask.addCooldownTimer(resident.getName(), CooldownType.TELEPORT);
 	}
 
 	public static void requestTeleport(Resident resident, Location spawnLoc) {
 
 		resident.setTeleportRequestTime();
 		resident.setTeleportDestination(spawnLoc);
-		try {
-			teleportQueue.add(resident);
-		} catch (NullPointerException e) {
-			System.out.println("[Towny] Error: Null returned from teleport queue.");
-			System.out.println(Arrays.toString(e.getStackTrace()));
-		}
+
+		Timer timer = TownyTimerHandler.getTimerWheel().schedule("teleport warmup", resident.getName(), TownySettings.getTeleportWarmupTime() * 1000L, expired -> {
+			if (warmups.remove(resident, expired))
+				teleport(resident);
+		});
+
+		Timer previous = warmups.put(resident, timer);
+		if (previous != null)
+			previous.cancel();
+	}
+
+	/**
+	 * @return whether any resident is waiting to teleport.
+	 */
+	public static boolean hasPendingWarmups() {
+
+		return !warmups.isEmpty();
 	}
 
 	public static void abortTeleportRequest(Resident resident) {
 
-		if (resident != null && teleportQueue.contains(resident)) {
+		Timer timer = resident == null ? null : warmups.remove(resident);
+		if (timer != null) {
+			timer.cancel();
 			resident.clearTeleportRequest();
-			teleportQueue.remove(resident);
 			if ((resident.getTeleportCost() != 0) && (TownySettings.isUsingEconomy())) {
 				try {
 					resident.getAccount().deposit(resident.getTeleportCost(), Translation.of("msg_cost_spawn_refund"));
@@ -0,0 +1,285 @@
+package com.palmergames.bukkit.towny.tasks;
+
+import com.palmergames.bukkit.towny.Towny;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+
+/**
+ * A hierarchical timing wheel which runs every one-off timer Towny keeps:
+ * cooldowns, teleport warmups, confirmation timeouts and invite expiry.
+ * <p>
+ * Time is cut into ticks of {@link #TICK_MILLIS}. The wheel has four levels
+ * of 64 slots, each level covering 64 times the span of the one below it,
+ * so a timer is filed by how far away it is in constant time and is only
+ * touched again when its slot comes round, at which point it either fires
+ * or drops to a finer level. Each slot is an intrusive doubly linked list,
+ * making cancelling a timer constant time as well.
+ * <p>
+ * The wheel is advanced by {@link #run()}, which {@link com.palmergames.bukkit.towny.TownyTimerHandler}
+ * calls every server tick. It follows the wall clock, so lag does not
+ * stretch timers, and expired timers are run on the thread advancing it.
+ */
+public class TimerWheel implements Runnable {
+
+	public static final long TICK_MILLIS = 50;
+
+	private static final int WHEEL_BITS = 6;
+	private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+	private static final int LEVELS = 4;
+
+	private final LongSupplier clock;
+	private final Timer[][] wheels = new Timer[LEVELS][WHEEL_SIZE];
+	private long currentTick;
+	private int pendingCount = 0;
+
+	/**
+	 * A scheduled timer, returned by {@link TimerWheel#schedule(String, Object, long, Consumer)}.
+	 */
+	public static final class Timer {
+		private final TimerWheel wheel;
+		private final String kind;
+		private final Object key;
+		private final long deadline;
+		private final long deadlineTick;
+		private final Consumer<Timer> task;
+		private Timer prev;
+		private Timer next;
+		private boolean pending;
+
+		private Timer(TimerWheel wheel, String kind, Object key, long deadline, long deadlineTick, Consumer<Timer> task) {
+			this.wheel = wheel;
+			this.kind = kind;
+			this.key = key;
+			this.deadline = deadline;
+			this.deadlineTick = deadlineTick;
+			this.task = task;
+		}
+
+		// Slot head, linked to itself when the slot is empty.
+		private Timer() {
+			this(null, null, null, 0, 0, null);
+			prev = next = this;
+		}
+
+		/**
+		 * @return what sort of timer this is, ie: "cooldown pvp".
+		 */
+		public String getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return what the timer is for, ie: a resident's name.
+		 */
+		public Object getKey() {
+			return key;
+		}
+
+		/**
+		 * @return when the timer is due, in milliseconds since the epoch.
+		 */
+		public long getDeadline() {
+			return deadline;
+		}
+
+		public long getRemainingMillis() {
+			return Math.max(0, deadline - wheel.clock.getAsLong());
+		}
+
+		/**
+		 * @return true until the timer has fired or been cancelled.
+		 */
+		public boolean isPending() {
+			return pending;
+		}
+
+		/**
+		 * @return true if the timer was pending and will now never fire.
+		 */
+		public boolean cancel() {
+			return wheel.cancel(this);
+		}
+
+		@Override
+		public String toString() {
+			return kind + " " + key + " (" + getRemainingMillis() + "ms)";
+		}
+	}
+
+	public TimerWheel() {
+		this(System::currentTimeMillis);
+	}
+
+	/**
+	 * @param clock - Source of the current time in milliseconds.
+	 */
+	public TimerWheel(LongSupplier clock) {
+		this.clock = clock;
+		this.currentTick = clock.getAsLong() / TICK_MILLIS;
+		for (Timer[] wheel : wheels)
+			for (int slot = 0; slot < WHEEL_SIZE; slot++)
+				wheel[slot] = new Timer();
+	}
+
+	/**
+	 * Schedules a one-off timer.
+	 *
+	 * @param kind - What sort of timer this is, used when listing pending timers.
+	 * @param key - What the timer is for, used when listing pending timers.
+	 * @param delayMillis - How long from now the timer fires.
+	 * @param task - Run with the timer once it fires.
+	 * @return the timer, which may be used to cancel it.
+	 */
+	public synchronized Timer schedule(String kind, Object key, long delayMillis, Consumer<Timer> task) {
+		long deadline = clock.getAsLong() + Math.max(0, delayMillis);
+		// Rounded up so a timer never fires early, and never into a slot already passed.
+		long deadlineTick = Math.max((deadline + TICK_MILLIS - 1) / TICK_MILLIS, currentTick + 1);
+
+		Timer timer = new Timer(this, kind, key, deadline, deadlineTick, task);
+		timer.pending = true;
+		pendingCount++;
+		insert(timer);
+		return timer;
+	}
+
+	/**
+	 * Cancels a timer.
+	 *
+	 * @param timer - Timer to cancel.
+	 * @return true if the timer was pending and will now never fire.
+	 */
+	public synchronized boolean cancel(Timer timer) {
+		if (!timer.pending)
+			return false;
+
+		unlink(timer);
+		timer.pending = false;
+		pendingCount--;
+		return true;
+	}
+
+	/**
+	 * Advances the wheel to the current time, running every timer which has come due.
+	 */
+	@Override
+	public void run() {
+		List<Timer> expired = new ArrayList<>();
+
+		synchronized (this) {
+			long targetTick = clock.getAsLong() / TICK_MILLIS;
+			while (currentTick < targetTick) {
+				currentTick++;
+				cascade();
+
+				Timer head = wheels[0][(int) (currentTick & WHEEL_MASK)];
+				Timer timer = head.next;
+				while (timer != head) {
+					Timer next = timer.next;
+					unlink(timer);
+					if (timer.deadlineTick <= currentTick) {
+						timer.pending = false;
+						pendingCount--;
+						expired.add(timer);
+					} else {
+						insert(timer);
+					}
+					timer = next;
+				}
+			}
+		}
+
+		// Run outside the lock, so tasks are free to schedule and cancel timers.
+		for (Timer timer : expired) {
+			try {
+				timer.task.accept(timer);
+			} catch (RuntimeException e) {
+				Towny.getPlugin().getLogger().log(Level.WARNING, "Error running " + timer.kind + " timer for " + timer.key, e);
+			}
+		}
+	}
+
+	/**
+	 * Moves the timers of every coarser slot which starts on this tick down to finer levels.
+	 */
+	private void cascade() {
+		for (int level = 1; level < LEVELS; level++) {
+			int shift = WHEEL_BITS * level;
+			if ((currentTick & ((1L << shift) - 1)) != 0)
+				break;
+
+			Timer head = wheels[level][(int) ((currentTick >> shift) & WHEEL_MASK)];
+			Timer timer = head.next;
+			while (timer != head) {
+				Timer next = timer.next;
+				unlink(timer);
+				insert(timer);
+				timer = next;
+			}
+		}
+	}
+
+	private void insert(Timer timer) {
+		long delta = timer.deadlineTick - currentTick;
+		for (int level = 0; level < LEVELS; level++) {
+			int shift = WHEEL_BITS * level;
+			if (delta < (1L << (shift + WHEEL_BITS))) {
+				link(wheels[level][(int) ((timer.deadlineTick >> shift) & WHEEL_MASK)], timer);
+				return;
+			}
+		}
+
+		// Further out than the wheel reaches, park it in the last top level slot to come round.
+		int shift = WHEEL_BITS * (LEVELS - 1);
+		link(wheels[LEVELS - 1][(int) (((currentTick >> shift) + WHEEL_MASK) & WHEEL_MASK)], timer);
+	}
+
+	private static void link(Timer head, Timer timer) {
+		timer.prev = head.prev;
+		timer.next = head;
+		head.prev.next = timer;
+		head.prev = timer;
+	}
+
+	private static void unlink(Timer timer) {
+		timer.prev.next = timer.next;
+		timer.next.prev = timer.prev;
+		timer.prev = timer.next = null;
+	}
+
+	/*
+	 * Introspection, for /ta perf timers and the profiler's dump.
+	 */
+
+	public synchronized int getPendingCount() {
+		return pendingCount;
+	}
+
+	/**
+	 * @return the number of pending timers of each kind.
+	 */
+	public synchronized Map<String, Integer> getPendingCounts() {
+		Map<String, Integer> counts = new TreeMap<>();
+		for (Timer timer : getPending())
+			counts.merge(timer.kind, 1, Integer::sum);
+		return counts;
+	}
+
+	/**
+	 * @return a copy of every pending timer, in no particular order.
+	 */
+	public synchronized List<Timer> getPending() {
+		List<Timer> pending = new ArrayList<>(pendingCount);
+		for (Timer[] wheel : wheels)
+			for (Timer head : wheel)
+				for (Timer timer = head.next; timer != head; timer = timer.next)
+					pending.add(timer);
+		return pending;
+	}
+}
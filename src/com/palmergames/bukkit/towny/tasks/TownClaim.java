@@ -25,8 +25,9 @@ import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author ElgarL
@@ -73,6 +74,7 @@ public class TownClaim extends Thread {
 
 		List<TownyWorld> worlds = new ArrayList<>();
 		List<Town> towns = new ArrayList<>();
+		Map<Town, List<TownBlock>> unclaims = new LinkedHashMap<>();
 		TownyWorld world = null;
 		if (player != null)
 			TownyMessaging.sendMsg(player, "Processing " + ((claim) ? "Town Claim..." : "Town unclaim..."));
@@ -94,7 +96,7 @@ public class TownClaim extends Thread {
 					} else {
 						// Unclaim
 						this.town = worldCoord.getTownBlock().getTown();
-						townUnclaim(town, worldCoord, forced);
+						unclaims.computeIfAbsent(town, k -> new ArrayList<>()).add(townUnclaim(town, worldCoord, forced));
 					}
 
 					// Mark this town as modified for saving.
@@ -110,6 +112,13 @@ public class TownClaim extends Thread {
 				}
 
 			}
+
+			// Unclaim each town's townblocks together, a tick later.
+			if (!unclaims.isEmpty())
+				Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, () -> {
+					for (Map.Entry<Town, List<TownBlock>> unclaim : unclaims.entrySet())
+						townyUniverse.getDataSource().removeTownBlocks(unclaim.getKey(), unclaim.getValue());
+				}, 1);
 		
 			if (!claim && TownySettings.getClaimRefundPrice() > 0.0) {
 				try {
@@ -214,8 +223,8 @@ public class TownClaim extends Thread {
 		}
 	}
 
-	// Unclaim event comes later in removeTownBlock().
-	private void townUnclaim(final Town town, final WorldCoord worldCoord, boolean force) throws TownyException {
+	// Unclaim event comes later in removeTownBlocks().
+	private TownBlock townUnclaim(final Town town, final WorldCoord worldCoord, boolean force) throws TownyException {
 		TownyUniverse townyUniverse = TownyUniverse.getInstance();
 		
 		try {
@@ -229,34 +238,26 @@ public class TownClaim extends Thread {
 				}
 			}
 
-			Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, () -> {
-
-				
-				townyUniverse.getDataSource().removeTownBlock(townBlock);
-				
-			}, 1);
-			
+			return townBlock;
 
 		} catch (NotRegisteredException e) {
 			throw new TownyException(Translation.of("msg_not_claimed_1"));
 		}
 	}
 
-	// Unclaim event comes later in removeTownBlock().
+	// Unclaim event comes later in removeTownBlocks().
 	public static void townUnclaimAll(Towny plugin, final Town town) {
 
 		Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, () -> {
 
 			// Prevent removing the homeblock
-			Collection<TownBlock> townBlocks = new ArrayList<>(town.getTownBlocks());
-			for (TownBlock townBlock : townBlocks) {
-				try {
-					if (!town.hasHomeBlock() || !townBlock.equals(town.getHomeBlock())) {
-						TownyUniverse.getInstance().getDataSource().removeTownBlock(townBlock);
-					}
-				} catch (TownyException ignore) {
-				}
+			List<TownBlock> townBlocks = new ArrayList<>(town.getTownBlocks());
+			try {
+				if (town.hasHomeBlock())
+					townBlocks.remove(town.getHomeBlock());
+			} catch (TownyException ignore) {
 			}
+			TownyUniverse.getInstance().getDataSource().removeTownBlocks(town, townBlocks);
 			
 			TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_abandoned_area_1"));
 
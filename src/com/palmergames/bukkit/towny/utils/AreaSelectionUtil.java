@@ -11,6 +11,7 @@ import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownBlockOwner;
+import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.util.StringMgmt;
@@ -175,16 +176,30 @@ public class AreaSelectionUtil {
 	 */
 	public static List<WorldCoord> filterInvalidProximityTownBlocks(List<WorldCoord> selection, Town town) {
 
-		List<WorldCoord> out = new ArrayList<>();
-		for (WorldCoord worldCoord : selection)
-			try {
-				if (worldCoord.getTownyWorld().getMinDistanceFromOtherTownsPlots(worldCoord, town) >= TownySettings.getMinDistanceFromTownPlotblocks()) {
-					out.add(worldCoord);
-				} else {
-					TownyMessaging.sendDebugMsg("AreaSelectionUtil:filterInvalidProximity - Coord: " + worldCoord + " too close to another town." );					
-				}
-			} catch (NotRegisteredException ignored) {
-			}
+		if (selection.isEmpty())
+			return new ArrayList<>();
+
+		try {
+			TownyWorld world = selection.get(0).getTownyWorld();
+			return filterInvalidProximityTownBlocks(selection, new ProximityValidator(world, town, selection, TownySettings.getMinDistanceFromTownPlotblocks(), 0));
+		} catch (NotRegisteredException e) {
+			return new ArrayList<>();
+		}
+	}
+
+	/**
+	 * Returns a list containing only townblocks that can be claimed,
+	 * using a validator already made for the selection.
+	 * 
+	 * @param selection - List&lt;WorldCoord&gt; of coordinates
+	 * @param validator - ProximityValidator made for the selection
+	 * @return List of townblocks
+	 */
+	public static List<WorldCoord> filterInvalidProximityTownBlocks(List<WorldCoord> selection, ProximityValidator validator) {
+
+		List<WorldCoord> out = validator.filterInvalidProximityTownBlocks(selection);
+		if (out.size() < selection.size())
+			TownyMessaging.sendDebugMsg("AreaSelectionUtil:filterInvalidProximity - " + (selection.size() - out.size()) + " coords too close to another town.");
 		return out;
 	}
 	
@@ -1,10 +1,20 @@
 package com.palmergames.bukkit.towny.utils;
 
+import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.object.CellBorder;
+import com.palmergames.bukkit.towny.object.CellSurface;
 import com.palmergames.bukkit.towny.object.WorldCoord;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Chris H (Zren / Shade)
@@ -12,19 +22,26 @@ import java.util.List;
  */
 public class BorderUtil {
 
+	// How long the terrain under a plot border is trusted before it is read again.
+	private static final long SURFACE_LIFETIME = TimeUnit.SECONDS.toMillis(30);
+
+	private static final Map<WorldCoord, CellSurface> plotSurfaces = new ConcurrentHashMap<>();
+	private static final Set<WorldCoord> loadingSurfaces = ConcurrentHashMap.newKeySet();
+
 	public static List<CellBorder> getOuterBorder(List<WorldCoord> worldCoords) {
 
+		Set<WorldCoord> claimed = new HashSet<>(worldCoords);
 		List<CellBorder> borderCoords = new ArrayList<CellBorder>();
 		for (WorldCoord worldCoord : worldCoords) {
 			CellBorder border = new CellBorder(worldCoord, new boolean[] {
-					!worldCoords.contains(worldCoord.add(-1, 0)),
-					!worldCoords.contains(worldCoord.add(-1, -1)),
-					!worldCoords.contains(worldCoord.add(0, -1)),
-					!worldCoords.contains(worldCoord.add(1, -1)),
-					!worldCoords.contains(worldCoord.add(1, 0)),
-					!worldCoords.contains(worldCoord.add(1, 1)),
-					!worldCoords.contains(worldCoord.add(0, 1)),
-					!worldCoords.contains(worldCoord.add(-1, 1)) });
+					!claimed.contains(worldCoord.add(-1, 0)),
+					!claimed.contains(worldCoord.add(-1, -1)),
+					!claimed.contains(worldCoord.add(0, -1)),
+					!claimed.contains(worldCoord.add(1, -1)),
+					!claimed.contains(worldCoord.add(1, 0)),
+					!claimed.contains(worldCoord.add(1, 1)),
+					!claimed.contains(worldCoord.add(0, 1)),
+					!claimed.contains(worldCoord.add(-1, 1)) });
 			if (border.hasAnyBorder())
 				borderCoords.add(border);
 		}
@@ -46,4 +63,62 @@ public class BorderUtil {
 		return new CellBorder(worldCoord, new boolean[] {
 				true, true, true, true, true, true, true, true });
 	}
+
+	/**
+	 * Gets the blocks a plot border is drawn on, as the plotborder modes draw it.
+	 * <p>
+	 * When there is no surface yet, or it has grown old, the chunks are
+	 * snapshotted on the main thread and the surface is worked out from
+	 * them asynchronously. Safe to call from any thread.
+	 *
+	 * @param worldCoord - The townblock.
+	 * @return the surface, possibly an old one while it is read again, or null if there is none yet.
+	 */
+	public static CellSurface getPlotSurface(WorldCoord worldCoord) {
+
+		CellSurface surface = plotSurfaces.get(worldCoord);
+		if ((surface == null || surface.isOlderThan(SURFACE_LIFETIME)) && loadingSurfaces.add(worldCoord)) {
+			if (Bukkit.isPrimaryThread())
+				loadPlotSurface(worldCoord);
+			else
+				Bukkit.getScheduler().runTask(Towny.getPlugin(), () -> loadPlotSurface(worldCoord));
+		}
+		return surface;
+	}
+
+	private static void loadPlotSurface(WorldCoord worldCoord) {
+
+		World world = worldCoord.getBukkitWorld();
+		if (world == null) {
+			loadingSurfaces.remove(worldCoord);
+			return;
+		}
+
+		CellBorder border = getPlotBorder(worldCoord);
+		Map<Long, ChunkSnapshot> snapshots = CellSurface.takeSnapshots(world, border);
+		int maxHeight = world.getMaxHeight();
+		Bukkit.getScheduler().runTaskAsynchronously(Towny.getPlugin(), () -> {
+			plotSurfaces.put(worldCoord, CellSurface.compute(border, 1, 2, snapshots, maxHeight));
+			loadingSurfaces.remove(worldCoord);
+		});
+	}
+
+	/**
+	 * Forgets the surface of a townblock which has been claimed or
+	 * unclaimed, so it is read again the next time it is drawn.
+	 *
+	 * @param worldCoord - The townblock.
+	 */
+	public static void invalidatePlotSurface(WorldCoord worldCoord) {
+
+		plotSurfaces.remove(worldCoord);
+	}
+
+	/**
+	 * Forgets plot surfaces nobody has asked for in a while.
+	 */
+	public static void expirePlotSurfaces() {
+
+		plotSurfaces.values().removeIf(surface -> surface.isOlderThan(SURFACE_LIFETIME * 2));
+	}
 }
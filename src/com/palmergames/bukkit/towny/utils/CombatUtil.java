@@ -11,6 +11,7 @@ import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.PlayerCache;
+import com.palmergames.bukkit.towny.object.RelationshipCache;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
@@ -399,16 +400,12 @@ public class CombatUtil {
 		try {
 			Resident residentA = townyUniverse.getDataSource().getResident(attackingResident);
 			Resident residentB = townyUniverse.getDataSource().getResident(defendingResident);
-			if (residentA.getTown() == residentB.getTown())
-				return true;
-			if (residentA.getTown().getNation() == residentB.getTown().getNation())
-				return true;
-			if (residentA.getTown().getNation().hasAlly(residentB.getTown().getNation()))
-				return true;
+			if (!residentA.hasTown() || !residentB.hasTown())
+				return false;
+			return RelationshipCache.isAlly(residentA.getTown(), residentB.getTown());
 		} catch (NotRegisteredException e) {
 			return false;
 		}
-		return false;
 	}
 
 	/**
@@ -420,17 +417,7 @@ public class CombatUtil {
 	 */
 	public static boolean isAlly(Town a, Town b) {
 
-		try {
-			if (a == b)
-				return true;
-			if (a.getNation() == b.getNation())
-				return true;
-			if (a.getNation().hasAlly(b.getNation()))
-				return true;
-		} catch (NotRegisteredException e) {
-			return false;
-		}
-		return false;
+		return RelationshipCache.isAlly(a, b);
 	}
 
 	/**
@@ -442,15 +429,7 @@ public class CombatUtil {
 	 */
 	public static boolean isSameNation(Town a, Town b) {
 
-		try {
-			if (a == b)
-				return true;
-			if (a.getNation() == b.getNation())
-				return true;
-		} catch (NotRegisteredException e) {
-			return false;
-		}
-		return false;
+		return RelationshipCache.isSameNation(a, b);
 	}
 
 	/**
@@ -481,20 +460,12 @@ public class CombatUtil {
 		try {
 			Resident residentA = townyUniverse.getDataSource().getResident(a);
 			Resident residentB = townyUniverse.getDataSource().getResident(b);
-			if (residentA.getTown() == residentB.getTown())
-				return false;
-			if (residentA.getTown().getNation() == residentB.getTown().getNation())
-				return false;
-			Nation nationA = residentA.getTown().getNation();
-			Nation nationB = residentB.getTown().getNation();
-			if (nationA.isNeutral() || nationB.isNeutral())
+			if (!residentA.hasTown() || !residentB.hasTown())
 				return false;
-			if (nationA.hasEnemy(nationB))
-				return true;
+			return RelationshipCache.canAttackEnemy(residentA.getTown(), residentB.getTown());
 		} catch (NotRegisteredException e) {
 			return false;
 		}
-		return false;
 	}
 
 	/**
@@ -528,16 +499,12 @@ public class CombatUtil {
 		try {
 			Resident residentA = townyUniverse.getDataSource().getResident(a);
 			Resident residentB = townyUniverse.getDataSource().getResident(b);
-			if (residentA.getTown() == residentB.getTown())
-				return false;
-			if (residentA.getTown().getNation() == residentB.getTown().getNation())
+			if (!residentA.hasTown() || !residentB.hasTown())
 				return false;
-			if (residentA.getTown().getNation().hasEnemy(residentB.getTown().getNation()))
-				return true;
+			return RelationshipCache.isEnemy(residentA.getTown(), residentB.getTown());
 		} catch (NotRegisteredException e) {
 			return false;
 		}
-		return false;
 	}
 
 	/**
@@ -549,17 +516,7 @@ public class CombatUtil {
 	 */
 	public static boolean isEnemy(Town a, Town b) {
 
-		try {
-			if (a == b)
-				return false;
-			if (a.getNation() == b.getNation())
-				return false;
-			if (a.getNation().hasEnemy(b.getNation()))
-				return true;
-		} catch (NotRegisteredException e) {
-			return false;
-		}
-		return false;
+		return RelationshipCache.isEnemy(a, b);
 	}
 
 	/**
@@ -20,6 +20,7 @@ import com.palmergames.bukkit.towny.object.TownyPermission.ActionType;
 import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.permissions.PermissionNodes;
+import com.palmergames.bukkit.towny.profiler.TownyProfiler;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
 import com.palmergames.bukkit.towny.war.eventwar.War;
 
@@ -70,10 +71,12 @@ public class PlayerCacheUtil {
 			cache.updateCoord(worldCoord);
 
 			TownyMessaging.sendDebugMsg("Cache permissions for " + action.toString() + " : " + cache.getCachePermission(material, action));
+			TownyProfiler.countHit("permission cache");
 			return cache.getCachePermission(material, action); // Throws NullPointerException if the cache is empty
 
 		} catch (NullPointerException e) {
 			// New or old cache permission was null, update it
+			TownyProfiler.countMiss("permission cache");
 
 			// Test required for portalCreateEvent in WorldListener, player hasn't changed worlds yet.
 			if (location.getWorld().equals(player.getWorld())) 
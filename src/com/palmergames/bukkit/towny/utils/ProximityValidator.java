@@ -0,0 +1,236 @@
+package com.palmergames.bukkit.towny.utils;
+
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.exceptions.TownyException;
+import com.palmergames.bukkit.towny.object.Coord;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.TownyWorld;
+import com.palmergames.bukkit.towny.object.WorldCoord;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers the proximity questions asked of a whole claim selection at once.
+ * <p>
+ * {@link TownyWorld#getMinDistanceFromOtherTownsPlots(Coord, Town)} walks
+ * every townblock of every town for each coord it is asked about, so a
+ * large rect or circle claim cost the size of the selection times the
+ * claims in the world. This collects the other towns' townblocks and
+ * homeblocks near the selection once, buckets the townblocks by area, and
+ * answers for each selected coord from the buckets around it.
+ * <p>
+ * Distances are only worked out up to the reach given: anything as far as
+ * the reach or further is reported as Integer.MAX_VALUE, which is all the
+ * proximity settings need to know. Coords outside of the selection are
+ * passed on to the TownyWorld methods.
+ */
+public class ProximityValidator {
+
+	private final TownyWorld world;
+	private final Town town;
+	private final int plotReach;
+	private final int homeBlockReach;
+	private final int bucketSize;
+	private final Map<Long, List<Coord>> plots = new HashMap<>();
+	private final List<Coord> homeBlocks = new ArrayList<>();
+	private final Map<Town, Boolean> ignored = new HashMap<>();
+	private int minX = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+
+	/**
+	 * @param world - World the selection is in.
+	 * @param town - Town claiming, whose own townblocks (and those of its nation, if so configured) are ignored, or null.
+	 * @param selection - Coords which will be asked about.
+	 * @param plotReach - Distance from other towns' townblocks which matters.
+	 * @param homeBlockReach - Distance from other towns' homeblocks which matters.
+	 */
+	public ProximityValidator(TownyWorld world, Town town, Collection<? extends Coord> selection, int plotReach, int homeBlockReach) {
+
+		this.world = world;
+		this.town = town;
+		this.plotReach = plotReach;
+		this.homeBlockReach = homeBlockReach;
+		// Anything within reach of a coord is in its own bucket or one of the eight around it.
+		this.bucketSize = Math.max(1, plotReach - 1);
+
+		for (Coord coord : selection) {
+			minX = Math.min(minX, coord.getX());
+			minZ = Math.min(minZ, coord.getZ());
+			maxX = Math.max(maxX, coord.getX());
+			maxZ = Math.max(maxZ, coord.getZ());
+		}
+		if (selection.isEmpty())
+			return;
+
+		if (plotReach > 0)
+			collectPlots();
+		if (homeBlockReach > 0)
+			collectHomeBlocks();
+	}
+
+	/**
+	 * Collects the other towns' townblocks close enough to the selection
+	 * to matter, either by looking up every cell around the selection or by
+	 * walking every claim, whichever is less work.
+	 */
+	private void collectPlots() {
+
+		int reach = plotReach - 1;
+		long area = (long) (maxX - minX + 1 + 2 * reach) * (maxZ - minZ + 1 + 2 * reach);
+		Map<WorldCoord, TownBlock> townBlocks = TownyUniverse.getInstance().getTownBlocks();
+
+		if (area <= townBlocks.size()) {
+			for (int x = minX - reach; x <= maxX + reach; x++)
+				for (int z = minZ - reach; z <= maxZ + reach; z++) {
+					TownBlock townBlock = townBlocks.get(new WorldCoord(world.getId(), x, z));
+					if (townBlock != null)
+						addPlot(townBlock);
+				}
+		} else {
+			for (TownBlock townBlock : townBlocks.values())
+				if (townBlock.getWorld() == world
+					&& townBlock.getX() >= minX - reach && townBlock.getX() <= maxX + reach
+					&& townBlock.getZ() >= minZ - reach && townBlock.getZ() <= maxZ + reach)
+					addPlot(townBlock);
+		}
+	}
+
+	private void addPlot(TownBlock townBlock) {
+
+		Town owner = townBlock.getTownOrNull();
+		if (owner == null || isIgnored(owner))
+			return;
+		long bucket = TownyWorld.getRegionKey(Math.floorDiv(townBlock.getX(), bucketSize), Math.floorDiv(townBlock.getZ(), bucketSize));
+		plots.computeIfAbsent(bucket, k -> new ArrayList<>()).add(townBlock.getCoord());
+	}
+
+	private void collectHomeBlocks() {
+
+		int reach = homeBlockReach - 1;
+		for (Town other : world.getTowns().values()) {
+			try {
+				if (isIgnored(other) || !world.equals(other.getHomeblockWorld()))
+					continue;
+				Coord homeCoord = other.getHomeBlock().getCoord();
+				if (homeCoord.getX() >= minX - reach && homeCoord.getX() <= maxX + reach
+					&& homeCoord.getZ() >= minZ - reach && homeCoord.getZ() <= maxZ + reach)
+					homeBlocks.add(homeCoord);
+			} catch (TownyException ignore) {
+			}
+		}
+	}
+
+	/*
+	 * The same towns TownyWorld skips over: the claiming town and, if
+	 * configured, the towns of its nation.
+	 */
+	private boolean isIgnored(Town other) {
+
+		if (town == null)
+			return false;
+		Boolean cached = ignored.get(other);
+		if (cached != null)
+			return cached;
+
+		boolean result;
+		try {
+			result = town.getUuid().equals(other.getUuid()) || (TownySettings.isMinDistanceIgnoringTownsInSameNation() && town.hasNation() && other.hasNation() && other.getNation().equals(town.getNation()));
+		} catch (TownyException e) {
+			// TownyWorld leaves out towns it cannot test.
+			result = true;
+		}
+		ignored.put(other, result);
+		return result;
+	}
+
+	private boolean covers(Coord coord) {
+
+		return coord.getX() >= minX && coord.getX() <= maxX && coord.getZ() >= minZ && coord.getZ() <= maxZ;
+	}
+
+	/**
+	 * Checks the distance from another town's plots.
+	 *
+	 * @param coord - Coord to check from.
+	 * @return the distance to the closest townblock of another town, or Integer.MAX_VALUE if none is within reach.
+	 */
+	public int getMinDistanceFromOtherTownsPlots(Coord coord) {
+
+		if (plotReach <= 0)
+			return Integer.MAX_VALUE;
+		if (!covers(coord))
+			return world.getMinDistanceFromOtherTownsPlots(coord, town);
+
+		int bucketX = Math.floorDiv(coord.getX(), bucketSize);
+		int bucketZ = Math.floorDiv(coord.getZ(), bucketSize);
+		long min = Long.MAX_VALUE;
+		for (int dx = -1; dx <= 1; dx++)
+			for (int dz = -1; dz <= 1; dz++) {
+				List<Coord> bucket = plots.get(TownyWorld.getRegionKey(bucketX + dx, bucketZ + dz));
+				if (bucket == null)
+					continue;
+				for (Coord plot : bucket) {
+					// TownyWorld does not count a townblock as being near itself.
+					if (plot.getX() == coord.getX() && plot.getZ() == coord.getZ())
+						continue;
+					min = Math.min(min, getDistanceSquared(plot, coord));
+				}
+			}
+		return toDistance(min, plotReach);
+	}
+
+	/**
+	 * Checks the distance from another town's homeblock.
+	 *
+	 * @param coord - Coord to check from.
+	 * @return the distance to the closest homeblock of another town, or Integer.MAX_VALUE if none is within reach.
+	 */
+	public int getMinDistanceFromOtherTowns(Coord coord) {
+
+		if (homeBlockReach <= 0)
+			return Integer.MAX_VALUE;
+		if (!covers(coord))
+			return world.getMinDistanceFromOtherTowns(coord, town);
+
+		long min = Long.MAX_VALUE;
+		for (Coord homeCoord : homeBlocks)
+			min = Math.min(min, getDistanceSquared(homeCoord, coord));
+		return toDistance(min, homeBlockReach);
+	}
+
+	/**
+	 * Returns the coords of a selection which are far enough from other
+	 * towns' townblocks, keeping their order.
+	 *
+	 * @param selection - Coords, all of which were passed to the constructor.
+	 * @return the coords which may be claimed.
+	 */
+	public List<WorldCoord> filterInvalidProximityTownBlocks(List<WorldCoord> selection) {
+
+		List<WorldCoord> out = new ArrayList<>(selection.size());
+		for (WorldCoord worldCoord : selection)
+			if (getMinDistanceFromOtherTownsPlots(worldCoord) >= plotReach)
+				out.add(worldCoord);
+		return out;
+	}
+
+	private static long getDistanceSquared(Coord a, Coord b) {
+
+		long dx = a.getX() - b.getX();
+		long dz = a.getZ() - b.getZ();
+		return dx * dx + dz * dz;
+	}
+
+	private static int toDistance(long squared, int reach) {
+
+		if (squared == Long.MAX_VALUE)
+			return Integer.MAX_VALUE;
+		int distance = (int) Math.ceil(Math.sqrt(squared));
+		return distance < reach ? distance : Integer.MAX_VALUE;
+	}
+}
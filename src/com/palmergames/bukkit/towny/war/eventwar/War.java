@@ -41,19 +41,35 @@ import org.bukkit.inventory.meta.FireworkMeta;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitScheduler;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 //TODO: Extend a new class called TownyEvent
 public class War {
 	
 	// War Data
-	private static Hashtable<WorldCoord, Integer> warZone = new Hashtable<>();
+	private static final Hashtable<WorldCoord, Integer> warZone = new Hashtable<>();
 	private Hashtable<Town, Integer> townScores = new Hashtable<>();
-	public static List<Town> warringTowns = new ArrayList<>();
-	public static List<Nation> warringNations = new ArrayList<>();
+	private static final Set<Town> warringTownSet = new LinkedHashSet<>();
+	private static final Set<Nation> warringNationSet = new LinkedHashSet<>();
+	/**
+	 * @deprecated Read-only, use {@link #getWarringTowns()} or {@link #isWarringTown(Town)}.
+	 */
+	@Deprecated
+	public static final List<Town> warringTowns = new ReadOnlyView<>(warringTownSet);
+	/**
+	 * @deprecated Read-only, use {@link #getWarringNations()} or {@link #isWarringNation(Nation)}.
+	 */
+	@Deprecated
+	public static final List<Nation> warringNations = new ReadOnlyView<>(warringNationSet);
 	private WarSpoils warSpoils = new WarSpoils();
+	private final WarParticipants participants = new WarParticipants(this);
 	
 	private Towny plugin;
 	private boolean warTime = false;
@@ -127,7 +143,20 @@ public class War {
 
 	public List<Town> getWarringTowns()
 	{
-		return warringTowns;
+		return new ArrayList<>(warringTownSet);
+	}
+
+	public List<Nation> getWarringNations()
+	{
+		return new ArrayList<>(warringNationSet);
+	}
+
+	/**
+	 * @return the index of which side each player is on in the war zones.
+	 */
+	public WarParticipants getParticipants() {
+
+		return participants;
 	}
 	
 	public static boolean isWarZone(WorldCoord worldCoord) {
@@ -137,12 +166,12 @@ public class War {
 
 	public boolean isWarringNation(Nation nation) {
 
-		return warringNations.contains(nation);
+		return warringNationSet.contains(nation);
 	}
 
 	public static boolean isWarringTown(Town town) {
 
-		return warringTowns.contains(town);
+		return warringTownSet.contains(town);
 	}
 	
 	public void toggleEnd() {
@@ -199,28 +228,28 @@ public class War {
 		for (Nation nation : com.palmergames.bukkit.towny.TownyUniverse.getInstance().getDataSource().getNations()) {
 			if (!nation.isNeutral()) {
 				add(nation);
-				if (warringNations.contains(nation))
+				if (warringNationSet.contains(nation))
 					TownyMessaging.sendPrefixedNationMessage(nation, Translation.of("msg_war_join_nation", nation.getName()));
 			} else if (!TownySettings.isDeclaringNeutral()) {
 				nation.setNeutral(false);
 				add(nation);
-				if (warringNations.contains(nation))
+				if (warringNationSet.contains(nation))
 					TownyMessaging.sendPrefixedNationMessage(nation, Translation.of("msg_war_join_forced", nation.getName()));
 			}
 		}
 
 		// Cannot have a war with less than 2 nations.
-		if (warringNations.size() < 2) {
+		if (warringNationSet.size() < 2) {
 			TownyMessaging.sendGlobalMessage(Translation.of("msg_war_not_enough_nations"));
-			warringNations.clear();
-			warringTowns.clear();
+			warringNationSet.clear();
+			warringTownSet.clear();
 			return;
 		}
 		
 		// Lets make sure that at least 2 nations consider each other enemies.
 		boolean enemy = false; 
-		for (Nation nation : warringNations) {
-			for (Nation nation2 : warringNations) {
+		for (Nation nation : warringNationSet) {
+			for (Nation nation2 : warringNationSet) {
 				if (nation.hasEnemy(nation2) && nation2.hasEnemy(nation)) {
 					enemy = true;
 					break;
@@ -243,7 +272,7 @@ public class War {
 			TownyMessaging.sendGlobalMessage(Translation.of("msg_war_total_seeding_spoils", warSpoils.getHoldingBalance()));
 			TownyMessaging.sendGlobalMessage(Translation.of("msg_war_activate_war_hud_tip"));
 			
-			EventWarStartEvent event = new EventWarStartEvent(warringTowns, warringNations, warSpoils.getHoldingBalance());
+			EventWarStartEvent event = new EventWarStartEvent(getWarringTowns(), getWarringNations(), warSpoils.getHoldingBalance());
 			Bukkit.getServer().getPluginManager().callEvent(event);
 		} catch (EconomyException e) {
 			TownyMessaging.sendErrorMsg("[War] Could not seed spoils of war.");
@@ -261,10 +290,10 @@ public class War {
 
 	private void outputParticipants() {
 		List<String> warParticipants = new ArrayList<>();
-		for (Nation nation : warringNations) {
+		for (Nation nation : warringNationSet) {
 			int towns = 0;
 			for (Town town : nation.getTowns())
-				if (warringTowns.contains(town))
+				if (warringTownSet.contains(town))
 					towns++;
 			warParticipants.add(Translation.of("msg_war_participants", nation.getName(), towns));			
 		}
@@ -298,8 +327,8 @@ public class War {
 		}.runTask(plugin);
 		
 
-		warringNations.clear();
-		warringTowns.clear();
+		warringNationSet.clear();
+		warringTownSet.clear();
 		warZone.clear();
 		
 		double halfWinnings;
@@ -309,8 +338,8 @@ public class War {
 			// Compute war spoils
 			halfWinnings = getWarSpoils().getHoldingBalance() / 2.0;
 			try {
-				nationWinnings = halfWinnings / warringNations.size(); // Again, might leave residue.
-				for (Nation winningNation : warringNations) {
+				nationWinnings = halfWinnings / warringNationSet.size(); // Again, might leave residue.
+				for (Nation winningNation : warringNationSet) {
 					getWarSpoils().payTo(nationWinnings, winningNation, "War - Nation Winnings");
 					TownyMessaging.sendGlobalMessage(TownySettings.getWarTimeWinningNationSpoilsMsg(winningNation, TownyEconomyHandler.getFormattedBalance(nationWinnings)));
 				}
@@ -324,7 +353,7 @@ public class War {
 				getWarSpoils().payTo(halfWinnings, winningTownScore.key, "War - Town Winnings");
 				TownyMessaging.sendGlobalMessage(TownySettings.getWarTimeWinningTownSpoilsMsg(winningTownScore.key, TownyEconomyHandler.getFormattedBalance(halfWinnings), winningTownScore.value));
 				
-				EventWarEndEvent event = new EventWarEndEvent(warringTowns, winningTownScore.key, halfWinnings, warringNations, nationWinnings);
+				EventWarEndEvent event = new EventWarEndEvent(getWarringTowns(), winningTownScore.key, halfWinnings, getWarringNations(), nationWinnings);
 				Bukkit.getServer().getPluginManager().callEvent(event);
 			} catch (TownyException e) {
 			}
@@ -350,12 +379,12 @@ public class War {
 					add(town);
 			} catch (TownyException ignored) {
 			}
-			if (warringTowns.contains(town))
+			if (warringTownSet.contains(town))
 				numTowns++;
 		}
 		// The nation capital must be one of the valid towns for a nation to go to war.
-		if (numTowns > 0 && warringTowns.contains(nation.getCapital()))
-			warringNations.add(nation);
+		if (numTowns > 0 && warringTownSet.contains(nation.getCapital()))
+			warringNationSet.add(nation);
 	}
 
 	/**
@@ -376,7 +405,7 @@ public class War {
 		if (numTownBlocks > 0) {
 			TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_war_join", town.getName()));
 			townScores.put(town, 0);
-			warringTowns.add(town);
+			warringTownSet.add(town);
 		}			
 	}
 
@@ -418,9 +447,9 @@ public class War {
 		TownBlock deathLoc = TownyAPI.getInstance().getTownBlock(defenderPlayer.getLocation());
 		if (deathLoc == null)
 			pointMessage = TownySettings.getWarTimeScorePlayerKillMsg(attackerPlayer, defenderPlayer, n, attackerTown);
-		else if (warZone.containsKey(deathLoc.getWorldCoord()) && attackerTown.getTownBlocks().contains(deathLoc))
+		else if (warZone.containsKey(deathLoc.getWorldCoord()) && attackerTown.hasTownBlock(deathLoc))
 			pointMessage = TownySettings.getWarTimeScorePlayerKillMsg(attackerPlayer, defenderPlayer, attackerPlayer, n, attackerTown);
-		else if (warZone.containsKey(deathLoc.getWorldCoord()) && defenderTown.getTownBlocks().contains(deathLoc))
+		else if (warZone.containsKey(deathLoc.getWorldCoord()) && defenderTown.hasTownBlock(deathLoc))
 			pointMessage = TownySettings.getWarTimeScorePlayerKillMsg(attackerPlayer, defenderPlayer, defenderPlayer, n, attackerTown);
 		else
 			pointMessage = TownySettings.getWarTimeScorePlayerKillMsg(attackerPlayer, defenderPlayer, n, attackerTown);
@@ -667,10 +696,11 @@ public class War {
 	public void remove(Town attacker, Nation nation) throws NotRegisteredException {
 
 		townScored(attacker, TownySettings.getWarPointsForNation(), nation, 0);
-		warringNations.remove(nation);
+		warringNationSet.remove(nation);
+		participants.invalidate();
 		TownyMessaging.sendGlobalMessage(Translation.of("msg_war_eliminated", nation));
 		for (Town town : nation.getTowns())
-			if (warringTowns.contains(town))
+			if (warringTownSet.contains(town))
 				remove(attacker, town);
 		checkEnd();
 	}
@@ -686,13 +716,14 @@ public class War {
 		Nation losingNation = town.getNation();
 		
 		int towns = 0;
-		for (Town townsToCheck : warringTowns) {
+		for (Town townsToCheck : warringTownSet) {
 			if (townsToCheck.getNation().equals(losingNation))
 				towns++;
 		}
 
 		int fallenTownBlocks = 0;
-		warringTowns.remove(town);
+		warringTownSet.remove(town);
+		participants.invalidate();
 		for (TownBlock townBlock : town.getTownBlocks())
 			if (warZone.containsKey(townBlock.getWorldCoord())){
 				fallenTownBlocks++;
@@ -729,7 +760,8 @@ public class War {
 	 */
 	private void remove(Nation nation) {
 
-		warringNations.remove(nation);
+		warringNationSet.remove(nation);
+		participants.invalidate();
 		sendEliminateMessage(nation.getFormattedName());
 		TownyMessaging.sendTitleMessageToNation(nation, Translation.of("msg_war_nation_removed_from_war_titlemsg"), "");
 		for (Town town : nation.getTowns())
@@ -748,14 +780,15 @@ public class War {
 
 		// If a town is removed, is a capital, and the nation has not been removed, call remove(nation) instead.
 		try {
-			if (town.isCapital() && warringNations.contains(town.getNation())) {
+			if (town.isCapital() && warringNationSet.contains(town.getNation())) {
 				remove(town.getNation());
 				return;
 			}
 		} catch (NotRegisteredException e) {}
 		
 		int fallenTownBlocks = 0;
-		warringTowns.remove(town);
+		warringTownSet.remove(town);
+		participants.invalidate();
 		for (TownBlock townBlock : town.getTownBlocks())
 			if (warZone.containsKey(townBlock.getWorldCoord())){
 				fallenTownBlocks++;
@@ -770,6 +803,7 @@ public class War {
 	 */
 	private void remove(WorldCoord worldCoord) {	
 		warZone.remove(worldCoord);
+		participants.invalidate();
 	}
 	
 	private void sendEliminateMessage(String name) {
@@ -797,9 +831,9 @@ public class War {
 
 	public void checkEnd() {
 
-		if (warringNations.size() <= 1)
+		if (warringNationSet.size() <= 1)
 			toggleEnd();
-		else if (CombatUtil.areAllAllies(warringNations))
+		else if (CombatUtil.areAllAllies(getWarringNations()))
 			toggleEnd();
 	}
 
@@ -816,7 +850,7 @@ public class War {
 
 		int n = 0;
 		for (Town town : nation.getTowns())
-			if (warringTowns.contains(town))
+			if (warringTownSet.contains(town))
 				n++;
 		return n;
 	}
@@ -827,8 +861,8 @@ public class War {
 
 		List<String> output = new ArrayList<>();
 		output.add(ChatTools.formatTitle("War Stats"));
-		output.add(Colors.Green + Translation.of("war_stats_nations") + Colors.LightGreen + warringNations.size());
-		output.add(Colors.Green + Translation.of("war_stats_towns") + Colors.LightGreen + warringTowns.size() + " / " + townScores.size());
+		output.add(Colors.Green + Translation.of("war_stats_nations") + Colors.LightGreen + warringNationSet.size());
+		output.add(Colors.Green + Translation.of("war_stats_towns") + Colors.LightGreen + warringTownSet.size() + " / " + townScores.size());
 		output.add(Colors.Green + Translation.of("war_stats_warzone") + Colors.LightGreen + warZone.size() + " Town blocks");
 		try {
 			output.add(Colors.Green + Translation.of("war_stats_spoils_of_war") + Colors.LightGreen + TownyEconomyHandler.getFormattedBalance(warSpoils.getHoldingBalance()));
@@ -904,4 +938,42 @@ public class War {
 			player.sendMessage(line);
 	}
 	
+
+	/**
+	 * A read-only List over one of the warring sets, kept for plugins
+	 * which still read the old public lists.
+	 */
+	private static class ReadOnlyView<E> extends AbstractList<E> {
+
+		private final Set<E> set;
+
+		ReadOnlyView(Set<E> set) {
+			this.set = set;
+		}
+
+		@Override
+		public E get(int index) {
+			if (index < 0 || index >= set.size())
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + set.size());
+			Iterator<E> iterator = set.iterator();
+			for (int i = 0; i < index; i++)
+				iterator.next();
+			return iterator.next();
+		}
+
+		@Override
+		public int size() {
+			return set.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return set.contains(o);
+		}
+
+		@Override
+		public Iterator<E> iterator() {
+			return Collections.unmodifiableSet(set).iterator();
+		}
+	}
 }
\ No newline at end of file
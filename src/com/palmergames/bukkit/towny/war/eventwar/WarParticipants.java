@@ -0,0 +1,218 @@
+package com.palmergames.bukkit.towny.war.eventwar;
+
+import com.palmergames.bukkit.towny.PlayerLocationIndex;
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
+import com.palmergames.bukkit.towny.object.Nation;
+import com.palmergames.bukkit.towny.object.RelationshipCache;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.WorldCoord;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps track of which side each online player is on in the war zone they
+ * are standing in, and of the attackers and defenders on each contested plot.
+ * <p>
+ * A player's side only depends on their nation and the plot's, so it is
+ * worked out when they change plots rather than on every war tick. Anything
+ * which may change while they stand still (flying, height, jail, whether
+ * the plot is on the edge of its town) is checked by
+ * {@link #getContestedPlots()} for the players on contested plots only.
+ * <p>
+ * The whole index is worked out again when relationships change, a resident
+ * joins or leaves a town, or a town, nation or plot drops out of the war.
+ */
+public class WarParticipants {
+
+	public enum Side {
+		NONE, ATTACKER, DEFENDER
+	}
+
+	/**
+	 * The players on one side or the other of a plot.
+	 */
+	private static class Plot {
+		private final Set<Player> attackers = new LinkedHashSet<>();
+		private final Set<Player> defenders = new LinkedHashSet<>();
+
+		boolean isEmpty() {
+			return attackers.isEmpty() && defenders.isEmpty();
+		}
+	}
+
+	private final War war;
+	private final Map<Player, WorldCoord> locations = new HashMap<>();
+	private final Map<Player, Side> sides = new HashMap<>();
+	private final Map<WorldCoord, Plot> plots = new HashMap<>();
+	private long relationshipVersion = -1;
+	private boolean stale = true;
+
+	public WarParticipants(War war) {
+
+		this.war = war;
+	}
+
+	/**
+	 * Records the plot a player has moved into.
+	 *
+	 * @param player - Player who moved.
+	 * @param worldCoord - Where they are now.
+	 */
+	public synchronized void update(Player player, WorldCoord worldCoord) {
+
+		leave(player);
+		locations.put(player, worldCoord);
+
+		Side side = getSide(player, worldCoord);
+		if (side == Side.NONE)
+			return;
+
+		sides.put(player, side);
+		Plot plot = plots.computeIfAbsent(worldCoord, k -> new Plot());
+		if (side == Side.ATTACKER)
+			plot.attackers.add(player);
+		else
+			plot.defenders.add(player);
+	}
+
+	/**
+	 * Forgets a player, when they go offline.
+	 *
+	 * @param player - Player to forget.
+	 */
+	public synchronized void remove(Player player) {
+
+		leave(player);
+		locations.remove(player);
+	}
+
+	private void leave(Player player) {
+
+		WorldCoord old = locations.get(player);
+		if (old == null || sides.remove(player) == null)
+			return;
+
+		Plot plot = plots.get(old);
+		if (plot == null)
+			return;
+		plot.attackers.remove(player);
+		plot.defenders.remove(player);
+		if (plot.isEmpty())
+			plots.remove(old);
+	}
+
+	/**
+	 * Has every side worked out again on the next war tick, after the
+	 * warring towns, nations or war zones have changed.
+	 */
+	public synchronized void invalidate() {
+
+		stale = true;
+	}
+
+	/**
+	 * @param player - Player to look up.
+	 * @return the side the player is on in the plot they are standing in.
+	 */
+	public synchronized Side getSide(Player player) {
+
+		Side side = sides.get(player);
+		return side == null ? Side.NONE : side;
+	}
+
+	private Side getSide(Player player, WorldCoord worldCoord) {
+
+		if (!War.isWarZone(worldCoord))
+			return Side.NONE;
+		TownBlock townBlock = TownyUniverse.getInstance().getTownBlocks().get(worldCoord);
+		if (townBlock == null)
+			return Side.NONE;
+
+		try {
+			Resident resident = TownyUniverse.getInstance().getDataSource().getResident(player.getName());
+			if (!resident.hasTown() || !War.isWarringTown(resident.getTown()) || !resident.hasNation())
+				return Side.NONE;
+
+			Nation nation = resident.getTown().getNation();
+			if (nation.isNeutral() || !war.isWarringNation(nation))
+				return Side.NONE;
+
+			Nation plotNation = townBlock.getTown().getNation();
+			if (TownySettings.getPlotsHealableInWar() && (nation == plotNation || plotNation.hasAlly(nation)))
+				return Side.DEFENDER;
+			if (nation.hasEnemy(plotNation))
+				return Side.ATTACKER;
+		} catch (NotRegisteredException ignored) {
+		}
+		return Side.NONE;
+	}
+
+	private void rebuild(PlayerLocationIndex playerLocations) {
+
+		locations.clear();
+		sides.clear();
+		plots.clear();
+		for (Map.Entry<WorldCoord, Set<Player>> occupied : playerLocations.getOccupied().entrySet())
+			for (Player player : occupied.getValue())
+				update(player, occupied.getKey());
+
+		relationshipVersion = RelationshipCache.getVersion();
+		stale = false;
+	}
+
+	/**
+	 * Gets the plots with players fighting over them this tick.
+	 *
+	 * @return the contested townblocks, with the players who count towards their health.
+	 */
+	public synchronized Map<TownBlock, WarZoneData> getContestedPlots() {
+
+		if (stale || relationshipVersion != RelationshipCache.getVersion())
+			rebuild(war.getPlugin().getPlayerLocations());
+
+		Map<TownBlock, WarZoneData> contested = new HashMap<>();
+		int minHeight = TownySettings.getMinWarHeight();
+		boolean edgesOnly = TownySettings.getOnlyAttackEdgesInWar();
+		for (Map.Entry<WorldCoord, Plot> entry : plots.entrySet()) {
+			WorldCoord worldCoord = entry.getKey();
+			TownBlock townBlock = TownyUniverse.getInstance().getTownBlocks().get(worldCoord);
+			if (townBlock == null)
+				continue;
+
+			Plot plot = entry.getValue();
+			WarZoneData wzd = new WarZoneData();
+			for (Player player : plot.defenders)
+				if (isFighting(player, minHeight))
+					wzd.addDefender(player);
+
+			if (!plot.attackers.isEmpty() && (!edgesOnly || WarTimerTask.isOnEdgeOfTown(townBlock, worldCoord, war))) {
+				for (Player player : plot.attackers) {
+					if (!isFighting(player, minHeight))
+						continue;
+					try {
+						if (TownyUniverse.getInstance().getDataSource().getResident(player.getName()).isJailed())
+							continue;
+						wzd.addAttacker(player);
+					} catch (NotRegisteredException ignored) {
+					}
+				}
+			}
+
+			if (!wzd.getAllPlayers().isEmpty())
+				contested.put(townBlock, wzd);
+		}
+		return contested;
+	}
+
+	private static boolean isFighting(Player player, int minHeight) {
+
+		return !player.isFlying() && player.getLocation().getBlockY() >= minHeight;
+	}
+}
@@ -3,19 +3,13 @@ package com.palmergames.bukkit.towny.war.eventwar;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyMessaging;
-import com.palmergames.bukkit.towny.TownySettings;
-import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.object.Coord;
-import com.palmergames.bukkit.towny.object.Nation;
-import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.tasks.TownyTimerTask;
-import com.palmergames.bukkit.util.BukkitTools;
-import org.bukkit.entity.Player;
 
-import java.util.Hashtable;
+import java.util.Map;
 
 public class WarTimerTask extends TownyTimerTask {
 
@@ -40,81 +34,11 @@ public class WarTimerTask extends TownyTimerTask {
 			return;
 		}
 
+		// Only plots with players fighting over them are visited.
+		Map<TownBlock, WarZoneData> plotList = warEvent.getParticipants().getContestedPlots();
 		int numPlayers = 0;
-		Hashtable<TownBlock, WarZoneData> plotList = new Hashtable<>();
-		for (Player player : BukkitTools.getOnlinePlayers()) {
-			if (player != null && !player.isFlying()) {
-				numPlayers += 1;
-				TownyMessaging.sendDebugMsg("[War] " + player.getName() + ": ");
-				try {
-					Resident resident = TownyUniverse.getInstance().getDataSource().getResident(player.getName());
-					if (!resident.hasTown() || !warEvent.isWarringTown(resident.getTown()))
-						continue;
-					
-					if (resident.hasNation()) {
-						Nation nation = resident.getTown().getNation();
-						TownyMessaging.sendDebugMsg("[War]   hasNation");
-						if (nation.isNeutral()) {
-							if (warEvent.isWarringNation(nation))
-								warEvent.nationLeave(nation);
-							continue;
-						}
-						TownyMessaging.sendDebugMsg("[War]   notPeaceful");
-						if (!warEvent.isWarringNation(nation))
-							continue;
-						TownyMessaging.sendDebugMsg("[War]   warringNation");
-						//TODO: Cache player coord & townblock
-
-						WorldCoord worldCoord = new WorldCoord(player.getWorld().getName(), Coord.parseCoord(player));
-						if (!warEvent.isWarZone(worldCoord))
-							continue;
-						TownyMessaging.sendDebugMsg("[War]   warZone");
-						if (player.getLocation().getBlockY() < TownySettings.getMinWarHeight())
-							continue;
-						TownyMessaging.sendDebugMsg("[War]   aboveMinHeight");
-						TownBlock townBlock = worldCoord.getTownBlock(); //universe.getWorld(player.getWorld().getName()).getTownBlock(worldCoord);
-						boolean healablePlots = TownySettings.getPlotsHealableInWar();
-						if (healablePlots && (nation == townBlock.getTown().getNation() || townBlock.getTown().getNation().hasAlly(nation))) {
-							if (plotList.containsKey(townBlock))
-								plotList.get(townBlock).addDefender(player);
-							else {
-								WarZoneData wzd = new WarZoneData();
-								wzd.addDefender(player);
-								plotList.put(townBlock, wzd);
-							}
-							TownyMessaging.sendDebugMsg("[War]   healed");
-							continue;
-						}
-						
-						if (!resident.getTown().getNation().hasEnemy(townBlock.getTown().getNation()))
-							continue;
-						TownyMessaging.sendDebugMsg("[War]   notAlly");
-						//Enemy nation
-						
-						if (resident.isJailed())
-							continue;
-
-						boolean edgesOnly = TownySettings.getOnlyAttackEdgesInWar();
-						if (edgesOnly && !isOnEdgeOfTown(townBlock, worldCoord, warEvent))
-							continue;
-						if (edgesOnly)
-							TownyMessaging.sendDebugMsg("[War]   onEdge");
-
-						//warEvent.damage(player, townBlock);
-						if (plotList.containsKey(townBlock))
-							plotList.get(townBlock).addAttacker(player);
-						else {
-							WarZoneData wzd = new WarZoneData();
-							wzd.addAttacker(player);
-							plotList.put(townBlock, wzd);
-						}
-						TownyMessaging.sendDebugMsg("[War]   damaged");
-
-					}
-				} catch (NotRegisteredException ignored) {
-				}
-			}
-		}
+		for (WarZoneData wzd : plotList.values())
+			numPlayers += wzd.getAllPlayers().size();
 
 		//Send health updates
 		for (TownBlock tb : plotList.keySet()) {
@@ -125,7 +49,7 @@ public class WarTimerTask extends TownyTimerTask {
 			}
 		}
 
-		TownyMessaging.sendDebugMsg("[War] # Players: " + numPlayers);
+		TownyMessaging.sendDebugMsg("[War] # Players fighting: " + numPlayers);
 	}	
 
 	@SuppressWarnings("static-access")
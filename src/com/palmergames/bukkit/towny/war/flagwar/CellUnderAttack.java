@@ -8,7 +8,9 @@ import org.bukkit.World;
 import org.bukkit.block.Block;
 
 import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownyTimerHandler;
 import com.palmergames.bukkit.towny.object.Coord;
+import com.palmergames.bukkit.towny.tasks.TimerWheel;
 
 public class CellUnderAttack extends Cell {
 
@@ -18,7 +20,7 @@ public class CellUnderAttack extends Cell {
 	private List<Block> beaconWireframeBlocks;
 	private Block flagBaseBlock, flagBlock, flagLightBlock;
 	private int flagColorId;
-	private int thread;
+	private TimerWheel.Timer colorChangeTimer;
 	private long timeBetweenColorChange;
 
 	public CellUnderAttack(Towny plugin, String nameOfFlagOwner, Block flagBaseBlock) {
@@ -32,7 +34,6 @@ public class CellUnderAttack extends Cell {
 		this.nameOfFlagOwner = nameOfFlagOwner;
 		this.flagBaseBlock = flagBaseBlock;
 		this.flagColorId = 0;
-		this.thread = -1;
 
 		World world = flagBaseBlock.getWorld();
 		this.flagBlock = world.getBlockAt(flagBaseBlock.getX(), flagBaseBlock.getY() + 1, flagBaseBlock.getZ());
@@ -173,13 +174,30 @@ public class CellUnderAttack extends Cell {
 	public void begin() {
 
 		drawFlag();
-		thread = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, new CellAttackThread(this), this.timeBetweenColorChange, this.timeBetweenColorChange);
+		scheduleColorChange(new CellAttackThread(this));
+	}
+
+	/*
+	 * Every flag shares the timer wheel rather than having a repeating task of its own,
+	 * each colour change books the next one.
+	 */
+	private void scheduleColorChange(CellAttackThread attackThread) {
+
+		long delayMillis = timeBetweenColorChange * TimerWheel.TICK_MILLIS;
+		colorChangeTimer = TownyTimerHandler.getTimerWheel().schedule("flag", getCellString(), delayMillis, timer -> {
+			attackThread.run();
+			// Won, defended or cancelled while changing colour.
+			if (colorChangeTimer == timer && !hasEnded())
+				scheduleColorChange(attackThread);
+		});
 	}
 
 	public void cancel() {
 
-		if (thread != -1)
-			plugin.getServer().getScheduler().cancelTask(thread);
+		if (colorChangeTimer != null) {
+			colorChangeTimer.cancel();
+			colorChangeTimer = null;
+		}
 
 		destroyFlag();
 	}
@@ -27,19 +27,25 @@ import org.bukkit.event.Cancellable;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class FlagWar {
 
 	private static Map<Cell, CellUnderAttack> cellsUnderAttack;
-	private static Map<String, List<CellUnderAttack>> cellsUnderAttackByPlayer;
+	private static Map<String, Set<CellUnderAttack>> cellsUnderAttackByPlayer;
+	private static Map<Town, Set<CellUnderAttack>> cellsUnderAttackByTown;
+	private static Map<Cell, Town> attackedTowns;
 	private static Map<Town, Long> lastFlag;
 
 	public static void onEnable() {
 
 		cellsUnderAttack = new HashMap<>();
 		cellsUnderAttackByPlayer = new HashMap<>();
+		cellsUnderAttackByTown = new HashMap<>();
+		attackedTowns = new HashMap<>();
 		lastFlag = new HashMap<>();
 	}
 
@@ -70,6 +76,7 @@ public class FlagWar {
 			throw new Exception(Translation.of("msg_err_enemy_war_reached_max_active_flags", FlagWarConfig.getMaxActiveFlagsPerPerson()));
 
 		addFlagToPlayerCount(playerName, cell);
+		addFlagToTown(cell);
 		cellsUnderAttack.put(cell, cell);
 		cell.begin();
 	}
@@ -82,7 +89,7 @@ public class FlagWar {
 	 */
 	public static int getNumActiveFlags(String playerName) {
 
-		List<CellUnderAttack> activeFlags = cellsUnderAttackByPlayer.get(playerName);
+		Set<CellUnderAttack> activeFlags = cellsUnderAttackByPlayer.get(playerName);
 		return activeFlags == null ? 0 : activeFlags.size();
 	}
 
@@ -102,38 +109,12 @@ public class FlagWar {
 	 * @return the cells under attack
 	 */
 	public static List<CellUnderAttack> getCellsUnderAttack(Town town) {
-		List<CellUnderAttack> cells = new ArrayList<>();
-		for(CellUnderAttack cua : cellsUnderAttack.values()) {
-			try {
-				Town townUnderAttack = TownyAPI.getInstance().getTownBlock(cua.getFlagBaseBlock().getLocation()).getTown();
-				if (townUnderAttack == null) {
-					continue;
-				}
-				if(townUnderAttack == town) {
-					cells.add(cua);
-				}
-			}
-			catch(NotRegisteredException ignored) {
-			}
-		}
-		return cells;
+		Set<CellUnderAttack> cells = cellsUnderAttackByTown.get(town);
+		return cells == null ? new ArrayList<>() : new ArrayList<>(cells);
 	}
 	
 	public static boolean isUnderAttack(Town town) {
-		for(CellUnderAttack cua : cellsUnderAttack.values()) {
-			try {
-				Town townUnderAttack = TownyAPI.getInstance().getTownBlock(cua.getFlagBaseBlock().getLocation()).getTown();
-				if (townUnderAttack == null) {
-					continue;
-				}
-				if(townUnderAttack == town) {
-					return true;
-				}
-			}
-			catch(NotRegisteredException ignored) {
-			}
-		}
-		return false;
+		return cellsUnderAttackByTown.containsKey(town);
 	}
 
 	public static boolean isUnderAttack(Cell cell) {
@@ -149,6 +130,7 @@ public class FlagWar {
 	public static void removeCellUnderAttack(CellUnderAttack cell) {
 
 		removeFlagFromPlayerCount(cell.getNameOfFlagOwner(), cell);
+		removeFlagFromTown(cell);
 		cellsUnderAttack.remove(cell);
 	}
 
@@ -178,7 +160,7 @@ public class FlagWar {
 
 	public static void removeAttackerFlags(String playerName) {
 
-		List<CellUnderAttack> cells = cellsUnderAttackByPlayer.get(playerName);
+		List<CellUnderAttack> cells = getCellsUnderAttackByPlayer(playerName);
 		if (cells != null)
 			for (CellUnderAttack cell : cells)
 				attackCanceled(cell);
@@ -186,7 +168,7 @@ public class FlagWar {
 
 	public static List<CellUnderAttack> getCellsUnderAttackByPlayer(String playerName) {
 
-		List<CellUnderAttack> cells = cellsUnderAttackByPlayer.get(playerName);
+		Set<CellUnderAttack> cells = cellsUnderAttackByPlayer.get(playerName);
 		if (cells == null)
 			return null;
 		else
@@ -195,33 +177,58 @@ public class FlagWar {
 
 	private static void addFlagToPlayerCount(String playerName, CellUnderAttack cell) {
 
-		List<CellUnderAttack> activeFlags = getCellsUnderAttackByPlayer(playerName);
-		if (activeFlags == null)
-			activeFlags = new ArrayList<>();
-
-		activeFlags.add(cell);
-		cellsUnderAttackByPlayer.put(playerName, activeFlags);
+		cellsUnderAttackByPlayer.computeIfAbsent(playerName, k -> new LinkedHashSet<>()).add(cell);
 	}
 
 	private static void removeFlagFromPlayerCount(String playerName, Cell cell) {
 
-		List<CellUnderAttack> activeFlags = cellsUnderAttackByPlayer.get(playerName);
+		Set<CellUnderAttack> activeFlags = cellsUnderAttackByPlayer.get(playerName);
 		if (activeFlags != null) {
-			if (activeFlags.size() <= 1)
+			activeFlags.remove(cell);
+			if (activeFlags.isEmpty())
 				cellsUnderAttackByPlayer.remove(playerName);
-			else {
-				activeFlags.remove(cell);
-				cellsUnderAttackByPlayer.put(playerName, activeFlags);
-			}
+		}
+	}
+
+	/*
+	 * The town is looked up once, when the flag is placed, so finding a town's attacks needs no search.
+	 */
+	private static void addFlagToTown(CellUnderAttack cell) {
+
+		TownBlock townBlock = TownyAPI.getInstance().getTownBlock(cell.getFlagBaseBlock().getLocation());
+		if (townBlock == null)
+			return;
+
+		try {
+			Town town = townBlock.getTown();
+			attackedTowns.put(cell, town);
+			cellsUnderAttackByTown.computeIfAbsent(town, k -> new LinkedHashSet<>()).add(cell);
+		} catch (NotRegisteredException ignored) {
+		}
+	}
+
+	private static void removeFlagFromTown(Cell cell) {
+
+		Town town = attackedTowns.remove(cell);
+		if (town == null)
+			return;
+
+		Set<CellUnderAttack> cells = cellsUnderAttackByTown.get(town);
+		if (cells != null) {
+			cells.remove(cell);
+			if (cells.isEmpty())
+				cellsUnderAttackByTown.remove(town);
 		}
 	}
 
 	public static void checkBlock(Player player, Block block, Cancellable event) {
 
+		if (cellsUnderAttack.isEmpty())
+			return;
+
 		if (FlagWarConfig.isAffectedMaterial(block.getType())) {
-			Cell cell = Cell.parse(block.getLocation());
-			if (cell.isUnderAttack()) {
-				CellUnderAttack cellAttackData = cell.getAttackData();
+			CellUnderAttack cellAttackData = getAttackData(Cell.parse(block.getLocation()));
+			if (cellAttackData != null) {
 				if (cellAttackData.isFlag(block)) {
 					FlagWar.attackDefended(player, cellAttackData);
 					event.setCancelled(true);
@@ -4,6 +4,7 @@ import com.google.common.base.Charsets;
 import com.palmergames.bukkit.towny.Towny;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.profiler.TownyProfiler;
 
 import de.themoep.idconverter.IdMappings;
 import net.citizensnpcs.api.CitizensAPI;
@@ -149,6 +150,11 @@ public class BukkitTools {
 		return getServer().getScheduler();
 	}
 	
+	/*
+	 * Tasks scheduled through these while the TownyProfiler is on are timed by it,
+	 * otherwise they are handed to the scheduler as they are.
+	 */
+
 	/**
 	 * Accepts a Runnable object and a delay (-1 for no delay)
 	 * 
@@ -157,7 +163,7 @@ public class BukkitTools {
 	 * @return -1 if unable to schedule or an index to the task is successful.
 	 */
 	public static int scheduleSyncDelayedTask(Runnable task, long delay) {
-		return getScheduler().scheduleSyncDelayedTask(plugin, task, delay);
+		return getScheduler().scheduleSyncDelayedTask(plugin, TownyProfiler.wrap(task), delay);
 	}
 	
 	/**
@@ -168,7 +174,7 @@ public class BukkitTools {
 	 * @return -1 if unable to schedule or an index to the task is successful.
 	 */
 	public static int scheduleAsyncDelayedTask(Runnable task, long delay) {
-		return getScheduler().runTaskLaterAsynchronously(plugin, task, delay).getTaskId();
+		return getScheduler().runTaskLaterAsynchronously(plugin, TownyProfiler.wrap(task), delay).getTaskId();
 	}
 	
 	/**
@@ -180,7 +186,7 @@ public class BukkitTools {
 	 * @return -1 if unable to schedule or an index to the task is successful.
 	 */
 	public static int scheduleSyncRepeatingTask(Runnable task, long delay, long repeat) {
-		return getScheduler().scheduleSyncRepeatingTask(plugin, task, delay, repeat);
+		return getScheduler().scheduleSyncRepeatingTask(plugin, TownyProfiler.wrap(task), delay, repeat);
 	}
 	
 	/**
@@ -192,7 +198,7 @@ public class BukkitTools {
 	 * @return -1 if unable to schedule or an index to the task is successful.
 	 */
 	public static int scheduleAsyncRepeatingTask(Runnable task, long delay, long repeat) {
-		return getScheduler().runTaskTimerAsynchronously(plugin, task, delay, repeat).getTaskId();
+		return getScheduler().runTaskTimerAsynchronously(plugin, TownyProfiler.wrap(task), delay, repeat).getTaskId();
 	}
 	
 	/**
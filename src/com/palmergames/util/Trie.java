@@ -1,193 +1,206 @@
 package com.palmergames.util;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
 
 /**
- * Dynamic trie structure that can add/remove keys and recursively get matching strings for a key 
- * 
+ * Case-insensitive compressed radix tree of names, used for tab completion.
+ * <p>
+ * Each edge holds a run of lowercased characters rather than a single
+ * character, so a node only exists where names branch or end, and every
+ * node's children are kept sorted by their first character for a binary
+ * search. Looking up a prefix costs its length plus the number of names
+ * returned, which are given in alphabetical order and in their original case.
+ *
  * @author stzups
  */
 public class Trie {
 
 	private static final int MAX_RETURNS = 100;
+	private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
 	/**
-	 * TrieNode implementation that handles any character and keeps track of its own children and character
+	 * A node of the tree, reached by following its edge from the parent.
 	 */
 	public static class TrieNode {
-		List<TrieNode> children = new ArrayList<>();
-		char character;
-		boolean endOfWord = false;
+		String edge;
+		String name;
+		TrieNode[] children = NO_CHILDREN;
 
-		TrieNode(char character) {
-			this.character = character;
+		TrieNode(String edge, String name) {
+			this.edge = edge;
+			this.name = name;
+		}
+
+		/**
+		 * @return the index of the child whose edge starts with c, or -(insertion point) - 1.
+		 */
+		int indexOf(char c) {
+			int low = 0;
+			int high = children.length - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				char midChar = children[mid].edge.charAt(0);
+				if (midChar < c)
+					low = mid + 1;
+				else if (midChar > c)
+					high = mid - 1;
+				else
+					return mid;
+			}
+			return -(low + 1);
+		}
+
+		void insertChild(int insertionPoint, TrieNode child) {
+			TrieNode[] grown = new TrieNode[children.length + 1];
+			System.arraycopy(children, 0, grown, 0, insertionPoint);
+			grown[insertionPoint] = child;
+			System.arraycopy(children, insertionPoint, grown, insertionPoint + 1, children.length - insertionPoint);
+			children = grown;
+		}
+
+		void removeChild(int index) {
+			TrieNode[] shrunk = new TrieNode[children.length - 1];
+			System.arraycopy(children, 0, shrunk, 0, index);
+			System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+			children = shrunk.length == 0 ? NO_CHILDREN : shrunk;
 		}
 	}
 
 	private final TrieNode root;
 
 	/**
-	 * Constructor that creates a new trie with a null root
+	 * Constructor that creates a new, empty trie
 	 */
 	public Trie() {
-		root = new TrieNode(Character.MIN_VALUE);
+		root = new TrieNode("", null);
 	}
 
 	/**
-	 * Adds and links new TrieNodes to the trie for each character in the string
-	 * 
-	 * @param key key to add to trie, can be longer than one character
+	 * Adds a name to the trie, replacing any name differing only in case.
+	 *
+	 * @param key name to add to trie
 	 */
-	public void addKey(String key) {
-		// Current trieNode to crawl through
-		TrieNode trieNode = root;
-
-		// Loop through each character of key
-		for (int i = 0; i < key.length(); i++) {
-			char index = key.charAt(i);
-
-			TrieNode lastNode = trieNode;
-			trieNode = null;
-			for (TrieNode node : lastNode.children) {
-				if (node.character == index) {
-					trieNode = node;
-					break;
-				}
+	public synchronized void addKey(String key) {
+		String lower = key.toLowerCase();
+		TrieNode node = root;
+		int i = 0;
+
+		while (i < lower.length()) {
+			int index = node.indexOf(lower.charAt(i));
+			if (index < 0) {
+				node.insertChild(-index - 1, new TrieNode(lower.substring(i), key));
+				return;
 			}
 
-			if (trieNode == null) {
-				trieNode = new TrieNode(index);
-				lastNode.children.add(trieNode); // Put this node as one of lastNode's children
-
-				if (i == key.length() - 1) { // Check if this is the last character of the key, indicating a word ending
-					trieNode.endOfWord = true;
-				}
+			TrieNode child = node.children[index];
+			int common = commonPrefix(child.edge, lower, i);
+			if (common < child.edge.length()) {
+				// The key leaves this edge part way along, split it where they part.
+				TrieNode split = new TrieNode(child.edge.substring(0, common), null);
+				child.edge = child.edge.substring(common);
+				split.children = new TrieNode[] { child };
+				node.children[index] = split;
+				child = split;
 			}
+			node = child;
+			i += common;
 		}
+		node.name = key;
 	}
 
 	/**
-	 * Removes TrieNodes for a key
-	 * 
-	 * @param key key to remove
+	 * Removes a name, in any case, from the trie
+	 *
+	 * @param key name to remove
 	 */
-	public void removeKey(String key) {
-		// Current trieNode to crawl through
-		TrieNode trieNode = root;
-		Queue<TrieNode> found = Collections.asLifoQueue(new LinkedList<>());
-
-		// Loop through each character of key
-		for (int i = 0; i < key.length(); i++) {
-			char index = key.charAt(i);
-			TrieNode lastNode = trieNode;
-			TrieNode node = null;
-			for (TrieNode nodeLoop : lastNode.children) {
-				if (nodeLoop.character == index) {
-					node = nodeLoop;
-				}
-			}
-
-			if (node != null) {
-				trieNode = node;
-				found.add(trieNode);
-				if (i == key.length()-1) { // Check if this is the last character of the key, indicating a word ending
-					foundLoop:
-					for (TrieNode trieNode1 : found) {
-						Iterator<TrieNode> iterator = trieNode1.children.iterator();
-						while (iterator.hasNext()) {
-							TrieNode child = iterator.next();
-							if (found.contains(child) && child.children.size() < 2) { // Only remove if in found and there are one or no children
-								iterator.remove();
-							} else {
-								break foundLoop;
-							}
-						}
-					}
-				}
-			} else {
-				break; // This shouldn't happen
-			}
-		}
+	public synchronized void removeKey(String key) {
+		remove(root, key.toLowerCase(), 0);
 	}
 
 	/**
-	 * Gets all matching strings and their children for a key
-	 * 
-	 * @param key string to search for in tree
-	 * @return matching strings and their children
+	 * @return true if the child this was called on is now empty and should be dropped by its parent.
 	 */
-	public List<String> getStringsFromKey(String key) {
-		// Empty key means find all nodes, starting from the root node
-		if (key.length() == 0) {
-			return getChildrenStrings(root, new ArrayList<>());
+	private static boolean remove(TrieNode node, String key, int i) {
+		if (i == key.length()) {
+			node.name = null;
+		} else {
+			int index = node.indexOf(key.charAt(i));
+			if (index < 0)
+				return false;
+
+			TrieNode child = node.children[index];
+			if (!key.startsWith(child.edge, i))
+				return false;
+
+			if (remove(child, key, i + child.edge.length()))
+				node.removeChild(index);
+			else if (child.name == null && child.children.length == 1)
+				// Nothing ends here any more, fold the only child into this edge.
+				node.children[index] = merge(child);
 		}
+		return node.name == null && node.children.length == 0;
+	}
 
-		List<String> strings = new ArrayList<>();
-
-		Map<TrieNode, String> nodes = new HashMap<>(); // Contains a key for each TrieNode
-		nodes.put(root, ""); // Start with the root node
-
-		for (int i = 0; i < key.length(); i++) {
-			Map<TrieNode, String> newNodes = new HashMap<>(); // An updated version of nodes, will not contain the old values
-			char index = Character.toLowerCase(key.charAt(i));
-
-			for (Map.Entry<TrieNode, String> entry : nodes.entrySet()) { // Loop through the old nodes
-
-				for (TrieNode node : entry.getKey().children) {
-
-					if (Character.toLowerCase(node.character) == index) {
-						String realKey = entry.getValue()+node.character;
-						newNodes.put(node, realKey); // entry.getValue is the old key for the node, for example "bana" as entry.getValue() and "n" as listNode.character resulting in "banan" for listNode
-
-						if (i == key.length() - 1) { // Check if this is the last character of the key, indicating a word ending. From here we need to find all the possible children
-
-							for (String string : getChildrenStrings(node, new ArrayList<>())) { // Recursively find all children
-								strings.add(realKey + string); // Add the key to the front of each child string
-							}
-						}
-					}
-				}
-			}
-			nodes = newNodes;
-		}
+	private static TrieNode merge(TrieNode node) {
+		TrieNode child = node.children[0];
+		child.edge = node.edge + child.edge;
+		return child;
+	}
 
-		return strings;
+	private static int commonPrefix(String edge, String key, int offset) {
+		int max = Math.min(edge.length(), key.length() - offset);
+		int i = 0;
+		while (i < max && edge.charAt(i) == key.charAt(offset + i))
+			i++;
+		return i;
 	}
 
 	/**
-	 * Recursively find all children of a TrieNode, and add to a list of strings
-	 * 
-	 * @param find the current TrieNode to search through its own children
-	 * @param found strings that have already been found
-	 * @return strings of all children found, with this TrieNode's character in front of each string
+	 * Gets up to 100 names starting with a key, ignoring case
+	 *
+	 * @param key string to search for in tree
+	 * @return matching names in alphabetical order
 	 */
-	private static List<String> getChildrenStrings(TrieNode find, List<String> found) {
-
-		for (TrieNode trieNode : find.children) { // Loop through each child
-
-			if (found.size() + 1 > MAX_RETURNS) {
-				return found;
+	public synchronized List<String> getStringsFromKey(String key) {
+		String lower = key.toLowerCase();
+		List<String> strings = new ArrayList<>();
+		TrieNode node = root;
+		int i = 0;
+
+		while (i < lower.length()) {
+			int index = node.indexOf(lower.charAt(i));
+			if (index < 0)
+				return strings;
+
+			TrieNode child = node.children[index];
+			int remaining = lower.length() - i;
+			if (remaining <= child.edge.length()) {
+				// The key ends on this edge, everything below it matches.
+				if (child.edge.regionMatches(0, lower, i, remaining))
+					collect(child, strings);
+				return strings;
 			}
+			if (!lower.startsWith(child.edge, i))
+				return strings;
 
-			if (!trieNode.endOfWord) { // Not the end of the word, so loop through all children
-				for (String string : getChildrenStrings(trieNode, new ArrayList<>())) {
-					if (found.size() + 1 > MAX_RETURNS) {
-						return found;
-					} else {
-						found.add(trieNode.character + string);
-					}
-				}
-			} else { // End of word, so just add this TrieNode's character
-				found.add(String.valueOf(trieNode.character));
-			}
+			node = child;
+			i += child.edge.length();
 		}
 
-		return found;
+		collect(node, strings);
+		return strings;
+	}
+
+	private static void collect(TrieNode node, List<String> found) {
+		if (found.size() >= MAX_RETURNS)
+			return;
+		if (node.name != null)
+			found.add(node.name);
+		for (TrieNode child : node.children) {
+			if (found.size() >= MAX_RETURNS)
+				return;
+			collect(child, found);
+		}
 	}
 }
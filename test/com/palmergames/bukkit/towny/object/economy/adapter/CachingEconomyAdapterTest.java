@@ -0,0 +1,292 @@
+package com.palmergames.bukkit.towny.object.economy.adapter;
+
+import org.bukkit.World;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CachingEconomyAdapterTest {
+
+	private static final double DELTA = 0.0001;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private MemoryEconomy economy;
+	private CachingEconomyAdapter adapter;
+
+	/**
+	 * Keeps balances per account and world, the way a per-world economy does,
+	 * and can be told to reject transactions or hold them up.
+	 */
+	private static class MemoryEconomy implements EconomyAdapter {
+		private final Map<String, Double> balances = new HashMap<>();
+		private final AtomicInteger balanceReads = new AtomicInteger();
+		private volatile boolean rejectSubtract = false;
+		private volatile CountDownLatch holdAdds = null;
+
+		private static String key(String accountName, World world) {
+			return accountName + "@" + (world == null ? "" : world.getName());
+		}
+
+		synchronized double get(String accountName, World world) {
+			return balances.getOrDefault(key(accountName, world), 0.0);
+		}
+
+		synchronized void put(String accountName, World world, double amount) {
+			balances.put(key(accountName, world), amount);
+		}
+
+		@Override
+		public boolean add(String accountName, double amount, World world) {
+			CountDownLatch hold = holdAdds;
+			if (hold != null) {
+				try {
+					hold.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			synchronized (this) {
+				put(accountName, world, get(accountName, world) + amount);
+			}
+			return true;
+		}
+
+		@Override
+		public synchronized boolean subtract(String accountName, double amount, World world) {
+			if (rejectSubtract || get(accountName, world) < amount)
+				return false;
+			put(accountName, world, get(accountName, world) - amount);
+			return true;
+		}
+
+		@Override
+		public synchronized boolean hasAccount(String accountName) {
+			return balances.keySet().stream().anyMatch(key -> key.startsWith(accountName + "@"));
+		}
+
+		@Override
+		public double getBalance(String accountName, World world) {
+			balanceReads.incrementAndGet();
+			return get(accountName, world);
+		}
+
+		@Override
+		public void newAccount(String accountName) {
+		}
+
+		@Override
+		public synchronized void deleteAccount(String accountName) {
+			balances.keySet().removeIf(key -> key.startsWith(accountName + "@"));
+		}
+
+		@Override
+		public synchronized boolean setBalance(String accountName, double amount, World world) {
+			put(accountName, world, amount);
+			return true;
+		}
+
+		@Override
+		public String getFormattedBalance(double balance) {
+			return String.valueOf(balance);
+		}
+	}
+
+	private static World world(String name) {
+		return (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[] { World.class }, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "getName":
+					return name;
+				case "hashCode":
+					return name.hashCode();
+				case "equals":
+					return proxy == args[0];
+				case "toString":
+					return name;
+				default:
+					throw new UnsupportedOperationException(method.getName());
+			}
+		});
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		economy = new MemoryEconomy();
+		File journal = folder.newFile("economy_journal.txt");
+		adapter = new CachingEconomyAdapter(economy, journal, TimeUnit.HOURS.toMillis(1), name -> null);
+	}
+
+	@After
+	public void tearDown() {
+		CountDownLatch hold = economy.holdAdds;
+		if (hold != null)
+			hold.countDown();
+		adapter.shutdown();
+	}
+
+	@Test
+	public void balanceIsReadOnceThenServedFromCache() {
+		economy.put("town-a", null, 100);
+
+		assertEquals(100, adapter.getBalance("town-a", null), DELTA);
+		assertEquals(100, adapter.getBalance("town-a", null), DELTA);
+		assertEquals(1, economy.balanceReads.get());
+	}
+
+	@Test
+	public void transactionsUpdateCacheAndAreWrittenThrough() {
+		economy.put("town-a", null, 100);
+
+		assertTrue(adapter.add("town-a", 50, null));
+		assertTrue(adapter.subtract("town-a", 30, null));
+		assertEquals(120, adapter.getBalance("town-a", null), DELTA);
+
+		adapter.awaitQueued();
+		assertEquals(120, economy.get("town-a", null), DELTA);
+		assertEquals(0, adapter.getQueuedTransactions());
+
+		assertTrue(adapter.setBalance("town-a", 10, null));
+		adapter.awaitQueued();
+		assertEquals(10, economy.get("town-a", null), DELTA);
+	}
+
+	@Test
+	public void balancesAreKeptPerWorld() {
+		World overworld = world("world");
+		World nether = world("world_nether");
+		economy.put("town-a", overworld, 100);
+		economy.put("town-a", nether, 5);
+
+		assertEquals(100, adapter.getBalance("town-a", overworld), DELTA);
+		assertEquals(5, adapter.getBalance("town-a", nether), DELTA);
+
+		assertTrue(adapter.subtract("town-a", 60, overworld));
+		assertFalse(adapter.subtract("town-a", 60, nether));
+		adapter.awaitQueued();
+
+		assertEquals(40, economy.get("town-a", overworld), DELTA);
+		assertEquals(5, economy.get("town-a", nether), DELTA);
+	}
+
+	@Test
+	public void uncoveredWithdrawalChecksTheEconomyWhenIdle() {
+		adapter.getBalance("town-a", null);
+		// Paid in by another plugin after the balance was cached.
+		economy.put("town-a", null, 100);
+
+		assertTrue(adapter.subtract("town-a", 80, null));
+		adapter.awaitQueued();
+		assertEquals(20, economy.get("town-a", null), DELTA);
+
+		assertFalse(adapter.subtract("town-a", 80, null));
+		assertEquals(20, adapter.getBalance("town-a", null), DELTA);
+	}
+
+	@Test(timeout = 5000)
+	public void uncoveredWithdrawalDoesNotWaitForTheQueue() {
+		economy.put("town-a", null, 10);
+		economy.holdAdds = new CountDownLatch(1);
+
+		assertTrue(adapter.add("town-a", 5, null));
+		// The add is stuck in the economy plugin, the withdrawal must still be answered.
+		assertFalse(adapter.subtract("town-a", 100, null));
+		assertEquals(15, adapter.getBalance("town-a", null), DELTA);
+
+		economy.holdAdds.countDown();
+		adapter.awaitQueued();
+		assertEquals(15, economy.get("town-a", null), DELTA);
+	}
+
+	@Test
+	public void rejectedWithdrawalIsRolledBack() {
+		economy.put("town-a", null, 100);
+		adapter.getBalance("town-a", null);
+		economy.rejectSubtract = true;
+
+		// Covered by the cached balance, so it is accepted and queued.
+		assertTrue(adapter.subtract("town-a", 40, null));
+		adapter.awaitQueued();
+
+		assertEquals(100, adapter.getBalance("town-a", null), DELTA);
+		assertEquals(100, economy.get("town-a", null), DELTA);
+	}
+
+	@Test(timeout = 5000)
+	public void deleteDoesNotWaitForTheQueue() {
+		economy.put("town-a", null, 100);
+		economy.holdAdds = new CountDownLatch(1);
+
+		assertTrue(adapter.add("town-a", 5, null));
+		adapter.deleteAccount("town-a");
+		// Still queued behind the add, the account reads as empty meanwhile.
+		assertFalse(adapter.hasAccount("town-a"));
+		assertEquals(0, adapter.getBalance("town-a", null), DELTA);
+
+		economy.holdAdds.countDown();
+		adapter.awaitQueued();
+		assertFalse(economy.hasAccount("town-a"));
+	}
+
+	private double recover(double balance, String journalLine) throws Exception {
+		economy.put("town-r", null, balance);
+		File journal = folder.newFile("recover_journal.txt");
+		EconomyJournalTest.write(journal, journalLine);
+
+		CachingEconomyAdapter recovering = new CachingEconomyAdapter(economy, journal, TimeUnit.HOURS.toMillis(1), name -> null);
+		recovering.shutdown();
+		assertEquals(0, journal.length());
+		return economy.get("town-r", null);
+	}
+
+	@Test
+	public void unfinishedTransactionIsReplayedOnStart() throws Exception {
+		assertEquals(150, recover(100, "1|P|ADD|town-r|50.0||100.0|150.0"), DELTA);
+	}
+
+	@Test
+	public void appliedTransactionIsNotReplayed() throws Exception {
+		assertEquals(150, recover(150, "1|P|ADD|town-r|50.0||100.0|150.0"), DELTA);
+	}
+
+	@Test
+	public void finishedTransactionIsNotReplayed() throws Exception {
+		assertEquals(100, recover(100, "1|P|ADD|town-r|50.0||100.0|150.0" + System.lineSeparator() + "1|C"), DELTA);
+	}
+
+	@Test
+	public void unknownBalanceIsLeftAlone() throws Exception {
+		assertEquals(120, recover(120, "1|P|ADD|town-r|50.0||100.0|150.0"), DELTA);
+	}
+
+	@Test
+	public void rejectedReplayIsNotRetried() throws Exception {
+		economy.rejectSubtract = true;
+		assertEquals(100, recover(100, "1|P|SUBTRACT|town-r|40.0||100.0|60.0"), DELTA);
+	}
+
+	@Test
+	public void deletedAccountIsForgotten() {
+		economy.put("town-a", null, 100);
+		adapter.getBalance("town-a", null);
+		assertTrue(adapter.hasAccount("town-a"));
+
+		adapter.deleteAccount("town-a");
+		assertFalse(adapter.hasAccount("town-a"));
+		assertEquals(0, adapter.getBalance("town-a", null), DELTA);
+	}
+}
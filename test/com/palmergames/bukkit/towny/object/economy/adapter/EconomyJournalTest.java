@@ -0,0 +1,103 @@
+package com.palmergames.bukkit.towny.object.economy.adapter;
+
+import com.palmergames.bukkit.towny.object.economy.adapter.EconomyJournal.Entry;
+import com.palmergames.bukkit.towny.object.economy.adapter.EconomyJournal.Operation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EconomyJournalTest {
+
+	private static final double DELTA = 0.0001;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	static void write(File file, String... lines) throws IOException {
+		try (FileWriter writer = new FileWriter(file)) {
+			for (String line : lines)
+				writer.write(line + System.lineSeparator());
+		}
+	}
+
+	@Test
+	public void onlyUnfinishedEntriesAreReadBack() throws Exception {
+		File file = folder.newFile("economy_journal.txt");
+		EconomyJournal journal = new EconomyJournal(file);
+		Entry committed = journal.pending(Operation.ADD, "town-a", 50, null, 100, 150);
+		Entry failed = journal.pending(Operation.SUBTRACT, "town-b", 20, "world", 10, -10);
+		journal.pending(Operation.SET, "town-c", 5, "world_nether", 1, 5);
+		journal.committed(committed);
+		journal.failed(failed);
+		journal.close();
+
+		EconomyJournal reopened = new EconomyJournal(file);
+		List<Entry> unfinished = reopened.readUnfinished();
+		assertEquals(1, unfinished.size());
+
+		Entry entry = unfinished.get(0);
+		assertEquals(3, entry.id);
+		assertEquals(Operation.SET, entry.operation);
+		assertEquals("town-c", entry.account);
+		assertEquals(5, entry.amount, DELTA);
+		assertEquals("world_nether", entry.world);
+		assertEquals(1, entry.before, DELTA);
+		assertEquals(5, entry.after, DELTA);
+
+		// New entries carry on after the ids already used.
+		assertEquals(4, reopened.pending(Operation.ADD, "town-a", 1, null, 0, 1).id);
+		reopened.close();
+	}
+
+	@Test
+	public void bufferedEntriesAreWrittenOnFlush() throws Exception {
+		File file = folder.newFile("economy_journal.txt");
+		EconomyJournal journal = new EconomyJournal(file);
+		journal.pending(Operation.ADD, "town-a", 50, null, 100, 150);
+		journal.flush();
+
+		List<Entry> unfinished = new EconomyJournal(file).readUnfinished();
+		assertEquals(1, unfinished.size());
+		assertNull(unfinished.get(0).world);
+		journal.close();
+	}
+
+	@Test
+	public void failedEntriesAreWrittenStraightAway() throws Exception {
+		File file = folder.newFile("economy_journal.txt");
+		EconomyJournal journal = new EconomyJournal(file);
+		journal.failed(journal.pending(Operation.SUBTRACT, "town-a", 50, null, 10, -40));
+
+		assertTrue(new EconomyJournal(file).readUnfinished().isEmpty());
+		journal.close();
+	}
+
+	@Test
+	public void tornLinesAreSkipped() throws Exception {
+		File file = folder.newFile("economy_journal.txt");
+		write(file,
+			"1|P|ADD|town-a|50.0||100.0|150.0",
+			"2|P|SUBTRACT|town-b|not a number||10.0|5.0",
+			"3|P|ADD|town-c");
+
+		List<Entry> unfinished = new EconomyJournal(file).readUnfinished();
+		assertEquals(1, unfinished.size());
+		assertEquals("town-a", unfinished.get(0).account);
+	}
+
+	@Test
+	public void missingJournalHasNothingUnfinished() throws Exception {
+		File file = new File(folder.newFile("placeholder").getParentFile(), "missing.txt");
+
+		assertTrue(new EconomyJournal(file).readUnfinished().isEmpty());
+	}
+}